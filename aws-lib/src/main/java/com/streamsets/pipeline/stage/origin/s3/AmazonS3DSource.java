@@ -28,7 +28,7 @@ import com.streamsets.pipeline.api.service.dataformats.DataFormatParserService;
 import com.streamsets.pipeline.lib.event.NoMoreDataEvent;
 
 @StageDef(
-    version = 11,
+    version = 13,
     label = "Amazon S3",
     description = "Reads files from Amazon S3",
     icon="s3.png",
@@ -21,6 +21,7 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.BatchContext;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.ErrorCode;
@@ -48,7 +49,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 public class AmazonS3Runnable implements Runnable {
@@ -62,6 +66,7 @@ public class AmazonS3Runnable implements Runnable {
   private AmazonS3Source amazonS3Source;
 
   private AmazonS3 s3Client;
+  private ExecutorService prefetchExecutor;
 
   private DataParser parser;
   private S3Object object;
@@ -97,6 +102,15 @@ public class AmazonS3Runnable implements Runnable {
     Thread.currentThread().setName(S3Constants.AMAZON_S3_THREAD_PREFIX + runnerId);
     try {
       s3Client = s3ConfigBean.s3Config.getS3Client();
+      if (s3ConfigBean.prefetchRanges && !context.isPreview()) {
+        prefetchExecutor = Executors.newFixedThreadPool(
+            s3ConfigBean.prefetchRangeCount,
+            new ThreadFactoryBuilder()
+                .setNameFormat(S3Constants.AMAZON_S3_THREAD_PREFIX + runnerId + " Prefetch - %d")
+                .setDaemon(true)
+                .build()
+        );
+      }
       initGaugeIfNeeded();
       S3Offset offset;
       while (!context.isStopped()) {
@@ -125,6 +139,9 @@ public class AmazonS3Runnable implements Runnable {
     } finally {
       Thread.currentThread().setName(oldThreadName);
       IOUtils.closeQuietly(parser);
+      if (prefetchExecutor != null) {
+        prefetchExecutor.shutdownNow();
+      }
     }
   }
 
@@ -171,6 +188,7 @@ public class AmazonS3Runnable implements Runnable {
           } else {
             //Get S3 object instead of stream because we want to call close on the object when we close the
             // parser (and stream)
+            InputStream content;
             if (context.isPreview()) {
               long fetchSize = s3Object.getSize() > S3Constants.DEFAULT_FETCH_SIZE
                                ? S3Constants.DEFAULT_FETCH_SIZE
@@ -180,6 +198,7 @@ public class AmazonS3Runnable implements Runnable {
                     s3ConfigBean.s3Config.bucket,
                     s3Object.getKey(),
                     fetchSize,
+                    s3Object.getETag(),
                     s3ConfigBean.sseConfig.useCustomerSSEKey,
                     s3ConfigBean.sseConfig.customerKey,
                     s3ConfigBean.sseConfig.customerKeyMd5
@@ -194,16 +213,11 @@ public class AmazonS3Runnable implements Runnable {
                     s3ConfigBean.sseConfig.customerKeyMd5
                 );
               }
+              content = object.getObjectContent();
             } else {
-              object = AmazonS3Util.getObject(s3Client,
-                  s3ConfigBean.s3Config.bucket,
-                  s3Object.getKey(),
-                  s3ConfigBean.sseConfig.useCustomerSSEKey,
-                  s3ConfigBean.sseConfig.customerKey,
-                  s3ConfigBean.sseConfig.customerKeyMd5
-              );
+              content = getObjectContent(s3Object);
             }
-            parser = dataParser.getParser(recordId, object.getObjectContent(), offset.getOffset());
+            parser = dataParser.getParser(recordId, content, offset.getOffset());
           }
           sendLineageEvent(s3Object);
           //we don't use S3 GetObject range capabilities to skip the already process offset because the parsers cannot
@@ -309,6 +323,47 @@ public class AmazonS3Runnable implements Runnable {
     return offset;
   }
 
+  /**
+   * Gets the object and returns its content, fetching its ranges ahead of the parser if prefetching is enabled and
+   * the object is larger than a range.
+   */
+  private InputStream getObjectContent(S3ObjectSummary s3Object) throws StageException {
+    int rangeSize = s3ConfigBean.prefetchRangeSize * 1024 * 1024;
+    if (prefetchExecutor == null || s3Object.getSize() <= rangeSize) {
+      object = AmazonS3Util.getObject(s3Client,
+          s3ConfigBean.s3Config.bucket,
+          s3Object.getKey(),
+          s3ConfigBean.sseConfig.useCustomerSSEKey,
+          s3ConfigBean.sseConfig.customerKey,
+          s3ConfigBean.sseConfig.customerKeyMd5
+      );
+      return object.getObjectContent();
+    }
+    object = AmazonS3Util.getObjectRange(s3Client,
+        s3ConfigBean.s3Config.bucket,
+        s3Object.getKey(),
+        0,
+        rangeSize - 1,
+        s3Object.getETag(),
+        s3ConfigBean.sseConfig.useCustomerSSEKey,
+        s3ConfigBean.sseConfig.customerKey,
+        s3ConfigBean.sseConfig.customerKeyMd5
+    );
+    InputStream content = new S3PrefetchInputStream(object,
+        s3Client,
+        s3Object,
+        s3ConfigBean.sseConfig.useCustomerSSEKey,
+        s3ConfigBean.sseConfig.customerKey,
+        s3ConfigBean.sseConfig.customerKeyMd5,
+        prefetchExecutor,
+        s3ConfigBean.prefetchRangeCount,
+        rangeSize
+    );
+    // the record headers describe the whole object, not its first range
+    object.getObjectMetadata().setContentLength(s3Object.getSize());
+    return content;
+  }
+
   //For whole file we do not care whether it is a preview or not,
   //as the record is just the metadata along with file ref.
   private void handleWholeFileDataFormat(S3ObjectSummary s3ObjectSummary, String recordId) throws StageException {
@@ -319,6 +374,7 @@ public class AmazonS3Runnable implements Runnable {
         s3ConfigBean.s3Config.bucket,
         s3ObjectSummary.getKey(),
         1,
+        s3ObjectSummary.getETag(),
         s3ConfigBean.sseConfig.useCustomerSSEKey,
         s3ConfigBean.sseConfig.customerKey,
         s3ConfigBean.sseConfig.customerKeyMd5
@@ -332,7 +388,10 @@ public class AmazonS3Runnable implements Runnable {
                                                                 .bufferSize((int) dataParser.suggestedWholeFileBufferSize())
                                                                 .createMetrics(true)
                                                                 .totalSizeInBytes(s3ObjectSummary.getSize())
-                                                                .rateLimit(dataParser.wholeFileRateLimit());
+                                                                .rateLimit(dataParser.wholeFileRateLimit())
+                                                                .prefetchExecutor(prefetchExecutor)
+                                                                .prefetchRangeCount(s3ConfigBean.prefetchRangeCount)
+                                                                .prefetchRangeSize(s3ConfigBean.prefetchRangeSize * 1024 * 1024);
 
     if (dataParser.isWholeFileChecksumRequired()) {
       s3FileRefBuilder.verifyChecksum(true).checksumAlgorithm(HashingUtil.HashType.MD5)
@@ -60,6 +60,12 @@ public class AmazonS3SourceUpgrader implements StageUpgrader {
         // fall through
       case 10:
         upgradeV10ToV11(configs);
+        // fall through
+      case 11:
+        upgradeV11ToV12(configs);
+        // fall through
+      case 12:
+        upgradeV12ToV13(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", context.getFromVersion()));
@@ -191,4 +197,15 @@ public class AmazonS3SourceUpgrader implements StageUpgrader {
   private static void upgradeV10ToV11(List<Config> configs) {
     configs.add(new Config(S3ConfigBean.S3_CONFIG_BEAN_PREFIX + "numberOfThreads", 1));
   }
+
+  private static void upgradeV11ToV12(List<Config> configs) {
+    configs.add(new Config(S3ConfigBean.S3_FILE_CONFIG_PREFIX + "useListingIndex", false));
+    configs.add(new Config(S3ConfigBean.S3_FILE_CONFIG_PREFIX + "fullListingInterval", 60));
+  }
+
+  private static void upgradeV12ToV13(List<Config> configs) {
+    configs.add(new Config(S3ConfigBean.S3_CONFIG_BEAN_PREFIX + "prefetchRanges", false));
+    configs.add(new Config(S3ConfigBean.S3_CONFIG_BEAN_PREFIX + "prefetchRangeCount", 4));
+    configs.add(new Config(S3ConfigBean.S3_CONFIG_BEAN_PREFIX + "prefetchRangeSize", 8));
+  }
 }
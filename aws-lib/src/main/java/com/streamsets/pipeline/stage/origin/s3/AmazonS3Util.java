@@ -177,7 +177,7 @@ public class AmazonS3Util {
     return new ArrayList<>(treeSet);
   }
 
-  private static boolean isEligible(S3ObjectSummary s, S3Offset s3Offset) {
+  static boolean isEligible(S3ObjectSummary s, S3Offset s3Offset) {
 
     //The object is eligible if
     //1. The timestamp is greater than that of the current object in offset
@@ -265,17 +265,44 @@ public class AmazonS3Util {
       String bucket,
       String objectKey,
       long range,
+      String eTag,
       boolean useSSE,
       CredentialValue customerKey,
       CredentialValue customerKeyMd5
   ) throws StageException {
-    GetObjectRequest getObjectRequest = new GetObjectRequest(bucket, objectKey).withRange(0, range);
+    return getObjectRange(s3Client, bucket, objectKey, 0, range, eTag, useSSE, customerKey, customerKeyMd5);
+  }
+
+  /**
+   * Fetches a range of an object. If an ETag is given, the range is only returned if the object still has that ETag,
+   * so the ranges of an object that is modified while it is read are never mixed.
+   */
+  static S3Object getObjectRange(
+      AmazonS3 s3Client,
+      String bucket,
+      String objectKey,
+      long start,
+      long end,
+      String eTag,
+      boolean useSSE,
+      CredentialValue customerKey,
+      CredentialValue customerKeyMd5
+  ) throws StageException {
+    GetObjectRequest getObjectRequest = new GetObjectRequest(bucket, objectKey).withRange(start, end);
+    if (eTag != null) {
+      getObjectRequest.withMatchingETagConstraint(eTag);
+    }
     if (useSSE) {
       SSECustomerKey sseCustomerKey = new SSECustomerKey(customerKey.get());
       sseCustomerKey.setMd5(customerKeyMd5.get());
       getObjectRequest.setSSECustomerKey(sseCustomerKey);
     }
-    return s3Client.getObject(getObjectRequest);
+    S3Object object = s3Client.getObject(getObjectRequest);
+    if (object == null) {
+      // the client returns no object when the ETag constraint is not met
+      throw new StageException(Errors.S3_SPOOLDIR_27, objectKey);
+    }
+    return object;
   }
 
   static S3ObjectSummary getObjectSummary(AmazonS3 s3Client, String bucket, String objectKey) {
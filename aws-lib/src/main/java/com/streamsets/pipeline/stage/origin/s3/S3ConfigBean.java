@@ -84,6 +84,49 @@ public class S3ConfigBean {
   )
   public int numberOfThreads = 1;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Prefetch Object Ranges",
+      description = "Read large objects with several concurrent range requests ahead of the data parser, instead " +
+          "of a single request",
+      displayPosition = 70,
+      group = "ADVANCED"
+  )
+  public boolean prefetchRanges = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "4",
+      label = "Concurrent Range Requests",
+      description = "Maximum number of ranges of an object fetched at once by each thread",
+      displayPosition = 80,
+      group = "ADVANCED",
+      dependsOn = "prefetchRanges",
+      triggeredByValue = "true",
+      min = 1,
+      max = 64
+  )
+  public int prefetchRangeCount = 4;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "8",
+      label = "Range Size (MB)",
+      description = "Size of the ranges fetched with each request. Objects not larger than this size are read " +
+          "with a single request.",
+      displayPosition = 90,
+      group = "ADVANCED",
+      dependsOn = "prefetchRanges",
+      triggeredByValue = "true",
+      min = 1,
+      max = 1024
+  )
+  public int prefetchRangeSize = 8;
+
   public void init(Stage.Context context, List<Stage.ConfigIssue> issues) {
     s3FileConfig.init(context, issues);
     basicConfig.init(context, Groups.S3.name(), BASIC_CONFIG_PREFIX, issues);
@@ -53,6 +53,36 @@ public class S3FileConfig {
   @ValueChooserModel(ObjectOrderingChooseValues.class)
   public ObjectOrdering objectOrdering = ObjectOrdering.LEXICOGRAPHICAL;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Use Listing Index",
+      description = "Keep a local index of the objects and only list the objects added after the last listing, in " +
+          "every first level prefix under the common prefix. Objects added with keys lower than the keys already " +
+          "listed are found by the periodic full listing.",
+      displayPosition = 111,
+      group = "#0",
+      dependsOn = "objectOrdering",
+      triggeredByValue = "TIMESTAMP"
+  )
+  public boolean useListingIndex = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "60",
+      label = "Full Listing Interval (mins)",
+      description = "How often all the objects under the common prefix are listed to reconcile the listing index",
+      displayPosition = 112,
+      group = "#0",
+      dependsOn = "useListingIndex",
+      triggeredByValue = "true",
+      min = 1,
+      max = Integer.MAX_VALUE
+  )
+  public int fullListingInterval = 60;
+
   @ConfigDef(
     required = true,
     type = ConfigDef.Type.NUMBER,
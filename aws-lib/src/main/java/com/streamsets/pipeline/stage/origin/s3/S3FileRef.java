@@ -16,6 +16,7 @@
 package com.streamsets.pipeline.stage.origin.s3;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.StageException;
@@ -25,6 +26,7 @@ import com.streamsets.pipeline.lib.io.fileref.AbstractFileRef;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 public final class S3FileRef extends AbstractFileRef {
   private final AmazonS3 s3Client;
@@ -32,6 +34,9 @@ public final class S3FileRef extends AbstractFileRef {
   private final boolean useSSE;
   private final CredentialValue customerKey;
   private final CredentialValue customerKeyMd5;
+  private final ExecutorService prefetchExecutor;
+  private final int prefetchRangeCount;
+  private final int prefetchRangeSize;
 
   @SuppressWarnings("unchecked")
   public S3FileRef(
@@ -40,6 +45,9 @@ public final class S3FileRef extends AbstractFileRef {
       boolean useSSE,
       CredentialValue customerKey,
       CredentialValue customerKeyMd5,
+      ExecutorService prefetchExecutor,
+      int prefetchRangeCount,
+      int prefetchRangeSize,
       int bufferSize,
       boolean createMetrics,
       long totalSizeInBytes,
@@ -62,12 +70,39 @@ public final class S3FileRef extends AbstractFileRef {
     this.useSSE = useSSE;
     this.customerKey = customerKey;
     this.customerKeyMd5 = customerKeyMd5;
+    this.prefetchExecutor = prefetchExecutor;
+    this.prefetchRangeCount = prefetchRangeCount;
+    this.prefetchRangeSize = prefetchRangeSize;
   }
   @Override
   @SuppressWarnings("unchecked")
   public <T extends AutoCloseable> T createInputStream(Class<T> streamClassType) throws IOException {
     //The object is fetched every time a stream needs to be opened.
     try {
+      if (prefetchExecutor != null && s3ObjectSummary.getSize() > prefetchRangeSize) {
+        S3Object firstRange = AmazonS3Util.getObjectRange(
+            s3Client,
+            s3ObjectSummary.getBucketName(),
+            s3ObjectSummary.getKey(),
+            0,
+            prefetchRangeSize - 1,
+            s3ObjectSummary.getETag(),
+            useSSE,
+            customerKey,
+            customerKeyMd5
+        );
+        return (T) new S3PrefetchInputStream(
+            firstRange,
+            s3Client,
+            s3ObjectSummary,
+            useSSE,
+            customerKey,
+            customerKeyMd5,
+            prefetchExecutor,
+            prefetchRangeCount,
+            prefetchRangeSize
+        );
+      }
       return (T) AmazonS3Util.getObject(
           s3Client,
           s3ObjectSummary.getBucketName(),
@@ -96,6 +131,9 @@ public final class S3FileRef extends AbstractFileRef {
     private boolean useSSE;
     private CredentialValue customerKey;
     private CredentialValue customerKeyMd5;
+    private ExecutorService prefetchExecutor;
+    private int prefetchRangeCount;
+    private int prefetchRangeSize;
 
     public Builder s3Client(AmazonS3 s3Client) {
       this.s3Client = s3Client;
@@ -122,6 +160,25 @@ public final class S3FileRef extends AbstractFileRef {
       return this;
     }
 
+    /**
+     * Executor fetching the ranges of the object ahead of the reader, <code>null</code> to read the object with a
+     * single request.
+     */
+    public Builder prefetchExecutor(ExecutorService prefetchExecutor) {
+      this.prefetchExecutor = prefetchExecutor;
+      return this;
+    }
+
+    public Builder prefetchRangeCount(int prefetchRangeCount) {
+      this.prefetchRangeCount = prefetchRangeCount;
+      return this;
+    }
+
+    public Builder prefetchRangeSize(int prefetchRangeSize) {
+      this.prefetchRangeSize = prefetchRangeSize;
+      return this;
+    }
+
     @Override
     public S3FileRef build() {
       return new S3FileRef(
@@ -130,6 +187,9 @@ public final class S3FileRef extends AbstractFileRef {
           useSSE,
           customerKey,
           customerKeyMd5,
+          prefetchExecutor,
+          prefetchRangeCount,
+          prefetchRangeSize,
           bufferSize,
           createMetrics,
           totalSizeInBytes,
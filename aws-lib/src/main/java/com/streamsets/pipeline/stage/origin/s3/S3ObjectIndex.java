@@ -0,0 +1,391 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.s3;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.iterable.S3Objects;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.pipeline.lib.util.AntPathMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Local index of the objects under the common prefix, to list the objects in chronological order without listing the
+ * whole common prefix on every fetch.
+ * <p/>
+ * Objects are grouped in partitions: the first level prefixes under the common prefix (e.g. the dates of date
+ * partitioned keys) and the objects directly under the common prefix. As S3 lists keys in lexicographical order, a
+ * refresh only lists, in the partition of the offset and the following ones, the keys after the highest key already
+ * seen. Objects added with lower keys, overwritten, or added to earlier partitions are found by a full listing every
+ * <code>fullListingIntervalMillis</code>.
+ * <p/>
+ * The index only keeps the objects that can still be read, the ones not older than the offset. It is persisted in a
+ * local file after every listing that changed it, so that a restarted pipeline does not have to list all the objects
+ * again. If the
+ * pipeline restarts from an offset older than the one the index was pruned with (the objects queued when it stopped
+ * were not read) the next listing is a full listing.
+ */
+final class S3ObjectIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(S3ObjectIndex.class);
+
+  private static final int VERSION = 1;
+  // partition of the objects directly under the common prefix
+  private static final String ROOT = "";
+
+  private final File file;
+  private final AmazonS3 s3Client;
+  private final String bucket;
+  private final String commonPrefix;
+  private final String delimiter;
+  private final String prefixPattern;
+  private final AntPathMatcher pathMatcher;
+  private final long fullListingIntervalMillis;
+
+  // highest key seen by partition, null if no key has been seen yet
+  private final TreeMap<String, String> markers = new TreeMap<>();
+  private final Map<String, S3ObjectSummary> objects = new HashMap<>();
+  private long lastFullListing;
+  // offset the index was last pruned with
+  private long prunedTimestamp;
+  private String prunedKey = "";
+  private boolean prunedCompleted;
+  // whether the index changed since it was loaded or saved
+  private boolean changed;
+
+  private long listRequests;
+
+  S3ObjectIndex(
+      File file,
+      AmazonS3 s3Client,
+      S3ConfigBean s3ConfigBean,
+      AntPathMatcher pathMatcher,
+      long fullListingIntervalMillis
+  ) {
+    this.file = file;
+    this.s3Client = s3Client;
+    this.bucket = s3ConfigBean.s3Config.bucket;
+    this.commonPrefix = s3ConfigBean.s3Config.commonPrefix;
+    this.delimiter = s3ConfigBean.s3Config.delimiter;
+    this.prefixPattern = s3ConfigBean.s3FileConfig.prefixPattern;
+    this.pathMatcher = pathMatcher;
+    this.fullListingIntervalMillis = fullListingIntervalMillis;
+  }
+
+  /**
+   * Loads the index persisted in the file, if any. An index of a different bucket, common prefix or prefix pattern,
+   * or that cannot be read, is discarded.
+   */
+  synchronized void load() {
+    if (!file.exists()) {
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != VERSION || !bucket.equals(in.readUTF()) || !commonPrefix.equals(in.readUTF()) ||
+          !delimiter.equals(in.readUTF()) || !prefixPattern.equals(in.readUTF())) {
+        LOG.info("Discarding listing index '{}' of a different configuration", file);
+        return;
+      }
+      lastFullListing = in.readLong();
+      prunedTimestamp = in.readLong();
+      prunedKey = in.readUTF();
+      prunedCompleted = in.readBoolean();
+      int partitions = in.readInt();
+      for (int i = 0; i < partitions; i++) {
+        String partition = in.readUTF();
+        markers.put(partition, in.readBoolean() ? in.readUTF() : null);
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        S3ObjectSummary summary = new S3ObjectSummary();
+        summary.setBucketName(bucket);
+        summary.setKey(in.readUTF());
+        summary.setETag(in.readUTF());
+        summary.setSize(in.readLong());
+        summary.setLastModified(new Date(in.readLong()));
+        summary.setStorageClass(in.readBoolean() ? in.readUTF() : null);
+        objects.put(summary.getKey(), summary);
+      }
+      LOG.info("Loaded listing index '{}' with '{}' partitions and '{}' objects", file, markers.size(), objects.size());
+    } catch (IOException ex) {
+      LOG.warn("Discarding listing index '{}' that cannot be read: {}", file, ex.toString(), ex);
+      markers.clear();
+      objects.clear();
+      lastFullListing = 0;
+      prunedTimestamp = 0;
+      prunedKey = "";
+      prunedCompleted = false;
+    }
+  }
+
+  private void save() throws IOException {
+    File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(VERSION);
+      out.writeUTF(bucket);
+      out.writeUTF(commonPrefix);
+      out.writeUTF(delimiter);
+      out.writeUTF(prefixPattern);
+      out.writeLong(lastFullListing);
+      out.writeLong(prunedTimestamp);
+      out.writeUTF(prunedKey);
+      out.writeBoolean(prunedCompleted);
+      out.writeInt(markers.size());
+      for (Map.Entry<String, String> entry : markers.entrySet()) {
+        out.writeUTF(entry.getKey());
+        writeNullable(out, entry.getValue());
+      }
+      out.writeInt(objects.size());
+      for (S3ObjectSummary summary : objects.values()) {
+        out.writeUTF(summary.getKey());
+        out.writeUTF(summary.getETag() == null ? "" : summary.getETag());
+        out.writeLong(summary.getSize());
+        out.writeLong(summary.getLastModified().getTime());
+        writeNullable(out, summary.getStorageClass());
+      }
+    }
+    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void writeNullable(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  /**
+   * Lists the objects in chronological order [lexicographical order if 2 objects have the same timestamp] which are
+   * later than or equal to the timestamp of the offset, see
+   * {@link AmazonS3Util#listObjectsChronologically(AmazonS3, S3ConfigBean, AntPathMatcher, S3Offset, int)}.
+   */
+  synchronized List<S3ObjectSummary> listObjectsChronologically(S3Offset s3Offset, int fetchSize) {
+    long now = System.currentTimeMillis();
+    if (now - lastFullListing >= fullListingIntervalMillis || isBeforePrunedOffset(s3Offset)) {
+      listAll(s3Offset);
+      lastFullListing = now;
+      changed = true;
+    } else {
+      listNew(s3Offset);
+    }
+
+    TreeSet<S3ObjectSummary> treeSet = new TreeSet<>((o1, o2) -> {
+      int result = o1.getLastModified().compareTo(o2.getLastModified());
+      if(result != 0) {
+        //same modified time. Use name to sort
+        return result;
+      }
+      return o1.getKey().compareTo(o2.getKey());
+    });
+    Iterator<S3ObjectSummary> it = objects.values().iterator();
+    while (it.hasNext()) {
+      S3ObjectSummary s = it.next();
+      if (AmazonS3Util.isEligible(s, s3Offset)) {
+        treeSet.add(s);
+        if (treeSet.size() > fetchSize) {
+          treeSet.pollLast();
+        }
+      } else {
+        // already read, it won't be read again
+        it.remove();
+        changed = true;
+      }
+    }
+    long timestamp = Long.parseLong(s3Offset.getTimestamp());
+    String key = s3Offset.getKey() == null ? "" : s3Offset.getKey();
+    boolean completed = S3Constants.MINUS_ONE.equals(s3Offset.getOffset());
+    if (timestamp != prunedTimestamp || !key.equals(prunedKey) || completed != prunedCompleted) {
+      prunedTimestamp = timestamp;
+      prunedKey = key;
+      prunedCompleted = completed;
+      changed = true;
+    }
+
+    if (changed) {
+      try {
+        save();
+        changed = false;
+      } catch (IOException ex) {
+        LOG.warn("Cannot save listing index '{}': {}", file, ex.toString(), ex);
+      }
+    }
+    return new ArrayList<>(treeSet);
+  }
+
+  private boolean isBeforePrunedOffset(S3Offset s3Offset) {
+    long timestamp = Long.parseLong(s3Offset.getTimestamp());
+    String key = s3Offset.getKey() == null ? "" : s3Offset.getKey();
+    if (timestamp != prunedTimestamp) {
+      return timestamp < prunedTimestamp;
+    }
+    int result = key.compareTo(prunedKey);
+    // the object of a completed offset was pruned, it has to be listed again to resume it
+    return result < 0 || (result == 0 && prunedCompleted && !S3Constants.MINUS_ONE.equals(s3Offset.getOffset()));
+  }
+
+  /**
+   * Lists all the objects under the common prefix, rebuilding the index.
+   */
+  private void listAll(S3Offset s3Offset) {
+    LOG.debug("Listing all objects of '{}'", commonPrefix);
+    markers.clear();
+    objects.clear();
+    markers.put(ROOT, null);
+    for (S3ObjectSummary s : S3Objects.withPrefix(s3Client, bucket, commonPrefix)) {
+      String partition = getPartition(s.getKey());
+      markers.putIfAbsent(partition, null);
+      updateMarker(partition, s.getKey());
+      add(s, s3Offset);
+    }
+  }
+
+  /**
+   * Lists the objects after the highest key seen in the partition of the offset and the following ones, and the new
+   * partitions. Objects of earlier partitions are left to the full listing.
+   */
+  private void listNew(S3Offset s3Offset) {
+    ListObjectsRequest request = new ListObjectsRequest()
+        .withBucketName(bucket)
+        .withPrefix(commonPrefix)
+        .withDelimiter(delimiter)
+        .withMarker(getRootMarker())
+        .withMaxKeys(AmazonS3Util.BATCH_SIZE);
+    List<String> partitions = new ArrayList<>();
+    ObjectListing listing = listObjects(request);
+    while (true) {
+      for (S3ObjectSummary s : listing.getObjectSummaries()) {
+        updateMarker(ROOT, s.getKey());
+        add(s, s3Offset);
+      }
+      partitions.addAll(listing.getCommonPrefixes());
+      if (!listing.isTruncated()) {
+        break;
+      }
+      listing = listNextObjects(listing);
+    }
+    for (String partition : partitions) {
+      if (!markers.containsKey(partition)) {
+        markers.put(partition, null);
+        changed = true;
+      }
+    }
+
+    String offsetKey = s3Offset.getKey() == null ? "" : s3Offset.getKey();
+    String offsetPartition = offsetKey.startsWith(commonPrefix) ? getPartition(offsetKey) : ROOT;
+    for (Map.Entry<String, String> entry : markers.tailMap(offsetPartition, true).entrySet()) {
+      if (entry.getKey().equals(ROOT)) {
+        continue;
+      }
+      request = new ListObjectsRequest()
+          .withBucketName(bucket)
+          .withPrefix(entry.getKey())
+          .withMarker(entry.getValue())
+          .withMaxKeys(AmazonS3Util.BATCH_SIZE);
+      listing = listObjects(request);
+      while (true) {
+        for (S3ObjectSummary s : listing.getObjectSummaries()) {
+          updateMarker(entry.getKey(), s.getKey());
+          add(s, s3Offset);
+        }
+        if (!listing.isTruncated()) {
+          break;
+        }
+        listing = listNextObjects(listing);
+      }
+    }
+  }
+
+  /**
+   * Returns the marker of the listing of the common prefix: new objects directly under the common prefix have keys
+   * higher than the highest one seen, new partitions have prefixes higher than the highest one seen.
+   */
+  private String getRootMarker() {
+    String marker = markers.get(ROOT);
+    String lastPartition = markers.isEmpty() ? ROOT : markers.lastKey();
+    if (marker == null || lastPartition.equals(ROOT)) {
+      return marker;
+    }
+    return (lastPartition.compareTo(marker) < 0) ? lastPartition : marker;
+  }
+
+  private ObjectListing listObjects(ListObjectsRequest request) {
+    listRequests++;
+    return s3Client.listObjects(request);
+  }
+
+  private ObjectListing listNextObjects(ObjectListing listing) {
+    listRequests++;
+    return s3Client.listNextBatchOfObjects(listing);
+  }
+
+  private void add(S3ObjectSummary s, S3Offset s3Offset) {
+    String remainingPrefix = s.getKey().substring(commonPrefix.length());
+    // remainingPrefix can be empty, see AmazonS3Util#listObjectsChronologically
+    if (!remainingPrefix.isEmpty() && pathMatcher.match(prefixPattern, remainingPrefix) &&
+        AmazonS3Util.isEligible(s, s3Offset)) {
+      S3ObjectSummary previous = objects.put(s.getKey(), s);
+      if (previous == null || !Objects.equals(previous.getETag(), s.getETag())) {
+        changed = true;
+      }
+    }
+  }
+
+  private void updateMarker(String partition, String key) {
+    String marker = markers.get(partition);
+    if (marker == null || key.compareTo(marker) > 0) {
+      markers.put(partition, key);
+      changed = true;
+    }
+  }
+
+  @VisibleForTesting
+  String getPartition(String key) {
+    int index = key.indexOf(delimiter, commonPrefix.length());
+    return (index == -1) ? ROOT : key.substring(0, index + delimiter.length());
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return objects.size();
+  }
+
+  @VisibleForTesting
+  synchronized long getListRequests() {
+    return listRequests;
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.s3;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.base.Throwables;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.credential.CredentialValue;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Input stream of an S3 object that fetches the ranges ahead of the reader with concurrent range requests.
+ * <p/>
+ * The first range is streamed from the given object while the next <code>rangeCount</code> ranges are fetched in the
+ * executor, each one into a buffer of <code>rangeSize</code> bytes. Buffers are reused once the reader is done with
+ * them, so a stream never holds more than <code>rangeCount + 1</code> buffers. The stream always starts at the
+ * beginning of the object, the parsers keep tracking the offsets within the object.
+ * <p/>
+ * Every range is requested with the ETag of the object, ranges of an object modified while it is read fail with an
+ * {@link IOException}.
+ * <p/>
+ * The stream is not thread safe, it is meant to be read by a single thread.
+ */
+final class S3PrefetchInputStream extends InputStream {
+  private final S3Object firstRange;
+  private final AmazonS3 s3Client;
+  private final S3ObjectSummary s3ObjectSummary;
+  private final boolean useSSE;
+  private final CredentialValue customerKey;
+  private final CredentialValue customerKeyMd5;
+  private final ExecutorService executor;
+  private final int rangeCount;
+  private final int rangeSize;
+
+  private final Deque<Future<Range>> pending = new ArrayDeque<>();
+  private final Deque<byte[]> freeBuffers = new ArrayDeque<>();
+  private InputStream firstRangeContent;
+  private Range current;
+  private int position;
+  private long nextStart;
+  private boolean closed;
+
+  S3PrefetchInputStream(
+      S3Object firstRange,
+      AmazonS3 s3Client,
+      S3ObjectSummary s3ObjectSummary,
+      boolean useSSE,
+      CredentialValue customerKey,
+      CredentialValue customerKeyMd5,
+      ExecutorService executor,
+      int rangeCount,
+      int rangeSize
+  ) {
+    this.firstRange = firstRange;
+    this.s3Client = s3Client;
+    this.s3ObjectSummary = s3ObjectSummary;
+    this.useSSE = useSSE;
+    this.customerKey = customerKey;
+    this.customerKeyMd5 = customerKeyMd5;
+    this.executor = executor;
+    this.rangeCount = rangeCount;
+    this.rangeSize = rangeSize;
+    firstRangeContent = firstRange.getObjectContent();
+    nextStart = firstRange.getObjectMetadata().getContentLength();
+    prefetch();
+  }
+
+  private static final class Range {
+    private final byte[] buffer;
+    private final int length;
+
+    private Range(byte[] buffer, int length) {
+      this.buffer = buffer;
+      this.length = length;
+    }
+  }
+
+  private void prefetch() {
+    long size = s3ObjectSummary.getSize();
+    while (pending.size() < rangeCount && nextStart < size) {
+      long start = nextStart;
+      long end = Math.min(size, start + rangeSize) - 1;
+      byte[] buffer = freeBuffers.isEmpty() ? new byte[rangeSize] : freeBuffers.pop();
+      pending.add(executor.submit(() -> fetch(start, end, buffer)));
+      nextStart = end + 1;
+    }
+  }
+
+  private Range fetch(long start, long end, byte[] buffer) throws IOException {
+    try (S3Object object = AmazonS3Util.getObjectRange(
+        s3Client,
+        s3ObjectSummary.getBucketName(),
+        s3ObjectSummary.getKey(),
+        start,
+        end,
+        s3ObjectSummary.getETag(),
+        useSSE,
+        customerKey,
+        customerKeyMd5
+    )) {
+      int length = (int) (end - start + 1);
+      IOUtils.readFully(object.getObjectContent(), buffer, 0, length);
+      return new Range(buffer, length);
+    } catch (StageException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  /**
+   * Moves to the next range, waiting for it if it was not fetched yet.
+   *
+   * @return <code>false</code> if there are no more ranges.
+   */
+  private boolean nextRange() throws IOException {
+    if (current != null) {
+      freeBuffers.push(current.buffer);
+      current = null;
+    }
+    Future<Range> future = pending.poll();
+    if (future == null) {
+      return false;
+    }
+    try {
+      current = future.get();
+      position = 0;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(ex.toString());
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      Throwables.propagateIfInstanceOf(cause, IOException.class);
+      Throwables.propagateIfInstanceOf(cause, AmazonClientException.class);
+      throw new IOException(cause);
+    }
+    prefetch();
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    int read;
+    do {
+      read = read(b, 0, 1);
+    } while (read == 0);
+    return (read == -1) ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (len == 0) {
+      return 0;
+    }
+    while (true) {
+      if (firstRangeContent != null) {
+        int read = firstRangeContent.read(b, off, len);
+        if (read != -1) {
+          return read;
+        }
+        firstRangeContent = null;
+      } else if (current != null && position < current.length) {
+        int read = Math.min(len, current.length - position);
+        System.arraycopy(current.buffer, position, b, off, read);
+        position += read;
+        return read;
+      } else if (!nextRange()) {
+        return -1;
+      }
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    if (firstRangeContent != null) {
+      return firstRangeContent.available();
+    }
+    return (current == null) ? 0 : current.length - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      for (Future<Range> future : pending) {
+        future.cancel(true);
+      }
+      pending.clear();
+      freeBuffers.clear();
+      current = null;
+      firstRange.close();
+    }
+  }
+}
@@ -28,6 +28,8 @@ import com.streamsets.pipeline.lib.util.AntPathMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -42,6 +44,7 @@ public class S3Spooler {
   private final S3ConfigBean s3ConfigBean;
   private final AmazonS3 s3Client;
   private AntPathMatcher pathMatcher;
+  private S3ObjectIndex objectIndex;
   private AtomicBoolean filling;
   private volatile S3Offset lastElementAddedToQueue;
   private volatile boolean newDataAfterEventSent;
@@ -64,11 +67,31 @@ public class S3Spooler {
       objectQueue = new ArrayBlockingQueue<>(s3ConfigBean.s3FileConfig.poolSize);
       spoolQueueMeter = context.createMeter("spoolQueue");
       pathMatcher = new AntPathMatcher(s3ConfigBean.s3Config.delimiter);
+      if (s3ConfigBean.s3FileConfig.objectOrdering == ObjectOrdering.TIMESTAMP &&
+          s3ConfigBean.s3FileConfig.useListingIndex && !context.isPreview()) {
+        objectIndex = createObjectIndex();
+      }
     } catch (Exception ex) {
       throw new RuntimeException(ex);
     }
   }
 
+  private S3ObjectIndex createObjectIndex() throws IOException {
+    File directory = new File(context.getResourcesDirectory(), "s3");
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory '" + directory + "'");
+    }
+    File file = new File(directory, context.getPipelineId() + "-" + context.getStageInfo().getInstanceName() + ".idx");
+    S3ObjectIndex index = new S3ObjectIndex(file,
+        s3Client,
+        s3ConfigBean,
+        pathMatcher,
+        TimeUnit.MINUTES.toMillis(s3ConfigBean.s3FileConfig.fullListingInterval)
+    );
+    index.load();
+    return index;
+  }
+
   public void destroy() {
     if(objectQueue != null) {
       objectQueue.clear();
@@ -90,6 +113,10 @@ public class S3Spooler {
     ObjectOrdering objectOrdering = s3ConfigBean.s3FileConfig.objectOrdering;
     switch (objectOrdering) {
       case TIMESTAMP:
+        if (objectIndex != null) {
+          s3ObjectSummaries = objectIndex.listObjectsChronologically(s3offset, objectQueue.remainingCapacity());
+          break;
+        }
         s3ObjectSummaries = AmazonS3Util.listObjectsChronologically(s3Client,
             s3ConfigBean,
             pathMatcher,
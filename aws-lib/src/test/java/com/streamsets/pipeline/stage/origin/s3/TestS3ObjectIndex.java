@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.s3;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.streamsets.pipeline.lib.util.AntPathMatcher;
+import com.streamsets.pipeline.stage.common.AmazonS3TestSuite;
+import com.streamsets.pipeline.stage.common.TestUtil;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class TestS3ObjectIndex extends AmazonS3TestSuite {
+  private static final String BUCKET_NAME = "indexbucket";
+  private static final String DELIMITER = "/";
+
+  private static AmazonS3 s3client;
+
+  private String commonPrefix;
+  private File indexFile;
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    setupS3();
+    BasicAWSCredentials credentials = new BasicAWSCredentials("foo", "bar");
+    s3client = AmazonS3ClientBuilder
+        .standard()
+        .withCredentials(new AWSStaticCredentialsProvider(credentials))
+        .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration("http://localhost:" + port, null))
+        .withPathStyleAccessEnabled(true)
+        .withChunkedEncodingDisabled(true) // FakeS3 does not correctly calculate checksums with chunked encoding enabled.
+        .build();
+    TestUtil.createBucket(s3client, BUCKET_NAME);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    teardownS3();
+  }
+
+  @Before
+  public void setUp() {
+    commonPrefix = UUID.randomUUID().toString() + DELIMITER;
+    File dir = new File("target", UUID.randomUUID().toString());
+    Assert.assertTrue(dir.mkdirs());
+    indexFile = new File(dir, "index.idx");
+  }
+
+  private S3ObjectIndex createIndex(long fullListingIntervalMillis) {
+    S3ConfigBean s3ConfigBean = new S3ConfigBean();
+    s3ConfigBean.s3Config = new S3ConnectionSourceConfig();
+    s3ConfigBean.s3Config.bucket = BUCKET_NAME;
+    s3ConfigBean.s3Config.commonPrefix = commonPrefix;
+    s3ConfigBean.s3Config.delimiter = DELIMITER;
+    s3ConfigBean.s3FileConfig = new S3FileConfig();
+    s3ConfigBean.s3FileConfig.prefixPattern = "**/*.log";
+    s3ConfigBean.s3FileConfig.objectOrdering = ObjectOrdering.TIMESTAMP;
+    S3ObjectIndex index = new S3ObjectIndex(indexFile,
+        s3client,
+        s3ConfigBean,
+        new AntPathMatcher(DELIMITER),
+        fullListingIntervalMillis
+    );
+    index.load();
+    return index;
+  }
+
+  private void putObject(String key) {
+    s3client.putObject(BUCKET_NAME, commonPrefix + key, key);
+  }
+
+  private static S3Offset getOffset(S3ObjectSummary s) {
+    return new S3Offset(s.getKey(), S3Constants.MINUS_ONE, s.getETag(), String.valueOf(s.getLastModified().getTime()));
+  }
+
+  private List<String> getKeys(List<S3ObjectSummary> summaries) {
+    return summaries.stream().map(s -> s.getKey().substring(commonPrefix.length())).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPartition() {
+    S3ObjectIndex index = createIndex(TimeUnit.HOURS.toMillis(1));
+    Assert.assertEquals("", index.getPartition(commonPrefix + "a.log"));
+    Assert.assertEquals(commonPrefix + "2019-01-01/", index.getPartition(commonPrefix + "2019-01-01/a.log"));
+    Assert.assertEquals(commonPrefix + "2019-01-01/", index.getPartition(commonPrefix + "2019-01-01/00/a.log"));
+  }
+
+  @Test
+  public void testListNewObjects() throws Exception {
+    putObject("2019-01-01/a.log");
+    putObject("2019-01-01/b.log");
+    putObject("2019-01-01/b.txt");
+    putObject("c.log");
+
+    S3ObjectIndex index = createIndex(TimeUnit.HOURS.toMillis(1));
+    S3Offset offset = new S3Offset("", S3Constants.MINUS_ONE, null, "0");
+    List<S3ObjectSummary> summaries = index.listObjectsChronologically(offset, 2);
+    Assert.assertEquals(2, summaries.size());
+    List<String> keys = getKeys(summaries);
+    summaries = index.listObjectsChronologically(getOffset(summaries.get(1)), 10);
+    keys.addAll(getKeys(summaries));
+    keys.sort(String::compareTo);
+    Assert.assertEquals(3, keys.size());
+    Assert.assertEquals("2019-01-01/a.log", keys.get(0));
+    Assert.assertEquals("2019-01-01/b.log", keys.get(1));
+    Assert.assertEquals("c.log", keys.get(2));
+    // only the objects not older than the offset are kept
+    Assert.assertEquals(1, index.size());
+
+    // new objects in an existing partition, in a new partition and at the top level
+    offset = getOffset(summaries.get(summaries.size() - 1));
+    // FakeS3 last modified times have a precision of seconds
+    Thread.sleep(1100);
+    putObject("2019-01-01/d.log");
+    putObject("2019-01-02/e.log");
+    putObject("f.log");
+    long listRequests = index.getListRequests();
+    summaries = index.listObjectsChronologically(offset, 10);
+    Assert.assertEquals(3, summaries.size());
+    keys = getKeys(summaries);
+    keys.sort(String::compareTo);
+    Assert.assertEquals("2019-01-01/d.log", keys.get(0));
+    Assert.assertEquals("2019-01-02/e.log", keys.get(1));
+    Assert.assertEquals("f.log", keys.get(2));
+    // one listing of the common prefix and one per partition
+    Assert.assertEquals(3, index.getListRequests() - listRequests);
+
+    // nothing new
+    summaries = index.listObjectsChronologically(getOffset(summaries.get(2)), 10);
+    Assert.assertTrue(summaries.isEmpty());
+  }
+
+  @Test
+  public void testPersistedIndex() throws Exception {
+    putObject("2019-01-01/a.log");
+    putObject("2019-01-01/b.log");
+
+    S3ObjectIndex index = createIndex(TimeUnit.HOURS.toMillis(1));
+    S3Offset offset = new S3Offset("", S3Constants.MINUS_ONE, null, "0");
+    List<S3ObjectSummary> summaries = index.listObjectsChronologically(offset, 1);
+    Assert.assertEquals(1, summaries.size());
+    Assert.assertEquals(2, index.size());
+    Assert.assertTrue(indexFile.exists());
+
+    // the restarted index does not list again the objects already seen
+    index = createIndex(TimeUnit.HOURS.toMillis(1));
+    Assert.assertEquals(2, index.size());
+    summaries = index.listObjectsChronologically(getOffset(summaries.get(0)), 10);
+    Assert.assertEquals(1, summaries.size());
+    Assert.assertEquals(2, index.getListRequests());
+  }
+
+  @Test
+  public void testFullListing() throws Exception {
+    putObject("2019-01-02/b.log");
+
+    S3ObjectIndex index = createIndex(TimeUnit.HOURS.toMillis(1));
+    S3Offset offset = new S3Offset("", S3Constants.MINUS_ONE, null, "0");
+    Assert.assertEquals(1, index.listObjectsChronologically(offset, 10).size());
+
+    // a key lower than the highest key of its partition is not found by the delta listing
+    putObject("2019-01-02/a.log");
+    Assert.assertEquals(1, index.listObjectsChronologically(offset, 10).size());
+
+    // the full listing reconciles the index
+    index = createIndex(0);
+    Assert.assertEquals(2, index.listObjectsChronologically(offset, 10).size());
+  }
+
+  @Test
+  public void testEarlierPartitionsNotListed() throws Exception {
+    putObject("2019-01-01/a.log");
+    putObject("2019-01-02/b.log");
+
+    S3ObjectIndex index = createIndex(TimeUnit.HOURS.toMillis(1));
+    S3Offset offset = new S3Offset("", S3Constants.MINUS_ONE, null, "0");
+    List<S3ObjectSummary> summaries = index.listObjectsChronologically(offset, 10);
+    Assert.assertEquals(2, summaries.size());
+    offset = getOffset(summaries.stream()
+        .filter(s -> s.getKey().endsWith("b.log"))
+        .findFirst()
+        .get());
+
+    // FakeS3 last modified times have a precision of seconds
+    Thread.sleep(1100);
+    putObject("2019-01-01/c.log");
+    putObject("2019-01-02/d.log");
+    long listRequests = index.getListRequests();
+    summaries = index.listObjectsChronologically(offset, 10);
+    Assert.assertEquals(Collections.singletonList("2019-01-02/d.log"), getKeys(summaries));
+    // one listing of the common prefix and one of the partition of the offset
+    Assert.assertEquals(2, index.getListRequests() - listRequests);
+
+    // the full listing finds the object of the earlier partition
+    index = createIndex(0);
+    List<String> keys = getKeys(index.listObjectsChronologically(offset, 10));
+    keys.sort(String::compareTo);
+    Assert.assertEquals(Arrays.asList("2019-01-01/c.log", "2019-01-02/d.log"), keys);
+  }
+
+  @Test
+  public void testUnchangedIndexNotSaved() throws Exception {
+    putObject("a.log");
+
+    S3ObjectIndex index = createIndex(TimeUnit.HOURS.toMillis(1));
+    S3Offset offset = new S3Offset("", S3Constants.MINUS_ONE, null, "0");
+    Assert.assertEquals(1, index.listObjectsChronologically(offset, 10).size());
+    Assert.assertTrue(indexFile.exists());
+
+    Assert.assertTrue(indexFile.delete());
+    Assert.assertEquals(1, index.listObjectsChronologically(offset, 10).size());
+    Assert.assertFalse(indexFile.exists());
+
+    // a new object changes the index
+    Thread.sleep(1100);
+    putObject("b.log");
+    Assert.assertEquals(2, index.listObjectsChronologically(offset, 10).size());
+    Assert.assertTrue(indexFile.exists());
+  }
+
+  @Test
+  public void testDifferentConfiguration() throws Exception {
+    putObject("a.log");
+
+    S3ObjectIndex index = createIndex(TimeUnit.HOURS.toMillis(1));
+    S3Offset offset = new S3Offset("", S3Constants.MINUS_ONE, null, "0");
+    Assert.assertEquals(1, index.listObjectsChronologically(offset, 10).size());
+    Assert.assertEquals(1, index.size());
+
+    commonPrefix = UUID.randomUUID().toString() + DELIMITER;
+    index = createIndex(TimeUnit.HOURS.toMillis(1));
+    Assert.assertEquals(0, index.size());
+  }
+}
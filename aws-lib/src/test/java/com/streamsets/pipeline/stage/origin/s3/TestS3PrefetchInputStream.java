@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.s3;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.stage.common.AmazonS3TestSuite;
+import com.streamsets.pipeline.stage.common.TestUtil;
+import org.apache.commons.io.IOUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TestS3PrefetchInputStream extends AmazonS3TestSuite {
+  private static final String BUCKET_NAME = "prefetchbucket";
+  private static final int RANGE_SIZE = 64 * 1024;
+
+  private static AmazonS3 s3client;
+  private static ExecutorService executor;
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    setupS3();
+    BasicAWSCredentials credentials = new BasicAWSCredentials("foo", "bar");
+    s3client = AmazonS3ClientBuilder
+        .standard()
+        .withCredentials(new AWSStaticCredentialsProvider(credentials))
+        .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration("http://localhost:" + port, null))
+        .withPathStyleAccessEnabled(true)
+        .withChunkedEncodingDisabled(true) // FakeS3 does not correctly calculate checksums with chunked encoding enabled.
+        .build();
+    TestUtil.createBucket(s3client, BUCKET_NAME);
+    executor = Executors.newFixedThreadPool(3);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    teardownS3();
+  }
+
+  private static byte[] putObject(String key, int size) {
+    byte[] data = new byte[size];
+    new Random(size).nextBytes(data);
+    ObjectMetadata metadata = new ObjectMetadata();
+    metadata.setContentLength(size);
+    s3client.putObject(BUCKET_NAME, key, new ByteArrayInputStream(data), metadata);
+    return data;
+  }
+
+  private static InputStream openStream(String key) throws Exception {
+    return openStream(key, AmazonS3Util.getObjectSummary(s3client, BUCKET_NAME, key));
+  }
+
+  private static InputStream openStream(String key, S3ObjectSummary summary) throws Exception {
+    S3Object firstRange = AmazonS3Util.getObjectRange(s3client,
+        BUCKET_NAME,
+        key,
+        0,
+        RANGE_SIZE - 1,
+        summary.getETag(),
+        false,
+        null,
+        null
+    );
+    return new S3PrefetchInputStream(firstRange, s3client, summary, false, null, null, executor, 3, RANGE_SIZE);
+  }
+
+  @Test
+  public void testReadObject() throws Exception {
+    // the last range is not a full range
+    String key = UUID.randomUUID().toString();
+    byte[] data = putObject(key, 10 * RANGE_SIZE + 123);
+    try (InputStream is = openStream(key)) {
+      Assert.assertArrayEquals(data, IOUtils.toByteArray(is));
+      Assert.assertEquals(-1, is.read());
+    }
+  }
+
+  @Test
+  public void testReadSingleBytes() throws Exception {
+    String key = UUID.randomUUID().toString();
+    byte[] data = putObject(key, 2 * RANGE_SIZE + 1);
+    try (InputStream is = openStream(key)) {
+      for (byte b : data) {
+        Assert.assertEquals(b & 0xFF, is.read());
+      }
+      Assert.assertEquals(-1, is.read());
+    }
+  }
+
+  @Test
+  public void testCloseBeforeEnd() throws Exception {
+    String key = UUID.randomUUID().toString();
+    byte[] data = putObject(key, 8 * RANGE_SIZE);
+    InputStream is = openStream(key);
+    byte[] buffer = new byte[RANGE_SIZE + 10];
+    IOUtils.readFully(is, buffer);
+    for (int i = 0; i < buffer.length; i++) {
+      Assert.assertEquals(data[i], buffer[i]);
+    }
+    is.close();
+    try {
+      is.read();
+      Assert.fail();
+    } catch (IOException ex) {
+      // expected
+    }
+  }
+
+  @Test(expected = StageException.class)
+  public void testObjectModifiedBeforeOpen() throws Exception {
+    String key = UUID.randomUUID().toString();
+    putObject(key, 4 * RANGE_SIZE);
+    S3ObjectSummary summary = AmazonS3Util.getObjectSummary(s3client, BUCKET_NAME, key);
+    // the object changes after it was listed, the first range is already refused
+    putObject(key, 4 * RANGE_SIZE + 1);
+    openStream(key, summary).close();
+  }
+
+  @Test(expected = IOException.class)
+  public void testObjectModified() throws Exception {
+    String key = UUID.randomUUID().toString();
+    putObject(key, 10 * RANGE_SIZE);
+    try (InputStream is = openStream(key)) {
+      // the object changes while it is read, the ranges fetched from now on are refused
+      putObject(key, 10 * RANGE_SIZE + 1);
+      IOUtils.toByteArray(is);
+    }
+  }
+}
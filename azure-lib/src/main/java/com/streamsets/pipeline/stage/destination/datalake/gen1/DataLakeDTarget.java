@@ -39,7 +39,8 @@ import com.streamsets.pipeline.api.base.configurablestage.DTarget;
     "dataLakeConfig.hdfsUser",
     "dataLakeConfig.hdfsKerberos",
     "dataLakeConfig.hdfsConfDir",
-    "dataLakeConfig.hdfsConfigs"
+    "dataLakeConfig.hdfsConfigs",
+    "dataLakeConfig.rowGroupSize"
 })
 @GenerateResourceBundle
 public class DataLakeDTarget extends DTarget {
@@ -40,7 +40,8 @@ import com.streamsets.pipeline.api.base.configurablestage.DTarget;
     "dataLakeGen2TargetConfig.hdfsKerberos",
     "dataLakeGen2TargetConfig.hdfsConfDir",
     "dataLakeGen2TargetConfig.hdfsConfigs",
-    "dataLakeGen2TargetConfig.hdfsConfigs"
+    "dataLakeGen2TargetConfig.hdfsConfigs",
+    "dataLakeGen2TargetConfig.rowGroupSize"
 })
 @GenerateResourceBundle
 public class DataLakeGen2DTarget extends DTarget {
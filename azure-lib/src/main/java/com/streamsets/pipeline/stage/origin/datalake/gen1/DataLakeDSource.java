@@ -44,7 +44,10 @@ import com.streamsets.pipeline.stage.conf.DataLakeSourceGroups;
     "dataLakeConfig.hdfsUser",
     "dataLakeConfig.hdfsKerberos",
     "dataLakeConfig.hdfsConfDir",
-    "dataLakeConfig.hdfsConfigs"
+    "dataLakeConfig.hdfsConfigs",
+    "spoolDirConfig.discoveryMode",
+    "spoolDirConfig.splitLargeFiles",
+    "spoolDirConfig.minSplitSize"
 })
 @GenerateResourceBundle
 public class DataLakeDSource extends DPushSource {
@@ -47,7 +47,10 @@ import com.streamsets.pipeline.lib.dirspooler.SpoolDirConfigBean;
     "dataLakeGen2SourceConfigBean.hdfsConfigs",
     "conf.allowLateDirectory",
     "conf.dataFormatConfig.verifyChecksum",
-    "conf.dataFormatConfig.avroSchemaSource"
+    "conf.dataFormatConfig.avroSchemaSource",
+    "conf.discoveryMode",
+    "conf.splitLargeFiles",
+    "conf.minSplitSize"
 })
 @GenerateResourceBundle
 public class DataLakeGen2DSource extends DPushSource {
@@ -35,6 +35,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
@@ -303,4 +304,9 @@ public class LocalFileSystem implements WrappedFileSystem {
   public AbstractSpoolerFileRef.Builder getFileRefBuilder() {
     return new LocalFileRef.Builder();
   }
+
+  @Override
+  public WatchService newWatchService() throws IOException {
+    return fs.newWatchService();
+  }
 }
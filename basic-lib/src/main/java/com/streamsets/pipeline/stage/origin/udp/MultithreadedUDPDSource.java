@@ -22,17 +22,19 @@ import com.streamsets.pipeline.api.ExecutionMode;
 import com.streamsets.pipeline.api.GenerateResourceBundle;
 import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.StageDef;
+import com.streamsets.pipeline.api.ValueChooserModel;
 import com.streamsets.pipeline.api.base.configurablestage.DPushSource;
 import com.streamsets.pipeline.api.impl.Utils;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "UDP Multithreaded Source",
     description = "Listens for UDP messages on one or more port(s) and queues incoming packets on an intermediate" +
         " queue, from which multiple worker threads can process them",
     icon = "udp.png",
     execution = ExecutionMode.STANDALONE,
     recordsByRef = true,
+    upgrader = MultithreadedUDPSourceUpgrader.class,
     onlineHelpRefUrl ="index.html?contextID=task_g2k_v5f_5bb"
 )
 
@@ -46,7 +48,7 @@ public class MultithreadedUDPDSource extends DPushSource {
       required = true,
       type = ConfigDef.Type.NUMBER,
       label = "Packet Queue Size",
-      description = "Maximum number of datagram packets that will be kept in the intermediate queue.",
+      description = "Maximum number of datagram packets that will be kept in the intermediate queue or ring buffer.",
       defaultValue = "200000",
       group = "UDP",
       min = 1,
@@ -67,6 +69,33 @@ public class MultithreadedUDPDSource extends DPushSource {
   )
   public int numWorkerThreads;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      label = "Packet Buffering",
+      description = "Keep the packets received in a queue to be parsed by the worker threads, or copy them into a " +
+          "pre-allocated ring buffer parsed by dedicated parser threads so that the receiving threads never parse.",
+      defaultValue = "QUEUE",
+      group = "UDP",
+      displayPosition = 190
+  )
+  @ValueChooserModel(PacketBufferingChooserValues.class)
+  public PacketBuffering packetBuffering = PacketBuffering.QUEUE;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Number of Parser Threads",
+      description = "Number of threads parsing the packets of the ring buffer for the worker threads.",
+      defaultValue = "1",
+      group = "UDP",
+      min = 1,
+      displayPosition = 220,
+      dependsOn = "packetBuffering",
+      triggeredByValue = "RING_BUFFER"
+  )
+  public int numParserThreads = 1;
+
   @Override
   protected PushSource createPushSource() {
     Utils.checkNotNull(configs.dataFormat, "Data format cannot be null");
@@ -75,7 +104,9 @@ public class MultithreadedUDPDSource extends DPushSource {
     return new MultithreadedUDPSource(
         configs,
         packetQueueSize,
-        numWorkerThreads
+        numWorkerThreads,
+        packetBuffering,
+        numParserThreads
     );
   }
 }
@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.stage.origin.udp;
 
+import com.codahale.metrics.Timer;
 import com.streamsets.pipeline.api.BatchContext;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
@@ -24,6 +25,8 @@ import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 import com.streamsets.pipeline.lib.parser.udp.AbstractParser;
 import com.streamsets.pipeline.lib.udp.PacketQueueUDPHandler;
+import com.streamsets.pipeline.lib.udp.PacketRingBuffer;
+import com.streamsets.pipeline.lib.udp.PacketRingBufferUDPHandler;
 import com.streamsets.pipeline.lib.udp.UDPConsumingServer;
 import com.streamsets.pipeline.lib.util.ThreadUtil;
 import io.netty.channel.socket.DatagramPacket;
@@ -36,6 +39,8 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
@@ -48,26 +53,48 @@ public class MultithreadedUDPSource extends BasePushSource {
   private static final boolean IS_TRACE_ENABLED = LOG.isTraceEnabled();
   private static final boolean IS_DEBUG_ENABLED = LOG.isDebugEnabled();
   public static final String PACKET_QUEUE_GAUGE_NAME = "Packet Queue";
+  public static final String PARSE_TIMER_NAME = "Packet Parsing";
+  private static final long PARSER_POLL_MILLIS = 100;
 
   private final SafeScheduledExecutorService executorService;
+  private SafeScheduledExecutorService parserExecutorService;
   private long recordCount;
   private UDPConsumingServer udpServer;
   private AbstractParser parser;
 
   private PacketQueueUDPHandler handler;
+  private PacketRingBufferUDPHandler ringBufferHandler;
+  // records parsed by the parser threads from the ring buffer, waiting for a worker thread
+  private BlockingQueue<List<Record>> parsedQueue;
+  private Map<String, Object> gaugeMap;
+  private Timer parseTimer;
 
   private final UDPSourceConfigBean configs;
   private final int packetQueueSize;
   private final int numWorkerThreads;
+  private final PacketBuffering packetBuffering;
+  private final int numParserThreads;
 
   public MultithreadedUDPSource(
       UDPSourceConfigBean configs,
       int packetQueueSize,
       int numWorkerThreads
+  ) {
+    this(configs, packetQueueSize, numWorkerThreads, PacketBuffering.QUEUE, 1);
+  }
+
+  public MultithreadedUDPSource(
+      UDPSourceConfigBean configs,
+      int packetQueueSize,
+      int numWorkerThreads,
+      PacketBuffering packetBuffering,
+      int numParserThreads
   ) {
     this.configs = configs;
     this.packetQueueSize = packetQueueSize;
     this.numWorkerThreads = numWorkerThreads;
+    this.packetBuffering = packetBuffering;
+    this.numParserThreads = numParserThreads;
 
     executorService = new SafeScheduledExecutorService(this.numWorkerThreads, "UDP_Source_Worker_");
 
@@ -83,9 +110,17 @@ public class MultithreadedUDPSource extends BasePushSource {
       parser = configs.getParser();
       final List<InetSocketAddress> addresses = configs.getAddresses();
       if (!addresses.isEmpty()) {
-        final Map<String, Object> gaugeMap = getContext().createGauge(PACKET_QUEUE_GAUGE_NAME).getValue();
-        handler = new PacketQueueUDPHandler(gaugeMap, packetQueueSize);
-        udpServer = new UDPConsumingServer(configs.enableEpoll, configs.numThreads, addresses, handler);
+        gaugeMap = getContext().createGauge(PACKET_QUEUE_GAUGE_NAME).getValue();
+        parseTimer = getContext().createTimer(PARSE_TIMER_NAME);
+        if (packetBuffering == PacketBuffering.RING_BUFFER) {
+          ringBufferHandler = new PacketRingBufferUDPHandler(gaugeMap, packetQueueSize);
+          parsedQueue = new ArrayBlockingQueue<>(packetQueueSize);
+          parserExecutorService = new SafeScheduledExecutorService(numParserThreads, "UDP_Source_Parser_");
+          udpServer = new UDPConsumingServer(configs.enableEpoll, configs.numThreads, addresses, ringBufferHandler);
+        } else {
+          handler = new PacketQueueUDPHandler(gaugeMap, packetQueueSize);
+          udpServer = new UDPConsumingServer(configs.enableEpoll, configs.numThreads, addresses, handler);
+        }
         try {
           udpServer.listen();
           udpServer.start();
@@ -119,6 +154,10 @@ public class MultithreadedUDPSource extends BasePushSource {
       udpServer.destroy();
       udpServer = null;
     }
+    if (parserExecutorService != null) {
+      parserExecutorService.shutdownNow();
+      parserExecutorService = null;
+    }
     super.destroy();
   }
 
@@ -131,12 +170,55 @@ public class MultithreadedUDPSource extends BasePushSource {
     return numWorkerThreads;
   }
 
+  /**
+   * Parses the packets of the ring buffer into the parsed records queue until the pipeline stops.
+   */
+  private void parsePackets() {
+    final PacketRingBuffer ringBuffer = ringBufferHandler.getRingBuffer();
+    while (!getContext().isStopped()) {
+      try {
+        final PacketRingBuffer.Packet packet = ringBuffer.poll(PARSER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (packet == null) {
+          continue;
+        }
+        List<Record> records = null;
+        Timer.Context timerContext = parseTimer.time();
+        try {
+          records = parser.parse(packet.getContent(), packet.getRecipient(), packet.getSender());
+        } catch (OnRecordErrorException ex) {
+          getContext().reportError(ex.getErrorCode(), ex.getParams());
+        } catch (Exception e) {
+          getContext().reportError(e);
+        } finally {
+          timerContext.stop();
+          ringBuffer.release(packet);
+          gaugeMap.put(PacketRingBufferUDPHandler.GAUGE_RING_BUFFER_OCCUPANCY, ringBuffer.getOccupancy());
+        }
+        if (records != null && !records.isEmpty()) {
+          // wait for the worker threads, packets received meanwhile are kept in the ring buffer
+          while (!parsedQueue.offer(records, PARSER_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (getContext().isStopped()) {
+              return;
+            }
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
   @Override
   public void produce(Map<String, String> offsets, int maxBatchSize) throws StageException {
     Utils.checkNotNull(udpServer, "UDP server is null");
 
     final int finalMaxBatchSize = Math.min(configs.batchSize, maxBatchSize);
 
+    if (packetBuffering == PacketBuffering.RING_BUFFER) {
+      IntStream.range(0, numParserThreads).forEach(i -> parserExecutorService.submit(this::parsePackets));
+    }
+
     try {
       ExecutorCompletionService<Future> completionService = new ExecutorCompletionService<>(executorService);
 
@@ -157,13 +239,20 @@ public class MultithreadedUDPSource extends BasePushSource {
                 long start = System.currentTimeMillis();
                 //ParseResult result = incomingQueue.poll(remainingTime, TimeUnit.MILLISECONDS);
 
-                final DatagramPacket packet = handler.getPacketQueue().poll(remainingTime, TimeUnit.MILLISECONDS);
+                final DatagramPacket packet;
                 List<Record> records = null;
+                if (packetBuffering == PacketBuffering.RING_BUFFER) {
+                  packet = null;
+                  records = parsedQueue.poll(remainingTime, TimeUnit.MILLISECONDS);
+                } else {
+                  packet = handler.getPacketQueue().poll(remainingTime, TimeUnit.MILLISECONDS);
+                }
                 if (packet != null) {
                   if (LOG.isTraceEnabled()) {
                     LOG.trace("Took packet; new size: {}", handler.getPacketQueue().size());
                   }
 
+                  Timer.Context timerContext = parseTimer.time();
                   try {
                     records = parser.parse(packet.content(), packet.recipient(), packet.sender());
                   } catch (OnRecordErrorException ex) {
@@ -172,6 +261,7 @@ public class MultithreadedUDPSource extends BasePushSource {
                     getContext().reportError(e);
                     continue;
                   } finally {
+                    timerContext.stop();
                     packet.release();
                   }
                 }
@@ -240,6 +330,9 @@ public class MultithreadedUDPSource extends BasePushSource {
       if (!executorService.isShutdown()) {
         executorService.shutdown();
       }
+      if (parserExecutorService != null && !parserExecutorService.isShutdown()) {
+        parserExecutorService.shutdown();
+      }
     }
 
   }
@@ -112,6 +112,19 @@ public class AggregationConfigBean {
   @ListBeanModel
   public List<AggregatorConfig> aggregatorConfigs;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Pre-aggregate Batches",
+      description = "Aggregates the records of each batch within the pipeline runner and adds the results to the " +
+          "time window once per batch. Reduces contention with multithreaded origins, the records of a batch are " +
+          "aggregated into the time window that is active when the batch ends",
+      displayPosition = 50,
+      group = "AGGREGATIONS"
+  )
+  public boolean preAggregateBatches;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.BOOLEAN,
@@ -23,10 +23,12 @@ import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.lib.el.RecordEL;
 import com.streamsets.pipeline.lib.el.TimeNowEL;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.Aggregator;
+import com.streamsets.pipeline.stage.processor.aggregation.aggregator.AggregatorData;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.Aggregators;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.GroupByAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.SimpleAggregator;
 
+import java.util.Collections;
 import java.util.Date;
 
 /**
@@ -93,11 +95,24 @@ public class AggregationEvaluator {
     return metric;
   }
 
-  @SuppressWarnings("unchecked")
   public void evaluate(Record record) throws StageException {
+    evaluate(createELVars(context, record));
+  }
+
+  static ELVars createELVars(Processor.Context context, Record record) {
     ELVars vars = context.createELVars();
     RecordEL.setRecordInContext(vars, record);
     TimeNowEL.setTimeNowInContext(vars, new Date());
+    return vars;
+  }
+
+  /**
+   * Evaluates the record set in the given EL variables into the aggregator.
+   *
+   * @param vars EL variables with the record and the current time.
+   */
+  @SuppressWarnings("unchecked")
+  void evaluate(ELVars vars) throws StageException {
     if (filterEval == null || filterEval.eval(vars, config.filterPredicate, Boolean.class)) {
       Number aggregationValue = (Number) valueEval.eval(vars, config.aggregationExpression, aggregator.getValueType());
       if (groupBy) {
@@ -109,4 +124,35 @@ public class AggregationEvaluator {
     }
   }
 
+  /**
+   * Evaluates the record set in the given EL variables into data local to the caller.
+   * <p/>
+   * The local data is only created when there is a value to aggregate, data that never processed a value has no
+   * aggregatable value (i.e. minimum and maximum). Records without value are ignored.
+   *
+   * @param vars EL variables with the record and the current time.
+   * @param localData local data of the aggregator, or <code>null</code> if no value was aggregated yet.
+   * @return the local data, <code>null</code> if no value was aggregated yet.
+   */
+  @SuppressWarnings("unchecked")
+  AggregatorData evaluate(ELVars vars, AggregatorData localData) throws StageException {
+    if (filterEval != null && !filterEval.eval(vars, config.filterPredicate, Boolean.class)) {
+      return localData;
+    }
+    Number aggregationValue = (Number) valueEval.eval(vars, config.aggregationExpression, aggregator.getValueType());
+    if (aggregationValue == null) {
+      return localData;
+    }
+    if (localData == null) {
+      localData = aggregator.createLocalAggregatorData();
+    }
+    if (groupBy) {
+      String group = groupByEval.eval(vars, config.groupByExpression, String.class);
+      localData.process(Collections.singletonMap(group, aggregationValue));
+    } else {
+      localData.process(aggregationValue);
+    }
+    return localData;
+  }
+
 }
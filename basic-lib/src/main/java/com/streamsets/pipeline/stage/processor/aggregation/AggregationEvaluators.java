@@ -22,6 +22,7 @@ import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Processor;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.DataCollectorServices;
 import com.streamsets.pipeline.api.ext.json.JsonMapper;
@@ -159,8 +160,10 @@ public class AggregationEvaluators {
   }
 
   public void evaluate(Record record) throws StageException {
+    // the EL variables are the same for all the aggregations of the record
+    ELVars vars = AggregationEvaluator.createELVars(context, record);
     for (AggregationEvaluator evaluator : evaluators) {
-      evaluator.evaluate(record);
+      evaluator.evaluate(vars);
     }
   }
 
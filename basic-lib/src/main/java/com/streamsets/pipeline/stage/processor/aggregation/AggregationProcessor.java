@@ -35,6 +35,7 @@ public class AggregationProcessor extends SingleLaneProcessor {
 
   private final AggregationConfigBean config;
   private AggregationEvaluators evaluators;
+  private BatchPreAggregator preAggregator;
   private BlockingQueue<EventRecord> eventRecordsQueue;
 
   public AggregationProcessor(AggregationConfigBean config) {
@@ -60,6 +61,9 @@ public class AggregationProcessor extends SingleLaneProcessor {
             stageRunnerSharedMap.put(EVALUATORS, evaluators);
           }
         }
+        if (config.preAggregateBatches) {
+          preAggregator = new BatchPreAggregator(getContext(), evaluators);
+        }
       }
     }
     return configIssues;
@@ -70,10 +74,22 @@ public class AggregationProcessor extends SingleLaneProcessor {
       Batch batch, SingleLaneBatchMaker singleLaneBatchMaker
   ) throws StageException {
     Iterator<Record> it = batch.getRecords();
-    while (it.hasNext()) {
-      Record record = it.next();
-      evaluators.evaluate(record);
-      singleLaneBatchMaker.addRecord(record);
+    if (preAggregator != null) {
+      try {
+        while (it.hasNext()) {
+          Record record = it.next();
+          preAggregator.evaluate(record);
+          singleLaneBatchMaker.addRecord(record);
+        }
+      } finally {
+        preAggregator.merge();
+      }
+    } else {
+      while (it.hasNext()) {
+        Record record = it.next();
+        evaluators.evaluate(record);
+        singleLaneBatchMaker.addRecord(record);
+      }
     }
     publishEventRecordsIfAny();
   }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.aggregation;
+
+import com.streamsets.pipeline.api.Processor;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.el.ELVars;
+import com.streamsets.pipeline.stage.processor.aggregation.aggregator.AggregatorData;
+
+import java.util.List;
+
+/**
+ * Pre-aggregates the records of a batch into data local to a pipeline runner and adds it to the shared aggregators
+ * once per batch.
+ * <p/>
+ * With multithreaded origins all the pipeline runners share the same aggregators, aggregating each record directly
+ * makes the runners contend for the aggregators data. Pre-aggregating a batch reduces that to one aggregation per
+ * aggregator (and per group-by element) per batch. Records are aggregated into the time window that is active when
+ * the batch is merged.
+ * <p/>
+ * Not thread safe, each pipeline runner has its own instance.
+ */
+class BatchPreAggregator {
+  private final Processor.Context context;
+  private final List<AggregationEvaluator> evaluators;
+  private final AggregatorData[] localData;
+
+  BatchPreAggregator(Processor.Context context, AggregationEvaluators evaluators) {
+    this.context = context;
+    this.evaluators = evaluators.getEvaluators();
+    localData = new AggregatorData[this.evaluators.size()];
+  }
+
+  void evaluate(Record record) throws StageException {
+    ELVars vars = AggregationEvaluator.createELVars(context, record);
+    for (int i = 0; i < localData.length; i++) {
+      // created with the first value, batches without values have nothing to merge
+      localData[i] = evaluators.get(i).evaluate(vars, localData[i]);
+    }
+  }
+
+  /**
+   * Adds the data pre-aggregated since the previous merge to the aggregators.
+   */
+  @SuppressWarnings("unchecked")
+  void merge() {
+    for (int i = 0; i < localData.length; i++) {
+      if (localData[i] != null) {
+        evaluators.get(i).getAggregator().aggregate(localData[i].getAggregatable());
+        localData[i] = null;
+      }
+    }
+  }
+
+}
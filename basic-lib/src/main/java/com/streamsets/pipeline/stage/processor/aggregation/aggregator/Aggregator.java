@@ -90,6 +90,19 @@ public abstract class Aggregator<A extends Aggregator, T> {
    */
   abstract AggregatorData createAggregatorData(long timeWindowMillis);
 
+  /**
+   * Creates an AggregatorData that is not provided by the DataProvider.
+   * <p/>
+   * It is used to aggregate values locally, for example the records of a batch processed by a single thread, and then
+   * to add them to the current AggregatorData at once via {@link #aggregate(Aggregatable)}.
+   *
+   * @return a new AggregatorData instance.
+   */
+  @SuppressWarnings("unchecked")
+  public AggregatorData<A, T> createLocalAggregatorData() {
+    return createAggregatorData(0);
+  }
+
   /**
    * Sets the DataProvider for the Aggregator.
    *
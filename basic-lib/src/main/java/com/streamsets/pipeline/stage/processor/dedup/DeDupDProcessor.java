@@ -30,14 +30,15 @@ import com.streamsets.pipeline.api.base.configurablestage.DProcessor;
 import java.util.List;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "Record Deduplicator",
     description = "Separates unique and duplicate records based on field comparison",
     icon="dedup.png",
     outputStreams = OutputStreams.class,
     execution = ExecutionMode.STANDALONE,
     flags = StageBehaviorFlags.PASSTHROUGH,
-    onlineHelpRefUrl ="index.html?contextID=task_ikr_c2f_zq"
+    onlineHelpRefUrl ="index.html?contextID=task_ikr_c2f_zq",
+    upgrader = DeDupProcessorUpgrader.class
 )
 @ConfigGroups(Groups.class)
 @HideConfigs(onErrorRecord = true)
@@ -92,9 +93,43 @@ public class DeDupDProcessor extends DProcessor {
   @FieldSelectorModel
   public List<String> fieldsToCompare;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "HEAP",
+      label = "Storage Mode",
+      description = "Where the hashes of the records to compare are kept. Off-heap storage keeps them outside of the " +
+          "Java heap and persists them so that they survive pipeline restarts.",
+      displayPosition = 50,
+      group = "DE_DUP"
+  )
+  @ValueChooserModel(StorageModeChooserValues.class)
+  public StorageMode storageMode;
+
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.STRING,
+      defaultValue = "",
+      label = "Index Directory",
+      description = "Directory where the hashes are persisted. Leave empty to use the Data Collector resources " +
+          "directory.",
+      displayPosition = 60,
+      group = "DE_DUP",
+      dependsOn = "storageMode",
+      triggeredByValue = "OFF_HEAP"
+  )
+  public String indexDirectory;
+
   @Override
   protected Processor createProcessor() {
-    return new DeDupProcessor(recordCountWindow, timeWindowSecs, compareFields, fieldsToCompare);
+    return new DeDupProcessor(
+        recordCountWindow,
+        timeWindowSecs,
+        compareFields,
+        fieldsToCompare,
+        storageMode,
+        indexDirectory
+    );
   }
 
 }
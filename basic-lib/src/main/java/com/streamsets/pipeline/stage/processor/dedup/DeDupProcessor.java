@@ -28,9 +28,14 @@ import com.streamsets.pipeline.api.base.RecordProcessor;
 import com.streamsets.pipeline.lib.cache.CacheCleaner;
 import com.streamsets.pipeline.lib.hashing.HashingUtil;
 import com.streamsets.pipeline.lib.queue.XEvictingQueue;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -39,20 +44,36 @@ import java.util.concurrent.TimeUnit;
 
 public class DeDupProcessor extends RecordProcessor {
   private static final String CACHE_KEY = "cache";
+  private static final String INDEX_KEY = "index";
+  static final String INDEX_GAUGE_NAME = "Deduplication Index";
+  static final String GAUGE_HITS = "Duplicates";
+  static final String GAUGE_MISSES = "Unique";
+  static final String GAUGE_EVICTIONS = "Evictions";
+  static final String GAUGE_SIZE = "Entries";
+  static final String GAUGE_MEMORY = "Memory (bytes)";
   private static final Logger LOG = LoggerFactory.getLogger(DeDupProcessor.class);
 
   private final  int recordCountWindow;
   private final  int timeWindowSecs;
   private final  SelectFields compareFields;
   private final  List<String> fieldsToCompare;
+  private final  StorageMode storageMode;
+  private final  String indexDirectory;
   private CacheCleaner cacheCleaner;
 
   public DeDupProcessor(int recordCountWindow, int timeWindowSecs,
       SelectFields compareFields, List<String> fieldsToCompare) {
+    this(recordCountWindow, timeWindowSecs, compareFields, fieldsToCompare, StorageMode.HEAP, null);
+  }
+
+  public DeDupProcessor(int recordCountWindow, int timeWindowSecs,
+      SelectFields compareFields, List<String> fieldsToCompare, StorageMode storageMode, String indexDirectory) {
     this.recordCountWindow = recordCountWindow;
     this.timeWindowSecs = timeWindowSecs;
     this.compareFields = compareFields;
     this.fieldsToCompare = fieldsToCompare;
+    this.storageMode = storageMode;
+    this.indexDirectory = indexDirectory;
   }
 
   private static final Object VOID = new Object();
@@ -61,6 +82,9 @@ public class DeDupProcessor extends RecordProcessor {
   private HashingUtil.RecordFunnel funnel;
   private Cache<HashCode, HashCode> hashCache;
   private XEvictingQueue<HashCode> hashBuffer;
+  private OffHeapDedupIndex index;
+  private boolean processingBatch;
+  private Map<String, Object> indexGauge;
   private String uniqueLane;
   private String duplicateLane;
 
@@ -93,25 +117,12 @@ public class DeDupProcessor extends RecordProcessor {
       ) : HashingUtil.getRecordFunnel(fieldsToCompare, false, true, '\u0000');
 
       Map<String, Object> runnerSharedMap = getContext().getStageRunnerSharedMap();
-      synchronized (runnerSharedMap) {
-        if(!runnerSharedMap.containsKey(CACHE_KEY)) {
-          CacheBuilder cacheBuilder = CacheBuilder.newBuilder();
-          if (timeWindowSecs > 0) {
-            cacheBuilder.expireAfterWrite(timeWindowSecs, TimeUnit.SECONDS);
-          }
-          if(LOG.isDebugEnabled()) {
-            cacheBuilder.recordStats();
-          }
-          hashCache = cacheBuilder.build();
-
-          runnerSharedMap.put(CACHE_KEY, hashCache);
-        } else {
-          hashCache = (Cache<HashCode, HashCode>) runnerSharedMap.get(CACHE_KEY);
-        }
+      // preview and validation must not change the persisted index, they use a throwaway heap cache instead
+      if (storageMode == StorageMode.OFF_HEAP && !getContext().isPreview()) {
+        initIndex(runnerSharedMap, issues);
+      } else {
+        initCache(runnerSharedMap);
       }
-      cacheCleaner = new CacheCleaner(hashCache, "DeDupProcessor", 10 * 60 * 1000);
-
-      hashBuffer = XEvictingQueue.create(recordCountWindow);
       hashAttrName = getInfo() + ".hash";
       uniqueLane = getContext().getOutputLanes().get(OutputStreams.UNIQUE.ordinal());
       duplicateLane = getContext().getOutputLanes().get(OutputStreams.DUPLICATE.ordinal());
@@ -119,10 +130,73 @@ public class DeDupProcessor extends RecordProcessor {
     return issues;
   }
 
+  @SuppressWarnings("unchecked")
+  private void initCache(Map<String, Object> runnerSharedMap) {
+    synchronized (runnerSharedMap) {
+      if(!runnerSharedMap.containsKey(CACHE_KEY)) {
+        CacheBuilder cacheBuilder = CacheBuilder.newBuilder();
+        if (timeWindowSecs > 0) {
+          cacheBuilder.expireAfterWrite(timeWindowSecs, TimeUnit.SECONDS);
+        }
+        if(LOG.isDebugEnabled()) {
+          cacheBuilder.recordStats();
+        }
+        hashCache = cacheBuilder.build();
+
+        runnerSharedMap.put(CACHE_KEY, hashCache);
+      } else {
+        hashCache = (Cache<HashCode, HashCode>) runnerSharedMap.get(CACHE_KEY);
+      }
+    }
+    cacheCleaner = new CacheCleaner(hashCache, "DeDupProcessor", 10 * 60 * 1000);
+
+    hashBuffer = XEvictingQueue.create(recordCountWindow);
+  }
+
+  private void initIndex(Map<String, Object> runnerSharedMap, List<ConfigIssue> issues) {
+    File directory = StringUtils.isEmpty(indexDirectory)
+        ? new File(getContext().getResourcesDirectory(), "dedup")
+        : new File(indexDirectory);
+    File file = new File(directory, getContext().getPipelineId() + "-" + getInfo().getInstanceName() + ".idx");
+    synchronized (runnerSharedMap) {
+      index = (OffHeapDedupIndex) runnerSharedMap.get(INDEX_KEY);
+      if (index == null) {
+        try {
+          if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory '" + directory + "'");
+          }
+          index = OffHeapDedupIndex.open(file, recordCountWindow, TimeUnit.SECONDS.toMillis(timeWindowSecs));
+          runnerSharedMap.put(INDEX_KEY, index);
+        } catch (IOException ex) {
+          LOG.error("Cannot open deduplication index '{}': {}", file, ex.toString(), ex);
+          issues.add(getContext().createConfigIssue(Groups.DE_DUP.name(), "indexDirectory", Errors.DEDUP_05,
+                                                    file, ex.toString()));
+          return;
+        }
+      }
+      index.register(getContext().getRunnerId());
+    }
+    indexGauge = getContext().createGauge(INDEX_GAUGE_NAME).getValue();
+    updateIndexGauge();
+  }
+
+  private void updateIndexGauge() {
+    indexGauge.put(GAUGE_HITS, index.getHits());
+    indexGauge.put(GAUGE_MISSES, index.getMisses());
+    indexGauge.put(GAUGE_EVICTIONS, index.getEvictions());
+    indexGauge.put(GAUGE_SIZE, index.getSize());
+    indexGauge.put(GAUGE_MEMORY, index.getSizeInBytes());
+  }
+
   boolean duplicateCheck(Record record) throws ExecutionException {
     HashCode hash = hasher.hashObject(record, funnel);
     record.getHeader().setAttribute(hashAttrName, hash.toString());
 
+    if (index != null) {
+      ByteBuffer bytes = ByteBuffer.wrap(hash.asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+      return !index.add(bytes.getLong(0), bytes.getLong(8), System.currentTimeMillis());
+    }
+
     HashCode hashInstance = hashCache.get(hash, () -> hash);
     // We are riding on the fact that if the instance is the same we just added and it is not a dup
     boolean dup = hashInstance != hash;
@@ -141,6 +215,18 @@ public class DeDupProcessor extends RecordProcessor {
 
   @Override
   public void process(Batch batch, BatchMaker batchMaker) throws StageException {
+    if (index != null) {
+      // the previous batch of this runner has been committed by now, so have to be the hashes it added
+      index.startBatch(getContext().getRunnerId());
+      if (!batch.getRecords().hasNext()) {
+        index.expire(System.currentTimeMillis());
+      }
+      processingBatch = true;
+      super.process(batch, batchMaker);
+      processingBatch = false;
+      updateIndexGauge();
+      return;
+    }
     if (!batch.getRecords().hasNext()) {
       // No records - take the opportunity to clean up the cache so that we don't hold on to memory indefinitely
       cacheCleaner.periodicCleanUp();
@@ -162,4 +248,21 @@ public class DeDupProcessor extends RecordProcessor {
     }
   }
 
+  @Override
+  public void destroy() {
+    if (index != null) {
+      // the last batch is only known to be committed when the pipeline was stopped after it was fully processed
+      boolean lastBatchCommitted = !processingBatch && getContext().isStopped();
+      Map<String, Object> runnerSharedMap = getContext().getStageRunnerSharedMap();
+      synchronized (runnerSharedMap) {
+        if (index.unregister(getContext().getRunnerId(), lastBatchCommitted)) {
+          runnerSharedMap.remove(INDEX_KEY);
+          index.close();
+        }
+      }
+      index = null;
+    }
+    super.destroy();
+  }
+
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deduplication index keeping the 128 bit hashes of the last N unique records outside of the Java heap.
+ * <p/>
+ * Hashes are kept in an {@link OffHeapHashTable} for lookups and, in insertion order, in a ring buffer backed by a
+ * memory mapped file. The ring buffer drives the FIFO (record count) and time based evictions and it is what makes
+ * the index survive restarts: on open the hash table is rebuilt from the ring buffer entries up to the last
+ * checkpoint. Entries added after the last checkpoint belong to batches whose offset was not committed, those batches
+ * are going to be replayed so their entries are discarded.
+ * <p/>
+ * The index is shared by all the pipeline runners, each one commits its batches independently. The entries up to
+ * the oldest batch still running (or not committed) in any runner are committed, the later ones may belong to a batch
+ * that will be replayed.
+ * <p/>
+ * Ring buffer file layout: a header of 8 longs (magic, version, capacity, committed sequence, oldest sequence)
+ * followed by <code>capacity</code> slots of 4 longs (hash high bits, hash low bits, sequence, timestamp).
+ * <p/>
+ * All methods are synchronized as the index is shared by all the pipeline runners.
+ */
+final class OffHeapDedupIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(OffHeapDedupIndex.class);
+
+  private static final long MAGIC = 0x5344434465447570L;
+  private static final long VERSION = 1;
+  private static final int HEADER_LONGS = 8;
+  private static final int SLOT_LONGS = 4;
+
+  private static final int MAGIC_IDX = 0;
+  private static final int VERSION_IDX = 1;
+  private static final int CAPACITY_IDX = 2;
+  private static final int COMMITTED_IDX = 3;
+  private static final int OLDEST_IDX = 4;
+
+  private final long capacity;
+  private final long timeWindowMillis;
+  private final OffHeapLongArray header;
+  private final OffHeapLongArray ring;
+  private final OffHeapHashTable table;
+
+  // sequence of the last added entry and of the oldest entry still in the index, entries are numbered from 1
+  private long sequence;
+  private long oldest;
+
+  // index sequence when the batch currently processed by each runner started
+  private final Map<Integer, Long> runningBatches = new HashMap<>();
+  private final Set<Integer> runners = new HashSet<>();
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  private OffHeapDedupIndex(OffHeapLongArray header, OffHeapLongArray ring, long capacity, long timeWindowMillis) {
+    this.header = header;
+    this.ring = ring;
+    this.capacity = capacity;
+    this.timeWindowMillis = timeWindowMillis;
+    table = new OffHeapHashTable(capacity);
+  }
+
+  /**
+   * Opens the index persisted in the given file, creating it if it does not exist. If the file was created for a
+   * different number of records it is discarded.
+   *
+   * @param file file backing the index.
+   * @param capacity maximum number of hashes kept by the index.
+   * @param timeWindowMillis time hashes are kept in the index, zero for no time window.
+   */
+  static OffHeapDedupIndex open(File file, int capacity, long timeWindowMillis) throws IOException {
+    OffHeapDedupIndex index;
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+      long expectedSize = (HEADER_LONGS + (long) capacity * SLOT_LONGS) * 8;
+      boolean reset = channel.size() != expectedSize;
+      if (reset) {
+        channel.truncate(0);
+      }
+      OffHeapLongArray header = OffHeapLongArray.map(channel, 0, HEADER_LONGS);
+      OffHeapLongArray ring = OffHeapLongArray.map(channel, HEADER_LONGS * 8, (long) capacity * SLOT_LONGS);
+      index = new OffHeapDedupIndex(header, ring, capacity, timeWindowMillis);
+      if (!reset && header.get(MAGIC_IDX) == MAGIC && header.get(VERSION_IDX) == VERSION &&
+          header.get(CAPACITY_IDX) == capacity) {
+        index.recover();
+      } else {
+        LOG.info("Creating deduplication index '{}' for '{}' records", file, capacity);
+        index.initialize();
+      }
+    }
+    return index;
+  }
+
+  private void initialize() {
+    header.set(MAGIC_IDX, MAGIC);
+    header.set(VERSION_IDX, VERSION);
+    header.set(CAPACITY_IDX, capacity);
+    header.set(COMMITTED_IDX, 0);
+    header.set(OLDEST_IDX, 1);
+    header.force();
+    sequence = 0;
+    oldest = 1;
+  }
+
+  private void recover() {
+    sequence = header.get(COMMITTED_IDX);
+    long committedOldest = Math.max(1, header.get(OLDEST_IDX));
+    // entries not committed may have overwritten the oldest committed ones, those are lost
+    long s = sequence;
+    while (s >= committedOldest && ring.get(getSlot(s) + 2) == s) {
+      s--;
+    }
+    oldest = s + 1;
+    for (s = oldest; s <= sequence; s++) {
+      long slot = getSlot(s);
+      table.add(ring.get(slot), ring.get(slot + 1));
+    }
+    LOG.info("Recovered '{}' entries of the deduplication index", table.size());
+  }
+
+  private long getSlot(long sequence) {
+    return ((sequence - 1) % capacity) * SLOT_LONGS;
+  }
+
+  /**
+   * Adds a hash to the index.
+   *
+   * @return <code>true</code> if the hash was not in the index, <code>false</code> if it is a duplicate.
+   */
+  synchronized boolean add(long h1, long h2, long now) {
+    expire(now);
+    if (!table.add(h1, h2)) {
+      hits++;
+      return false;
+    }
+    misses++;
+    if (sequence - oldest + 1 == capacity) {
+      evictOldest();
+    }
+    sequence++;
+    long slot = getSlot(sequence);
+    ring.set(slot, h1);
+    ring.set(slot + 1, h2);
+    ring.set(slot + 2, sequence);
+    ring.set(slot + 3, now);
+    return true;
+  }
+
+  /**
+   * Evicts the hashes that are older than the time window.
+   */
+  synchronized void expire(long now) {
+    if (timeWindowMillis > 0) {
+      while (oldest <= sequence && ring.get(getSlot(oldest) + 3) <= now - timeWindowMillis) {
+        evictOldest();
+      }
+    }
+  }
+
+  private void evictOldest() {
+    long slot = getSlot(oldest);
+    table.remove(ring.get(slot), ring.get(slot + 1));
+    oldest++;
+    evictions++;
+  }
+
+  /**
+   * Registers a runner using the index.
+   */
+  synchronized void register(int runnerId) {
+    runners.add(runnerId);
+  }
+
+  /**
+   * Notifies that a runner starts processing a batch: its previous batch, if any, has been committed.
+   */
+  synchronized void startBatch(int runnerId) {
+    runningBatches.remove(runnerId);
+    checkpoint();
+    runningBatches.put(runnerId, sequence);
+  }
+
+  /**
+   * Unregisters a runner, checkpointing its last batch if it was committed. The batch of a runner that stops without
+   * committing it keeps the later entries of all the runners out of the checkpoints, as it is going to be replayed.
+   *
+   * @return <code>true</code> if it was the last runner using the index.
+   */
+  synchronized boolean unregister(int runnerId, boolean lastBatchCommitted) {
+    if (lastBatchCommitted) {
+      runningBatches.remove(runnerId);
+    }
+    checkpoint();
+    runners.remove(runnerId);
+    return runners.isEmpty();
+  }
+
+  /**
+   * Marks as committed the hashes added before any of the batches still running, they will be recovered the next time
+   * the index is opened.
+   */
+  synchronized void checkpoint() {
+    long committed = sequence;
+    for (long batchStart : runningBatches.values()) {
+      committed = Math.min(committed, batchStart);
+    }
+    if (header.get(COMMITTED_IDX) != committed || header.get(OLDEST_IDX) != oldest) {
+      ring.force();
+      header.set(OLDEST_IDX, oldest);
+      header.set(COMMITTED_IDX, committed);
+      header.force();
+    }
+  }
+
+  /**
+   * Releases the memory and the file mapping of the index, it cannot be used afterwards.
+   */
+  synchronized void close() {
+    header.release();
+    ring.release();
+    table.release();
+  }
+
+  synchronized long getSize() {
+    return table.size();
+  }
+
+  synchronized long getHits() {
+    return hits;
+  }
+
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  synchronized long getEvictions() {
+    return evictions;
+  }
+
+  long getSizeInBytes() {
+    return header.getSizeInBytes() + ring.getSizeInBytes() + table.getSizeInBytes();
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.dedup;
+
+/**
+ * Open addressing (linear probing) set of 128 bit hashes stored in direct memory, 16 bytes per slot.
+ * <p/>
+ * The table does not resize, it is sized for a maximum number of entries with a load factor of at most 0.75.
+ * Removals use backward shift deletion so there are no tombstones and lookups don't degrade over time. Used slots are
+ * tracked in a separate bitmap, so any hash (including all zeros) can be stored. Not thread safe.
+ */
+final class OffHeapHashTable {
+  private final OffHeapLongArray slots;
+  private final OffHeapLongArray used;
+  private final long mask;
+  private long size;
+
+  OffHeapHashTable(long maxEntries) {
+    long required = Math.max(2, maxEntries + maxEntries / 3 + 1);
+    long capacity = Long.highestOneBit(required - 1) << 1;
+    slots = OffHeapLongArray.allocate(capacity * 2);
+    used = OffHeapLongArray.allocate((capacity + 63) >>> 6);
+    mask = capacity - 1;
+  }
+
+  /**
+   * Adds the given hash, returns <code>false</code> if it was already in the table.
+   */
+  boolean add(long h1, long h2) {
+    long i = h1 & mask;
+    while (true) {
+      if (!isUsed(i)) {
+        slots.set(i << 1, h1);
+        slots.set((i << 1) + 1, h2);
+        setUsed(i, true);
+        size++;
+        return true;
+      }
+      if (slots.get(i << 1) == h1 && slots.get((i << 1) + 1) == h2) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  boolean contains(long h1, long h2) {
+    return find(h1, h2) >= 0;
+  }
+
+  /**
+   * Removes the given hash, returns <code>false</code> if it was not in the table.
+   */
+  boolean remove(long h1, long h2) {
+    long i = find(h1, h2);
+    if (i < 0) {
+      return false;
+    }
+    // shift back the entries of the probe sequence that would not be reachable once the slot is empty
+    long j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      if (!isUsed(j)) {
+        break;
+      }
+      long s1 = slots.get(j << 1);
+      long s2 = slots.get((j << 1) + 1);
+      long home = s1 & mask;
+      boolean movable = (i <= j) ? (home <= i || home > j) : (home <= i && home > j);
+      if (movable) {
+        slots.set(i << 1, s1);
+        slots.set((i << 1) + 1, s2);
+        i = j;
+      }
+    }
+    setUsed(i, false);
+    size--;
+    return true;
+  }
+
+  private long find(long h1, long h2) {
+    long i = h1 & mask;
+    while (true) {
+      if (!isUsed(i)) {
+        return -1;
+      }
+      if (slots.get(i << 1) == h1 && slots.get((i << 1) + 1) == h2) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  private boolean isUsed(long slot) {
+    return (used.get(slot >>> 6) & (1L << slot)) != 0;
+  }
+
+  private void setUsed(long slot, boolean value) {
+    long word = used.get(slot >>> 6);
+    used.set(slot >>> 6, value ? (word | (1L << slot)) : (word & ~(1L << slot)));
+  }
+
+  long size() {
+    return size;
+  }
+
+  long getSizeInBytes() {
+    return slots.getSizeInBytes() + used.getSizeInBytes();
+  }
+
+  /**
+   * Releases the memory of the table, it cannot be used afterwards.
+   */
+  void release() {
+    slots.release();
+    used.release();
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Fixed size array of longs stored outside of the Java heap, either in direct memory or in a memory mapped file.
+ * <p/>
+ * A single <code>ByteBuffer</code> cannot be larger than 2GB, the array is split in segments of 64MB.
+ */
+final class OffHeapLongArray {
+  private static final Logger LOG = LoggerFactory.getLogger(OffHeapLongArray.class);
+  private static final int SEGMENT_SHIFT = 23;
+  private static final long SEGMENT_LENGTH = 1L << SEGMENT_SHIFT;
+  private static final long SEGMENT_MASK = SEGMENT_LENGTH - 1;
+
+  private final ByteBuffer[] segments;
+  private final long length;
+
+  private OffHeapLongArray(ByteBuffer[] segments, long length) {
+    this.segments = segments;
+    this.length = length;
+  }
+
+  /**
+   * Allocates a zeroed array in direct memory.
+   */
+  static OffHeapLongArray allocate(long length) {
+    ByteBuffer[] segments = new ByteBuffer[getSegmentCount(length)];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = ByteBuffer.allocateDirect(getSegmentBytes(length, i)).order(ByteOrder.nativeOrder());
+    }
+    return new OffHeapLongArray(segments, length);
+  }
+
+  /**
+   * Maps an array backed by the file of the given channel starting at the given position. The file grows as needed,
+   * the mapping remains valid after the channel is closed.
+   */
+  static OffHeapLongArray map(FileChannel channel, long position, long length) throws IOException {
+    ByteBuffer[] segments = new ByteBuffer[getSegmentCount(length)];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = channel.map(
+          FileChannel.MapMode.READ_WRITE,
+          position + ((long) i << (SEGMENT_SHIFT + 3)),
+          getSegmentBytes(length, i)
+      );
+    }
+    return new OffHeapLongArray(segments, length);
+  }
+
+  private static int getSegmentCount(long length) {
+    return (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+  }
+
+  private static int getSegmentBytes(long length, int segment) {
+    return (int) (Math.min(SEGMENT_LENGTH, length - ((long) segment << SEGMENT_SHIFT)) << 3);
+  }
+
+  long get(long index) {
+    return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) << 3);
+  }
+
+  void set(long index, long value) {
+    segments[(int) (index >>> SEGMENT_SHIFT)].putLong((int) (index & SEGMENT_MASK) << 3, value);
+  }
+
+  long length() {
+    return length;
+  }
+
+  long getSizeInBytes() {
+    return length << 3;
+  }
+
+  /**
+   * Flushes the changes to disk if the array is memory mapped, it is a no-op otherwise.
+   */
+  void force() {
+    for (ByteBuffer segment : segments) {
+      if (segment instanceof MappedByteBuffer) {
+        ((MappedByteBuffer) segment).force();
+      }
+    }
+  }
+
+  /**
+   * Frees the direct memory, or unmaps the file, of the array right away instead of waiting for the buffers to be
+   * garbage collected. The array cannot be used afterwards.
+   */
+  void release() {
+    for (int i = 0; i < segments.length; i++) {
+      free(segments[i]);
+      segments[i] = null;
+    }
+  }
+
+  private static void free(ByteBuffer buffer) {
+    try {
+      Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buffer);
+      if (cleaner != null) {
+        Method cleanMethod = cleaner.getClass().getMethod("clean");
+        cleanMethod.setAccessible(true);
+        cleanMethod.invoke(cleaner);
+      }
+    } catch (Exception ex) {
+      // not accessible in this JVM, the buffer is freed when it is garbage collected
+      LOG.debug("Cannot free buffer: {}", ex.toString(), ex);
+    }
+  }
+
+}
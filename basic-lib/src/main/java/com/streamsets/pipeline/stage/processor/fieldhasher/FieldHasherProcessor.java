@@ -19,6 +19,7 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.hash.HashFunction;
+import com.streamsets.datacollector.record.FieldPath;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
@@ -224,8 +225,8 @@ public class FieldHasherProcessor extends SingleLaneRecordProcessor {
   ) {
     Set<String> validFieldsToHashForThisConfig = new HashSet<String>();
     for (String matchingFieldPath : matchingFieldsPath) {
-      if (record.has(matchingFieldPath)) {
-        Field field = record.get(matchingFieldPath);
+      Field field = FieldPath.of(matchingFieldPath).get(record);
+      if (field != null) {
         if (UNSUPPORTED_FIELD_TYPES.contains(field.getType())) {
           fieldsWithListOrMapType.add(matchingFieldPath);
         } else if (field.getValue() == null) {
@@ -303,7 +304,7 @@ public class FieldHasherProcessor extends SingleLaneRecordProcessor {
             hasherConfig.separatorCharacter
             );
         Field newField = Field.create(hashVal);
-        record.set(fieldToHashForThisConfig, newField);
+        FieldPath.of(fieldToHashForThisConfig).set(record, newField);
       }
     }
   }
@@ -334,18 +335,19 @@ public class FieldHasherProcessor extends SingleLaneRecordProcessor {
     );
     if (!targetField.isEmpty()) {
       Field newField = Field.create(hashVal);
+      FieldPath targetFieldPath = FieldPath.of(targetField);
       //Handle already existing field.
-      if (record.has(targetField)) {
-        record.set(targetField, newField);
+      if (targetFieldPath.has(record)) {
+        targetFieldPath.set(record, newField);
       } else {
         try {
-          record.set(targetField, newField);
+          targetFieldPath.set(record, newField);
 
         } catch(IllegalArgumentException ex) {
           throw new OnRecordErrorException(Errors.HASH_05, newField.getType().name(), ex);
         }
 
-        if (!record.has(targetField)) {
+        if (!targetFieldPath.has(record)) {
           fieldsDontExist.add(targetField);
         }
       }
@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.stage.processor.fieldtypeconverter;
 
+import com.streamsets.datacollector.record.FieldPath;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
@@ -158,11 +159,12 @@ public class FieldTypeConverterProcessor extends SingleLaneRecordProcessor {
           matchingFieldPaths.add(fieldToConvert);
         }
         for (String matchingField : matchingFieldPaths) {
-          Field field = record.get(matchingField);
+          FieldPath fieldPath = FieldPath.of(matchingField);
+          Field field = fieldPath.get(record);
           if(field == null) {
             LOG.trace("Record does not have field {}. Ignoring conversion.", matchingField);
           } else {
-            record.set(matchingField, convertField(matchingField, field, fieldTypeConverterConfig));
+            fieldPath.set(record, convertField(matchingField, field, fieldTypeConverterConfig));
           }
         }
       }
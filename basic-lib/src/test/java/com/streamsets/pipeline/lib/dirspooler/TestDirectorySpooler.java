@@ -164,6 +164,32 @@ public class TestDirectorySpooler {
     spooler.destroy();
   }
 
+  @Test
+  public void testWatchSpoolDirThenFiles() throws Exception {
+    assertTrue(spoolDir.mkdirs());
+    DirectorySpooler.Builder builder = initializeAndGetBuilder()
+        .setMaxSpoolFiles(10)
+        .setFileDiscoveryMode(FileDiscoveryMode.WATCH);
+    DirectorySpooler spooler = builder.build();
+
+    spooler.init(null);
+    Assert.assertNotNull(spooler.watcher);
+    Assert.assertNull(spooler.finder);
+
+    new FileWriter(new File(spoolDir, "x1.log")).close();
+    new FileWriter(new File(spoolDir, "x2.log")).close();
+    new FileWriter(new File(spoolDir, "y1.log")).close();
+
+    // some platforms poll the directories to emulate the events, give them a generous timeout
+    WrappedFile file = spooler.poolForFile(30, TimeUnit.SECONDS);
+    Assert.assertNotNull(file);
+    Assert.assertEquals("x1.log", file.getFileName());
+    file = spooler.poolForFile(30, TimeUnit.SECONDS);
+    Assert.assertNotNull(file);
+    Assert.assertEquals("x2.log", file.getFileName());
+    spooler.destroy();
+  }
+
   @Test
   public void testMatchingFileSpoolDir() throws Exception {
     assertTrue(spoolDir.mkdirs());
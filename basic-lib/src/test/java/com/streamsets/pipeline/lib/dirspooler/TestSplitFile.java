@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.dirspooler;
+
+import com.streamsets.pipeline.api.PushSource;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+
+import static com.streamsets.pipeline.lib.dirspooler.PathMatcherMode.GLOB;
+
+public class TestSplitFile {
+  private static final String HEADER = "a,b\n";
+
+  private WrappedFileSystem fs = new LocalFileSystem("*", GLOB);
+  private File file;
+  private String content;
+
+  @Before
+  public void setUp() throws Exception {
+    File dir = new File("target", UUID.randomUUID().toString());
+    Assert.assertTrue(dir.mkdirs());
+    file = new File(dir, "file.csv");
+    StringBuilder sb = new StringBuilder(HEADER);
+    for (int i = 0; i < 100; i++) {
+      sb.append(i).append(",value-").append(i).append("\n");
+    }
+    content = sb.toString();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String read(SplitFile splitFile, SplitFile.Split split) throws Exception {
+    try (InputStream is = splitFile.openStream(split)) {
+      return IOUtils.toString(is, StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testAlignToLine() throws Exception {
+    WrappedFile wrappedFile = fs.getFile(file.getAbsolutePath());
+    long size = wrappedFile.getSize();
+    Assert.assertEquals(0, SplitFile.alignToLine(wrappedFile, 0, size));
+    Assert.assertEquals(HEADER.length(), SplitFile.alignToLine(wrappedFile, 1, size));
+    Assert.assertEquals(HEADER.length(), SplitFile.alignToLine(wrappedFile, HEADER.length(), size));
+    Assert.assertEquals(size, SplitFile.alignToLine(wrappedFile, size - 1, size));
+  }
+
+  @Test
+  public void testCreate() throws Exception {
+    WrappedFile wrappedFile = fs.getFile(file.getAbsolutePath());
+    Assert.assertNull(SplitFile.create(wrappedFile, "file.csv", 4, content.length(), 1));
+
+    SplitFile splitFile = SplitFile.create(wrappedFile, "file.csv", 4, 1, 1);
+    Assert.assertNotNull(splitFile);
+    List<SplitFile.Split> splits = splitFile.getSplits();
+    Assert.assertEquals(4, splits.size());
+
+    StringBuilder sb = new StringBuilder();
+    long start = 0;
+    for (SplitFile.Split split : splits) {
+      Assert.assertEquals(start, split.getStart());
+      String data = read(splitFile, split);
+      if (split.getStart() > 0) {
+        Assert.assertEquals('\n', content.charAt((int) split.getStart() - 1));
+        Assert.assertTrue(data.startsWith(HEADER));
+        data = data.substring(HEADER.length());
+      }
+      sb.append(data);
+      start = split.getEnd();
+    }
+    Assert.assertEquals(content.length(), start);
+    Assert.assertEquals(content, sb.toString());
+  }
+
+  @Test
+  public void testCommitAndResume() throws Exception {
+    WrappedFile wrappedFile = fs.getFile(file.getAbsolutePath());
+    SplitFile splitFile = SplitFile.create(wrappedFile, "file.csv", 2, 1, 1);
+    Assert.assertNotNull(splitFile);
+    SplitFile.Split first = splitFile.getSplits().get(0);
+    SplitFile.Split second = splitFile.getSplits().get(1);
+    PushSource.Context context = Mockito.mock(PushSource.Context.class);
+
+    Assert.assertFalse(splitFile.commit(first, "-1", 10, 1, context));
+    Assert.assertFalse(splitFile.commit(second, "30", 5, 0, context));
+    Assert.assertEquals(15, splitFile.getRecordCount());
+    Assert.assertEquals(1, splitFile.getErrorCount());
+    Offset offset = splitFile.getOffset();
+    Assert.assertEquals("file.csv", offset.getFile());
+    Assert.assertEquals("0", offset.getOffset());
+    Mockito.verify(context).commitOffset("file.csv", offset.getOffsetString());
+
+    SplitFile resumed = SplitFile.resume(wrappedFile, "file.csv", offset.getSplits(), 1);
+    Assert.assertFalse(resumed.isFailed());
+    List<SplitFile.Split> pending = resumed.getPendingSplits();
+    Assert.assertEquals(1, pending.size());
+    Assert.assertEquals(second.getStart(), pending.get(0).getStart());
+    Assert.assertEquals(second.getEnd(), pending.get(0).getEnd());
+    Assert.assertEquals("30", pending.get(0).getCommittedOffset());
+
+    Assert.assertTrue(resumed.commit(pending.get(0), "-1", 3, 0, context));
+    Assert.assertTrue(resumed.getPendingSplits().isEmpty());
+  }
+
+  @Test
+  public void testFailAndResume() throws Exception {
+    WrappedFile wrappedFile = fs.getFile(file.getAbsolutePath());
+    SplitFile splitFile = SplitFile.create(wrappedFile, "file.csv", 3, 1, 1);
+    Assert.assertNotNull(splitFile);
+    PushSource.Context context = Mockito.mock(PushSource.Context.class);
+    Mockito.when(context.isPreview()).thenReturn(true);
+
+    Assert.assertFalse(splitFile.commit(splitFile.getSplits().get(1), SplitFile.FAILED, 0, 0, context));
+    Assert.assertTrue(splitFile.isFailed());
+    Assert.assertEquals(2, splitFile.getPendingSplits().size());
+    Mockito.verify(context, Mockito.never()).commitOffset(Mockito.anyString(), Mockito.anyString());
+
+    SplitFile resumed = SplitFile.resume(wrappedFile, "file.csv", splitFile.getOffset().getSplits(), 1);
+    Assert.assertTrue(resumed.isFailed());
+    List<SplitFile.Split> pending = resumed.getPendingSplits();
+    Assert.assertEquals(2, pending.size());
+    Assert.assertFalse(resumed.commit(pending.get(0), "-1", 0, 0, context));
+    Assert.assertTrue(resumed.commit(pending.get(1), "-1", 0, 0, context));
+  }
+}
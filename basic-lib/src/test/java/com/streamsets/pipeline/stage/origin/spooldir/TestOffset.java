@@ -125,4 +125,20 @@ public class TestOffset {
     Assert.assertEquals(fileName, offset.getFile());
     Assert.assertEquals("0", offset.getOffset());
   }
+
+  @Test
+  public void testSplits() throws Exception {
+    final String fileName = "large.csv";
+    final String splits = "0:100:-1;100:200:42";
+
+    Offset offset = new Offset(Offset.VERSION_ONE, fileName, "0", splits);
+    Offset restored = new Offset(Offset.VERSION_ONE, fileName, offset.getOffsetString());
+
+    Assert.assertEquals(fileName, restored.getFile());
+    Assert.assertEquals("0", restored.getOffset());
+    Assert.assertEquals(splits, restored.getSplits());
+
+    restored = new Offset(Offset.VERSION_ONE, fileName, new Offset(Offset.VERSION_ONE, fileName, "0").getOffsetString());
+    Assert.assertNull(restored.getSplits());
+  }
 }
@@ -17,6 +17,7 @@ package com.streamsets.pipeline.stage.origin.spooldir;
 
 import com.streamsets.pipeline.api.Config;
 import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.lib.dirspooler.FileDiscoveryMode;
 import com.streamsets.pipeline.lib.dirspooler.FileOrdering;
 import com.streamsets.pipeline.lib.dirspooler.PathMatcherMode;
 import org.junit.Test;
@@ -77,4 +78,30 @@ public class TestSpoolDirSourceUpgrader {
     assertEquals(5, upgraded.get(0).getValue());
     assertEquals("conf.spoolingPeriod", upgraded.get(0).getName());
   }
+
+  @Test
+  public void testV10toV11() throws StageException {
+    SpoolDirSourceUpgrader spoolDirSourceUpgrader = new SpoolDirSourceUpgrader();
+
+    List<Config> configs = new ArrayList<>();
+    List<Config> upgraded = spoolDirSourceUpgrader.upgrade("x", "y", "z", 10, 11, configs);
+
+    assertEquals(1, upgraded.size());
+    assertEquals(FileDiscoveryMode.SCAN, upgraded.get(0).getValue());
+    assertEquals("conf.discoveryMode", upgraded.get(0).getName());
+  }
+
+  @Test
+  public void testV11toV12() throws StageException {
+    SpoolDirSourceUpgrader spoolDirSourceUpgrader = new SpoolDirSourceUpgrader();
+
+    List<Config> configs = new ArrayList<>();
+    List<Config> upgraded = spoolDirSourceUpgrader.upgrade("x", "y", "z", 11, 12, configs);
+
+    assertEquals(2, upgraded.size());
+    assertEquals("conf.splitLargeFiles", upgraded.get(0).getName());
+    assertEquals(false, upgraded.get(0).getValue());
+    assertEquals("conf.minSplitSize", upgraded.get(1).getName());
+    assertEquals(128, upgraded.get(1).getValue());
+  }
 }
@@ -18,20 +18,103 @@ package com.streamsets.pipeline.stage.origin.udp;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.config.DatagramMode;
+import com.streamsets.pipeline.lib.parser.net.raw.RawDataMode;
+import com.streamsets.pipeline.lib.udp.PacketQueueUDPHandler;
+import com.streamsets.pipeline.lib.udp.PacketRingBufferUDPHandler;
 import com.streamsets.pipeline.sdk.PushSourceRunner;
 import com.streamsets.pipeline.sdk.StageRunner;
+import com.streamsets.testing.NetworkUtils;
 import org.junit.Assert;
 import org.junit.Ignore;
+import org.junit.Test;
 
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
-@Ignore
 public class TestMultithreadedUDPSource extends BaseUDPSourceTest {
   private PushSourceRunner pushRunner;
   private MultithreadedUDPSource multithreadedSource;
 
+  @Test
+  @Ignore
+  @Override
+  public void testBasic() throws Exception {
+    super.testBasic();
+  }
+
+  @Test
+  @Ignore
+  @Override
+  public void testBasicEpoll() throws Exception {
+    super.testBasicEpoll();
+  }
+
+  @Test(timeout = 60000)
+  public void testRingBuffer() throws Exception {
+    List<String> ports = NetworkUtils.getRandomPorts(1);
+    UDPSourceConfigBean conf = new UDPSourceConfigBean();
+    conf.ports = ports;
+    conf.enableEpoll = false;
+    conf.numThreads = 1;
+    conf.dataFormat = DatagramMode.RAW_DATA;
+    conf.maxWaitTime = 1000;
+    conf.batchSize = 1000;
+    conf.rawDataSeparatorBytes = ",";
+    conf.rawDataOutputField = "/data";
+    conf.rawDataCharset = UTF8;
+    conf.rawDataMode = RawDataMode.CHARACTER;
+
+    multithreadedSource = new MultithreadedUDPSource(conf, 16, 1, PacketBuffering.RING_BUFFER, 2);
+    pushRunner = new PushSourceRunner.Builder(MultithreadedUDPDSource.class, multithreadedSource)
+        .addOutputLane(OUTPUT_LANE)
+        .build();
+    pushRunner.runInit();
+    try {
+      byte[] bytes = "a,b,c".getBytes(UTF8);
+      try (DatagramSocket clientSocket = new DatagramSocket()) {
+        for (int i = 0; i < 2; i++) {
+          clientSocket.send(new DatagramPacket(bytes, bytes.length, InetAddress.getLoopbackAddress(),
+              Integer.parseInt(ports.get(0))));
+        }
+      }
+
+      List<String> values = Collections.synchronizedList(new ArrayList<>());
+      pushRunner.runProduce(new HashMap<>(), 10, new PushSourceRunner.Callback() {
+        @Override
+        public void processBatch(StageRunner.Output output) {
+          for (Record record : getOutputRecords(output)) {
+            values.add(record.get("/data").getValueAsString());
+          }
+          if (values.size() >= 6) {
+            pushRunner.setStop();
+          }
+        }
+      });
+      pushRunner.waitOnProduce();
+
+      // the records of a packet are kept together, whichever parser thread parsed it
+      Assert.assertEquals(Arrays.asList("a", "b", "c", "a", "b", "c"), values);
+
+      Map<String, Object> gauge = pushRunner.getContext()
+          .getGauge(MultithreadedUDPSource.PACKET_QUEUE_GAUGE_NAME)
+          .getValue();
+      Assert.assertEquals(16, gauge.get(PacketRingBufferUDPHandler.GAUGE_RING_BUFFER_CAPACITY));
+      Assert.assertTrue(gauge.containsKey(PacketRingBufferUDPHandler.GAUGE_RING_BUFFER_OCCUPANCY));
+      Assert.assertEquals(2L, gauge.get(PacketQueueUDPHandler.GAUGE_NUM_QUEUED_PACKETS));
+      Assert.assertFalse(gauge.containsKey(PacketQueueUDPHandler.GAUGE_NUM_DROPPED_PACKETS));
+    } finally {
+      destroyRunner();
+    }
+  }
+
   @Override
   protected void initializeRunner(UDPSourceConfigBean conf, int numThreads) throws StageException {
     multithreadedSource = new MultithreadedUDPSource(
@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.stage.processor.aggregation;
 
+import com.google.common.collect.ImmutableMap;
 import com.streamsets.pipeline.api.EventRecord;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
@@ -23,6 +24,7 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.sdk.ProcessorRunner;
 import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.sdk.StageRunner;
+import com.streamsets.pipeline.stage.processor.aggregation.aggregator.Aggregator;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
 import org.junit.Test;
@@ -32,7 +34,9 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
@@ -76,6 +80,116 @@ public class TestAggregationProcessor {
     return aggregationConfigBean;
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPreAggregateBatches() throws StageException {
+    AggregationConfigBean aggregationConfigBean = getAggregationConfigBean();
+    aggregationConfigBean.preAggregateBatches = true;
+    AggregatorConfig aggregatorConfig = aggregationConfigBean.aggregatorConfigs.get(0);
+    aggregatorConfig.enabled = true;
+    aggregatorConfig.aggregationExpression = "${record:value('/v')}";
+    aggregatorConfig.groupBy = true;
+    aggregatorConfig.groupByExpression = "${record:value('/g')}";
+
+    AggregationProcessor aggregationProcessor = new AggregationProcessor(aggregationConfigBean);
+    ProcessorRunner runner = new ProcessorRunner.Builder(AggregationDProcessor.class, aggregationProcessor)
+        .addOutputLane("a").build();
+
+    try {
+      runner.runInit();
+      List<Record> records = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        Record record = RecordCreator.create();
+        record.set(Field.create(ImmutableMap.of("g", Field.create("g" + (i % 2)), "v", Field.create(i))));
+        records.add(record);
+      }
+      StageRunner.Output output = runner.runProcess(records);
+      Assert.assertEquals(10, output.getRecords().get("a").size());
+
+      Aggregator aggregator = aggregationProcessor.getEvaluators().getEvaluators().get(0).getAggregator();
+      Assert.assertEquals(ImmutableMap.of("g0", 20L, "g1", 25L), aggregator.get());
+
+      runner.runProcess(records.subList(0, 2));
+      Assert.assertEquals(ImmutableMap.of("g0", 20L, "g1", 26L), aggregator.get());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPreAggregateBatchesWithoutValues() throws StageException {
+    AggregationConfigBean aggregationConfigBean = getAggregationConfigBean();
+    aggregationConfigBean.preAggregateBatches = true;
+
+    AggregatorConfig filtered = getAggregatorConfig("filtered");
+    filtered.enabled = true;
+    filtered.aggregationFunction = AggregationFunction.MIN_INTEGER;
+    filtered.aggregationExpression = "${record:value('/v')}";
+    filtered.filter = true;
+    filtered.filterPredicate = "${record:value('/v') > 100}";
+
+    AggregatorConfig nullValues = getAggregatorConfig("nullValues");
+    nullValues.enabled = true;
+    nullValues.aggregationFunction = AggregationFunction.MAX_DOUBLE;
+    nullValues.aggregationExpression = "${record:value('/d')}";
+
+    AggregatorConfig groupBy = getAggregatorConfig("groupBy");
+    groupBy.enabled = true;
+    groupBy.aggregationFunction = AggregationFunction.MAX_INTEGER;
+    groupBy.aggregationExpression = "${record:value('/n')}";
+    groupBy.groupBy = true;
+    groupBy.groupByExpression = "${record:value('/g')}";
+
+    aggregationConfigBean.aggregatorConfigs = Arrays.asList(filtered, nullValues, groupBy);
+
+    AggregationProcessor aggregationProcessor = new AggregationProcessor(aggregationConfigBean);
+    ProcessorRunner runner = new ProcessorRunner.Builder(AggregationDProcessor.class, aggregationProcessor)
+        .addOutputLane("a").build();
+
+    try {
+      runner.runInit();
+      List<AggregationEvaluator> evaluators = aggregationProcessor.getEvaluators().getEvaluators();
+
+      // the filter rejects all the records and all the values are null
+      List<Record> records = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        Record record = RecordCreator.create();
+        record.set(Field.create(ImmutableMap.of(
+            "g", Field.create("g" + (i % 2)),
+            "v", Field.create(i),
+            "d", Field.create(Field.Type.DOUBLE, null),
+            "n", Field.create(Field.Type.INTEGER, null)
+        )));
+        records.add(record);
+      }
+      StageRunner.Output output = runner.runProcess(records);
+      Assert.assertEquals(4, output.getRecords().get("a").size());
+      Assert.assertNull(evaluators.get(0).getAggregator().get());
+      Assert.assertNull(evaluators.get(1).getAggregator().get());
+      Assert.assertEquals(Collections.emptyMap(), evaluators.get(2).getAggregator().get());
+
+      // values in some of the records only
+      records = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        Record record = RecordCreator.create();
+        record.set(Field.create(ImmutableMap.of(
+            "g", Field.create("g" + (i % 2)),
+            "v", Field.create(i * 100),
+            "d", i == 1 ? Field.create(1.5d) : Field.create(Field.Type.DOUBLE, null),
+            "n", i < 2 ? Field.create(i) : Field.create(Field.Type.INTEGER, null)
+        )));
+        records.add(record);
+      }
+      runner.runProcess(records);
+      Assert.assertEquals(200L, evaluators.get(0).getAggregator().get());
+      Assert.assertEquals(1.5d, evaluators.get(1).getAggregator().get());
+      Assert.assertEquals(ImmutableMap.of("g0", 0L, "g1", 1L), evaluators.get(2).getAggregator().get());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   @Test
   public void testInvalidAggregationConfigs() throws StageException {
 
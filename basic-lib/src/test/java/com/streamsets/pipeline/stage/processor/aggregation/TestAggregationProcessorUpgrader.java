@@ -41,4 +41,22 @@ public class TestAggregationProcessorUpgrader {
     );
     Assert.assertEquals(true, config.getValue());
   }
+
+  @Test
+  public void testUpgradeV2toV3PreAggregateBatches() throws Exception {
+    List<Config> configs = new ArrayList<>();
+    AggregationProcessorUpgrader aggregationProcessorUpgrader = new AggregationProcessorUpgrader();
+    aggregationProcessorUpgrader.upgrade("a", "b", "c", 2, 3, configs);
+
+    Assert.assertEquals(1, configs.size());
+    Config config = configs.get(0);
+    Assert.assertEquals(
+        AggregationProcessorUpgrader.JOINER.join(
+            AggregationProcessorUpgrader.CONFIG,
+            AggregationProcessorUpgrader.PRE_AGGREGATE_BATCHES
+        ),
+        config.getName()
+    );
+    Assert.assertEquals(false, config.getValue());
+  }
 }
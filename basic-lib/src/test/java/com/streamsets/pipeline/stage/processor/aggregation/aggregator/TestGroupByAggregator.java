@@ -20,7 +20,13 @@ import com.streamsets.pipeline.stage.processor.aggregation.WindowType;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TestGroupByAggregator {
 
@@ -70,4 +76,58 @@ public class TestGroupByAggregator {
     aggregators.stop();
   }
 
+
+  @Test
+  public void testLocalAggregatorData() {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING);
+    GroupByAggregator<LongSumAggregator, Long> aggregator = aggregators.createGroupBy("g", LongSumAggregator.class);
+    aggregators.start(1);
+
+    aggregator.process("a", 1L);
+
+    AggregatorData<GroupByAggregator, Map<String, Long>> localData = aggregator.createLocalAggregatorData();
+    localData.process(ImmutableMap.of("a", 2L));
+    localData.process(ImmutableMap.of("b", 3L));
+    Assert.assertEquals(ImmutableMap.of("a", 1L), aggregator.get());
+
+    aggregator.aggregate(localData.getAggregatable());
+    Assert.assertEquals(ImmutableMap.of("a", 3L, "b", 3L), aggregator.get());
+
+    aggregators.stop();
+  }
+
+  @Test
+  public void testConcurrentProcess() throws Exception {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING);
+    GroupByAggregator<CountAggregator, Long> aggregator = aggregators.createGroupBy("g", CountAggregator.class);
+    aggregators.start(1);
+
+    int threads = 8;
+    int values = 10000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < values; i++) {
+            aggregator.process("g" + (i % 16), 1L);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Map<String, Long> counts = aggregator.get();
+    Assert.assertEquals(16, counts.size());
+    for (long count : counts.values()) {
+      Assert.assertEquals(threads * values / 16, count);
+    }
+
+    aggregators.stop();
+  }
+
 }
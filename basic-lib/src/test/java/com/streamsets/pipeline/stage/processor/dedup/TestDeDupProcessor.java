@@ -16,6 +16,7 @@
 package com.streamsets.pipeline.stage.processor.dedup;
 
 import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.runner.StageContext;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Processor;
@@ -27,6 +28,8 @@ import com.streamsets.pipeline.sdk.StageRunner;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -374,6 +377,117 @@ public class TestDeDupProcessor {
     }
   }
 
+  @Test
+  public void testOffHeapDupAcrossRestarts() throws Exception {
+    File dir = Files.createTempDirectory("dedup").toFile();
+
+    Processor processor = new DeDupProcessor(4, 0, SelectFields.ALL_FIELDS, Collections.EMPTY_LIST,
+        StorageMode.OFF_HEAP, dir.getAbsolutePath());
+    ProcessorRunner runner = new ProcessorRunner.Builder(DeDupDProcessor.class, processor)
+        .addOutputLane("unique")
+        .addOutputLane("duplicate")
+        .build();
+    runner.runInit();
+    try {
+      StageRunner.Output output = runner.runProcess(ImmutableList.of(
+          createRecordWithValue("a"),
+          createRecordWithValue("b"),
+          createRecordWithValue("a")
+      ));
+      Assert.assertEquals(2, output.getRecords().get("unique").size());
+      Assert.assertEquals(1, output.getRecords().get("duplicate").size());
+
+      // not committed, the next run replays it
+      output = runner.runProcess(ImmutableList.of(createRecordWithValue("c")));
+      Assert.assertEquals(1, output.getRecords().get("unique").size());
+
+      Map<String, Object> gauge = runner.getContext().getGauge(DeDupProcessor.INDEX_GAUGE_NAME).getValue();
+      Assert.assertEquals(1L, gauge.get(DeDupProcessor.GAUGE_HITS));
+      Assert.assertEquals(3L, gauge.get(DeDupProcessor.GAUGE_MISSES));
+      Assert.assertEquals(3L, gauge.get(DeDupProcessor.GAUGE_SIZE));
+    } finally {
+      runner.runDestroy();
+    }
+
+    processor = new DeDupProcessor(4, 0, SelectFields.ALL_FIELDS, Collections.EMPTY_LIST,
+        StorageMode.OFF_HEAP, dir.getAbsolutePath());
+    runner = new ProcessorRunner.Builder(DeDupDProcessor.class, processor)
+        .addOutputLane("unique")
+        .addOutputLane("duplicate")
+        .build();
+    runner.runInit();
+    try {
+      StageRunner.Output output = runner.runProcess(ImmutableList.of(
+          createRecordWithValue("c"),
+          createRecordWithValue("b"),
+          createRecordWithValue("a")
+      ));
+      Assert.assertEquals(1, output.getRecords().get("unique").size());
+      Assert.assertEquals("c", output.getRecords().get("unique").get(0).get("/value").getValueAsString());
+      Assert.assertEquals(2, output.getRecords().get("duplicate").size());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testOffHeapCheckpointOnStop() throws Exception {
+    File dir = Files.createTempDirectory("dedup").toFile();
+
+    Processor processor = new DeDupProcessor(4, 0, SelectFields.ALL_FIELDS, Collections.EMPTY_LIST,
+        StorageMode.OFF_HEAP, dir.getAbsolutePath());
+    ProcessorRunner runner = new ProcessorRunner.Builder(DeDupDProcessor.class, processor)
+        .addOutputLane("unique")
+        .addOutputLane("duplicate")
+        .build();
+    runner.runInit();
+    try {
+      runner.runProcess(ImmutableList.of(createRecordWithValue("a")));
+      // stopped after the batch, its offset has been committed
+      ((StageContext) runner.getContext()).setStop(true);
+    } finally {
+      runner.runDestroy();
+    }
+
+    processor = new DeDupProcessor(4, 0, SelectFields.ALL_FIELDS, Collections.EMPTY_LIST,
+        StorageMode.OFF_HEAP, dir.getAbsolutePath());
+    runner = new ProcessorRunner.Builder(DeDupDProcessor.class, processor)
+        .addOutputLane("unique")
+        .addOutputLane("duplicate")
+        .build();
+    runner.runInit();
+    try {
+      StageRunner.Output output = runner.runProcess(ImmutableList.of(createRecordWithValue("a")));
+      Assert.assertEquals(1, output.getRecords().get("duplicate").size());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testOffHeapPreview() throws Exception {
+    File dir = Files.createTempDirectory("dedup").toFile();
+
+    Processor processor = new DeDupProcessor(4, 0, SelectFields.ALL_FIELDS, Collections.EMPTY_LIST,
+        StorageMode.OFF_HEAP, dir.getAbsolutePath());
+    ProcessorRunner runner = new ProcessorRunner.Builder(DeDupDProcessor.class, processor)
+        .addOutputLane("unique")
+        .addOutputLane("duplicate")
+        .setPreview(true)
+        .build();
+    runner.runInit();
+    try {
+      StageRunner.Output output = runner.runProcess(ImmutableList.of(
+          createRecordWithValue("a"),
+          createRecordWithValue("a")
+      ));
+      Assert.assertEquals(1, output.getRecords().get("duplicate").size());
+    } finally {
+      runner.runDestroy();
+    }
+    Assert.assertEquals(0, dir.list().length);
+  }
+
   @Test
   public void testWildCardDedup() throws Exception {
     Processor processor = new DeDupProcessor(4, 1, SelectFields.SPECIFIED_FIELDS,
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.dedup;
+
+import com.streamsets.pipeline.api.Config;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestDeDupProcessorUpgrader {
+
+  @Test
+  public void testV1ToV2() throws Exception {
+    List<Config> configs = new ArrayList<>();
+    configs.add(new Config("recordCountWindow", 1000));
+
+    DeDupProcessorUpgrader upgrader = new DeDupProcessorUpgrader();
+    upgrader.upgrade("a", "b", "c", 1, 2, configs);
+
+    Map<String, Object> map = new HashMap<>();
+    for (Config config : configs) {
+      map.put(config.getName(), config.getValue());
+    }
+    Assert.assertEquals(3, configs.size());
+    Assert.assertEquals(StorageMode.HEAP, map.get("storageMode"));
+    Assert.assertEquals("", map.get("indexDirectory"));
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.dedup;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class TestOffHeapDedupIndex {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Test
+  public void testHashTableAgainstHashSet() {
+    OffHeapHashTable table = new OffHeapHashTable(1000);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      // small key space and few distinct low bits to get plenty of collisions and wrap arounds
+      long key = random.nextInt(700) * 16L + 1;
+      if (random.nextBoolean() && expected.size() < 1000) {
+        Assert.assertEquals(expected.add(key), table.add(key, -key));
+      } else {
+        Assert.assertEquals(expected.remove(key), table.remove(key, -key));
+      }
+      Assert.assertEquals(expected.size(), table.size());
+    }
+    for (int i = 0; i < 700; i++) {
+      long key = i * 16L + 1;
+      Assert.assertEquals(expected.contains(key), table.contains(key, -key));
+    }
+  }
+
+  @Test
+  public void testCountEviction() throws Exception {
+    OffHeapDedupIndex index = OffHeapDedupIndex.open(testFolder.newFile(), 3, 0);
+    Assert.assertTrue(index.add(1, 1, 0));
+    Assert.assertTrue(index.add(2, 2, 0));
+    Assert.assertTrue(index.add(3, 3, 0));
+    Assert.assertFalse(index.add(1, 1, 0));
+    Assert.assertTrue(index.add(4, 4, 0));
+    Assert.assertTrue(index.add(1, 1, 0));
+    Assert.assertFalse(index.add(4, 4, 0));
+    Assert.assertEquals(3, index.getSize());
+    Assert.assertEquals(2, index.getHits());
+    Assert.assertEquals(5, index.getMisses());
+    Assert.assertEquals(2, index.getEvictions());
+  }
+
+  @Test
+  public void testTimeEviction() throws Exception {
+    OffHeapDedupIndex index = OffHeapDedupIndex.open(testFolder.newFile(), 10, 1000);
+    Assert.assertTrue(index.add(1, 1, 0));
+    Assert.assertTrue(index.add(2, 2, 500));
+    Assert.assertFalse(index.add(1, 1, 999));
+    Assert.assertTrue(index.add(1, 1, 1000));
+    Assert.assertFalse(index.add(2, 2, 1000));
+    index.expire(1500);
+    Assert.assertEquals(1, index.getSize());
+    Assert.assertEquals(2, index.getEvictions());
+  }
+
+  @Test
+  public void testZeroHash() throws Exception {
+    OffHeapDedupIndex index = OffHeapDedupIndex.open(testFolder.newFile(), 10, 0);
+    Assert.assertTrue(index.add(0, 0, 0));
+    Assert.assertFalse(index.add(0, 0, 0));
+    Assert.assertTrue(index.add(0, 1, 0));
+    Assert.assertFalse(index.add(0, 1, 0));
+    Assert.assertEquals(2, index.getSize());
+  }
+
+  @Test
+  public void testHashTableZeroHash() {
+    OffHeapHashTable table = new OffHeapHashTable(10);
+    Assert.assertFalse(table.contains(0, 0));
+    Assert.assertTrue(table.add(0, 0));
+    Assert.assertTrue(table.add(0, 1));
+    Assert.assertTrue(table.remove(0, 0));
+    Assert.assertFalse(table.contains(0, 0));
+    Assert.assertTrue(table.contains(0, 1));
+    Assert.assertEquals(1, table.size());
+  }
+
+  @Test
+  public void testCheckpointWithSeveralRunners() throws Exception {
+    File file = testFolder.newFile();
+    OffHeapDedupIndex index = OffHeapDedupIndex.open(file, 10, 0);
+    index.register(0);
+    index.register(1);
+    index.startBatch(0);
+    index.add(1, 1, 0);
+    index.startBatch(1);
+    index.add(2, 2, 0);
+    // runner 0 batch committed, runner 1 batch still running
+    index.startBatch(0);
+    index.add(3, 3, 0);
+    Assert.assertFalse(index.unregister(0, true));
+    // runner 1 stops without committing its batch
+    Assert.assertTrue(index.unregister(1, false));
+    index.close();
+
+    index = OffHeapDedupIndex.open(file, 10, 0);
+    Assert.assertEquals(1, index.getSize());
+    Assert.assertFalse(index.add(1, 1, 0));
+    Assert.assertTrue(index.add(2, 2, 0));
+    index.close();
+  }
+
+  @Test
+  public void testRecovery() throws Exception {
+    File file = testFolder.newFile();
+    OffHeapDedupIndex index = OffHeapDedupIndex.open(file, 3, 0);
+    index.add(1, 1, 0);
+    index.add(2, 2, 0);
+    index.add(3, 3, 0);
+    index.checkpoint();
+    // not committed, overwrites the slot of the oldest committed entry
+    index.add(4, 4, 0);
+
+    index = OffHeapDedupIndex.open(file, 3, 0);
+    Assert.assertEquals(2, index.getSize());
+    Assert.assertTrue(index.add(4, 4, 0));
+    Assert.assertFalse(index.add(2, 2, 0));
+    Assert.assertFalse(index.add(3, 3, 0));
+    index.checkpoint();
+
+    index = OffHeapDedupIndex.open(file, 3, 0);
+    Assert.assertEquals(3, index.getSize());
+    Assert.assertFalse(index.add(4, 4, 0));
+    Assert.assertTrue(index.add(5, 5, 0));
+    Assert.assertTrue(index.add(2, 2, 0));
+  }
+
+  @Test
+  public void testRecoveryWithDifferentCapacity() throws Exception {
+    File file = testFolder.newFile();
+    OffHeapDedupIndex index = OffHeapDedupIndex.open(file, 3, 0);
+    index.add(1, 1, 0);
+    index.checkpoint();
+
+    index = OffHeapDedupIndex.open(file, 4, 0);
+    Assert.assertEquals(0, index.getSize());
+    Assert.assertTrue(index.add(1, 1, 0));
+  }
+
+}
@@ -45,12 +45,28 @@ public class OverrunStreamingJsonParser implements StreamingJsonParser {
   }
 
   public OverrunStreamingJsonParser(Stage.Context context, Reader reader, long initialPosition, Mode mode, int maxObjectLength) throws IOException {
+    this(context, reader, initialPosition, mode, maxObjectLength, Object.class);
+  }
+
+  /**
+   * Use <code>Field.class</code> as <code>objectClass</code> to have {@link #read()} return
+   * {@link com.streamsets.pipeline.api.Field}s built directly from the JSON tokens instead of <code>Map</code>s and
+   * <code>List</code>s.
+   */
+  public OverrunStreamingJsonParser(
+      Stage.Context context,
+      Reader reader,
+      long initialPosition,
+      Mode mode,
+      int maxObjectLength,
+      Class<?> objectClass
+  ) throws IOException {
     jsonReader = ((ContextExtensions) context).createJsonObjectReader(
         reader,
         initialPosition,
         maxObjectLength,
         mode,
-        Object.class
+        objectClass
     );
   }
 
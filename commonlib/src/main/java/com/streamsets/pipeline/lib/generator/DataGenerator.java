@@ -19,6 +19,7 @@ import com.streamsets.pipeline.api.Record;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public interface DataGenerator extends Closeable {
 
@@ -26,6 +27,24 @@ public interface DataGenerator extends Closeable {
 
   public void flush() throws IOException;
 
+  /**
+   * Returns if the generator can be {@link #reset(OutputStream)}. Only generators of data formats without headers
+   * or footers, where a flushed output is a complete output, can be reset.
+   */
+  default boolean isResettable() {
+    return false;
+  }
+
+  /**
+   * Makes the generator start a new, independent, output on the given stream. The current output must have been
+   * flushed, it is not closed. This allows reusing a generator, and its buffers, to produce many small outputs.
+   *
+   * @throws UnsupportedOperationException if the generator is not resettable.
+   */
+  default void reset(OutputStream os) throws IOException {
+    throw new UnsupportedOperationException("reset");
+  }
+
   @Override
   public void close() throws IOException;
 
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.generator;
+
+import com.streamsets.pipeline.api.Record;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Serializes records, or groups of records, into byte arrays reusing the same buffer and, when the data format
+ * allows it, the same {@link DataGenerator} for all of them.
+ * <p/>
+ * Usage:
+ * <pre>
+ *   DataGenerator generator = buffer.getGenerator();
+ *   generator.write(record);
+ *   byte[] bytes = buffer.toByteArray();
+ * </pre>
+ * Instances are not thread safe, stages should use one per runner.
+ */
+public class DataGeneratorBuffer implements Closeable {
+  private final DataGeneratorFactory factory;
+  private final ByteArrayOutputStream buffer;
+  private DataGenerator generator;
+  private boolean pending;
+
+  public DataGeneratorBuffer(DataGeneratorFactory factory, int initialSize) {
+    this.factory = factory;
+    this.buffer = new ByteArrayOutputStream(initialSize);
+  }
+
+  /**
+   * Starts a new output and returns the generator to write it, the output is completed by {@link #toByteArray()}.
+   */
+  public DataGenerator getGenerator() throws IOException {
+    buffer.reset();
+    if (pending) {
+      // the previous output was abandoned half way, the generator may hold partial data
+      discardGenerator();
+    }
+    if (generator == null) {
+      generator = factory.getGenerator(buffer);
+    } else {
+      generator.reset(buffer);
+    }
+    pending = true;
+    return generator;
+  }
+
+  /**
+   * Completes the current output and returns it.
+   */
+  public byte[] toByteArray() throws IOException {
+    if (generator != null && pending) {
+      pending = false;
+      if (generator.isResettable()) {
+        generator.flush();
+      } else {
+        DataGenerator current = generator;
+        generator = null;
+        current.close();
+      }
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Serializes a single record.
+   */
+  public byte[] serialize(Record record) throws IOException, DataGeneratorException {
+    getGenerator().write(record);
+    return toByteArray();
+  }
+
+  private void discardGenerator() {
+    pending = false;
+    if (generator != null) {
+      try {
+        generator.close();
+      } catch (IOException ex) {
+        // the generator writes to memory, there is nothing to clean up
+      } finally {
+        generator = null;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    discardGenerator();
+  }
+}
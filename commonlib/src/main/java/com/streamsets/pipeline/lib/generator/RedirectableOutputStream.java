@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that writes to a target stream that can be replaced. Data generators write through it so that they
+ * can be {@link DataGenerator#reset(OutputStream) reset} without recreating their writers and buffers.
+ */
+public class RedirectableOutputStream extends OutputStream {
+  private OutputStream target;
+
+  public RedirectableOutputStream(OutputStream target) {
+    this.target = target;
+  }
+
+  /**
+   * Replaces the target stream, the previous one is neither flushed nor closed.
+   */
+  public void redirect(OutputStream target) {
+    this.target = target;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    target.write(b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    target.write(b, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    target.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    target.close();
+  }
+}
@@ -124,6 +124,21 @@ public class AvroDataGeneratorFactory extends DataGeneratorFactory {
     }
   }
 
+  /**
+   * Returns the Avro schema of the records, or null if it is read from the header of every record.
+   */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  public Map<String, Object> getDefaultValuesFromSchema() {
+    return defaultValuesFromSchema;
+  }
+
+  public boolean isSchemaInHeader() {
+    return schemaSource == DestinationAvroSchemaSource.HEADER;
+  }
+
   @Override
   public DataGenerator getGenerator(OutputStream os) throws IOException {
     DataGenerator dataGenerator;
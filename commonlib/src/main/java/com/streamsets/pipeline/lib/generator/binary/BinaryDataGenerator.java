@@ -28,7 +28,7 @@ public class BinaryDataGenerator implements DataGenerator {
 
   private final String fieldPath;
   private boolean closed;
-  private final OutputStream outputStream;
+  private OutputStream outputStream;
 
   public BinaryDataGenerator(OutputStream outputStream, String fieldPath)
       throws IOException {
@@ -67,6 +67,19 @@ public class BinaryDataGenerator implements DataGenerator {
     outputStream.flush();
   }
 
+  @Override
+  public boolean isResettable() {
+    return true;
+  }
+
+  @Override
+  public void reset(OutputStream os) throws IOException {
+    if (closed) {
+      throw new IOException("generator has been closed");
+    }
+    outputStream = os;
+  }
+
   @Override
   public void close() throws IOException {
     closed = true;
@@ -23,19 +23,45 @@ import com.streamsets.pipeline.api.ext.JsonRecordWriter;
 import com.streamsets.pipeline.api.ext.json.Mode;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.generator.RedirectableOutputStream;
 
+import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 public class JsonCharDataGenerator implements DataGenerator {
 
-  private final JsonRecordWriter recordWriter;
+  private final ContextExtensions ext;
+  private final Writer writer;
+  private final RedirectableOutputStream outputStream;
+  private JsonRecordWriter recordWriter;
   private final Mode mode;
 
   public JsonCharDataGenerator(ProtoConfigurableEntity.Context context, Writer writer, Mode mode) throws IOException {
+    this(context, null, writer, mode);
+  }
+
+  /**
+   * Creates a generator that can be reset if it is in multiple objects mode, the given writer must write to the
+   * given redirectable output stream.
+   */
+  public JsonCharDataGenerator(
+      ProtoConfigurableEntity.Context context,
+      RedirectableOutputStream outputStream,
+      Writer writer,
+      Mode mode
+  ) throws IOException {
     this.mode = mode;
-    ContextExtensions ext = ((ContextExtensions) context);
-    recordWriter = ext.createJsonRecordWriter(writer, mode);
+    this.ext = ((ContextExtensions) context);
+    this.writer = writer;
+    this.outputStream = (mode == Mode.MULTIPLE_OBJECTS) ? outputStream : null;
+    recordWriter = createRecordWriter();
+  }
+
+  private JsonRecordWriter createRecordWriter() throws IOException {
+    // a resettable generator keeps its writer, and the writer buffer, across record writers
+    return ext.createJsonRecordWriter(isResettable() ? new NonClosingWriter(writer) : writer, mode);
   }
 
   @VisibleForTesting
@@ -61,8 +87,39 @@ public class JsonCharDataGenerator implements DataGenerator {
     recordWriter.flush();
   }
 
+  @Override
+  public boolean isResettable() {
+    return outputStream != null;
+  }
+
+  @Override
+  public void reset(OutputStream os) throws IOException {
+    if (!isResettable()) {
+      throw new UnsupportedOperationException("reset");
+    }
+    // the record writer keeps track of the separator between the root objects, a new output needs a new one
+    recordWriter.close();
+    outputStream.redirect(os);
+    recordWriter = createRecordWriter();
+  }
+
   @Override
   public void close() throws IOException {
     recordWriter.close();
+    if (isResettable()) {
+      writer.close();
+    }
+  }
+
+  private static class NonClosingWriter extends FilterWriter {
+
+    NonClosingWriter(Writer writer) {
+      super(writer);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
   }
 }
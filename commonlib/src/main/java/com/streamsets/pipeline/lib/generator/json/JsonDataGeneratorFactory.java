@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.ext.json.Mode;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.RedirectableOutputStream;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -42,7 +43,8 @@ public class JsonDataGeneratorFactory extends DataGeneratorFactory {
 
   @Override
   public DataGenerator getGenerator(OutputStream os) throws IOException {
-    return new JsonCharDataGenerator(getSettings().getContext(), createWriter(os), mode);
+    RedirectableOutputStream stream = new RedirectableOutputStream(os);
+    return new JsonCharDataGenerator(getSettings().getContext(), stream, createWriter(stream), mode);
   }
 
 }
@@ -20,14 +20,17 @@ import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.config.TextFieldMissingAction;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.generator.RedirectableOutputStream;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 public class TextCharDataGenerator implements DataGenerator {
   private final String fieldPath;
   private final boolean recordSeparatorIfNull;
   private final Writer writer;
+  private final RedirectableOutputStream outputStream;
   private boolean closed;
   private final String recordSeparator;
   private final TextFieldMissingAction missingAction;
@@ -39,6 +42,21 @@ public class TextCharDataGenerator implements DataGenerator {
     String recordSeparator,
     TextFieldMissingAction missingAction
   ) throws IOException {
+    this(null, writer, fieldPath, recordSeparatorIfNull, recordSeparator, missingAction);
+  }
+
+  /**
+   * Creates a generator that can be reset, the given writer must write to the given redirectable output stream.
+   */
+  public TextCharDataGenerator(
+    RedirectableOutputStream outputStream,
+    Writer writer,
+    String fieldPath,
+    boolean recordSeparatorIfNull,
+    String recordSeparator,
+    TextFieldMissingAction missingAction
+  ) throws IOException {
+    this.outputStream = outputStream;
     this.writer = writer;
     this.fieldPath = fieldPath;
     this.recordSeparatorIfNull = recordSeparatorIfNull;
@@ -97,6 +115,23 @@ public class TextCharDataGenerator implements DataGenerator {
     writer.flush();
   }
 
+  @Override
+  public boolean isResettable() {
+    return outputStream != null;
+  }
+
+  @Override
+  public void reset(OutputStream os) throws IOException {
+    if (!isResettable()) {
+      throw new UnsupportedOperationException("reset");
+    }
+    if (closed) {
+      throw new IOException("Generator has been closed");
+    }
+    writer.flush();
+    outputStream.redirect(os);
+  }
+
   @Override
   public void close() throws IOException {
     closed = true;
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.config.TextFieldMissingAction;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.RedirectableOutputStream;
 import org.apache.commons.lang.StringEscapeUtils;
 
 import java.io.IOException;
@@ -69,8 +70,10 @@ public class TextDataGeneratorFactory extends DataGeneratorFactory {
 
   @Override
   public DataGenerator getGenerator(OutputStream os) throws IOException {
+    RedirectableOutputStream stream = new RedirectableOutputStream(os);
     return new TextCharDataGenerator(
-      createWriter(os),
+      stream,
+      createWriter(stream),
       fieldPath,
       recordSeparatorIfNullDefault,
       recordSeparator,
@@ -49,6 +49,22 @@ public class JsonCharDataParser extends AbstractDataParser {
       long readerOffset,
       Mode mode,
       int maxObjectLen
+  ) throws IOException {
+    this(context, readerId, reader, readerOffset, mode, maxObjectLen, true);
+  }
+
+  /**
+   * @param directFieldParsing if <code>true</code> the JSON tokens are turned into {@link Field}s as they are read,
+   * if <code>false</code> the JSON is first read into <code>Map</code>/<code>List</code> objects and then converted.
+   */
+  public JsonCharDataParser(
+      ProtoConfigurableEntity.Context context,
+      String readerId,
+      OverrunReader reader,
+      long readerOffset,
+      Mode mode,
+      int maxObjectLen,
+      boolean directFieldParsing
   ) throws IOException {
     this.context = context;
     this.readerId = readerId;
@@ -58,7 +74,7 @@ public class JsonCharDataParser extends AbstractDataParser {
         readerOffset,
         maxObjectLen,
         mode,
-        Object.class
+        directFieldParsing ? Field.class : Object.class
     );
   }
 
@@ -100,6 +116,8 @@ public class JsonCharDataParser extends AbstractDataParser {
     Field field;
     if (json == null) {
       field = Field.create(Field.Type.STRING, null);
+    } else if (json instanceof Field) {
+      field = (Field) json;
     } else if (json instanceof List) {
       List jsonList = (List) json;
       List<Field> list = new ArrayList<>(jsonList.size());
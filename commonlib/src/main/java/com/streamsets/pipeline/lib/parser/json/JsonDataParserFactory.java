@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.lib.parser.json;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.ext.io.OverrunReader;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -26,12 +27,17 @@ import com.streamsets.pipeline.lib.parser.DataParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
 public class JsonDataParserFactory extends DataParserFactory {
-  public static final Map<String, Object> CONFIGS = Collections.emptyMap();
+  static final String KEY_PREFIX = "json.";
+  public static final String DIRECT_FIELD_PARSING_KEY = KEY_PREFIX + "directFieldParsing";
+  public static final boolean DIRECT_FIELD_PARSING_DEFAULT = true;
+
+  public static final Map<String, Object> CONFIGS = ImmutableMap.of(
+      DIRECT_FIELD_PARSING_KEY, (Object) DIRECT_FIELD_PARSING_DEFAULT
+  );
 
   @SuppressWarnings("umchecked")
   public static final Set<Class<? extends Enum>> MODES = ImmutableSet.of(JsonMode.class);
@@ -55,7 +61,8 @@ public class JsonDataParserFactory extends DataParserFactory {
                                                          reader.getPos()));
     try {
       return new JsonCharDataParser(getSettings().getContext(), id, reader, offset,
-                                    getSettings().getMode(JsonMode.class).getFormat(), getSettings().getMaxRecordLen());
+                                    getSettings().getMode(JsonMode.class).getFormat(), getSettings().getMaxRecordLen(),
+                                    getSettings().<Boolean>getConfig(DIRECT_FIELD_PARSING_KEY));
     } catch (IOException ex) {
       throw new DataParserException(Errors.JSON_PARSER_00, id, offset, ex.toString(), ex);
     }
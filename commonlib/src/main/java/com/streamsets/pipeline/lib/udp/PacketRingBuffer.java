@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.udp;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed number of packet slots allocated upfront. Receiving threads copy the payload of the packets into free slots,
+ * so Netty buffers are released right away, and parsing threads take the filled slots and hand them back once done.
+ * <p/>
+ * Free and filled slots are kept in array backed circular queues, no memory is allocated per packet once the payload
+ * array of a slot is as large as the packets it gets. When no slot is free packets are dropped, receiving threads
+ * never block.
+ */
+public class PacketRingBuffer {
+  private static final int MIN_PAYLOAD_SIZE = 2048;
+
+  private final int capacity;
+  private final BlockingQueue<Packet> free;
+  private final BlockingQueue<Packet> filled;
+
+  public PacketRingBuffer(int capacity) {
+    this.capacity = capacity;
+    free = new ArrayBlockingQueue<>(capacity);
+    filled = new ArrayBlockingQueue<>(capacity);
+    for (int i = 0; i < capacity; i++) {
+      free.add(new Packet());
+    }
+  }
+
+  /**
+   * A slot of the ring buffer with the payload and addresses of a packet.
+   */
+  public static final class Packet {
+    private byte[] payload = new byte[0];
+    private ByteBuf content = Unpooled.EMPTY_BUFFER;
+    private InetSocketAddress recipient;
+    private InetSocketAddress sender;
+
+    private Packet() {
+    }
+
+    private void fill(ByteBuf data, InetSocketAddress recipient, InetSocketAddress sender) {
+      int length = data.readableBytes();
+      if (payload.length < length) {
+        payload = new byte[Math.max(length, MIN_PAYLOAD_SIZE)];
+        content = Unpooled.wrappedBuffer(payload);
+      }
+      data.getBytes(data.readerIndex(), payload, 0, length);
+      content.setIndex(0, length);
+      this.recipient = recipient;
+      this.sender = sender;
+    }
+
+    /**
+     * Returns the payload of the packet, only valid until the packet is released.
+     */
+    public ByteBuf getContent() {
+      return content;
+    }
+
+    public InetSocketAddress getRecipient() {
+      return recipient;
+    }
+
+    public InetSocketAddress getSender() {
+      return sender;
+    }
+  }
+
+  /**
+   * Copies the given packet into a free slot.
+   *
+   * @return <code>false</code> if there are no free slots and the packet was dropped.
+   */
+  public boolean offer(ByteBuf data, InetSocketAddress recipient, InetSocketAddress sender) {
+    Packet packet = free.poll();
+    if (packet == null) {
+      return false;
+    }
+    packet.fill(data, recipient, sender);
+    filled.add(packet);
+    return true;
+  }
+
+  /**
+   * Takes the oldest packet waiting to be parsed, it must be given back with {@link #release(Packet)}.
+   *
+   * @return the packet, <code>null</code> if none arrived within the timeout.
+   */
+  public Packet poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return filled.poll(timeout, unit);
+  }
+
+  public void release(Packet packet) {
+    packet.recipient = null;
+    packet.sender = null;
+    free.add(packet);
+  }
+
+  /**
+   * Returns the number of slots in use, waiting to be parsed or being parsed.
+   */
+  public int getOccupancy() {
+    return capacity - free.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.udp;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramPacket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copies the packets received into a {@link PacketRingBuffer}, leaving the parsing to other threads so that the
+ * event loop threads are always ready to read from the socket.
+ */
+@ChannelHandler.Sharable
+public class PacketRingBufferUDPHandler extends SimpleChannelInboundHandler<DatagramPacket> {
+  private static final Logger LOG = LoggerFactory.getLogger(PacketRingBufferUDPHandler.class);
+
+  public static final String GAUGE_RING_BUFFER_OCCUPANCY = "Ring Buffer Occupancy";
+  public static final String GAUGE_RING_BUFFER_CAPACITY = "Ring Buffer Capacity";
+
+  private final Map<String, Object> gaugeMap;
+  private final AtomicLong droppedPacketCount = new AtomicLong();
+  private final AtomicLong queuedPacketCount = new AtomicLong();
+
+  private final PacketRingBuffer ringBuffer;
+
+  public PacketRingBufferUDPHandler(Map<String, Object> gaugeMap, int ringBufferSize) {
+    this.gaugeMap = gaugeMap;
+    ringBuffer = new PacketRingBuffer(ringBufferSize);
+    gaugeMap.put(GAUGE_RING_BUFFER_CAPACITY, ringBufferSize);
+    gaugeMap.put(GAUGE_RING_BUFFER_OCCUPANCY, 0);
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    ctx.flush();
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    String msg = "Uncaught throwable in UDP Server: " + cause;
+    LOG.error(msg, cause);
+  }
+
+  @Override
+  protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket packet) throws Exception {
+    // the packet is released by SimpleChannelInboundHandler, its payload is copied
+    if (ringBuffer.offer(packet.content(), packet.recipient(), packet.sender())) {
+      gaugeMap.put(PacketQueueUDPHandler.GAUGE_NUM_QUEUED_PACKETS, queuedPacketCount.incrementAndGet());
+    } else {
+      gaugeMap.put(PacketQueueUDPHandler.GAUGE_NUM_DROPPED_PACKETS, droppedPacketCount.incrementAndGet());
+    }
+    gaugeMap.put(GAUGE_RING_BUFFER_OCCUPANCY, ringBuffer.getOccupancy());
+  }
+
+  public PacketRingBuffer getRingBuffer() {
+    return ringBuffer;
+  }
+}
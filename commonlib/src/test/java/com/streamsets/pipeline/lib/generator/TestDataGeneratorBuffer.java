@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.generator;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.ext.json.Mode;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class TestDataGeneratorBuffer {
+
+  private static Stage.Context getContext() {
+    return ContextInfoCreator.createTargetContext("i", false, OnRecordError.TO_ERROR);
+  }
+
+  private static Record createRecord(String value) {
+    Record record = RecordCreator.create();
+    record.set(Field.create(value));
+    return record;
+  }
+
+  private static String toString(byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8).trim();
+  }
+
+  @Test
+  public void testReusesResettableGenerator() throws Exception {
+    DataGeneratorFactory factory = new DataGeneratorFactoryBuilder(getContext(), DataGeneratorFormat.JSON)
+        .setMode(Mode.MULTIPLE_OBJECTS)
+        .build();
+    try (DataGeneratorBuffer buffer = new DataGeneratorBuffer(factory, 16)) {
+      DataGenerator generator = buffer.getGenerator();
+      generator.write(createRecord("a"));
+      generator.write(createRecord("b"));
+      Assert.assertEquals("\"a\"\n\"b\"", toString(buffer.toByteArray()));
+
+      Assert.assertSame(generator, buffer.getGenerator());
+      Assert.assertEquals("\"c\"", toString(buffer.serialize(createRecord("c"))));
+      Assert.assertEquals("\"d\"", toString(buffer.serialize(createRecord("d"))));
+    }
+  }
+
+  @Test
+  public void testNonResettableGenerator() throws Exception {
+    DataGeneratorFactory factory = new DataGeneratorFactoryBuilder(getContext(), DataGeneratorFormat.JSON)
+        .setMode(Mode.ARRAY_OBJECTS)
+        .build();
+    try (DataGeneratorBuffer buffer = new DataGeneratorBuffer(factory, 16)) {
+      DataGenerator generator = buffer.getGenerator();
+      generator.write(createRecord("a"));
+      Assert.assertEquals("[\"a\"]", toString(buffer.toByteArray()));
+
+      Assert.assertNotSame(generator, buffer.getGenerator());
+      Assert.assertEquals("[\"b\"]", toString(buffer.serialize(createRecord("b"))));
+    }
+  }
+
+  @Test
+  public void testIncompleteOutputDiscardsGenerator() throws Exception {
+    DataGeneratorFactory factory = new DataGeneratorFactoryBuilder(getContext(), DataGeneratorFormat.TEXT).build();
+    try (DataGeneratorBuffer buffer = new DataGeneratorBuffer(factory, 16)) {
+      DataGenerator generator = buffer.getGenerator();
+      generator.write(createRecord("a"));
+      try {
+        // the field is missing, the output is left incomplete
+        Record record = RecordCreator.create();
+        generator.write(record);
+        Assert.fail("Expected DataGeneratorException");
+      } catch (DataGeneratorException ex) {
+        // expected
+      }
+
+      Assert.assertNotSame(generator, buffer.getGenerator());
+      Assert.assertEquals("b", toString(buffer.serialize(createRecord("b"))));
+    }
+  }
+
+}
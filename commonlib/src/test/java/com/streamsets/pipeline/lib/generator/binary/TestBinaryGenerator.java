@@ -117,4 +117,23 @@ public class TestBinaryGenerator {
     gen.flush();
   }
 
+  @Test
+  public void testReset() throws Exception {
+    ByteArrayOutputStream first = new ByteArrayOutputStream(255);
+    DataGenerator gen = new BinaryDataGenerator(first, "/");
+    Assert.assertTrue(gen.isResettable());
+    Record record = RecordCreator.create();
+    record.set(Field.create(TEST_STRING_255.getBytes()));
+    gen.write(record);
+    gen.flush();
+
+    ByteArrayOutputStream second = new ByteArrayOutputStream(255);
+    gen.reset(second);
+    record.set(Field.create("Bye".getBytes()));
+    gen.write(record);
+    gen.close();
+    Assert.assertTrue(Arrays.equals(TEST_STRING_255.getBytes(), first.toByteArray()));
+    Assert.assertTrue(Arrays.equals("Bye".getBytes(), second.toByteArray()));
+  }
+
 }
@@ -218,4 +218,50 @@ public class TestJsonDataGenerator {
       testDir.delete();
     }
   }
+
+  @Test
+  public void testReset() throws Exception {
+    DataFactory dataFactory = new DataGeneratorFactoryBuilder(getContext(), DataGeneratorFormat.JSON)
+        .setMode(Mode.MULTIPLE_OBJECTS)
+        .build();
+    ByteArrayOutputStream first = new ByteArrayOutputStream();
+    DataGenerator gen = ((JsonDataGeneratorFactory) dataFactory).getGenerator(first);
+    Assert.assertTrue(gen.isResettable());
+    Record record = RecordCreator.create();
+    record.set(Field.create("Hello"));
+    gen.write(record);
+    gen.write(record);
+    gen.flush();
+
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    gen.reset(second);
+    record.set(Field.create("Bye"));
+    gen.write(record);
+    gen.flush();
+    Assert.assertEquals("\"Hello\"\n\"Hello\"", new String(first.toByteArray()).trim());
+    Assert.assertEquals("\"Bye\"", new String(second.toByteArray()).trim());
+
+    // the generator keeps working on the new output stream after a reset
+    gen.write(record);
+    gen.close();
+    Assert.assertEquals("\"Bye\"\n\"Bye\"", new String(second.toByteArray()).trim());
+    Assert.assertEquals("\"Hello\"\n\"Hello\"", new String(first.toByteArray()).trim());
+  }
+
+  @Test
+  public void testArrayObjectsNotResettable() throws Exception {
+    DataFactory dataFactory = new DataGeneratorFactoryBuilder(getContext(), DataGeneratorFormat.JSON)
+        .setMode(Mode.ARRAY_OBJECTS)
+        .build();
+    DataGenerator gen = ((JsonDataGeneratorFactory) dataFactory).getGenerator(new ByteArrayOutputStream());
+    Assert.assertFalse(gen.isResettable());
+    try {
+      gen.reset(new ByteArrayOutputStream());
+      Assert.fail("Expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException ex) {
+      // expected
+    }
+    gen.close();
+  }
+
 }
@@ -199,4 +199,33 @@ public class TestTextDataGenerator {
     gen.close();
     Assert.assertEquals("FirstSecond", writer.toString());
   }
+
+  @Test
+  public void testReset() throws Exception {
+    Stage.Context context = ContextInfoCreator.createTargetContext("i", false, OnRecordError.TO_ERROR);
+    DataFactory dataFactory = new DataGeneratorFactoryBuilder(context, DataGeneratorFormat.TEXT).build();
+    ByteArrayOutputStream first = new ByteArrayOutputStream();
+    DataGenerator gen = ((TextDataGeneratorFactory) dataFactory).getGenerator(first);
+    Assert.assertTrue(gen.isResettable());
+    Record record = RecordCreator.create();
+    record.set(Field.create("Hello"));
+    gen.write(record);
+
+    // reset flushes the pending data to the current output stream
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    gen.reset(second);
+    record.set(Field.create("Bye"));
+    gen.write(record);
+    gen.close();
+    Assert.assertEquals("Hello" + NEWLINE, new String(first.toByteArray()));
+    Assert.assertEquals("Bye" + NEWLINE, new String(second.toByteArray()));
+  }
+
+  @Test
+  public void testWriterNotResettable() throws Exception {
+    DataGenerator gen = new TextCharDataGenerator(new StringWriter(), "", false, NEWLINE, TextFieldMissingAction.IGNORE);
+    Assert.assertFalse(gen.isResettable());
+    gen.close();
+  }
+
 }
@@ -22,6 +22,7 @@ import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.ext.io.OverrunReader;
 import com.streamsets.pipeline.api.ext.json.Mode;
 import com.streamsets.pipeline.lib.parser.DataParser;
+import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import org.junit.Assert;
 import org.junit.Test;
@@ -220,4 +221,62 @@ public class TestJsonCharDataParser {
     parser.close();
   }
 
+  @Test
+  public void testDirectFieldParsingMatchesObjectParsing() throws Exception {
+    String json = "{\"s\": \"a\", \"i\": 1, \"l\": 10000000000, \"d\": 1.5, \"b\": true, \"n\": null, " +
+        "\"big\": 100000000000100000000000100000000000, \"list\": [1, \"x\", {\"k\": [false]}], \"empty\": {}}" +
+        "[{\"a\": []}]";
+    DataParser direct = new JsonCharDataParser(getContext(), "id", new OverrunReader(new StringReader(json), 1000, true,
+        false), 0, Mode.MULTIPLE_OBJECTS, 1000, true);
+    DataParser twoPass = new JsonCharDataParser(getContext(), "id", new OverrunReader(new StringReader(json), 1000, true,
+        false), 0, Mode.MULTIPLE_OBJECTS, 1000, false);
+    for (int i = 0; i < 2; i++) {
+      Record expected = twoPass.parse();
+      Record actual = direct.parse();
+      Assert.assertNotNull(actual);
+      Assert.assertEquals(expected.getHeader().getSourceId(), actual.getHeader().getSourceId());
+      Assert.assertEquals(expected.get(), actual.get());
+      Assert.assertEquals(twoPass.getOffset(), direct.getOffset());
+    }
+    Record record = twoPass.parse();
+    Assert.assertNull(record);
+    record = direct.parse();
+    Assert.assertNull(record);
+    Assert.assertEquals(-1, Long.parseLong(direct.getOffset()));
+
+    direct = new JsonCharDataParser(getContext(), "id", new OverrunReader(new StringReader(json), 1000, true, false), 0,
+        Mode.MULTIPLE_OBJECTS, 1000, true);
+    record = direct.parse();
+    Assert.assertEquals(Field.Type.INTEGER, record.get("/i").getType());
+    Assert.assertEquals(Field.Type.LONG, record.get("/l").getType());
+    Assert.assertEquals(Field.Type.DOUBLE, record.get("/d").getType());
+    Assert.assertEquals(Field.Type.DECIMAL, record.get("/big").getType());
+    Assert.assertEquals(Field.Type.STRING, record.get("/n").getType());
+    Assert.assertNull(record.get("/n").getValue());
+    Assert.assertEquals(Field.Type.BOOLEAN, record.get("/list[2]/k[0]").getType());
+    direct.close();
+    twoPass.close();
+  }
+
+  @Test
+  public void testDirectFieldParsingMaxObjectLength() throws Exception {
+    OverrunReader reader = new OverrunReader(new StringReader("[[\"Hello\"],[\"Hello World Bye\"],[\"Bye\"]]"),
+        1000, true, false);
+    DataParser parser = new JsonCharDataParser(getContext(), "id", reader, 0, Mode.ARRAY_OBJECTS, 10, true);
+    Record record = parser.parse();
+    Assert.assertNotNull(record);
+    Assert.assertEquals("Hello", record.get("[0]").getValueAsString());
+    try {
+      parser.parse();
+      Assert.fail();
+    } catch (DataParserException ex) {
+      Assert.assertEquals(Errors.JSON_PARSER_02, ex.getErrorCode());
+    }
+    record = parser.parse();
+    Assert.assertNotNull(record);
+    Assert.assertEquals("Bye", record.get("[0]").getValueAsString());
+    Assert.assertNull(parser.parse());
+    parser.close();
+  }
+
 }
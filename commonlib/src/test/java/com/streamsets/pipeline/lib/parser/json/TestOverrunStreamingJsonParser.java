@@ -17,6 +17,7 @@ package com.streamsets.pipeline.lib.parser.json;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.ext.io.CountingReader;
@@ -107,6 +108,27 @@ public class TestOverrunStreamingJsonParser {
     Assert.assertEquals(ImmutableList.of("b", "B"), a2);
   }
 
+  @Test
+  public void testMultipleObjectsAsFields() throws Exception {
+    StreamingJsonParser parser = new OverrunStreamingJsonParser(
+        getContext(),
+        getJsonReader("TestOverrunStreamingJsonParser-multipleObjects.json"), 0, Mode.MULTIPLE_OBJECTS,
+        50, Field.class);
+    Field a1 = (Field) parser.read();
+    Assert.assertNotNull(a1);
+    try {
+      parser.read();
+      Assert.fail();
+    } catch (ObjectLengthException ex) {
+      //NOP
+    }
+    Field a2 = (Field) parser.read();
+    Assert.assertNotNull(a2);
+    Assert.assertNull(parser.read());
+    Assert.assertEquals(Field.create(ImmutableList.of(Field.create("a"), Field.create("A"))), a1);
+    Assert.assertEquals(Field.create(ImmutableList.of(Field.create("b"), Field.create("B"))), a2);
+  }
+
   // Stream level overrun, Array
 
   public void testStreamLevelOverrunArray(boolean attemptNextRead) throws Exception {
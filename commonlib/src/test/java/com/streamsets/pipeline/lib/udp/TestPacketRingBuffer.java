@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.udp;
+
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public class TestPacketRingBuffer {
+  private static final InetSocketAddress RECIPIENT = InetSocketAddress.createUnresolved("localhost", 9995);
+  private static final InetSocketAddress SENDER = InetSocketAddress.createUnresolved("localhost", 50000);
+
+  @Test
+  public void testOfferPollRelease() throws Exception {
+    PacketRingBuffer ringBuffer = new PacketRingBuffer(2);
+    Assert.assertEquals(2, ringBuffer.getCapacity());
+    Assert.assertEquals(0, ringBuffer.getOccupancy());
+
+    Assert.assertTrue(ringBuffer.offer(Unpooled.copiedBuffer("first", StandardCharsets.UTF_8), RECIPIENT, SENDER));
+    Assert.assertTrue(ringBuffer.offer(Unpooled.copiedBuffer("second", StandardCharsets.UTF_8), RECIPIENT, SENDER));
+    Assert.assertFalse(ringBuffer.offer(Unpooled.copiedBuffer("dropped", StandardCharsets.UTF_8), RECIPIENT, SENDER));
+    Assert.assertEquals(2, ringBuffer.getOccupancy());
+
+    PacketRingBuffer.Packet packet = ringBuffer.poll(1, TimeUnit.SECONDS);
+    Assert.assertEquals("first", packet.getContent().toString(StandardCharsets.UTF_8));
+    Assert.assertEquals(RECIPIENT, packet.getRecipient());
+    Assert.assertEquals(SENDER, packet.getSender());
+    ringBuffer.release(packet);
+    Assert.assertEquals(1, ringBuffer.getOccupancy());
+
+    Assert.assertTrue(ringBuffer.offer(Unpooled.copiedBuffer("third", StandardCharsets.UTF_8), RECIPIENT, SENDER));
+    packet = ringBuffer.poll(1, TimeUnit.SECONDS);
+    Assert.assertEquals("second", packet.getContent().toString(StandardCharsets.UTF_8));
+    ringBuffer.release(packet);
+    packet = ringBuffer.poll(1, TimeUnit.SECONDS);
+    Assert.assertEquals("third", packet.getContent().toString(StandardCharsets.UTF_8));
+    ringBuffer.release(packet);
+
+    Assert.assertNull(ringBuffer.poll(10, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(0, ringBuffer.getOccupancy());
+  }
+
+  @Test
+  public void testLargePacket() throws Exception {
+    PacketRingBuffer ringBuffer = new PacketRingBuffer(1);
+    byte[] data = new byte[10000];
+    data[data.length - 1] = 42;
+    Assert.assertTrue(ringBuffer.offer(Unpooled.wrappedBuffer(data), RECIPIENT, SENDER));
+    PacketRingBuffer.Packet packet = ringBuffer.poll(1, TimeUnit.SECONDS);
+    Assert.assertEquals(data.length, packet.getContent().readableBytes());
+    Assert.assertEquals(42, packet.getContent().getByte(data.length - 1));
+    ringBuffer.release(packet);
+  }
+}
@@ -15,12 +15,15 @@
  */
 package com.streamsets.datacollector.el;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.streamsets.datacollector.definition.ELDefinitionExtractor;
 import com.streamsets.datacollector.util.ContainerCommonError;
 import com.streamsets.pipeline.api.el.ELEval;
 import com.streamsets.pipeline.api.el.ELEvalException;
 import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.api.impl.Utils;
+import org.apache.commons.el.ExpressionCompiler;
 import org.apache.commons.el.LruExpressionEvaluatorImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +50,18 @@ public class ELEvaluator extends ELEval {
   // ExpressionEvaluatorImpl can be used as a singleton
   private static final LruExpressionEvaluatorImpl EVALUATOR = new LruExpressionEvaluatorImpl();
 
+  // compiled expressions bind functions at compile time, the interpreter is used for expressions that can't be compiled
+  private static final boolean COMPILE_EXPRESSIONS =
+      Boolean.parseBoolean(System.getProperty("com.streamsets.datacollector.el.ELEvaluator.compile", "true"));
+  private static final int MAX_COMPILED_EXPRESSIONS = 1000;
+  private static final ExpressionCompiler.CompiledExpression NOT_COMPILABLE = (resolver, expectedType) -> null;
+
+  private final ExpressionCompiler compiler;
+  // bounded with LRU eviction, pipelines evaluating ever new expressions keep the hot ones compiled
+  private final Cache<String, ExpressionCompiler.CompiledExpression> compiledExpressions = CacheBuilder.newBuilder()
+      .maximumSize(MAX_COMPILED_EXPRESSIONS)
+      .build();
+
   public ELEvaluator(String configName, boolean explicit, Map<String, Object> constants, ELDefinitionExtractor elDefinitionExtractor, List<Class> elFuncConstDefClasses) {
     this(configName, explicit, constants, elDefinitionExtractor, elFuncConstDefClasses.toArray(new Class[elFuncConstDefClasses.size()]));
   }
@@ -60,6 +75,7 @@ public class ELEvaluator extends ELEval {
     this.elDefinitionExtractor = elDefinitionExtractor;
     populateConstantsAndFunctions(explicit, elFuncConstDefClasses);
     this.functionMapper = new FunctionMapperImpl();
+    this.compiler = new ExpressionCompiler(EVALUATOR, functionMapper);
   }
 
   public ELEvaluator(String configName, ELDefinitionExtractor elDefinitionExtractor, Class<?>... elFuncConstDefClasses) {
@@ -144,6 +160,10 @@ public class ELEvaluator extends ELEval {
       }
     };
     try {
+      ExpressionCompiler.CompiledExpression compiled = getCompiledExpression(expression);
+      if (compiled != null) {
+        return (T) compiled.evaluate(variableResolver, returnType);
+      }
       return (T) EVALUATOR.evaluate(expression, returnType, variableResolver, functionMapper);
     } catch (ELException e) {
       // Apache evaluator is not using the getCause exception chaining that is available in Java but rather a custom
@@ -161,6 +181,26 @@ public class ELEvaluator extends ELEval {
     }
   }
 
+  private ExpressionCompiler.CompiledExpression getCompiledExpression(String expression) {
+    if (!COMPILE_EXPRESSIONS || expression == null) {
+      return null;
+    }
+    ExpressionCompiler.CompiledExpression compiled = compiledExpressions.getIfPresent(expression);
+    if (compiled == null) {
+      try {
+        compiled = compiler.compile(expression);
+      } catch (ELException e) {
+        // the interpreter reports the parsing error
+        LOG.trace("Could not compile EL '{}': {}", expression, e.toString(), e);
+      }
+      if (compiled == null) {
+        compiled = NOT_COMPILABLE;
+      }
+      compiledExpressions.put(expression, compiled);
+    }
+    return (compiled == NOT_COMPILABLE) ? null : compiled;
+  }
+
   private class FunctionMapperImpl implements FunctionMapper {
 
     @Override
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.el;
+
+import javax.servlet.jsp.el.ELException;
+import javax.servlet.jsp.el.FunctionMapper;
+import javax.servlet.jsp.el.VariableResolver;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * StreamSets specific compiler that turns the expression tree produced by {@link ExpressionEvaluatorImpl} into a tree
+ * of pre-bound nodes.
+ * <p/>
+ * The interpreter resolves every function through the {@link FunctionMapper} and invokes it via reflection each time
+ * an expression is evaluated. Compiled expressions resolve functions once, at compile time, and invoke them through a
+ * {@link MethodHandle}. Operators and coercions are delegated to the commons-el implementation so compiled
+ * expressions produce the same results and errors as the interpreter. Expression types the compiler does not know
+ * about (i.e. property and index access) are evaluated by the interpreter as sub-expressions.
+ * <p/>
+ * This class lives in the <code>org.apache.commons.el</code> package to use the evaluator's shared logger, which is
+ * what turns evaluation errors into {@link ELException}s.
+ */
+public class ExpressionCompiler {
+
+  /**
+   * An expression compiled by the {@link ExpressionCompiler}, instances are thread safe.
+   */
+  public interface CompiledExpression {
+    Object evaluate(VariableResolver resolver, Class<?> expectedType) throws ELException;
+  }
+
+  private interface Node {
+    Object evaluate(VariableResolver resolver) throws ELException;
+  }
+
+  private final ExpressionEvaluatorImpl evaluator;
+  private final FunctionMapper functionMapper;
+
+  public ExpressionCompiler(ExpressionEvaluatorImpl evaluator, FunctionMapper functionMapper) {
+    this.evaluator = evaluator;
+    this.functionMapper = functionMapper;
+  }
+
+  /**
+   * Compiles an expression string.
+   *
+   * @return the compiled expression, or <code>null</code> if the expression cannot be compiled and it must be
+   * evaluated by the interpreter. That is the case of expressions without EL and of expressions using functions that
+   * cannot be resolved.
+   * @throws ELException if the expression cannot be parsed.
+   */
+  public CompiledExpression compile(String expressionString) throws ELException {
+    if (expressionString == null) {
+      return null;
+    }
+    Object parsed = evaluator.parseExpressionString(expressionString);
+    if (parsed instanceof Expression) {
+      final Node node = compile((Expression) parsed);
+      if (node == null) {
+        return null;
+      }
+      return (resolver, expectedType) -> Coercions.coerce(node.evaluate(resolver), expectedType, getLogger());
+    } else if (parsed instanceof ExpressionString) {
+      final Object[] elements = ((ExpressionString) parsed).getElements();
+      final Object[] compiled = new Object[elements.length];
+      for (int i = 0; i < elements.length; i++) {
+        if (elements[i] instanceof Expression) {
+          compiled[i] = compile((Expression) elements[i]);
+          if (compiled[i] == null) {
+            return null;
+          }
+        } else {
+          compiled[i] = elements[i];
+        }
+      }
+      return (resolver, expectedType) -> {
+        StringBuilder sb = new StringBuilder();
+        for (Object element : compiled) {
+          if (element instanceof String) {
+            sb.append((String) element);
+          } else if (element instanceof Node) {
+            Object value = ((Node) element).evaluate(resolver);
+            if (value != null) {
+              sb.append(value.toString());
+            }
+          }
+        }
+        return Coercions.coerce(sb.toString(), expectedType, getLogger());
+      };
+    }
+    // constant strings, the interpreter already caches their conversions
+    return null;
+  }
+
+  private static Logger getLogger() {
+    return ExpressionEvaluatorImpl.sLogger;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Node compile(Expression expression) {
+    if (expression instanceof Literal) {
+      final Object value = ((Literal) expression).getValue();
+      return resolver -> value;
+    } else if (expression instanceof NamedValue) {
+      final String name = ((NamedValue) expression).getName();
+      return resolver -> (resolver == null) ? null : resolver.resolveVariable(name);
+    } else if (expression instanceof FunctionInvocation) {
+      return compileFunction((FunctionInvocation) expression);
+    } else if (expression instanceof BinaryOperatorExpression) {
+      BinaryOperatorExpression binary = (BinaryOperatorExpression) expression;
+      final Node first = compile(binary.getExpression());
+      final BinaryOperator[] operators = (BinaryOperator[]) binary.getOperators().toArray(new BinaryOperator[0]);
+      final Node[] operands = compile((List<Expression>) binary.getExpressions());
+      if (first == null || operands == null) {
+        return null;
+      }
+      return resolver -> {
+        Object value = first.evaluate(resolver);
+        for (int i = 0; i < operators.length; i++) {
+          if (operators[i].shouldCoerceToBoolean()) {
+            value = Coercions.coerceToBoolean(value, getLogger());
+          }
+          if (operators[i].shouldEvaluate(value)) {
+            value = operators[i].apply(value, operands[i].evaluate(resolver), getLogger());
+          }
+        }
+        return value;
+      };
+    } else if (expression instanceof UnaryOperatorExpression) {
+      UnaryOperatorExpression unary = (UnaryOperatorExpression) expression;
+      final Node operand = compile(unary.getExpression());
+      if (operand == null) {
+        return null;
+      }
+      final UnaryOperator[] operators = (unary.getOperator() != null)
+          ? new UnaryOperator[] {unary.getOperator()}
+          : (UnaryOperator[]) unary.getOperators().toArray(new UnaryOperator[0]);
+      return resolver -> {
+        Object value = operand.evaluate(resolver);
+        for (int i = operators.length - 1; i >= 0; i--) {
+          value = operators[i].apply(value, getLogger());
+        }
+        return value;
+      };
+    } else if (expression instanceof ConditionalExpression) {
+      ConditionalExpression conditional = (ConditionalExpression) expression;
+      final Node condition = compile(conditional.getCondition());
+      final Node trueBranch = compile(conditional.getTrueBranch());
+      final Node falseBranch = compile(conditional.getFalseBranch());
+      if (condition == null || trueBranch == null || falseBranch == null) {
+        return null;
+      }
+      return resolver -> Coercions.coerceToBoolean(condition.evaluate(resolver), getLogger())
+          ? trueBranch.evaluate(resolver)
+          : falseBranch.evaluate(resolver);
+    }
+    // anything else (i.e. ComplexValue) is evaluated by the interpreter
+    return resolver -> expression.evaluate(resolver, functionMapper, getLogger());
+  }
+
+  private Node[] compile(List<Expression> expressions) {
+    Node[] nodes = new Node[expressions.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = compile(expressions.get(i));
+      if (nodes[i] == null) {
+        return null;
+      }
+    }
+    return nodes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Node compileFunction(FunctionInvocation invocation) {
+    final String functionName = invocation.getFunctionName();
+    int index = functionName.indexOf(':');
+    String prefix = (index == -1) ? "" : functionName.substring(0, index);
+    String localName = (index == -1) ? functionName : functionName.substring(index + 1);
+
+    Method target = (functionMapper == null) ? null : functionMapper.resolveFunction(prefix, localName);
+    if (target == null) {
+      // let the interpreter report the unknown function
+      return null;
+    }
+    final Class<?>[] params = target.getParameterTypes();
+    final Node[] arguments = compile((List<Expression>) invocation.getArgumentList());
+    if (arguments == null || params.length != arguments.length) {
+      return null;
+    }
+    final MethodHandle handle;
+    try {
+      handle = MethodHandles.publicLookup()
+          .unreflect(target)
+          .asType(MethodType.genericMethodType(params.length))
+          .asSpreader(Object[].class, params.length);
+    } catch (IllegalAccessException ex) {
+      return null;
+    }
+    return resolver -> {
+      Object[] values = new Object[arguments.length];
+      for (int i = 0; i < arguments.length; i++) {
+        values[i] = Coercions.coerce(arguments[i].evaluate(resolver), params[i], getLogger());
+      }
+      try {
+        return (Object) handle.invokeExact(values);
+      } catch (Throwable ex) {
+        getLogger().logError(Constants.FUNCTION_INVOCATION_ERROR, ex, functionName);
+        return null;
+      }
+    };
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.el;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.servlet.jsp.el.ELException;
+import javax.servlet.jsp.el.FunctionMapper;
+import javax.servlet.jsp.el.VariableResolver;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestExpressionCompiler {
+
+  public static String upper(String s) {
+    return s.toUpperCase();
+  }
+
+  public static int add(int a, int b) {
+    return a + b;
+  }
+
+  public static Object fail(String s) {
+    throw new IllegalStateException("fail " + s);
+  }
+
+  private static final List<String> EXPRESSIONS = ImmutableList.of(
+      "${str:upper(v)}",
+      "pre-${str:upper(v)}-${n}-post",
+      "${math:add(n, '3')}",
+      "${n > 3 && str:upper(v) == 'ABC'}",
+      "${n < 3 or nul == null}",
+      "${not empty v}",
+      "${-n}",
+      "${n > 3 ? 'big' : 'small'}",
+      "${m.k}",
+      "${m['k']}",
+      "${n + 2.5}",
+      "${n mod 2}",
+      "${str:upper(nul)}",
+      "${x:fail(v)}",
+      "${undefined}",
+      "${math:add(n, 'x')}"
+  );
+
+  private static final List<Class<?>> TYPES = ImmutableList.of(
+      Object.class,
+      String.class,
+      Boolean.class,
+      Integer.class,
+      Long.class
+  );
+
+  private FunctionMapper getFunctionMapper() throws Exception {
+    final Map<String, Method> functions = ImmutableMap.of(
+        "str:upper", TestExpressionCompiler.class.getMethod("upper", String.class),
+        "math:add", TestExpressionCompiler.class.getMethod("add", int.class, int.class),
+        "x:fail", TestExpressionCompiler.class.getMethod("fail", String.class)
+    );
+    return (prefix, name) -> functions.get(prefix + ":" + name);
+  }
+
+  private VariableResolver getVariableResolver() {
+    final Map<String, Object> variables = new HashMap<>();
+    variables.put("v", "abc");
+    variables.put("n", 5);
+    variables.put("m", ImmutableMap.of("k", "value"));
+    variables.put("nul", null);
+    return name -> {
+      if (!variables.containsKey(name)) {
+        throw new ELException("Variable '" + name + "' cannot be resolved");
+      }
+      return variables.get(name);
+    };
+  }
+
+  private String evaluate(Evaluation evaluation) {
+    try {
+      return String.valueOf(evaluation.evaluate());
+    } catch (ELException ex) {
+      return "ELException: " + ex.getMessage();
+    }
+  }
+
+  private interface Evaluation {
+    Object evaluate() throws ELException;
+  }
+
+  @Test
+  public void testSameResultsAsInterpreter() throws Exception {
+    LruExpressionEvaluatorImpl evaluator = new LruExpressionEvaluatorImpl();
+    FunctionMapper functionMapper = getFunctionMapper();
+    VariableResolver resolver = getVariableResolver();
+    ExpressionCompiler compiler = new ExpressionCompiler(evaluator, functionMapper);
+    for (String expression : EXPRESSIONS) {
+      ExpressionCompiler.CompiledExpression compiled = compiler.compile(expression);
+      Assert.assertNotNull(expression, compiled);
+      for (Class<?> type : TYPES) {
+        Assert.assertEquals(
+            expression + " as " + type.getSimpleName(),
+            evaluate(() -> evaluator.evaluate(expression, type, resolver, functionMapper)),
+            evaluate(() -> compiled.evaluate(resolver, type))
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testNotCompilable() throws Exception {
+    ExpressionCompiler compiler = new ExpressionCompiler(new LruExpressionEvaluatorImpl(), getFunctionMapper());
+    Assert.assertNull(compiler.compile(null));
+    Assert.assertNull(compiler.compile(""));
+    Assert.assertNull(compiler.compile("no EL here"));
+    Assert.assertNull(compiler.compile("${unknown:function()}"));
+    Assert.assertNull(compiler.compile("${str:upper(v, v)}"));
+  }
+
+  @Test(expected = ELException.class)
+  public void testParseError() throws Exception {
+    new ExpressionCompiler(new LruExpressionEvaluatorImpl(), getFunctionMapper()).compile("${a eq }");
+  }
+
+}
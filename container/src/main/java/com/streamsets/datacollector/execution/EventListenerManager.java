@@ -28,18 +28,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class EventListenerManager {
   private static final Logger LOG = LoggerFactory.getLogger(EventListenerManager.class);
   private final Map<String, List<MetricsEventListener>> metricsEventListenerMap;
+  // delta capable metrics listeners that already received full metrics, guarded by metricsEventListenerMap
+  private final Set<MetricsEventListener> primedMetricsEventListeners;
   private final List<StateEventListener> stateEventListenerList;
   private final List<AlertEventListener> alertEventListenerList;
 
   public EventListenerManager() {
     metricsEventListenerMap = new HashMap<>();
+    primedMetricsEventListeners = Collections.newSetFromMap(new IdentityHashMap<>());
     stateEventListenerList = new ArrayList<>();
     alertEventListenerList = new ArrayList<>();
   }
@@ -76,6 +82,7 @@ public class EventListenerManager {
       if(metricsEventListenerMap.containsKey(pipelineName)) {
         metricsEventListenerMap.get(pipelineName).remove(metricsEventListener);
       }
+      primedMetricsEventListeners.remove(metricsEventListener);
     }
   }
 
@@ -95,6 +102,14 @@ public class EventListenerManager {
     return metricsEventListenerMap.get(pipelineName) != null &&  metricsEventListenerMap.get(pipelineName).size() > 0;
   }
 
+  public boolean hasMetricDeltaEventListeners(String pipelineName) {
+    synchronized (metricsEventListenerMap) {
+      List<MetricsEventListener> metricsEventListeners = metricsEventListenerMap.get(pipelineName);
+      return metricsEventListeners != null &&
+          metricsEventListeners.stream().anyMatch(MetricsEventListener::isDeltaSupported);
+    }
+  }
+
   public void broadcastAlerts(AlertInfo alertInfo) {
     if(alertEventListenerList.size() > 0) {
       try {
@@ -148,15 +163,37 @@ public class EventListenerManager {
   }
 
   public void broadcastMetrics(String pipelineName, String metricsJSONStr) {
+    broadcastMetrics(pipelineName, metricsJSONStr, null);
+  }
+
+  /**
+   * Notifies the metrics listeners of a pipeline. Listeners supporting deltas that already received full metrics get
+   * the given delta, all other listeners get the full metrics.
+   *
+   * @param metricsDeltaJSONStr metrics that changed since the previous broadcast, <code>null</code> to send the full
+   * metrics to all the listeners.
+   */
+  public void broadcastMetrics(String pipelineName, String metricsJSONStr, String metricsDeltaJSONStr) {
     if(metricsEventListenerMap.containsKey(pipelineName) && metricsEventListenerMap.get(pipelineName).size() > 0) {
       List<MetricsEventListener> metricsEventListenerListCopy;
+      List<MetricsEventListener> deltaEventListeners = new ArrayList<>();
       synchronized (metricsEventListenerMap) {
         metricsEventListenerListCopy = new ArrayList<>(metricsEventListenerMap.get(pipelineName));
+        for (MetricsEventListener metricsEventListener : metricsEventListenerListCopy) {
+          if (metricsEventListener.isDeltaSupported() && !primedMetricsEventListeners.add(metricsEventListener) &&
+              metricsDeltaJSONStr != null) {
+            deltaEventListeners.add(metricsEventListener);
+          }
+        }
       }
 
       for(MetricsEventListener metricsEventListener : metricsEventListenerListCopy) {
         try {
-          metricsEventListener.notification(metricsJSONStr);
+          if (deltaEventListeners.contains(metricsEventListener)) {
+            metricsEventListener.notification(metricsDeltaJSONStr);
+          } else {
+            metricsEventListener.notification(metricsJSONStr);
+          }
         } catch(Exception ex) {
           LOG.warn("Error while notifying metrics, {}", ex.toString(), ex);
         }
@@ -15,6 +15,7 @@
  */
 package com.streamsets.datacollector.execution;
 
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.PipelineException;
 
 import java.io.Closeable;
@@ -26,4 +27,11 @@ public interface Snapshot extends Closeable {
 
   public InputStream getOutput() throws PipelineException;
 
+  // returns a page of the output of a stage in one of the batches of the snapshot, null if the snapshot does not have
+  // such batch or stage or if it was not stored batch by batch
+  public default StageOutput getStageOutput(int batch, String instanceName, int offset, int length)
+      throws PipelineException {
+    return null;
+  }
+
 }
@@ -29,7 +29,7 @@ public interface SnapshotStore {
   // creates a snapshot info, in progress
   public SnapshotInfo create(String user, String name, String rev, String id, String label, boolean failureSnapshot) throws PipelineException;
 
-  // saves the data of the snapshot and updates the corresponding snapshot info.
+  // saves the data of the snapshot, after the batches appended so far, and updates the corresponding snapshot info.
   public SnapshotInfo save(
       String name,
       String rev,
@@ -38,6 +38,9 @@ public interface SnapshotStore {
       List<List<StageOutput>> snapshotBatches
   ) throws PipelineException;
 
+  // saves a captured batch of the snapshot, the snapshot info is updated once the snapshot is saved
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch) throws PipelineException;
+
   // Updates the label of snapshot by updating the Snapshot Info
   public SnapshotInfo updateLabel(String name, String rev, String id, String snapshotLabel) throws PipelineException;
 
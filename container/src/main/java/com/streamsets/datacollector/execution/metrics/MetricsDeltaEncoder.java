@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Computes the metrics that changed between two consecutive metrics JSON documents.
+ * <p/>
+ * Metrics documents are objects with one object per metric type (gauges, counters, meters, ...) keyed by metric name.
+ * A delta has the same layout but only holds the metrics whose JSON value changed, plus a <code>delta</code> property
+ * set to <code>true</code> and, if metrics went away, a <code>removed</code> object with the names of the removed
+ * metrics per metric type. Other top level properties are included only if they changed.
+ * <p/>
+ * Every <code>keyframeInterval</code> documents the encoder returns no delta, signaling that the full document has to
+ * be sent so consumers that missed a delta converge again. Not thread safe.
+ */
+final class MetricsDeltaEncoder {
+  static final String DELTA = "delta";
+  static final String REMOVED = "removed";
+
+  private final int keyframeInterval;
+  private ObjectNode previous;
+  private int sinceKeyframe;
+
+  MetricsDeltaEncoder(int keyframeInterval) {
+    this.keyframeInterval = keyframeInterval;
+  }
+
+  /**
+   * Returns the delta between the given metrics document and the previous one, or <code>null</code> if a full
+   * document (keyframe) must be sent instead.
+   */
+  ObjectNode encode(ObjectNode metrics) {
+    ObjectNode previous = this.previous;
+    this.previous = metrics;
+    if (previous == null || ++sinceKeyframe >= keyframeInterval) {
+      sinceKeyframe = 0;
+      return null;
+    }
+
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    ObjectNode delta = factory.objectNode();
+    delta.put(DELTA, true);
+    ObjectNode removed = factory.objectNode();
+    Iterator<Map.Entry<String, JsonNode>> fields = metrics.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JsonNode value = field.getValue();
+      JsonNode previousValue = previous.get(field.getKey());
+      if (value.isObject() && previousValue != null && previousValue.isObject()) {
+        ObjectNode changed = factory.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> metricFields = value.fields();
+        while (metricFields.hasNext()) {
+          Map.Entry<String, JsonNode> metric = metricFields.next();
+          if (!metric.getValue().equals(previousValue.get(metric.getKey()))) {
+            changed.set(metric.getKey(), metric.getValue());
+          }
+        }
+        if (changed.size() > 0) {
+          delta.set(field.getKey(), changed);
+        }
+        ArrayNode removedMetrics = factory.arrayNode();
+        Iterator<String> previousNames = previousValue.fieldNames();
+        while (previousNames.hasNext()) {
+          String name = previousNames.next();
+          if (!value.has(name)) {
+            removedMetrics.add(name);
+          }
+        }
+        if (removedMetrics.size() > 0) {
+          removed.set(field.getKey(), removedMetrics);
+        }
+      } else if (!value.equals(previousValue)) {
+        delta.set(field.getKey(), value);
+      }
+    }
+    if (removed.size() > 0) {
+      delta.set(REMOVED, removed);
+    }
+    return delta;
+  }
+
+  /**
+   * Forgets the previous document, the next call to {@link #encode(ObjectNode)} returns a keyframe.
+   */
+  void reset() {
+    previous = null;
+    sinceKeyframe = 0;
+  }
+
+}
@@ -17,6 +17,7 @@ package com.streamsets.datacollector.execution.metrics;
 
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.callback.CallbackInfo;
@@ -74,6 +75,8 @@ public class MetricsEventRunnable implements Runnable {
 
   public static final String REFRESH_INTERVAL_PROPERTY = "ui.refresh.interval.ms";
   public static final int REFRESH_INTERVAL_PROPERTY_DEFAULT = 2000;
+  public static final String METRICS_KEYFRAME_INTERVAL_PROPERTY = "ui.metrics.keyframe.interval";
+  public static final int METRICS_KEYFRAME_INTERVAL_PROPERTY_DEFAULT = 30;
   private static final String DPM_PIPELINE_COMMIT_ID = "dpm.pipeline.commitId";
   private static final String DPM_JOB_ID = "dpm.job.id";
   private static final String REMOTE_TIMESERIES_URL = "REMOTE_TIMESERIES_URL";
@@ -98,6 +101,7 @@ public class MetricsEventRunnable implements Runnable {
   private BlockingQueue<Record> statsQueue;
   private PipelineConfiguration pipelineConfiguration;
   private MetricRegistryJson metricRegistryJson;
+  private final MetricsDeltaEncoder metricsDeltaEncoder;
 
   private boolean isDPMPipeline = false;
   private String remoteTimeSeriesUrl;
@@ -131,6 +135,11 @@ public class MetricsEventRunnable implements Runnable {
     this.name = name;
     this.rev = rev;
     this.scheduledDelay = configuration.get(REFRESH_INTERVAL_PROPERTY, REFRESH_INTERVAL_PROPERTY_DEFAULT);
+    int keyframeInterval = configuration.get(
+        METRICS_KEYFRAME_INTERVAL_PROPERTY,
+        METRICS_KEYFRAME_INTERVAL_PROPERTY_DEFAULT
+    );
+    this.metricsDeltaEncoder = (keyframeInterval > 1) ? new MetricsDeltaEncoder(keyframeInterval) : null;
     this.configuration = configuration;
     this.runtimeInfo = runtimeInfo;
   }
@@ -175,20 +184,36 @@ public class MetricsEventRunnable implements Runnable {
           (isDPMPipeline && (isWriteStatsToDPMDirectlyEnabled() || isStatAggregationEnabled()))) {
         // compute aggregated metrics in case of cluster mode pipeline
         // get individual pipeline metrics if non cluster mode pipeline
-        String metricsJSONStr;
+        Object metrics;
         if (state.getExecutionMode() == ExecutionMode.CLUSTER_BATCH
           || state.getExecutionMode() == ExecutionMode.CLUSTER_YARN_STREAMING
           || state.getExecutionMode() == ExecutionMode.CLUSTER_MESOS_STREAMING) {
-          MetricRegistryJson json = getAggregatedMetrics();
-          metricsJSONStr = objectMapper.writer().writeValueAsString(json);
+          metrics = getAggregatedMetrics();
         } else if (state.getExecutionMode() == ExecutionMode.BATCH
             || state.getExecutionMode() == ExecutionMode.STREAMING && metricRegistryJson != null) {
-          metricsJSONStr = objectMapper.writer().writeValueAsString(metricRegistryJson);
+          metrics = metricRegistryJson;
+        } else {
+          metrics = metricRegistry;
+        }
+        // metrics are serialized once per refresh, the same strings are shared by all the listeners
+        String metricsJSONStr;
+        String metricsDeltaJSONStr = null;
+        if (metricsDeltaEncoder != null && hasMetricEventListeners(state) &&
+            eventListenerManager.hasMetricDeltaEventListeners(name)) {
+          ObjectNode metricsTree = objectMapper.valueToTree(metrics);
+          metricsJSONStr = objectMapper.writer().writeValueAsString(metricsTree);
+          ObjectNode metricsDelta = metricsDeltaEncoder.encode(metricsTree);
+          if (metricsDelta != null) {
+            metricsDeltaJSONStr = objectMapper.writer().writeValueAsString(metricsDelta);
+          }
         } else {
-          metricsJSONStr = objectMapper.writer().writeValueAsString(metricRegistry);
+          metricsJSONStr = objectMapper.writer().writeValueAsString(metrics);
+          if (metricsDeltaEncoder != null) {
+            metricsDeltaEncoder.reset();
+          }
         }
         if (hasMetricEventListeners(state)) {
-          eventListenerManager.broadcastMetrics(name, metricsJSONStr);
+          eventListenerManager.broadcastMetrics(name, metricsJSONStr, metricsDeltaJSONStr);
         }
         // don't queue stats record when pipeline is stopped as runner is not going to process any more batches
         if (isStatAggregationEnabled() && !isPipelineStopped) {
@@ -35,6 +35,15 @@ public class Constants {
   public static final int MAX_ERROR_RECORDS_PER_STAGE_DEFAULT = 100;
   public static final String MAX_PIPELINE_ERRORS_KEY = "production.maxPipelineErrors";
   public static final int MAX_PIPELINE_ERRORS_DEFAULT = 100;
+  public static final String OFFSET_STORE_KEY = "production.offsetStore";
+  public static final String OFFSET_STORE_FILE = "file";
+  public static final String OFFSET_STORE_JOURNAL = "journal";
+  public static final String OFFSET_STORE_DEFAULT = OFFSET_STORE_FILE;
+  public static final String OFFSET_JOURNAL_SIZE_KEY = "production.offsetJournal.size";
+  public static final int OFFSET_JOURNAL_SIZE_DEFAULT = 4 * 1024 * 1024;
+  public static final String OFFSET_JOURNAL_COMPACTION_INTERVAL_SECS_KEY =
+      "production.offsetJournal.compactionIntervalSecs";
+  public static final int OFFSET_JOURNAL_COMPACTION_INTERVAL_SECS_DEFAULT = 300;
   public static final String OBSERVER_QUEUE_SIZE_KEY = "observer.queue.size";
   public static final int OBSERVER_QUEUE_SIZE_DEFAULT = 100;
   public static final String SNAPSHOT_MAX_BATCH_SIZE_KEY = "snapshot.maxBatchSize";
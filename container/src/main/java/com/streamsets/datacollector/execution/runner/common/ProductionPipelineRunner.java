@@ -132,6 +132,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
   private StatsAggregationHandler statsAggregationHandler;
 
   private final Timer batchProcessingTimer;
+  private final Timer offsetCommitTimer;
   private final Meter batchCountMeter;
   private final Counter batchCountCounter;
   private final Histogram batchInputRecordsHistogram;
@@ -178,7 +179,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
   private BlockingQueue<Record> statsAggregatorRequests;
   private final List<BatchListener> batchListenerList = new CopyOnWriteArrayList<>();
   private ThreadHealthReporter threadHealthReporter;
-  private final List<List<StageOutput>> capturedBatches = new ArrayList<>();
+  private int capturedBatches;
   private PipeContext pipeContext = null;
   private PipelineConfigBean pipelineConfigBean = null;
   private PipelineConfiguration pipelineConfiguration = null;
@@ -214,6 +215,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
 
     MetricsConfigurator.registerPipeline(pipelineName, revision);
     batchProcessingTimer = MetricsConfigurator.createTimer(metrics, "pipeline.batchProcessing", pipelineName, revision);
+    offsetCommitTimer = MetricsConfigurator.createTimer(metrics, "pipeline.offsetCommit", pipelineName, revision);
     batchCountMeter = MetricsConfigurator.createMeter(metrics, "pipeline.batchCount", pipelineName, revision);
     batchCountCounter = MetricsConfigurator.createCounter(metrics, "pipeline.batchCount", pipelineName, revision);
     batchInputRecordsHistogram = MetricsConfigurator.createHistogram5Min(metrics, "pipeline.inputRecordsPerBatch",
@@ -544,7 +546,12 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
 
   @Override
   public void commitOffset(String entity, String offset) {
-    offsetTracker.commitOffset(entity, offset);
+    Timer.Context t = offsetCommitTimer.time();
+    try {
+      offsetTracker.commitOffset(entity, offset);
+    } finally {
+      t.stop();
+    }
   }
 
   @Override
@@ -780,7 +787,12 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
         statsAggregationHandler.handle(null, null, stats);
       }
     } finally {
+      try {
+        // all the stages are destroyed, there won't be more offset commits
+        offsetTracker.close();
+      } finally {
         destroyLock.unlock();
+      }
     }
   }
 
@@ -820,7 +832,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     synchronized (this) {
       this.snapshotBatchSize = 0;
       this.batchesToCapture = 0;
-      capturedBatches.clear();
+      capturedBatches = 0;
     }
   }
 
@@ -843,7 +855,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
         && !committed
       ) {
         // target cannot control offset commit in AT_MOST_ONCE mode
-        offsetTracker.commitOffset(entityName, newOffset);
+        commitOffset(entityName, newOffset);
         committed = true;
       }
     }
@@ -902,7 +914,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
         // 1. There is no offset commit trigger for this pipeline or
         // 2. there is a commit trigger and it is on
         if (offsetCommitTrigger == null || offsetCommitTrigger.commit()) {
-          offsetTracker.commitOffset(entityName, newOffset);
+          commitOffset(entityName, newOffset);
         }
       }
     }
@@ -952,7 +964,9 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
       List<StageOutput> snapshot = pipeBatch.getSnapshotsOfAllStagesOutput();
       if( batchesToCapture > 0 && ValidationUtil.isSnapshotOutputUsable(pipeBatch.getSnapshotsOfAllStagesOutput())) {
         if (!snapshot.isEmpty()) {
-          capturedBatches.add(snapshot);
+          // batches are saved as they are captured, they are not kept in memory
+          snapshotStore.appendBatch(pipelineName, revision, snapshotName, snapshot);
+          capturedBatches++;
         }
         /*
          * Reset the capture snapshot variable only after capturing the snapshot
@@ -962,9 +976,15 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
         if (batchesToCapture == 0) {
           snapshotBatchSize = 0;
           batchesToCapture = 0;
-          if (!capturedBatches.isEmpty()) {
-            snapshotStore.save(pipelineName, revision, snapshotName, batchCountMeter.getCount(), capturedBatches);
-            capturedBatches.clear();
+          if (capturedBatches > 0) {
+            snapshotStore.save(
+                pipelineName,
+                revision,
+                snapshotName,
+                batchCountMeter.getCount(),
+                Collections.emptyList()
+            );
+            capturedBatches = 0;
           }
         }
       }
@@ -87,6 +87,12 @@ public class CacheSnapshotStore implements SnapshotStore {
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+      throws PipelineException {
+    snapshotStore.appendBatch(name, rev, id, snapshotBatch);
+  }
+
   @Override
   public SnapshotInfo updateLabel(String name, String rev, String id, String snapshotLabel) throws PipelineException {
     return snapshotStore.updateLabel(name, rev, id, snapshotLabel);
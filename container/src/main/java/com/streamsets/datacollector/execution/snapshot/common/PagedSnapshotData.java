@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.common;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.record.io.BinaryRecordReader;
+import com.streamsets.datacollector.record.io.RecordEncoding;
+import com.streamsets.datacollector.record.io.RecordWriterReaderFactory;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordReader;
+import com.streamsets.pipeline.api.ext.RecordWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot data stored batch by batch and stage by stage, so that snapshots can be written while they are captured
+ * and their records read a page at a time.
+ * <p/>
+ * Layout, under the snapshot directory:
+ * <pre>
+ *   batches/[batch]/stages.json                         instance names of the stages of the batch, in order
+ *   batches/[batch]/[instance name]/stage.json          stage output without records, with the stage errors
+ *   batches/[batch]/[instance name]/output-[lane].rec   records of each output lane
+ *   batches/[batch]/[instance name]/errors.rec          error records
+ *   batches/[batch]/[instance name]/events.rec          event records
+ * </pre>
+ * Instance and lane names are URL encoded. Records use the binary record encoding. Batches are written under
+ * <code>batches/_tmp_[batch]</code> and renamed when complete.
+ */
+public class PagedSnapshotData {
+  private static final String BATCHES_DIR = "batches";
+  private static final String TMP_PREFIX = "_tmp_";
+  private static final String STAGES_FILE = "stages.json";
+  private static final String STAGE_FILE = "stage.json";
+  private static final String OUTPUT_PREFIX = "output-";
+  private static final String ERRORS_FILE = "errors.rec";
+  private static final String EVENTS_FILE = "events.rec";
+  private static final String RECORDS_SUFFIX = ".rec";
+
+  private final File batchesDir;
+  private final ObjectMapper json;
+
+  public PagedSnapshotData(File snapshotDir) {
+    this.batchesDir = new File(snapshotDir, BATCHES_DIR);
+    json = ObjectMapperFactory.get();
+  }
+
+  public boolean exists() {
+    return batchesDir.isDirectory();
+  }
+
+  /**
+   * Creates the snapshot data without batches, if it does not exist.
+   */
+  public void create() throws IOException {
+    Files.createDirectories(batchesDir.toPath());
+  }
+
+  /**
+   * Returns the number of complete batches.
+   */
+  public int getBatchCount() {
+    int count = 0;
+    while (new File(new File(batchesDir, String.valueOf(count)), STAGES_FILE).exists()) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Stores a batch after the ones already stored. The batch is written to a temporary directory renamed once the
+   * batch is complete, so a batch partially written when the data collector crashed is never read.
+   */
+  public void appendBatch(List<StageOutput> stageOutputs) throws IOException {
+    int batch = getBatchCount();
+    File tmpBatchDir = new File(batchesDir, TMP_PREFIX + batch);
+    File batchDir = new File(batchesDir, String.valueOf(batch));
+    deleteIfExists(tmpBatchDir);
+    deleteIfExists(batchDir);
+    Files.createDirectories(tmpBatchDir.toPath());
+    List<String> instanceNames = new ArrayList<>(stageOutputs.size());
+    for (StageOutput stageOutput : stageOutputs) {
+      instanceNames.add(stageOutput.getInstanceName());
+      File stageDir = new File(tmpBatchDir, encode(stageOutput.getInstanceName()));
+      Files.createDirectories(stageDir.toPath());
+
+      Map<String, List<Record>> output = new LinkedHashMap<>();
+      for (Map.Entry<String, List<Record>> entry : stageOutput.getOutput().entrySet()) {
+        output.put(entry.getKey(), Collections.emptyList());
+        writeRecords(new File(stageDir, OUTPUT_PREFIX + encode(entry.getKey()) + RECORDS_SUFFIX), entry.getValue());
+      }
+      writeRecords(new File(stageDir, ERRORS_FILE), stageOutput.getErrorRecords());
+      writeRecords(new File(stageDir, EVENTS_FILE), stageOutput.getEventRecords());
+
+      // null record lists stay null, the records of non null lists are in the record files
+      StageOutput withoutRecords = new StageOutput(
+          stageOutput.getInstanceName(),
+          output,
+          (stageOutput.getErrorRecords() == null) ? null : Collections.emptyList(),
+          stageOutput.getStageErrors(),
+          (stageOutput.getEventRecords() == null) ? null : Collections.emptyList()
+      );
+      try (OutputStream os = new FileOutputStream(new File(stageDir, STAGE_FILE))) {
+        json.writeValue(os, new StageOutputJson(withoutRecords));
+      }
+    }
+    try (OutputStream os = new FileOutputStream(new File(tmpBatchDir, STAGES_FILE))) {
+      json.writeValue(os, instanceNames);
+    }
+    Files.move(tmpBatchDir.toPath(), batchDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Returns the instance names of the stages of a batch, or <code>null</code> if there is no such batch.
+   */
+  public List<String> getStages(int batch) throws IOException {
+    File stagesFile = new File(new File(batchesDir, String.valueOf(batch)), STAGES_FILE);
+    if (!stagesFile.exists()) {
+      return null;
+    }
+    try (InputStream is = new FileInputStream(stagesFile)) {
+      return json.readValue(is, new TypeReference<List<String>>() {});
+    }
+  }
+
+  /**
+   * Returns a page of the output of a stage in a batch, or <code>null</code> if there is no such stage or batch.
+   *
+   * @param offset index of the first record of each record list (lane, error and event records) to return.
+   * @param length maximum number of records of each record list to return.
+   */
+  public StageOutput getStageOutput(int batch, String instanceName, int offset, int length) throws IOException {
+    File stageDir = new File(new File(batchesDir, String.valueOf(batch)), encode(instanceName));
+    File stageFile = new File(stageDir, STAGE_FILE);
+    if (!stageFile.exists()) {
+      return null;
+    }
+    StageOutput stageOutput;
+    try (InputStream is = new FileInputStream(stageFile)) {
+      stageOutput = json.readValue(is, StageOutputJson.class).getStageOutput();
+    }
+    Map<String, List<Record>> output = new LinkedHashMap<>();
+    for (String lane : stageOutput.getOutput().keySet()) {
+      output.put(lane, readRecords(new File(stageDir, OUTPUT_PREFIX + encode(lane) + RECORDS_SUFFIX), offset, length));
+    }
+    return new StageOutput(
+        stageOutput.getInstanceName(),
+        output,
+        (stageOutput.getErrorRecords() == null) ? null : readRecords(new File(stageDir, ERRORS_FILE), offset, length),
+        stageOutput.getStageErrors(),
+        (stageOutput.getEventRecords() == null) ? null : readRecords(new File(stageDir, EVENTS_FILE), offset, length)
+    );
+  }
+
+  /**
+   * Returns the snapshot data in the JSON format of {@link com.streamsets.datacollector.restapi.bean.SnapshotDataJson}.
+   * The JSON document is generated while it is read, keeping only the output of a stage in memory at a time.
+   */
+  public InputStream openJson() {
+    return new JsonInputStream();
+  }
+
+  private static void writeRecords(File file, List<Record> records) throws IOException {
+    if (records != null) {
+      try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+        RecordWriter writer = RecordWriterReaderFactory.createRecordWriter(RecordEncoding.BINARY1, os);
+        for (Record record : records) {
+          writer.write(record);
+        }
+        writer.close();
+      }
+    }
+  }
+
+  private static List<Record> readRecords(File file, int offset, int length) throws IOException {
+    List<Record> records = new ArrayList<>();
+    if (file.exists()) {
+      try (
+          InputStream is = new BufferedInputStream(new FileInputStream(file));
+          RecordReader reader = RecordWriterReaderFactory.createRecordReader(is, 0, Integer.MAX_VALUE)
+      ) {
+        // record files use the binary encoding, the records before the page are skipped by their size prefix
+        // without decoding them
+        int skipped = ((BinaryRecordReader) reader).skipRecords(offset);
+        for (int i = 0; skipped == offset && i < length; i++) {
+          Record record = reader.readRecord();
+          if (record == null) {
+            break;
+          }
+          records.add(record);
+        }
+      }
+    }
+    return records;
+  }
+
+  private static String encode(String name) throws UnsupportedEncodingException {
+    return URLEncoder.encode(name, "UTF-8");
+  }
+
+  private static void deleteIfExists(File dir) throws IOException {
+    if (dir.exists() && !PipelineDirectoryUtil.deleteAll(dir)) {
+      throw new IOException("Could not delete '" + dir + "'");
+    }
+  }
+
+  /**
+   * Generates the JSON document of the snapshot data a stage output at a time.
+   */
+  private class JsonInputStream extends InputStream {
+    private byte[] chunk = "{\"snapshotBatches\":[".getBytes(StandardCharsets.UTF_8);
+    private int position;
+    private int batch;
+    private List<String> instanceNames;
+    private int stage;
+    private boolean done;
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return (read(b, 0, 1) < 0) ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      while (position == chunk.length) {
+        if (done) {
+          return -1;
+        }
+        nextChunk();
+      }
+      int read = Math.min(len, chunk.length - position);
+      System.arraycopy(chunk, position, b, off, read);
+      position += read;
+      return read;
+    }
+
+    private void nextChunk() throws IOException {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      if (instanceNames == null) {
+        instanceNames = getStages(batch);
+        if (instanceNames == null) {
+          os.write(']');
+          os.write('}');
+          done = true;
+        } else {
+          if (batch > 0) {
+            os.write(',');
+          }
+          os.write('[');
+          stage = 0;
+        }
+      } else if (stage < instanceNames.size()) {
+        String instanceName = instanceNames.get(stage);
+        StageOutput stageOutput = getStageOutput(batch, instanceName, 0, Integer.MAX_VALUE);
+        if (stageOutput == null) {
+          throw new IOException("Missing output of stage '" + instanceName + "' in snapshot batch " + batch);
+        }
+        if (stage > 0) {
+          os.write(',');
+        }
+        json.writeValue(os, new StageOutputJson(stageOutput));
+        stage++;
+      } else {
+        os.write(']');
+        instanceNames = null;
+        batch++;
+      }
+      chunk = os.toByteArray();
+      position = 0;
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ package com.streamsets.datacollector.execution.snapshot.common;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.ContainerError;
 
 import java.io.Closeable;
@@ -30,11 +31,17 @@ public class SnapshotImpl implements Snapshot, Closeable {
 
   private SnapshotInfo snapshotInfo;
   private File snapshotFile;
+  private PagedSnapshotData pagedData;
   private InputStream output;
 
   public SnapshotImpl(SnapshotInfo snapshotInfo, File snapshotFile) {
+    this(snapshotInfo, snapshotFile, null);
+  }
+
+  public SnapshotImpl(SnapshotInfo snapshotInfo, File snapshotFile, PagedSnapshotData pagedData) {
     this.snapshotInfo = snapshotInfo;
     this.snapshotFile = snapshotFile;
+    this.pagedData = pagedData;
   }
 
   @Override
@@ -44,6 +51,10 @@ public class SnapshotImpl implements Snapshot, Closeable {
 
   @Override
   public InputStream getOutput() throws PipelineRuntimeException {
+    if (pagedData != null) {
+      output = pagedData.openJson();
+      return output;
+    }
     if(snapshotFile != null) {
       try {
         output = new FileInputStream(snapshotFile);
@@ -56,13 +67,28 @@ public class SnapshotImpl implements Snapshot, Closeable {
     return null;
   }
 
+  @Override
+  public StageOutput getStageOutput(int batch, String instanceName, int offset, int length)
+      throws PipelineRuntimeException {
+    if (pagedData != null) {
+      try {
+        return pagedData.getStageOutput(batch, instanceName, offset, length);
+      } catch (IOException ex) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, snapshotInfo.getId(), snapshotInfo.getName(),
+          snapshotInfo.getRev(), ex.toString(), ex);
+      }
+    }
+    return null;
+  }
+
   @Override
   public void close() throws IOException {
     snapshotInfo = null;
-    if(snapshotFile != null && output != null) {
+    pagedData = null;
+    snapshotFile = null;
+    if(output != null) {
       output.close();
       output = null;
-      snapshotFile = null;
     }
   }
 }
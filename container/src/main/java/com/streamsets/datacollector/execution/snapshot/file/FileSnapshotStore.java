@@ -19,13 +19,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
-import com.streamsets.datacollector.execution.snapshot.common.SnapshotData;
+import com.streamsets.datacollector.execution.snapshot.common.PagedSnapshotData;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotImpl;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotInfoImpl;
 import com.streamsets.datacollector.io.DataStore;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
-import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
 import com.streamsets.datacollector.runner.StageOutput;
@@ -106,6 +105,21 @@ public class FileSnapshotStore implements SnapshotStore {
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+      throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      if (getInfo(name, rev, id) == null) {
+        throw new PipelineException(ContainerError.CONTAINER_0605);
+      }
+      try {
+        getPagedData(name, rev, id).appendBatch(snapshotBatch);
+      } catch (IOException e) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
+      }
+    }
+  }
+
   @Override
   public SnapshotInfo updateLabel(String name, String rev, String id, String snapshotLabel) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
@@ -134,8 +148,12 @@ public class FileSnapshotStore implements SnapshotStore {
   public Snapshot get(String name, String rev, String id) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       SnapshotInfo info = getInfo(name, rev, id);
-      File data = getData(name, rev, id);
-      return new SnapshotImpl(info, data);
+      PagedSnapshotData pagedData = getPagedData(name, rev, id);
+      if (pagedData.exists()) {
+        return new SnapshotImpl(info, null, pagedData);
+      }
+      // snapshots saved before the batches were stored one by one
+      return new SnapshotImpl(info, getData(name, rev, id));
     }
   }
 
@@ -205,6 +223,10 @@ public class FileSnapshotStore implements SnapshotStore {
     }
   }
 
+  private PagedSnapshotData getPagedData(String name, String rev, String id) {
+    return new PagedSnapshotData(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id));
+  }
+
   private File getPipelineSnapshotFile(String pipelineName, String rev, String snapshotName) {
     return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, pipelineName, rev, snapshotName),
       SNAPSHOT_FILE_NAME);
@@ -231,14 +253,16 @@ public class FileSnapshotStore implements SnapshotStore {
 
   private void persistSnapshot(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
     throws PipelineRuntimeException {
-    DataStore dataStore = new DataStore(getPipelineSnapshotFile(name, rev, id));
-    try (OutputStream out = dataStore.getOutputStream()) {
-      json.writeValue(out, new SnapshotDataJson(new SnapshotData(snapshotBatches)));
-      dataStore.commit(out);
+    // the JSON document is generated from the batches when the snapshot is read, it is not stored
+    PagedSnapshotData pagedData = getPagedData(name, rev, id);
+    try {
+      for (List<StageOutput> snapshotBatch : snapshotBatches) {
+        pagedData.appendBatch(snapshotBatch);
+      }
+      // a snapshot without batches is saved too
+      pagedData.create();
     } catch (IOException e) {
       throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
-    } finally {
-      dataStore.release();
     }
   }
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.streamsets.pipeline.api.Field;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link Field} tree straight from the Jackson token stream.
+ * <p/>
+ * Reading JSON as <code>Object.class</code> first materializes a <code>LinkedHashMap</code>/<code>ArrayList</code>
+ * graph that then has to be walked again to create the <code>Field</code> tree. Reading as <code>Field.class</code>
+ * with this deserializer skips the intermediate graph. Type mapping is the same one the two-pass conversion produces:
+ * JSON <code>null</code> becomes a <code>STRING</code> field with <code>null</code> value, integers become
+ * <code>INTEGER</code>, <code>LONG</code> or <code>DECIMAL</code> depending on their magnitude and floating point
+ * numbers become <code>DOUBLE</code>.
+ */
+public class FieldDeserializer extends JsonDeserializer<Field> {
+
+  @Override
+  public Field deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    return readField(jp, ctxt);
+  }
+
+  /**
+   * Invoked after every map entry and list element has been read, subclasses may override it to enforce limits.
+   */
+  protected void onValueRead() {
+  }
+
+  private Field readField(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    JsonToken token = jp.getCurrentToken();
+    if (token == null) {
+      return (Field) ctxt.handleUnexpectedToken(Field.class, jp);
+    }
+    switch (token) {
+      case START_OBJECT:
+      case FIELD_NAME:
+        return readMap(jp, ctxt);
+      case START_ARRAY:
+        return readList(jp, ctxt);
+      case VALUE_STRING:
+        return Field.create(jp.getText());
+      case VALUE_NUMBER_INT:
+        return readInteger(jp, ctxt);
+      case VALUE_NUMBER_FLOAT:
+        return readFloat(jp, ctxt);
+      case VALUE_TRUE:
+        return Field.create(true);
+      case VALUE_FALSE:
+        return Field.create(false);
+      case VALUE_NULL:
+        return Field.create(Field.Type.STRING, null);
+      case VALUE_EMBEDDED_OBJECT:
+        Object embedded = jp.getEmbeddedObject();
+        if (embedded == null) {
+          return Field.create(Field.Type.STRING, null);
+        } else if (embedded instanceof byte[]) {
+          return Field.create((byte[]) embedded);
+        }
+        return (Field) ctxt.handleUnexpectedToken(Field.class, jp);
+      default:
+        return (Field) ctxt.handleUnexpectedToken(Field.class, jp);
+    }
+  }
+
+  private Field readMap(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    Map<String, Field> map = new LinkedHashMap<>();
+    String name = (jp.getCurrentToken() == JsonToken.START_OBJECT) ? jp.nextFieldName() : jp.getCurrentName();
+    while (name != null) {
+      jp.nextToken();
+      map.put(name, readField(jp, ctxt));
+      onValueRead();
+      name = jp.nextFieldName();
+    }
+    return Field.create(map);
+  }
+
+  private Field readList(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    List<Field> list = new ArrayList<>();
+    while (jp.nextToken() != JsonToken.END_ARRAY) {
+      list.add(readField(jp, ctxt));
+      onValueRead();
+    }
+    return Field.create(list);
+  }
+
+  private Field readInteger(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    if (ctxt.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)) {
+      return Field.create(new BigDecimal(jp.getBigIntegerValue()));
+    }
+    switch (jp.getNumberType()) {
+      case INT:
+        return Field.create(jp.getIntValue());
+      case LONG:
+        return Field.create(jp.getLongValue());
+      default:
+        return Field.create(new BigDecimal(jp.getBigIntegerValue()));
+    }
+  }
+
+  private Field readFloat(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    if (ctxt.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+      return Field.create(jp.getDecimalValue());
+    }
+    switch (jp.getNumberType()) {
+      case BIG_DECIMAL:
+        return Field.create(jp.getDecimalValue());
+      case FLOAT:
+        return Field.create(jp.getFloatValue());
+      default:
+        return Field.create(jp.getDoubleValue());
+    }
+  }
+
+}
@@ -21,4 +21,12 @@ public interface MetricsEventListener extends EventListener {
 
   void notification(String metrics);
 
+  /**
+   * Returns if the listener understands metrics deltas. Listeners that do are notified with the full metrics first and
+   * then, until the next full metrics, only with the metrics that changed since the previous notification.
+   */
+  default boolean isDeltaSupported() {
+    return false;
+  }
+
 }
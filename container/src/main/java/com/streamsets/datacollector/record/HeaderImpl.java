@@ -71,6 +71,11 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
     this.map = new HashMap<>(header.map);
   }
 
+  // for deserialization purposes (BinaryRecordReader), the given map is used as is
+  public HeaderImpl(Map<String, Object> map) {
+    this.map = map;
+  }
+
   // Predicate interface
 
   @Override
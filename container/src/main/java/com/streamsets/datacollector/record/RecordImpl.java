@@ -34,7 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class RecordImpl implements Record, Cloneable {
+public class RecordImpl implements Record, FieldPathRecord, Cloneable {
   private final HeaderImpl header;
   private Field value;
   //Default true: so as to denote the record is just created
@@ -272,7 +272,7 @@ public class RecordImpl implements Record, Cloneable {
   }
 
   List<PathElement> parse(String fieldPath) {
-    return PathElement.parse(fieldPath, true);
+    return FieldPath.of(fieldPath).getElements();
   }
 
   private List<Field> get(List<PathElement> elements) {
@@ -329,16 +329,31 @@ public class RecordImpl implements Record, Cloneable {
       // if asking for the root field we can return it without and fieldpath parsing
       return value;
     } else {
-      List<PathElement> elements = parse(fieldPath);
-      List<Field> fields = get(elements);
-      return (elements.size() == fields.size()) ? fields.get(fields.size() - 1) : null;
+      return getLast(parse(fieldPath));
     }
   }
 
+  @Override
+  public Field get(FieldPath fieldPath) {
+    return getLast(fieldPath.getElements());
+  }
+
+  private Field getLast(List<PathElement> elements) {
+    List<Field> fields = get(elements);
+    return (elements.size() == fields.size()) ? fields.get(fields.size() - 1) : null;
+  }
 
   @Override
   public Field delete(String fieldPath) {
-    List<PathElement> elements = parse(fieldPath);
+    return delete(parse(fieldPath));
+  }
+
+  @Override
+  public Field delete(FieldPath fieldPath) {
+    return delete(fieldPath.getElements());
+  }
+
+  private Field delete(List<PathElement> elements) {
     List<Field> fields = get(elements);
     Field deleted = null;
     int fieldPos = fields.size();
@@ -370,7 +385,15 @@ public class RecordImpl implements Record, Cloneable {
 
   @Override
   public boolean has(String fieldPath) {
-    List<PathElement> elements = parse(fieldPath);
+    return has(parse(fieldPath));
+  }
+
+  @Override
+  public boolean has(FieldPath fieldPath) {
+    return has(fieldPath.getElements());
+  }
+
+  private boolean has(List<PathElement> elements) {
     List<Field> fields = get(elements);
     return (elements.size() == fields.size());
   }
@@ -539,21 +562,31 @@ public class RecordImpl implements Record, Cloneable {
       //get all the elements present in the fieldPath, including the newest element
       //For example, if the existing record has /a/b/c and the argument fieldPath is /a/b/d the parser returns three
       // elements - a, b and d
-      List<PathElement> elements = parse(fieldPath);
-      //return all *existing* fields form the list of elements
-      //In the above case it is going to return only field a and field b. Field d does not exist.
-      List<Field> fields = get(elements);
-      int fieldPos = fields.size();
-      if (elements.size() == fieldPos) {
-        //The number of elements in the path is same as the number of fields => set use case
-        fieldPos--;
-        fieldToReplace = doSet(fieldPos, newField, elements, fields);
-      } else if (elements.size() - 1 == fieldPos) {
-        //The number of elements in the path is on more than the number of fields => add use case
-        fieldToReplace = doSet(fieldPos, newField, elements, fields);
-      } else {
-        throw new IllegalArgumentException(Utils.format("Field-path '{}' not reachable", fieldPath));
-      }
+      fieldToReplace = set(fieldPath, parse(fieldPath), newField);
+    }
+    return fieldToReplace;
+  }
+
+  @Override
+  public Field set(FieldPath fieldPath, Field newField) {
+    return set(fieldPath.getPath(), fieldPath.getElements(), newField);
+  }
+
+  private Field set(String fieldPath, List<PathElement> elements, Field newField) {
+    Field fieldToReplace;
+    //return all *existing* fields form the list of elements
+    //In the above case it is going to return only field a and field b. Field d does not exist.
+    List<Field> fields = get(elements);
+    int fieldPos = fields.size();
+    if (elements.size() == fieldPos) {
+      //The number of elements in the path is same as the number of fields => set use case
+      fieldPos--;
+      fieldToReplace = doSet(fieldPos, newField, elements, fields);
+    } else if (elements.size() - 1 == fieldPos) {
+      //The number of elements in the path is on more than the number of fields => add use case
+      fieldToReplace = doSet(fieldPos, newField, elements, fields);
+    } else {
+      throw new IllegalArgumentException(Utils.format("Field-path '{}' not reachable", fieldPath));
     }
     return fieldToReplace;
   }
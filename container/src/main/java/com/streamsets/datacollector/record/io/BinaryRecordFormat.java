@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+/**
+ * Constants of the {@link RecordEncoding#BINARY1} encoding.
+ * <p/>
+ * Every record is written as a variable length integer with the size of the record followed by the record itself:
+ * <ul>
+ *   <li>a flags byte, {@link #INITIAL_RECORD_FLAG} if the record is an initial record.</li>
+ *   <li>the header: the number of attributes followed by each attribute name (a string reference) and value (a
+ *   header value tag and the value).</li>
+ *   <li>the root field.</li>
+ * </ul>
+ * A field is a tag byte with the field type in the lower bits plus the {@link #NULL_VALUE_FLAG} and
+ * {@link #ATTRIBUTES_FLAG} flags, followed by the field attributes and the value if the flags say so. Map keys and
+ * field attribute names and values are written as string references: the string the first time it is written in a
+ * record, the index of its first occurrence afterwards, or {@link #NULL_STRING} for a null attribute value. Records don't share strings so they can be read starting
+ * at any record position.
+ * <p/>
+ * Integers and longs are written as zig-zag variable length integers, strings as their UTF-8 length and bytes.
+ */
+final class BinaryRecordFormat {
+
+  static final int INITIAL_RECORD_FLAG = 0x01;
+
+  static final int NULL_VALUE_FLAG = 0x80;
+  static final int ATTRIBUTES_FLAG = 0x40;
+  static final int TYPE_MASK = 0x3f;
+
+  // field type codes, they are part of the format so they must not change
+  static final int NULL_FIELD = 0;
+  static final int BOOLEAN = 1;
+  static final int CHAR = 2;
+  static final int BYTE = 3;
+  static final int SHORT = 4;
+  static final int INTEGER = 5;
+  static final int LONG = 6;
+  static final int FLOAT = 7;
+  static final int DOUBLE = 8;
+  static final int DATE = 9;
+  static final int DATETIME = 10;
+  static final int TIME = 11;
+  static final int DECIMAL = 12;
+  static final int STRING = 13;
+  static final int BYTE_ARRAY = 14;
+  static final int MAP = 15;
+  static final int LIST = 16;
+  static final int LIST_MAP = 17;
+  static final int ZONED_DATETIME = 18;
+
+  // header value tags
+  static final int HEADER_NULL = 0;
+  static final int HEADER_STRING = 1;
+  static final int HEADER_LONG = 2;
+  static final int HEADER_INTEGER = 3;
+  static final int HEADER_BOOLEAN = 4;
+  static final int HEADER_BYTES = 5;
+  static final int HEADER_RECORD = 6;
+
+  // string reference written before a string that is not in the string table yet
+  static final int NEW_STRING = 0;
+  // string reference of a null string
+  static final int NULL_STRING = 1;
+  // string reference of the first string of the string table
+  static final int FIRST_STRING = 2;
+
+  private BinaryRecordFormat() {}
+
+}
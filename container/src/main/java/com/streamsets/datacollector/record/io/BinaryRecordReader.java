@@ -0,0 +1,396 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.streamsets.datacollector.record.HeaderImpl;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordReader;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads records written with the {@link RecordEncoding#BINARY1} encoding, see {@link BinaryRecordFormat}.
+ */
+public class BinaryRecordReader implements RecordReader {
+  private final InputStream inputStream;
+  private final List<String> strings;
+  private long position;
+  private int sizePrefixLength;
+  private byte[] buffer;
+  private int offset;
+  private int limit;
+  private boolean closed;
+
+  public BinaryRecordReader(InputStream inputStream, long initialPosition) throws IOException {
+    IOUtils.skipFully(inputStream, initialPosition);
+    this.inputStream = new BufferedInputStream(inputStream);
+    position = initialPosition;
+    strings = new ArrayList<>();
+    buffer = new byte[4096];
+  }
+
+  @Override
+  public String getEncoding() {
+    return RecordEncoding.BINARY1.name();
+  }
+
+  @Override
+  public long getPosition() {
+    return position;
+  }
+
+  @Override
+  public Record readRecord() throws IOException {
+    if (closed) {
+      throw new IOException("input has been closed");
+    }
+    int size = readSizePrefix();
+    if (size == -1) {
+      return null;
+    }
+    if (size > buffer.length) {
+      buffer = new byte[Math.max(size, buffer.length * 2)];
+    }
+    try {
+      IOUtils.readFully(inputStream, buffer, 0, size);
+    } catch (EOFException ex) {
+      throw new IOException(Utils.format("Truncated record at position '{}'", position), ex);
+    }
+    offset = 0;
+    limit = size;
+    strings.clear();
+    Record record = readRecordValue();
+    if (offset != limit) {
+      throw new IOException(Utils.format("Corrupted record at position '{}'", position));
+    }
+    position += sizePrefixLength + size;
+    return record;
+  }
+
+  /**
+   * Skips records without decoding them, using their size prefix.
+   *
+   * @return the number of records skipped, less than <code>count</code> if the end of the input was reached.
+   */
+  public int skipRecords(int count) throws IOException {
+    if (closed) {
+      throw new IOException("input has been closed");
+    }
+    for (int i = 0; i < count; i++) {
+      int size = readSizePrefix();
+      if (size == -1) {
+        return i;
+      }
+      try {
+        IOUtils.skipFully(inputStream, size);
+      } catch (EOFException ex) {
+        throw new IOException(Utils.format("Truncated record at position '{}'", position), ex);
+      }
+      position += sizePrefixLength + size;
+    }
+    return count;
+  }
+
+  /**
+   * Reads the size prefix of the next record, setting its length in bytes.
+   *
+   * @return the size of the record, <code>-1</code> at the end of the input.
+   */
+  private int readSizePrefix() throws IOException {
+    int b = inputStream.read();
+    if (b == -1) {
+      return -1;
+    }
+    int size = 0;
+    sizePrefixLength = 1;
+    for (int shift = 0; ; shift += 7) {
+      size |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+      if (shift > 21 || (b = inputStream.read()) == -1) {
+        throw new IOException(Utils.format("Corrupted record at position '{}'", position));
+      }
+      sizePrefixLength++;
+    }
+    if (size < 0) {
+      throw new IOException(Utils.format("Corrupted record at position '{}'", position));
+    }
+    return size;
+  }
+
+  private RecordImpl readRecordValue() throws IOException {
+    int flags = readByte();
+    int attributeCount = readVarInt();
+    Map<String, Object> attributes = new HashMap<>(attributeCount * 4 / 3 + 1);
+    for (int i = 0; i < attributeCount; i++) {
+      String name = readStringReference();
+      attributes.put(name, readHeaderValue());
+    }
+    RecordImpl record = new RecordImpl(new HeaderImpl(attributes), readField());
+    record.setInitialRecord((flags & BinaryRecordFormat.INITIAL_RECORD_FLAG) != 0);
+    return record;
+  }
+
+  private Object readHeaderValue() throws IOException {
+    int tag = readByte();
+    switch (tag) {
+      case BinaryRecordFormat.HEADER_NULL:
+        return null;
+      case BinaryRecordFormat.HEADER_STRING:
+        return readString();
+      case BinaryRecordFormat.HEADER_LONG:
+        return readVarLong();
+      case BinaryRecordFormat.HEADER_INTEGER:
+        return (int) readVarLong();
+      case BinaryRecordFormat.HEADER_BOOLEAN:
+        return readByte() != 0;
+      case BinaryRecordFormat.HEADER_BYTES:
+        return readBytes();
+      case BinaryRecordFormat.HEADER_RECORD:
+        return readRecordValue();
+      default:
+        throw new IOException(Utils.format("Corrupted record, invalid header value tag '{}'", tag));
+    }
+  }
+
+  private Field readField() throws IOException {
+    int tag = readByte();
+    if (tag == BinaryRecordFormat.NULL_FIELD) {
+      return null;
+    }
+    int type = tag & BinaryRecordFormat.TYPE_MASK;
+    Map<String, String> attributes = null;
+    if ((tag & BinaryRecordFormat.ATTRIBUTES_FLAG) != 0) {
+      int count = readVarInt();
+      attributes = new LinkedHashMap<>(count * 4 / 3 + 1);
+      for (int i = 0; i < count; i++) {
+        String name = readStringReference();
+        attributes.put(name, readStringReference());
+      }
+    }
+    Object value = null;
+    if ((tag & BinaryRecordFormat.NULL_VALUE_FLAG) == 0) {
+      value = readValue(type);
+    }
+    return Field.create(getType(type), value, attributes);
+  }
+
+  private Object readValue(int type) throws IOException {
+    switch (type) {
+      case BinaryRecordFormat.BOOLEAN:
+        return readByte() != 0;
+      case BinaryRecordFormat.CHAR:
+        return (char) readVarInt();
+      case BinaryRecordFormat.BYTE:
+        return (byte) readByte();
+      case BinaryRecordFormat.SHORT:
+        return (short) readVarLong();
+      case BinaryRecordFormat.INTEGER:
+        return (int) readVarLong();
+      case BinaryRecordFormat.LONG:
+        return readVarLong();
+      case BinaryRecordFormat.FLOAT:
+        return Float.intBitsToFloat((int) readFixedLong(4));
+      case BinaryRecordFormat.DOUBLE:
+        return Double.longBitsToDouble(readFixedLong(8));
+      case BinaryRecordFormat.DATE:
+      case BinaryRecordFormat.DATETIME:
+      case BinaryRecordFormat.TIME:
+        return new Date(readVarLong());
+      case BinaryRecordFormat.DECIMAL:
+        int scale = (int) readVarLong();
+        return new BigDecimal(new BigInteger(readBytes()), scale);
+      case BinaryRecordFormat.STRING:
+        return readString();
+      case BinaryRecordFormat.BYTE_ARRAY:
+        return readBytes();
+      case BinaryRecordFormat.MAP:
+      case BinaryRecordFormat.LIST_MAP:
+        int size = readVarInt();
+        Map<String, Field> map = (type == BinaryRecordFormat.MAP)
+            ? new HashMap<>(size * 4 / 3 + 1)
+            : new LinkedHashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+          String key = readStringReference();
+          map.put(key, readField());
+        }
+        return map;
+      case BinaryRecordFormat.LIST:
+        int length = readVarInt();
+        List<Field> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+          list.add(readField());
+        }
+        return list;
+      case BinaryRecordFormat.ZONED_DATETIME:
+        return ZonedDateTime.parse(readString(), DateTimeFormatter.ISO_ZONED_DATE_TIME);
+      default:
+        throw new IOException(Utils.format("Corrupted record, invalid field type '{}'", type));
+    }
+  }
+
+  private static Field.Type getType(int type) throws IOException {
+    switch (type) {
+      case BinaryRecordFormat.BOOLEAN:
+        return Field.Type.BOOLEAN;
+      case BinaryRecordFormat.CHAR:
+        return Field.Type.CHAR;
+      case BinaryRecordFormat.BYTE:
+        return Field.Type.BYTE;
+      case BinaryRecordFormat.SHORT:
+        return Field.Type.SHORT;
+      case BinaryRecordFormat.INTEGER:
+        return Field.Type.INTEGER;
+      case BinaryRecordFormat.LONG:
+        return Field.Type.LONG;
+      case BinaryRecordFormat.FLOAT:
+        return Field.Type.FLOAT;
+      case BinaryRecordFormat.DOUBLE:
+        return Field.Type.DOUBLE;
+      case BinaryRecordFormat.DATE:
+        return Field.Type.DATE;
+      case BinaryRecordFormat.DATETIME:
+        return Field.Type.DATETIME;
+      case BinaryRecordFormat.TIME:
+        return Field.Type.TIME;
+      case BinaryRecordFormat.DECIMAL:
+        return Field.Type.DECIMAL;
+      case BinaryRecordFormat.STRING:
+        return Field.Type.STRING;
+      case BinaryRecordFormat.BYTE_ARRAY:
+        return Field.Type.BYTE_ARRAY;
+      case BinaryRecordFormat.MAP:
+        return Field.Type.MAP;
+      case BinaryRecordFormat.LIST:
+        return Field.Type.LIST;
+      case BinaryRecordFormat.LIST_MAP:
+        return Field.Type.LIST_MAP;
+      case BinaryRecordFormat.ZONED_DATETIME:
+        return Field.Type.ZONED_DATETIME;
+      default:
+        throw new IOException(Utils.format("Corrupted record, invalid field type '{}'", type));
+    }
+  }
+
+  private String readStringReference() throws IOException {
+    int reference = readVarInt();
+    if (reference == BinaryRecordFormat.NEW_STRING) {
+      String value = readString();
+      strings.add(value);
+      return value;
+    }
+    if (reference == BinaryRecordFormat.NULL_STRING) {
+      return null;
+    }
+    int index = reference - BinaryRecordFormat.FIRST_STRING;
+    if (index >= strings.size()) {
+      throw new IOException(Utils.format("Corrupted record, invalid string reference '{}'", reference));
+    }
+    return strings.get(index);
+  }
+
+  private String readString() throws IOException {
+    int length = readVarInt();
+    require(length);
+    String value = new String(buffer, offset, length, StandardCharsets.UTF_8);
+    offset += length;
+    return value;
+  }
+
+  private byte[] readBytes() throws IOException {
+    int length = readVarInt();
+    require(length);
+    byte[] bytes = new byte[length];
+    System.arraycopy(buffer, offset, bytes, 0, length);
+    offset += length;
+    return bytes;
+  }
+
+  private int readByte() throws IOException {
+    require(1);
+    return buffer[offset++] & 0xff;
+  }
+
+  private long readFixedLong(int bytes) throws IOException {
+    require(bytes);
+    long value = 0;
+    for (int i = 0; i < bytes; i++) {
+      value = (value << 8) | (buffer[offset++] & 0xff);
+    }
+    return value;
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = readByte();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          break;
+        }
+        return value;
+      }
+    }
+    throw new IOException("Corrupted record, invalid variable length integer");
+  }
+
+  private long readVarLong() throws IOException {
+    long zigZag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      zigZag |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+      }
+    }
+    throw new IOException("Corrupted record, invalid variable length long");
+  }
+
+  private void require(int bytes) throws IOException {
+    if (bytes < 0 || offset + bytes > limit) {
+      throw new IOException("Corrupted record, unexpected end of record");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      inputStream.close();
+    }
+  }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.streamsets.datacollector.record.HeaderImpl;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordWriter;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes records using the {@link RecordEncoding#BINARY1} encoding, see {@link BinaryRecordFormat}.
+ * <p/>
+ * Records are serialized in a reusable buffer without reflection, the buffer is then written prefixed by its size.
+ */
+public class BinaryRecordWriter implements RecordWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(BinaryRecordWriter.class);
+  private final OutputStream outputStream;
+  private final Map<String, Integer> strings;
+  private byte[] buffer;
+  private int count;
+  private boolean closed;
+
+  public BinaryRecordWriter(OutputStream outputStream) {
+    this.outputStream = new BufferedOutputStream(outputStream);
+    strings = new HashMap<>();
+    buffer = new byte[4096];
+  }
+
+  @Override
+  public String getEncoding() {
+    return RecordEncoding.BINARY1.name();
+  }
+
+  @Override
+  public void write(Record record) throws IOException {
+    if (closed) {
+      throw new IOException("output has been closed");
+    }
+    Utils.checkNotNull(record, "record");
+    count = 0;
+    strings.clear();
+    writeRecord(record);
+    int size = count;
+    // the size prefix is written after the record, at the end of the buffer, to avoid shifting the record
+    writeVarInt(size);
+    outputStream.write(buffer, size, count - size);
+    outputStream.write(buffer, 0, size);
+  }
+
+  private void writeRecord(Record record) throws IOException {
+    if (!(record.getHeader() instanceof HeaderImpl)) {
+      throw new IOException(Utils.format("Unsupported record header '{}'", record.getHeader().getClass().getName()));
+    }
+    boolean initial = record instanceof RecordImpl && ((RecordImpl) record).isInitialRecord();
+    writeByte(initial ? BinaryRecordFormat.INITIAL_RECORD_FLAG : 0);
+    Map<String, Object> attributes = ((HeaderImpl) record.getHeader()).getAllAttributes();
+    writeVarInt(attributes.size());
+    for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+      writeStringReference(entry.getKey());
+      writeHeaderValue(entry.getKey(), entry.getValue());
+    }
+    writeField(record.get());
+  }
+
+  private void writeHeaderValue(String name, Object value) throws IOException {
+    if (value == null) {
+      writeByte(BinaryRecordFormat.HEADER_NULL);
+    } else if (value instanceof String) {
+      writeByte(BinaryRecordFormat.HEADER_STRING);
+      writeString((String) value);
+    } else if (value instanceof Long) {
+      writeByte(BinaryRecordFormat.HEADER_LONG);
+      writeVarLong((Long) value);
+    } else if (value instanceof Integer) {
+      writeByte(BinaryRecordFormat.HEADER_INTEGER);
+      writeVarLong((Integer) value);
+    } else if (value instanceof Boolean) {
+      writeByte(BinaryRecordFormat.HEADER_BOOLEAN);
+      writeByte((Boolean) value ? 1 : 0);
+    } else if (value instanceof byte[]) {
+      writeByte(BinaryRecordFormat.HEADER_BYTES);
+      writeBytes((byte[]) value);
+    } else if (value instanceof Record) {
+      writeByte(BinaryRecordFormat.HEADER_RECORD);
+      writeRecord((Record) value);
+    } else {
+      throw new IOException(Utils.format(
+          "Cannot serialize header attribute '{}' of type '{}'",
+          name,
+          value.getClass().getName()
+      ));
+    }
+  }
+
+  private void writeField(Field field) throws IOException {
+    if (field == null) {
+      writeByte(BinaryRecordFormat.NULL_FIELD);
+      return;
+    }
+    int type = getTypeCode(field.getType());
+    Object value = field.getValue();
+    Map<String, String> attributes = field.getAttributes();
+    int tag = type;
+    if (value == null) {
+      tag |= BinaryRecordFormat.NULL_VALUE_FLAG;
+    }
+    if (attributes != null) {
+      tag |= BinaryRecordFormat.ATTRIBUTES_FLAG;
+    }
+    writeByte(tag);
+    if (attributes != null) {
+      writeVarInt(attributes.size());
+      for (Map.Entry<String, String> entry : attributes.entrySet()) {
+        writeStringReference(entry.getKey());
+        writeStringReference(entry.getValue());
+      }
+    }
+    if (value == null) {
+      return;
+    }
+    switch (type) {
+      case BinaryRecordFormat.BOOLEAN:
+        writeByte(field.getValueAsBoolean() ? 1 : 0);
+        break;
+      case BinaryRecordFormat.CHAR:
+        writeVarInt(field.getValueAsChar());
+        break;
+      case BinaryRecordFormat.BYTE:
+        writeByte(field.getValueAsByte());
+        break;
+      case BinaryRecordFormat.SHORT:
+        writeVarLong(field.getValueAsShort());
+        break;
+      case BinaryRecordFormat.INTEGER:
+        writeVarLong(field.getValueAsInteger());
+        break;
+      case BinaryRecordFormat.LONG:
+        writeVarLong(field.getValueAsLong());
+        break;
+      case BinaryRecordFormat.FLOAT:
+        writeFixedLong(Float.floatToRawIntBits(field.getValueAsFloat()), 4);
+        break;
+      case BinaryRecordFormat.DOUBLE:
+        writeFixedLong(Double.doubleToRawLongBits(field.getValueAsDouble()), 8);
+        break;
+      case BinaryRecordFormat.DATE:
+      case BinaryRecordFormat.DATETIME:
+      case BinaryRecordFormat.TIME:
+        writeVarLong(((Date) value).getTime());
+        break;
+      case BinaryRecordFormat.DECIMAL:
+        BigDecimal decimal = field.getValueAsDecimal();
+        writeVarLong(decimal.scale());
+        writeBytes(decimal.unscaledValue().toByteArray());
+        break;
+      case BinaryRecordFormat.STRING:
+        writeString(field.getValueAsString());
+        break;
+      case BinaryRecordFormat.BYTE_ARRAY:
+        writeBytes(field.getValueAsByteArray());
+        break;
+      case BinaryRecordFormat.MAP:
+      case BinaryRecordFormat.LIST_MAP:
+        Map<String, Field> map = field.getValueAsMap();
+        writeVarInt(map.size());
+        for (Map.Entry<String, Field> entry : map.entrySet()) {
+          writeStringReference(entry.getKey());
+          writeField(entry.getValue());
+        }
+        break;
+      case BinaryRecordFormat.LIST:
+        List<Field> list = field.getValueAsList();
+        writeVarInt(list.size());
+        for (Field element : list) {
+          writeField(element);
+        }
+        break;
+      case BinaryRecordFormat.ZONED_DATETIME:
+        writeString(((ZonedDateTime) value).format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+        break;
+      default:
+        throw new IllegalStateException("Unexpected type code: " + type);
+    }
+  }
+
+  private static int getTypeCode(Field.Type type) throws IOException {
+    switch (type) {
+      case BOOLEAN:
+        return BinaryRecordFormat.BOOLEAN;
+      case CHAR:
+        return BinaryRecordFormat.CHAR;
+      case BYTE:
+        return BinaryRecordFormat.BYTE;
+      case SHORT:
+        return BinaryRecordFormat.SHORT;
+      case INTEGER:
+        return BinaryRecordFormat.INTEGER;
+      case LONG:
+        return BinaryRecordFormat.LONG;
+      case FLOAT:
+        return BinaryRecordFormat.FLOAT;
+      case DOUBLE:
+        return BinaryRecordFormat.DOUBLE;
+      case DATE:
+        return BinaryRecordFormat.DATE;
+      case DATETIME:
+        return BinaryRecordFormat.DATETIME;
+      case TIME:
+        return BinaryRecordFormat.TIME;
+      case DECIMAL:
+        return BinaryRecordFormat.DECIMAL;
+      case STRING:
+        return BinaryRecordFormat.STRING;
+      case BYTE_ARRAY:
+        return BinaryRecordFormat.BYTE_ARRAY;
+      case MAP:
+        return BinaryRecordFormat.MAP;
+      case LIST:
+        return BinaryRecordFormat.LIST;
+      case LIST_MAP:
+        return BinaryRecordFormat.LIST_MAP;
+      case ZONED_DATETIME:
+        return BinaryRecordFormat.ZONED_DATETIME;
+      case FILE_REF:
+        throw new IOException("Cannot serialize FileRef fields.");
+      default:
+        throw new IOException(Utils.format("Cannot serialize fields of type '{}'", type));
+    }
+  }
+
+  private void writeStringReference(String value) {
+    if (value == null) {
+      writeVarInt(BinaryRecordFormat.NULL_STRING);
+      return;
+    }
+    Integer index = strings.get(value);
+    if (index != null) {
+      writeVarInt(index + BinaryRecordFormat.FIRST_STRING);
+    } else {
+      strings.put(value, strings.size());
+      writeVarInt(BinaryRecordFormat.NEW_STRING);
+      writeString(value);
+    }
+  }
+
+  private void writeString(String value) {
+    writeBytes(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void writeBytes(byte[] bytes) {
+    writeVarInt(bytes.length);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, count, bytes.length);
+    count += bytes.length;
+  }
+
+  private void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[count++] = (byte) value;
+  }
+
+  private void writeFixedLong(long value, int bytes) {
+    ensureCapacity(bytes);
+    for (int i = bytes - 1; i >= 0; i--) {
+      buffer[count++] = (byte) (value >>> (i * 8));
+    }
+  }
+
+  // unsigned variable length integer, 7 bits per byte
+  private void writeVarInt(int value) {
+    ensureCapacity(5);
+    while ((value & ~0x7f) != 0) {
+      buffer[count++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    buffer[count++] = (byte) value;
+  }
+
+  // zig-zag encoded variable length long, small negative values take few bytes too
+  private void writeVarLong(long value) {
+    ensureCapacity(10);
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7fL) != 0) {
+      buffer[count++] = (byte) ((zigZag & 0x7f) | 0x80);
+      zigZag >>>= 7;
+    }
+    buffer[count++] = (byte) zigZag;
+  }
+
+  private void ensureCapacity(int bytes) {
+    if (count + bytes > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + bytes));
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (closed) {
+      throw new IOException("output has been closed");
+    }
+    outputStream.flush();
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      try {
+        outputStream.close();
+      } catch (IOException ex) {
+        LOG.warn("Error on close: {}", ex, ex);
+      }
+    }
+  }
+}
@@ -49,6 +49,9 @@ public class RecordWriterReaderFactory {
           case KRYO1:
             reader = new KryoRecordReader(is, initialPosition);
             break;
+          case BINARY1:
+            reader = new BinaryRecordReader(is, initialPosition);
+            break;
           default:
             throw new RuntimeException("It cannot happen");
         }
@@ -70,7 +73,7 @@ public class RecordWriterReaderFactory {
     return createRecordWriter(encoding, os);
   }
 
-  static RecordWriter createRecordWriter(RecordEncoding encoding, OutputStream os) throws IOException {
+  public static RecordWriter createRecordWriter(RecordEncoding encoding, OutputStream os) throws IOException {
     RecordWriter writer;
     switch (encoding) {
       case JSON1:
@@ -81,6 +84,10 @@ public class RecordWriterReaderFactory {
         os.write(RecordEncodingConstants.KRYO1_MAGIC_NUMBER);
         writer = new KryoRecordWriter(os);
         break;
+      case BINARY1:
+        os.write(RecordEncodingConstants.BINARY1_MAGIC_NUMBER);
+        writer = new BinaryRecordWriter(os);
+        break;
       default:
         throw new RuntimeException("It cannot happen");
     }
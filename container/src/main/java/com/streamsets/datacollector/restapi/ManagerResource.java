@@ -21,6 +21,7 @@ import com.streamsets.datacollector.execution.Manager;
 import com.streamsets.datacollector.execution.PipelineState;
 import com.streamsets.datacollector.execution.PipelineStatus;
 import com.streamsets.datacollector.execution.Runner;
+import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.StartPipelineContextBuilder;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
@@ -37,8 +38,10 @@ import com.streamsets.datacollector.restapi.bean.SampledRecordJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
 import com.streamsets.datacollector.restapi.bean.SourceOffsetJson;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
 import com.streamsets.datacollector.restapi.bean.UserJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.store.AclStoreTask;
 import com.streamsets.datacollector.store.PipelineInfo;
 import com.streamsets.datacollector.store.PipelineStoreTask;
@@ -709,6 +712,47 @@ public class ManagerResource {
     return Response.noContent().build();
   }
 
+  @Path("/pipeline/{pipelineId}/snapshot/{snapshotName}/batch/{batch}/stage/{stageInstanceName}")
+  @GET
+  @ApiOperation(value = "Return a page of the output of a stage in a Snapshot batch", response = StageOutputJson.class,
+    authorizations = @Authorization(value = "basic"))
+  @Produces(MediaType.APPLICATION_JSON)
+  @RolesAllowed({
+      AuthzRole.MANAGER,
+      AuthzRole.CREATOR,
+      AuthzRole.ADMIN,
+      AuthzRole.MANAGER_REMOTE,
+      AuthzRole.CREATOR_REMOTE,
+      AuthzRole.ADMIN_REMOTE
+  })
+  public Response getSnapshotStageOutput(
+      @PathParam("pipelineId") String pipelineId,
+      @PathParam("snapshotName") String snapshotName,
+      @PathParam("batch") int batch,
+      @PathParam("stageInstanceName") String stageInstanceName,
+      @QueryParam("rev") @DefaultValue("0") String rev,
+      @QueryParam("offset") @DefaultValue("0") int offset,
+      @QueryParam("len") @DefaultValue("100") int len
+  ) throws PipelineException {
+    PipelineInfo pipelineInfo = store.getInfo(pipelineId);
+    RestAPIUtils.injectPipelineInMDC(pipelineInfo.getTitle(), pipelineInfo.getPipelineId());
+    Runner runner = manager.getRunner(pipelineId, rev);
+    if (runner != null) {
+      Snapshot snapshot = runner.getSnapshot(snapshotName);
+      StageOutput stageOutput = snapshot.getStageOutput(
+          batch,
+          stageInstanceName,
+          Math.max(0, offset),
+          Math.max(0, len)
+      );
+      if (stageOutput != null) {
+        return Response.ok().type(MediaType.APPLICATION_JSON).entity(new StageOutputJson(stageOutput)).build();
+      }
+      return Response.status(Response.Status.NOT_FOUND).build();
+    }
+    return Response.noContent().build();
+  }
+
   @Path("/pipeline/{pipelineId}/snapshot/{snapshotName}")
   @DELETE
   @ApiOperation(value = "Delete Snapshot data", authorizations = @Authorization(value = "basic"))
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner;
+
+import com.google.common.collect.Iterators;
+import com.streamsets.pipeline.api.Record;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Read only view of the records of several lanes, one after the other, used to give a stage the records of all its
+ * input lanes without copying them to a new list.
+ */
+final class CompositeRecordList extends AbstractList<Record> {
+  private final List<List<Record>> lanes;
+  private final int size;
+
+  CompositeRecordList(List<List<Record>> lanes) {
+    this.lanes = lanes;
+    int total = 0;
+    for (List<Record> lane : lanes) {
+      total += lane.size();
+    }
+    size = total;
+  }
+
+  @Override
+  public Record get(int index) {
+    if (index >= 0) {
+      int laneIndex = index;
+      for (List<Record> lane : lanes) {
+        if (laneIndex < lane.size()) {
+          return lane.get(laneIndex);
+        }
+        laneIndex -= lane.size();
+      }
+    }
+    throw new IndexOutOfBoundsException("Index: " + index);
+  }
+
+  @Override
+  public Iterator<Record> iterator() {
+    return Iterators.concat(lanes.stream().map(List::iterator).iterator());
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+}
@@ -104,17 +104,29 @@ public class FullPipeBatch implements PipeBatch {
   @Override
   @SuppressWarnings("unchecked")
   public BatchImpl getBatch(final Pipe pipe) throws StageException {
-    List<Record> records = new ArrayList<>();
+    // The stage gets the lane lists themselves, each lane has a single consumer so there is no need to copy them
+    List<Record> records;
     List<String> inputLanes = pipe.getInputLanes();
-    for (String inputLane : inputLanes) {
-      records.addAll(fullPayload.get(inputLane));
+    if (inputLanes.size() == 1) {
+      records = Preconditions.checkNotNull(fullPayload.get(inputLanes.get(0)), Utils.formatL(
+          "Stream '{}' does not exist", inputLanes.get(0)));
+    } else {
+      List<List<Record>> lanes = new ArrayList<>(inputLanes.size());
+      for (String inputLane : inputLanes) {
+        lanes.add(Preconditions.checkNotNull(fullPayload.get(inputLane), Utils.formatL(
+            "Stream '{}' does not exist", inputLane)));
+      }
+      records = new CompositeRecordList(lanes);
     }
     if (pipe.getStage().getDefinition().getType().isOneOf(StageType.TARGET, StageType.EXECUTOR)) {
       outputRecords += records.size();
     }
 
-    // Run interceptors as part before providing data to the stage
-    records = intercept(records, pipe.getStage().getPreInterceptors());
+    // Run interceptors as part before providing data to the stage, interceptors are allowed to modify the list
+    List<? extends Interceptor> interceptors = pipe.getStage().getPreInterceptors();
+    if (!interceptors.isEmpty()) {
+      records = intercept(new ArrayList<>(records), interceptors);
+    }
 
     // And finally give the batch to the stage itself
     return new BatchImpl(pipe.getStage().getInfo().getInstanceName(), sourceEntity, lastOffset, records);
@@ -329,9 +341,11 @@ public class FullPipeBatch implements PipeBatch {
   public void moveLaneCopying(String inputLane, List<String> outputLanes) {
     List<Record> records = Preconditions.checkNotNull(fullPayload.remove(inputLane), Utils.formatL(
         "Stream '{}' does not exist", inputLane));
-    for (String lane : outputLanes) {
+    for (int i = 0; i < outputLanes.size(); i++) {
+      String lane = outputLanes.get(i);
       Preconditions.checkState(!fullPayload.containsKey(lane), Utils.formatL("Lane '{}' already exists", lane));
-      fullPayload.put(lane, createCopy(records));
+      // nothing else references the input lane records, the last output lane can take them instead of a copy
+      fullPayload.put(lane, (i == outputLanes.size() - 1) ? records : createCopy(records));
     }
   }
 
@@ -58,4 +58,10 @@ public interface SourceOffsetTracker {
    */
   public void resetOffset();
 
+  /**
+   * Releases the resources of the tracker when the pipeline stops. Offsets committed afterwards are still persisted.
+   */
+  public default void close() {
+  }
+
 }
@@ -31,12 +31,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 public class OffsetFileUtil {
   private static final Logger LOG = LoggerFactory.getLogger(ProductionSourceOffsetTracker.class);
 
   private static final String OFFSET_FILE = "offset.json";
+  private static final String OFFSET_JOURNAL_FILE = "offset.journal";
   private static final Map<String, String> DEFAULT_OFFSET = Collections.emptyMap();
   private static final int MAX_RETRIES = 5;
 
@@ -46,6 +48,10 @@ public class OffsetFileUtil {
     return new File(PipelineDirectoryUtil.getPipelineDir(runtimeInfo, pipelineName, rev), OFFSET_FILE);
   }
 
+  public static File getPipelineOffsetJournalFile(RuntimeInfo runtimeInfo, String pipelineName, String rev) {
+    return new File(PipelineDirectoryUtil.getPipelineDir(runtimeInfo, pipelineName, rev), OFFSET_JOURNAL_FILE);
+  }
+
   public static Map<String, String> saveIfEmpty(RuntimeInfo runtimeInfo, String pipelineName, String rev) {
     File pipelineOffsetFile =  getPipelineOffsetFile(runtimeInfo, pipelineName, rev);
     SourceOffset sourceOffset;
@@ -69,6 +75,14 @@ public class OffsetFileUtil {
   }
 
   public static void saveOffsets(RuntimeInfo runtimeInfo, String pipelineName, String rev, Map<String, String> offset) {
+    compactOffsets(runtimeInfo, pipelineName, rev, offset);
+    deleteOffsetJournal(runtimeInfo, pipelineName, rev);
+  }
+
+  /**
+   * Writes the offset file leaving the offset journal, if any, as it is. The journal must be reset afterwards.
+   */
+  static void compactOffsets(RuntimeInfo runtimeInfo, String pipelineName, String rev, Map<String, String> offset) {
     LOG.debug("Saving offset {} for pipeline {}", offset, pipelineName);
     SourceOffset sourceOffset = new SourceOffset(SourceOffset.CURRENT_VERSION, offset);
     DataStore dataStore = new DataStore(OffsetFileUtil.getPipelineOffsetFile(runtimeInfo, pipelineName, rev));
@@ -95,6 +109,15 @@ public class OffsetFileUtil {
     } finally {
       dataStore.release();
     }
+    deleteOffsetJournal(runtimeInfo, pipelineName, rev);
+  }
+
+  private static void deleteOffsetJournal(RuntimeInfo runtimeInfo, String pipelineName, String rev) {
+    // the offset file has all the offsets now, replaying the journal would bring back stale offsets
+    File journalFile = getPipelineOffsetJournalFile(runtimeInfo, pipelineName, rev);
+    if (journalFile.exists() && !journalFile.delete()) {
+      throw new IllegalStateException(Utils.format("Failed to delete offset journal '{}'", journalFile));
+    }
   }
 
   public static void resetOffsets(RuntimeInfo runtimeInfo, String pipelineName, String rev) {
@@ -152,6 +175,13 @@ public class OffsetFileUtil {
       SourceOffsetJson sourceOffsetJson = ObjectMapperFactory.get().readValue(is, SourceOffsetJson.class);
       SourceOffset sourceOffset = BeanHelper.unwrapSourceOffset(sourceOffsetJson);
       SourceOffsetUpgrader.upgrade(sourceOffset);
+      // replayed while holding the offset file, a compaction cannot reset the journal in between
+      File journalFile = new File(ds.getFile().getParentFile(), OFFSET_JOURNAL_FILE);
+      if (journalFile.exists()) {
+        Map<String, String> offsets = new HashMap<>(sourceOffset.getOffsets());
+        OffsetJournal.replay(journalFile, offsets);
+        sourceOffset.setOffsets(offsets);
+      }
       return sourceOffset;
     }
   }
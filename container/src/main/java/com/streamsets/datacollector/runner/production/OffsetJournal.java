@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner.production;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append only journal of the offset changes of a pipeline, memory mapped so that appending an offset change is a
+ * couple of memory writes instead of a rewrite of the whole offset file.
+ * <p/>
+ * The journal is applied on top of the offset file, the offsets of the pipeline are the offsets of the offset file
+ * with the changes in the journal replayed in order. When the journal is full its owner writes all the offsets to
+ * the offset file and {@link #reset()}s the journal (compaction). Replaying an entry already in the offset file is
+ * harmless, so a crash between both steps does not lose or corrupt offsets.
+ * <p/>
+ * File layout: a header (magic, version, generation) followed by entries (payload length, checksum, payload). The
+ * payload is the entity name and the offset, a negative offset length means the entity was removed. The checksum
+ * covers the generation and the payload, a reset increments the generation so the entries written before the reset
+ * are not valid anymore and there is no need to clear the file. Replaying stops at the first entry that is not
+ * valid, an entry partially written when the data collector crashed is discarded.
+ * <p/>
+ * Not thread safe.
+ */
+final class OffsetJournal implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(OffsetJournal.class);
+
+  private static final int MAGIC = 0x53444f4a;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int ENTRY_HEADER_SIZE = 8;
+  private static final int GENERATION_OFFSET = 8;
+
+  private final File file;
+  private MappedByteBuffer buffer;
+  private long generation;
+
+  private OffsetJournal(File file, MappedByteBuffer buffer) {
+    this.file = file;
+    this.buffer = buffer;
+  }
+
+  /**
+   * Opens the journal in the given file creating it if it does not exist. The journal is started over, the offsets
+   * recorded by the journal must have been written to the offset file.
+   *
+   * @param file journal file.
+   * @param size size of the journal file in bytes.
+   */
+  static OffsetJournal open(File file, int size) throws IOException {
+    OffsetJournal journal;
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+      if (channel.size() != size) {
+        channel.truncate(0);
+      }
+      journal = new OffsetJournal(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+    MappedByteBuffer buffer = journal.buffer;
+    if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+      journal.generation = buffer.getLong(GENERATION_OFFSET);
+    } else {
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+    }
+    journal.reset();
+    return journal;
+  }
+
+  /**
+   * Replays the entries of the journal in the given file, if any, on the given offsets. The journal may be in use by
+   * a running pipeline, it is only read.
+   */
+  static void replay(File file, Map<String, String> offsets) throws IOException {
+    if (file.exists()) {
+      try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.limit() >= HEADER_SIZE && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+          apply(buffer, buffer.getLong(GENERATION_OFFSET), offsets);
+        }
+      }
+    }
+  }
+
+  private static void apply(ByteBuffer buffer, long generation, Map<String, String> offsets) {
+    ByteBuffer entries = buffer.duplicate();
+    int position = HEADER_SIZE;
+    int count = 0;
+    while (position + ENTRY_HEADER_SIZE <= entries.limit()) {
+      int length = entries.getInt(position);
+      int checksum = entries.getInt(position + 4);
+      int start = position + ENTRY_HEADER_SIZE;
+      if (length < 8 || length > entries.limit() - start || checksum != checksum(generation, entries, start, length)) {
+        break;
+      }
+      entries.limit(start + length).position(start);
+      String entity = readString(entries, entries.getInt());
+      int offsetLength = entries.getInt();
+      if (offsetLength < 0) {
+        offsets.remove(entity);
+      } else {
+        offsets.put(entity, readString(entries, offsetLength));
+      }
+      entries.limit(entries.capacity());
+      position = start + length;
+      count++;
+    }
+    LOG.debug("Replayed '{}' offset journal entries", count);
+  }
+
+  private static String readString(ByteBuffer buffer, int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int checksum(long generation, ByteBuffer buffer, int start, int length) {
+    CRC32 crc = new CRC32();
+    ByteBuffer payload = buffer.duplicate();
+    payload.limit(start + length).position(start);
+    crc.update(ByteBuffer.allocate(8).putLong(0, generation));
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Appends an offset change to the journal.
+   *
+   * @param entity entity name.
+   * @param offset new offset of the entity, <code>null</code> if the entity was removed.
+   * @return <code>false</code> if the change does not fit in the journal, the journal must be compacted.
+   */
+  boolean append(String entity, String offset) {
+    byte[] entityBytes = entity.getBytes(StandardCharsets.UTF_8);
+    byte[] offsetBytes = (offset == null) ? null : offset.getBytes(StandardCharsets.UTF_8);
+    int length = 8 + entityBytes.length + ((offsetBytes == null) ? 0 : offsetBytes.length);
+    int position = buffer.position();
+    if (buffer.remaining() < ENTRY_HEADER_SIZE + length) {
+      return false;
+    }
+    int start = position + ENTRY_HEADER_SIZE;
+    buffer.position(start);
+    buffer.putInt(entityBytes.length).put(entityBytes);
+    if (offsetBytes == null) {
+      buffer.putInt(-1);
+    } else {
+      buffer.putInt(offsetBytes.length).put(offsetBytes);
+    }
+    // the length goes last, an entry with zero length ends the journal
+    buffer.putInt(position + 4, checksum(generation, buffer, start, length));
+    buffer.putInt(position, length);
+    // invalidates whatever a previous generation left after this entry
+    if (buffer.remaining() >= 4) {
+      buffer.putInt(buffer.position(), 0);
+    }
+    return true;
+  }
+
+  /**
+   * Discards all the entries of the journal, the offsets they recorded must have been written to the offset file.
+   */
+  void reset() {
+    generation++;
+    buffer.putLong(GENERATION_OFFSET, generation);
+    buffer.putInt(HEADER_SIZE, 0);
+    buffer.force();
+    buffer.position(HEADER_SIZE);
+  }
+
+  /**
+   * Returns the number of bytes used by the journal.
+   */
+  int getSize() {
+    return buffer.position();
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * Flushes and unmaps the journal, it can't be used afterwards.
+   */
+  @Override
+  public void close() {
+    if (buffer != null) {
+      buffer.force();
+      unmap(buffer);
+      buffer = null;
+    }
+  }
+
+  private static void unmap(MappedByteBuffer buffer) {
+    // the mapping is otherwise only released when the buffer is garbage collected, keeping the file open
+    try {
+      Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buffer);
+      if (cleaner != null) {
+        Method cleanMethod = cleaner.getClass().getMethod("clean");
+        cleanMethod.setAccessible(true);
+        cleanMethod.invoke(cleaner);
+      }
+    } catch (Exception ex) {
+      // not accessible in this JVM
+      LOG.debug("Cannot unmap offset journal: {}", ex.toString(), ex);
+    }
+  }
+
+}
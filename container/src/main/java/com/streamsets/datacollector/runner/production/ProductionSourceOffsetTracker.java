@@ -15,15 +15,18 @@
  */
 package com.streamsets.datacollector.runner.production;
 
+import com.streamsets.datacollector.execution.runner.common.Constants;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.runner.SourceOffsetTracker;
 
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -37,17 +40,44 @@ public class ProductionSourceOffsetTracker implements SourceOffsetTracker {
   private final String pipelineName;
   private final String rev;
   private final RuntimeInfo runtimeInfo;
+  private OffsetJournal journal;
+  private final long compactionIntervalMillis;
+  private long lastCompactionTime;
+
+  public ProductionSourceOffsetTracker(String pipelineName, String rev, RuntimeInfo runtimeInfo) {
+    this(pipelineName, rev, runtimeInfo, new Configuration());
+  }
 
   @Inject
   public ProductionSourceOffsetTracker(
       @Named("name") String pipelineName,
       @Named("rev") String rev,
-      RuntimeInfo runtimeInfo
+      RuntimeInfo runtimeInfo,
+      Configuration configuration
   ) {
     this.pipelineName = pipelineName;
     this.rev = rev;
     this.runtimeInfo = runtimeInfo;
     this.offsets = new HashMap<>(getSourceOffset(pipelineName, rev));
+    this.compactionIntervalMillis = configuration.get(
+        Constants.OFFSET_JOURNAL_COMPACTION_INTERVAL_SECS_KEY,
+        Constants.OFFSET_JOURNAL_COMPACTION_INTERVAL_SECS_DEFAULT
+    ) * 1000L;
+    String offsetStore = configuration.get(Constants.OFFSET_STORE_KEY, Constants.OFFSET_STORE_DEFAULT);
+    if (Constants.OFFSET_STORE_JOURNAL.equalsIgnoreCase(offsetStore)) {
+      // the offsets read above include the entries of the previous journal, they go to the offset file first
+      compact();
+      try {
+        journal = OffsetJournal.open(
+            OffsetFileUtil.getPipelineOffsetJournalFile(runtimeInfo, pipelineName, rev),
+            configuration.get(Constants.OFFSET_JOURNAL_SIZE_KEY, Constants.OFFSET_JOURNAL_SIZE_DEFAULT)
+        );
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    } else {
+      journal = null;
+    }
   }
 
   @Override
@@ -79,8 +109,14 @@ public class ProductionSourceOffsetTracker implements SourceOffsetTracker {
         offsets.put(entity, newOffset);
       }
 
-      // Finally write new variant of the offset file
-      saveOffset(pipelineName, rev, offsets);
+      if (journal == null) {
+        // Finally write new variant of the offset file
+        saveOffset(pipelineName, rev, offsets);
+      } else if (!journal.append(entity, newOffset) ||
+          lastBatchTime - lastCompactionTime >= compactionIntervalMillis) {
+        compact();
+        journal.reset();
+      }
     }
   }
 
@@ -95,7 +131,34 @@ public class ProductionSourceOffsetTracker implements SourceOffsetTracker {
 
   @Override
   public void resetOffset() {
-    OffsetFileUtil.resetOffsets(runtimeInfo, pipelineName, rev);
+    if (journal == null) {
+      OffsetFileUtil.resetOffsets(runtimeInfo, pipelineName, rev);
+    } else {
+      synchronized (offsets) {
+        offsets.clear();
+        compact();
+        journal.reset();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (offsets) {
+      if (journal != null) {
+        // leaves all the offsets in the offset file, later commits (if any) are written to the offset file directly
+        compact();
+        journal.reset();
+        journal.close();
+        journal = null;
+      }
+    }
+  }
+
+  private void compact() {
+    LOG.debug("Compacting offsets of pipeline '{}'", pipelineName);
+    OffsetFileUtil.compactOffsets(runtimeInfo, pipelineName, rev, offsets);
+    lastCompactionTime = System.currentTimeMillis();
   }
 
   private void saveOffset(String pipelineName, String rev, Map<String, String> offset) {
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class TestMetricsDeltaEncoder {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static ObjectNode metrics(String json) throws IOException {
+    return (ObjectNode) OBJECT_MAPPER.readTree(json.replace('\'', '"'));
+  }
+
+  @Test
+  public void testFirstMetricsAreKeyframe() throws IOException {
+    MetricsDeltaEncoder encoder = new MetricsDeltaEncoder(10);
+    Assert.assertNull(encoder.encode(metrics("{'version':'1','counters':{'a':{'count':1}}}")));
+  }
+
+  @Test
+  public void testDelta() throws IOException {
+    MetricsDeltaEncoder encoder = new MetricsDeltaEncoder(10);
+    encoder.encode(metrics("{'version':'1','counters':{'a':{'count':1},'b':{'count':1}},'gauges':{'g':{'value':1}}}"));
+
+    ObjectNode delta = encoder.encode(
+        metrics("{'version':'1','counters':{'a':{'count':1},'b':{'count':2}},'gauges':{'g':{'value':1}}}")
+    );
+    Assert.assertEquals(metrics("{'delta':true,'counters':{'b':{'count':2}}}"), delta);
+
+    delta = encoder.encode(
+        metrics("{'version':'1','counters':{'a':{'count':1},'b':{'count':2}},'gauges':{'g':{'value':1}}}")
+    );
+    Assert.assertEquals(metrics("{'delta':true}"), delta);
+  }
+
+  @Test
+  public void testDeltaAddedAndRemovedMetrics() throws IOException {
+    MetricsDeltaEncoder encoder = new MetricsDeltaEncoder(10);
+    encoder.encode(metrics("{'counters':{'a':{'count':1},'b':{'count':1}},'slaves':['x']}"));
+
+    ObjectNode delta = encoder.encode(metrics("{'counters':{'a':{'count':1},'c':{'count':0}},'slaves':['x','y']}"));
+    Assert.assertEquals(
+        metrics("{'delta':true,'counters':{'c':{'count':0}},'slaves':['x','y'],'removed':{'counters':['b']}}"),
+        delta
+    );
+  }
+
+  @Test
+  public void testKeyframeInterval() throws IOException {
+    MetricsDeltaEncoder encoder = new MetricsDeltaEncoder(3);
+    ObjectNode metrics = metrics("{'counters':{'a':{'count':1}}}");
+    Assert.assertNull(encoder.encode(metrics));
+    Assert.assertNotNull(encoder.encode(metrics));
+    Assert.assertNotNull(encoder.encode(metrics));
+    Assert.assertNull(encoder.encode(metrics));
+    Assert.assertNotNull(encoder.encode(metrics));
+
+    encoder.reset();
+    Assert.assertNull(encoder.encode(metrics));
+  }
+
+}
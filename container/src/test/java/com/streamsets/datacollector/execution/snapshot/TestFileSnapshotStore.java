@@ -15,10 +15,14 @@
  */
 package com.streamsets.datacollector.execution.snapshot;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.snapshot.file.FileSnapshotStore;
 import com.streamsets.datacollector.execution.snapshot.file.dagger.FileSnapshotStoreModule;
 import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeModule;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 
 import org.junit.BeforeClass;
 
@@ -33,9 +37,13 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 
 public class TestFileSnapshotStore extends TestSnapshotStore {
 
+  private RuntimeInfo runtimeInfo;
+
   @BeforeClass
   public static void beforeClass() {
     System.setProperty(RuntimeModule.SDC_PROPERTY_PREFIX + RuntimeInfo.DATA_DIR, "./target/var");
@@ -52,6 +60,7 @@ public class TestFileSnapshotStore extends TestSnapshotStore {
     FileUtils.deleteDirectory(f);
     ObjectGraph objectGraph = ObjectGraph.create(FileSnapshotStoreModule.class);
     snapshotStore = objectGraph.get(FileSnapshotStore.class);
+    runtimeInfo = objectGraph.get(RuntimeInfo.class);
   }
 
   @After
@@ -64,4 +73,41 @@ public class TestFileSnapshotStore extends TestSnapshotStore {
     Assert.assertTrue(snapshotStore instanceof FileSnapshotStore);
   }
 
+  @Test
+  public void testIncompleteBatchesDiscarded() throws Exception {
+    snapshotStore.create("user", "myPipeline", "0", "mySnapshotId", "mySnapshotLabel", false);
+    File snapshotDir = PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, "myPipeline", "0", "mySnapshotId");
+    // batches partially written when the data collector crashed
+    File batchesDir = new File(snapshotDir, "batches");
+    Assert.assertTrue(new File(batchesDir, "_tmp_0/source").mkdirs());
+    Assert.assertTrue(new File(batchesDir, "0/source").mkdirs());
+
+    snapshotStore.save("myPipeline", "0", "mySnapshotId", 0, getSnapshotData());
+    Assert.assertFalse(new File(batchesDir, "_tmp_0").exists());
+    Assert.assertTrue(new File(batchesDir, "1/stages.json").exists());
+    // the JSON document is not stored
+    Assert.assertFalse(new File(snapshotDir, "snapshot.json").exists());
+
+    Snapshot snapshot = snapshotStore.get("myPipeline", "0", "mySnapshotId");
+    JsonNode data;
+    try (InputStream is = snapshot.getOutput()) {
+      data = ObjectMapperFactory.get().readTree(is);
+    }
+    Assert.assertEquals(2, data.get("snapshotBatches").size());
+    Assert.assertEquals("processor", data.get("snapshotBatches").get(1).get(1).get("instanceName").asText());
+    snapshot.close();
+  }
+
+  @Test
+  public void testSaveWithoutBatches() throws Exception {
+    snapshotStore.create("user", "myPipeline", "0", "mySnapshotId", "mySnapshotLabel", false);
+    snapshotStore.save("myPipeline", "0", "mySnapshotId", 0, Collections.emptyList());
+
+    Snapshot snapshot = snapshotStore.get("myPipeline", "0", "mySnapshotId");
+    try (InputStream is = snapshot.getOutput()) {
+      Assert.assertEquals(0, ObjectMapperFactory.get().readTree(is).get("snapshotBatches").size());
+    }
+    snapshot.close();
+  }
+
 }
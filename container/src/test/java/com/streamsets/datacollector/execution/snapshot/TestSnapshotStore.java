@@ -15,10 +15,12 @@
  */
 package com.streamsets.datacollector.execution.snapshot;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.runner.ErrorSink;
 import com.streamsets.datacollector.runner.EventSink;
@@ -227,7 +229,46 @@ public abstract class TestSnapshotStore {
 
   }
 
-  private List<List<StageOutput>> getSnapshotData() throws Exception {
+  @Test
+  public void testAppendBatchAndGetStageOutput() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL, false);
+    for (List<StageOutput> batch : getSnapshotData()) {
+      snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, batch);
+    }
+    Assert.assertTrue(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, 0, getSnapshotData());
+    Assert.assertFalse(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID);
+    JsonNode data;
+    try (InputStream is = snapshot.getOutput()) {
+      data = ObjectMapperFactory.get().readTree(is);
+    }
+    JsonNode batches = data.get("snapshotBatches");
+    Assert.assertEquals(4, batches.size());
+    Assert.assertEquals("source", batches.get(3).get(0).get("instanceName").asText());
+    Assert.assertEquals(2, batches.get(3).get(0).get("output").get("lane").size());
+    Assert.assertEquals("processor", batches.get(3).get(1).get("instanceName").asText());
+
+    StageOutput stageOutput = snapshot.getStageOutput(2, "source", 1, 10);
+    Assert.assertEquals("source", stageOutput.getInstanceName());
+    Assert.assertEquals(1, stageOutput.getOutput().get("lane").size());
+    Assert.assertEquals("s:2", stageOutput.getOutput().get("lane").get(0).getHeader().getSourceId());
+    Assert.assertEquals(2, snapshot.getStageOutput(0, "source", 0, 10).getOutput().get("lane").size());
+    Assert.assertTrue(snapshot.getStageOutput(0, "source", 2, 10).getOutput().get("lane").isEmpty());
+    Assert.assertEquals(0, snapshot.getStageOutput(1, "processor", 0, 10).getErrorRecords().size());
+
+    Assert.assertNull(snapshot.getStageOutput(0, "unknown", 0, 10));
+    Assert.assertNull(snapshot.getStageOutput(4, "source", 0, 10));
+    snapshot.close();
+  }
+
+  @Test(expected = PipelineException.class)
+  public void testAppendBatchBeforeCreate() throws Exception {
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, getSnapshotData().get(0));
+  }
+
+  protected List<List<StageOutput>> getSnapshotData() throws Exception {
     List<List<StageOutput>> snapshotBatches = new ArrayList<>();
     snapshotBatches.add(createSnapshotData());
     snapshotBatches.add(createSnapshotData());
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class TestFieldPath {
+
+  @Test
+  public void testParse() {
+    FieldPath fieldPath = FieldPath.of("/a[1]/'b/c'");
+    Assert.assertEquals("/a[1]/'b/c'", fieldPath.getPath());
+    List<PathElement> elements = fieldPath.getElements();
+    Assert.assertEquals(4, elements.size());
+    Assert.assertEquals(PathElement.ROOT, elements.get(0));
+    Assert.assertEquals("a", elements.get(1).getName());
+    Assert.assertEquals(1, elements.get(2).getIndex());
+    Assert.assertEquals("b/c", elements.get(3).getName());
+  }
+
+  @Test
+  public void testInterned() {
+    Assert.assertSame(FieldPath.of("/interned"), FieldPath.of("/interned"));
+    Assert.assertSame(FieldPath.ofExpression("/*[${f:type() == 'STRING'}]"),
+        FieldPath.ofExpression("/*[${f:type() == 'STRING'}]"));
+    Assert.assertNotSame(FieldPath.of("/interned"), FieldPath.ofExpression("/interned"));
+  }
+
+  @Test
+  public void testExpression() {
+    Assert.assertEquals(2, FieldPath.of("/a[${f:type() == 'STRING'}]").getElements().size());
+    List<PathElement> elements = FieldPath.ofExpression("/a[${f:type() == 'STRING'}]").getElements();
+    Assert.assertEquals(3, elements.size());
+    Assert.assertEquals(PathElement.Type.FIELD_EXPRESSION, elements.get(2).getType());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testImmutable() {
+    FieldPath.of("/immutable").getElements().add(PathElement.ROOT);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalid() {
+    FieldPath.of("invalid");
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEvicted() {
+    FieldPath hot = FieldPath.of("/hot");
+    FieldPath cold = FieldPath.of("/cold[0]");
+    for (int i = 1; i < FieldPath.MAX_CACHE_SIZE * 2; i++) {
+      FieldPath.of("/cold[" + i + "]");
+      Assert.assertSame(hot, FieldPath.of("/hot"));
+    }
+    Assert.assertNotSame(cold, FieldPath.of("/cold[0]"));
+  }
+
+  @Test
+  public void testRecordAccess() {
+    RecordImpl record = new RecordImpl("stage", "source", null, null);
+    record.set(Field.create(new HashMap<>(ImmutableMap.of(
+        "a", Field.create(new ArrayList<>(ImmutableList.of(Field.create(1), Field.create(2))))
+    ))));
+    FieldPath existing = FieldPath.of("/a[1]");
+    FieldPath missing = FieldPath.of("/b");
+
+    Assert.assertTrue(record.has(existing));
+    Assert.assertEquals(Field.create(2), record.get(existing));
+    Assert.assertEquals(Field.create(2), existing.get(record));
+    Assert.assertFalse(missing.has(record));
+    Assert.assertNull(record.get(missing));
+
+    Assert.assertNull(missing.set(record, Field.create("b")));
+    Assert.assertEquals(Field.create("b"), record.get("/b"));
+    Assert.assertEquals(Field.create("b"), record.set(missing, Field.create("B")));
+
+    Assert.assertEquals(Field.create(2), existing.delete(record));
+    Assert.assertFalse(record.has(existing));
+    Assert.assertEquals(Field.create("B"), record.delete(missing));
+    Assert.assertEquals(record.get(), FieldPath.of("/").get(record));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRecordSetNotReachable() {
+    RecordImpl record = new RecordImpl("stage", "source", null, null);
+    record.set(Field.create(new HashMap<>()));
+    record.set(FieldPath.of("/x/y"), Field.create("z"));
+  }
+
+  @Test
+  public void testOtherRecordAccessedByPath() {
+    Record record = Mockito.mock(Record.class);
+    Mockito.when(record.get("/a")).thenReturn(Field.create("a"));
+    Mockito.when(record.has("/a")).thenReturn(true);
+    FieldPath fieldPath = FieldPath.of("/a");
+
+    Assert.assertEquals(Field.create("a"), fieldPath.get(record));
+    Assert.assertTrue(fieldPath.has(record));
+    fieldPath.set(record, Field.create("b"));
+    Mockito.verify(record).set("/a", Field.create("b"));
+    fieldPath.delete(record);
+    Mockito.verify(record).delete("/a");
+  }
+
+}
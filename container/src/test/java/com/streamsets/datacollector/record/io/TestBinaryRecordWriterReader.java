@@ -0,0 +1,261 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordReader;
+import com.streamsets.pipeline.api.ext.RecordWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestBinaryRecordWriterReader {
+
+  private static RecordImpl createRecord() {
+    RecordImpl record = new RecordImpl("stage", "source", new byte[] {0, 1, 2}, "mode");
+    record.getHeader().setStagesPath("stagePath");
+    record.getHeader().setTrackingId("trackingId");
+    record.getHeader().setAttribute("attr", "value");
+
+    Date date = new Date();
+    LinkedHashMap<String, Field> listMap = new LinkedHashMap<>();
+    listMap.put("boolean", Field.create(true));
+    listMap.put("char", Field.create('c'));
+    listMap.put("byte", Field.create((byte) -1));
+    listMap.put("short", Field.create((short) -300));
+    listMap.put("integer", Field.create(Integer.MIN_VALUE));
+    listMap.put("long", Field.create(Long.MAX_VALUE));
+    listMap.put("float", Field.create(1.5f));
+    listMap.put("double", Field.create(-2.25d));
+    listMap.put("date", Field.create(Field.Type.DATE, date));
+    listMap.put("datetime", Field.create(Field.Type.DATETIME, date));
+    listMap.put("time", Field.create(Field.Type.TIME, date));
+    listMap.put("decimal", Field.create(new BigDecimal("-36.7147")));
+    listMap.put("string", Field.create("Hello \u00e9\u4e16"));
+    listMap.put("byteArray", Field.create(new byte[] {1, 2, 3}));
+    listMap.put("zoned", Field.create(Field.Type.ZONED_DATETIME, ZonedDateTime.now(ZoneId.of("Europe/Madrid"))));
+    listMap.put("nullString", Field.create(Field.Type.STRING, null));
+    listMap.put("nullMap", Field.create(Field.Type.MAP, null));
+
+    Field withAttributes = Field.create("attributes");
+    withAttributes.setAttribute("a1", "v1");
+    withAttributes.setAttribute("a2", "v2");
+    listMap.put("withAttributes", withAttributes);
+
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create(1));
+    map.put("b", Field.create(new ArrayList<>(Arrays.asList(Field.create("x"), null, Field.create(2L)))));
+    listMap.put("map", Field.create(map));
+    listMap.put("emptyList", Field.create(new ArrayList<Field>()));
+
+    record.set(Field.createListMap(listMap));
+    return record;
+  }
+
+  private static byte[] write(RecordEncoding encoding, Record... records) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    RecordWriter writer = RecordWriterReaderFactory.createRecordWriter(encoding, os);
+    for (Record record : records) {
+      writer.write(record);
+    }
+    writer.close();
+    return os.toByteArray();
+  }
+
+  private static List<Record> read(byte[] bytes) throws IOException {
+    List<Record> records = new ArrayList<>();
+    try (RecordReader reader = RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(bytes), 0, 1000)) {
+      Record record = reader.readRecord();
+      while (record != null) {
+        records.add(record);
+        record = reader.readRecord();
+      }
+    }
+    return records;
+  }
+
+  @Test
+  public void testAllFieldTypes() throws IOException {
+    RecordImpl record = createRecord();
+    List<Record> records = read(write(RecordEncoding.BINARY1, record));
+    Assert.assertEquals(1, records.size());
+    Assert.assertEquals(record, records.get(0));
+    Assert.assertEquals(
+        record.get("/zoned").getValue(),
+        records.get(0).get("/zoned").getValue()
+    );
+    Assert.assertNull(records.get(0).get("/map/b[1]"));
+    Assert.assertEquals("v2", records.get(0).get("/withAttributes").getAttribute("a2"));
+  }
+
+  @Test
+  public void testNullAttributeValue() throws IOException {
+    RecordImpl record = createRecord();
+    record.get("/withAttributes").setAttribute("a3", null);
+    record.get("/string").setAttribute("a1", "v1");
+    record.get("/string").setAttribute("a3", null);
+    Record read = read(write(RecordEncoding.BINARY1, record)).get(0);
+    Assert.assertEquals(record, read);
+    Assert.assertTrue(read.get("/withAttributes").getAttributes().containsKey("a3"));
+    Assert.assertNull(read.get("/withAttributes").getAttribute("a3"));
+    Assert.assertNull(read.get("/string").getAttribute("a3"));
+    Assert.assertEquals("v1", read.get("/string").getAttribute("a1"));
+  }
+
+  @Test
+  public void testCompatibleWithKryo() throws IOException {
+    RecordImpl record = createRecord();
+    // only the types supported by all the encodings
+    record.delete("/zoned");
+    Record fromKryo = read(write(RecordEncoding.KRYO1, record)).get(0);
+    Record fromBinary = read(write(RecordEncoding.BINARY1, fromKryo)).get(0);
+    Assert.assertEquals(fromKryo, fromBinary);
+    Assert.assertEquals(record, fromBinary);
+  }
+
+  @Test
+  public void testHeader() throws IOException {
+    RecordImpl source = new RecordImpl("origin", "sourceId", null, null);
+    source.set(Field.create("source"));
+    RecordImpl record = new RecordImpl("stage", "sourceId", null, null);
+    record.getHeader().setErrorContext("dataCollector", "pipeline");
+    record.getHeader().setErrorJobId("job");
+    record.getHeader().setSourceRecord(source);
+    record.setInitialRecord(false);
+    record.set(null);
+
+    Record read = read(write(RecordEncoding.BINARY1, record)).get(0);
+    Assert.assertEquals(record, read);
+    Assert.assertFalse(((RecordImpl) read).isInitialRecord());
+    Assert.assertNull(read.get());
+    Assert.assertEquals("dataCollector", read.getHeader().getErrorDataCollectorId());
+    Assert.assertEquals(source, ((RecordImpl) read).getHeader().getSourceRecord());
+  }
+
+  @Test
+  public void testRepeatedStringsWrittenOnce() throws IOException {
+    List<Field> list = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Map<String, Field> map = new LinkedHashMap<>();
+      map.put("repeatedKeyName", Field.create(i));
+      list.add(Field.createListMap((LinkedHashMap<String, Field>) map));
+    }
+    RecordImpl record = new RecordImpl("stage", "source", null, null);
+    record.set(Field.create(list));
+    RecordImpl other = new RecordImpl("stage", "source", null, null);
+    other.set(Field.create(list));
+
+    byte[] bytes = write(RecordEncoding.BINARY1, record, other);
+    // once per record, records don't share strings
+    String encoded = new String(bytes, StandardCharsets.ISO_8859_1);
+    Assert.assertEquals(2, encoded.split("repeatedKeyName", -1).length - 1);
+    Assert.assertEquals(Arrays.asList(record, other), read(bytes));
+  }
+
+  @Test
+  public void testReadFromPosition() throws IOException {
+    RecordImpl first = createRecord();
+    RecordImpl second = createRecord();
+    second.getHeader().setTrackingId("other");
+    byte[] bytes = write(RecordEncoding.BINARY1, first, second);
+
+    long position;
+    try (RecordReader reader = RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(bytes), 0, 0)) {
+      Assert.assertEquals(0, reader.getPosition());
+      reader.readRecord();
+      position = reader.getPosition();
+      reader.readRecord();
+      Assert.assertEquals(bytes.length - 1, reader.getPosition());
+    }
+    try (RecordReader reader = RecordWriterReaderFactory.createRecordReader(
+        new ByteArrayInputStream(bytes),
+        position,
+        0
+    )) {
+      Assert.assertEquals(second, reader.readRecord());
+      Assert.assertNull(reader.readRecord());
+    }
+  }
+
+  @Test
+  public void testSkipRecords() throws IOException {
+    RecordImpl first = createRecord();
+    RecordImpl second = createRecord();
+    second.getHeader().setTrackingId("second");
+    RecordImpl third = createRecord();
+    third.getHeader().setTrackingId("third");
+    byte[] bytes = write(RecordEncoding.BINARY1, first, second, third);
+
+    long position;
+    try (RecordReader reader = RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(bytes), 0, 0)) {
+      reader.readRecord();
+      reader.readRecord();
+      position = reader.getPosition();
+    }
+    try (RecordReader reader = RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(bytes), 0, 0)) {
+      Assert.assertEquals(2, ((BinaryRecordReader) reader).skipRecords(2));
+      Assert.assertEquals(position, reader.getPosition());
+      Assert.assertEquals(third, reader.readRecord());
+      Assert.assertEquals(0, ((BinaryRecordReader) reader).skipRecords(1));
+    }
+    try (RecordReader reader = RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(bytes), 0, 0)) {
+      Assert.assertEquals(3, ((BinaryRecordReader) reader).skipRecords(5));
+      Assert.assertNull(reader.readRecord());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testSkipTruncatedRecord() throws IOException {
+    byte[] bytes = write(RecordEncoding.BINARY1, createRecord());
+    try (RecordReader reader = RecordWriterReaderFactory.createRecordReader(
+        new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)),
+        0,
+        0
+    )) {
+      ((BinaryRecordReader) reader).skipRecords(1);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedRecord() throws IOException {
+    byte[] bytes = write(RecordEncoding.BINARY1, createRecord());
+    read(Arrays.copyOf(bytes, bytes.length - 3));
+  }
+
+  @Test(expected = IOException.class)
+  public void testWriteAfterClose() throws IOException {
+    RecordWriter writer = new BinaryRecordWriter(new ByteArrayOutputStream());
+    writer.close();
+    writer.write(createRecord());
+  }
+
+}
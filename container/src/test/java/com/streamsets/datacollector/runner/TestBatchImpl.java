@@ -23,6 +23,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -49,4 +50,28 @@ public class TestBatchImpl {
     }
   }
 
+  @Test
+  public void testBatchOverLanes() {
+    List<Record> lane1 = ImmutableList.of(Mockito.mock(Record.class), Mockito.mock(Record.class));
+    List<Record> lane2 = ImmutableList.of(Mockito.mock(Record.class));
+    List<Record> records = new CompositeRecordList(ImmutableList.of(lane1, Collections.emptyList(), lane2));
+    Assert.assertEquals(3, records.size());
+    Assert.assertEquals(lane1.get(1), records.get(1));
+    Assert.assertEquals(lane2.get(0), records.get(2));
+    try {
+      records.get(3);
+      Assert.fail();
+    } catch (IndexOutOfBoundsException ex) {
+      //expected
+    }
+
+    BatchImpl batch = new BatchImpl("i", "entity", "offset", records);
+    Assert.assertEquals(3, batch.getSize());
+    Iterator<Record> it = batch.getRecords();
+    Assert.assertEquals(lane1.get(0), it.next());
+    Assert.assertEquals(lane1.get(1), it.next());
+    Assert.assertEquals(lane2.get(0), it.next());
+    Assert.assertFalse(it.hasNext());
+  }
+
 }
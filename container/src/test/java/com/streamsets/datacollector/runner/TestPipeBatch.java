@@ -292,8 +292,9 @@ public class TestPipeBatch {
     assertEquals(origRecord, copiedRecordX);
     Assert.assertNotSame(origRecord, copiedRecordX);
 
+    // the last lane takes the original records
     assertEquals(origRecord, copiedRecordY);
-    Assert.assertNotSame(origRecord, copiedRecordY);
+    Assert.assertSame(origRecord, copiedRecordY);
 
 
     Map<String, List<Record>> snapshot = pipeBatch.getLaneOutputRecords(list);
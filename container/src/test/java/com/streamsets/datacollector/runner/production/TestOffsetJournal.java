@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner.production;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class TestOffsetJournal {
+  private File file;
+
+  @Before
+  public void setUp() {
+    File dir = new File("target", UUID.randomUUID().toString());
+    Assert.assertTrue(dir.mkdirs());
+    file = new File(dir, "offset.journal");
+  }
+
+  private Map<String, String> replay() throws IOException {
+    Map<String, String> offsets = new HashMap<>();
+    offsets.put("existing", "offset");
+    OffsetJournal.replay(file, offsets);
+    return offsets;
+  }
+
+  @Test
+  public void testAppendAndReplay() throws IOException {
+    OffsetJournal journal = OffsetJournal.open(file, 1024);
+    Assert.assertTrue(journal.append("a", "1"));
+    Assert.assertTrue(journal.append("b", "2"));
+    Assert.assertTrue(journal.append("a", "3"));
+    Assert.assertTrue(journal.append("existing", null));
+    Assert.assertTrue(journal.append("c", ""));
+    journal.close();
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put("a", "3");
+    expected.put("b", "2");
+    expected.put("c", "");
+    Assert.assertEquals(expected, replay());
+  }
+
+  @Test
+  public void testJournalFull() throws IOException {
+    OffsetJournal journal = OffsetJournal.open(file, 80);
+    Assert.assertTrue(journal.append("entity", "offset1"));
+    Assert.assertTrue(journal.append("entity", "offset2"));
+    Assert.assertFalse(journal.append("entity", "offset3"));
+    Assert.assertEquals("offset2", replay().get("entity"));
+
+    journal.reset();
+    Assert.assertTrue(journal.append("entity", "offset3"));
+    Assert.assertEquals("offset3", replay().get("entity"));
+    journal.close();
+  }
+
+  @Test
+  public void testResetDiscardsEntries() throws IOException {
+    OffsetJournal journal = OffsetJournal.open(file, 1024);
+    journal.append("a", "a very long offset so the next generation does not overwrite all of it");
+    journal.append("b", "1");
+    journal.reset();
+    Assert.assertEquals(1, replay().size());
+
+    journal.append("c", "1");
+    Map<String, String> offsets = replay();
+    Assert.assertEquals(2, offsets.size());
+    Assert.assertEquals("1", offsets.get("c"));
+    journal.close();
+
+    // reopening starts over too
+    journal = OffsetJournal.open(file, 1024);
+    Assert.assertEquals(1, replay().size());
+    journal.close();
+  }
+
+  @Test
+  public void testPartialEntryDiscarded() throws IOException {
+    OffsetJournal journal = OffsetJournal.open(file, 1024);
+    journal.append("a", "1");
+    int size = journal.getSize();
+    journal.append("b", "2");
+    int end = journal.getSize();
+    journal.close();
+
+    // corrupting the last byte of the last entry, as if the data collector crashed while writing it
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(end - 1);
+      raf.write('X');
+    }
+    Map<String, String> offsets = replay();
+    Assert.assertEquals("1", offsets.get("a"));
+    Assert.assertFalse(offsets.containsKey("b"));
+    Assert.assertTrue(size < end);
+  }
+
+  @Test
+  public void testNoJournal() throws IOException {
+    Assert.assertEquals(1, replay().size());
+  }
+
+}
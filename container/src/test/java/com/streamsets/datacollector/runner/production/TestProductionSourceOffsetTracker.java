@@ -16,9 +16,11 @@
 package com.streamsets.datacollector.runner.production;
 
 import com.codahale.metrics.MetricRegistry;
+import com.streamsets.datacollector.execution.runner.common.Constants;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
 import com.streamsets.datacollector.main.StandaloneRuntimeInfo;
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.pipeline.api.Source;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -36,6 +38,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Map;
 
 public class TestProductionSourceOffsetTracker {
   private static Logger LOG = LoggerFactory.getLogger(TestProductionSourceOffsetTracker.class);
@@ -43,6 +46,7 @@ public class TestProductionSourceOffsetTracker {
   private static final String PIPELINE_NAME = "myPipeline";
   private static final String PIPELINE_REV = "2.0";
 
+  private static RuntimeInfo info;
   private static ProductionSourceOffsetTracker offsetTracker;
 
   @BeforeClass
@@ -64,7 +68,7 @@ public class TestProductionSourceOffsetTracker {
 
   @Before
   public void createOffsetTracker() throws Exception {
-    RuntimeInfo info = new StandaloneRuntimeInfo(
+    info = new StandaloneRuntimeInfo(
       RuntimeModule.SDC_PROPERTY_PREFIX,
       new MetricRegistry(),
       Arrays.asList(TestProductionSourceOffsetTracker.class.getClassLoader())
@@ -113,4 +117,77 @@ public class TestProductionSourceOffsetTracker {
     Assert.assertEquals(0, offsetTracker.getOffsets().size());
   }
 
+  private static ProductionSourceOffsetTracker createJournalOffsetTracker() {
+    Configuration configuration = new Configuration();
+    configuration.set(Constants.OFFSET_STORE_KEY, Constants.OFFSET_STORE_JOURNAL);
+    return new ProductionSourceOffsetTracker(PIPELINE_NAME, PIPELINE_REV, info, configuration);
+  }
+
+  @Test
+  public void testJournalOffsetStore() {
+    ProductionSourceOffsetTracker tracker = createJournalOffsetTracker();
+    File journalFile = OffsetFileUtil.getPipelineOffsetJournalFile(info, PIPELINE_NAME, PIPELINE_REV);
+    Assert.assertTrue(journalFile.exists());
+
+    tracker.commitOffset("entity1", "offset1");
+    tracker.commitOffset("entity2", "offset2");
+    tracker.commitOffset("entity1", "offset3");
+    tracker.commitOffset("entity2", null);
+    Assert.assertEquals(1, tracker.getOffsets().size());
+    Assert.assertEquals("offset3", tracker.getOffsets().get("entity1"));
+
+    // the offset file is not rewritten on commit but readers see the journal changes
+    Map<String, String> offsets = OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV);
+    Assert.assertEquals(tracker.getOffsets(), offsets);
+
+    // a new tracker, i.e. after a restart, recovers the offsets
+    ProductionSourceOffsetTracker recovered = createJournalOffsetTracker();
+    Assert.assertEquals(tracker.getOffsets(), recovered.getOffsets());
+
+    recovered.resetOffset();
+    Assert.assertTrue(recovered.getOffsets().isEmpty());
+    Assert.assertTrue(OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).isEmpty());
+  }
+
+  @Test
+  public void testJournalOffsetStoreCompaction() {
+    Configuration configuration = new Configuration();
+    configuration.set(Constants.OFFSET_STORE_KEY, Constants.OFFSET_STORE_JOURNAL);
+    configuration.set(Constants.OFFSET_JOURNAL_SIZE_KEY, 128);
+    ProductionSourceOffsetTracker tracker =
+        new ProductionSourceOffsetTracker(PIPELINE_NAME, PIPELINE_REV, info, configuration);
+    for (int i = 0; i < 100; i++) {
+      tracker.commitOffset("entity" + (i % 10), "offset" + i);
+    }
+    Assert.assertEquals(10, tracker.getOffsets().size());
+    Assert.assertEquals("offset99", tracker.getOffsets().get("entity9"));
+    Assert.assertEquals(tracker.getOffsets(), OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV));
+  }
+
+  @Test
+  public void testJournalOffsetStoreClose() {
+    ProductionSourceOffsetTracker tracker = createJournalOffsetTracker();
+    tracker.commitOffset("entity1", "offset1");
+    tracker.close();
+    Assert.assertEquals(tracker.getOffsets(), OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV));
+
+    // offsets committed after closing the tracker go to the offset file
+    tracker.commitOffset("entity1", "offset2");
+    Assert.assertEquals("offset2", OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).get("entity1"));
+    tracker.close();
+  }
+
+  @Test
+  public void testFileOffsetStoreDiscardsJournal() {
+    ProductionSourceOffsetTracker tracker = createJournalOffsetTracker();
+    tracker.commitOffset("entity", "journal");
+
+    // switching back to the file offset store
+    offsetTracker = new ProductionSourceOffsetTracker(PIPELINE_NAME, PIPELINE_REV, info);
+    Assert.assertEquals("journal", offsetTracker.getOffsets().get("entity"));
+    offsetTracker.commitOffset("entity", "file");
+    Assert.assertFalse(OffsetFileUtil.getPipelineOffsetJournalFile(info, PIPELINE_NAME, PIPELINE_REV).exists());
+    Assert.assertEquals("file", OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).get("entity"));
+  }
+
 }
@@ -50,9 +50,10 @@ angular
     var destroyed = false;
     var pageHidden = false;
     var isWebSocketSupported;
-    var webSocketMetricsURL = $rootScope.common.webSocketBaseURL + 'rest/v1/webSocket?type=metrics&pipelineName=' +
-      routeParamPipelineName;
+    var webSocketMetricsURL = $rootScope.common.webSocketBaseURL + 'rest/v1/webSocket?type=metrics&delta=true' +
+      '&pipelineName=' + routeParamPipelineName;
     var metricsWebSocket;
+    var webSocketMetrics;
     var undoLimit = 10;
     var archive = [];
     var currArchivePos = null;
@@ -1651,6 +1652,39 @@ angular
       }, 1000);
     };
 
+    /**
+     * Applies a metrics delta received through the WebSocket, full metrics replace the current ones.
+     * Returns a new object so watchers of the pipeline metrics are triggered.
+     *
+     * @param metrics
+     * @param received
+     */
+    var mergeMetrics = function(metrics, received) {
+      if (!received.delta || !metrics) {
+        return received;
+      }
+      var merged = angular.extend({}, metrics);
+      angular.forEach(received, function(value, key) {
+        if (key === 'delta' || key === 'removed') {
+          return;
+        }
+        if (angular.isObject(value) && !angular.isArray(value) && angular.isObject(merged[key])) {
+          merged[key] = angular.extend({}, merged[key], value);
+        } else {
+          merged[key] = value;
+        }
+      });
+      angular.forEach(received.removed, function(names, key) {
+        if (merged[key]) {
+          merged[key] = angular.extend({}, merged[key]);
+          angular.forEach(names, function(name) {
+            delete merged[key][name];
+          });
+        }
+      });
+      return merged;
+    };
+
     /**
      * Fetch the Pipeline Status for every configured refresh interval.
      *
@@ -1668,13 +1702,15 @@ angular
 
         // WebSocket to get Pipeline Metrics
         metricsWebSocket = new WebSocket(webSocketMetricsURL);
+        webSocketMetrics = undefined;
 
         metricsWebSocket.onmessage = function (evt) {
           var received_msg = evt.data;
+          webSocketMetrics = mergeMetrics(webSocketMetrics, JSON.parse(received_msg));
 
           if (!$scope.monitoringPaused) {
             $rootScope.$apply(function() {
-              $rootScope.common.pipelineMetrics = JSON.parse(received_msg);
+              $rootScope.common.pipelineMetrics = webSocketMetrics;
             });
 
           }
@@ -17,6 +17,7 @@ package com.streamsets.pipeline.lib.dirspooler;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -24,6 +25,8 @@ import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -34,10 +37,20 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -47,6 +60,14 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class DirectorySpooler {
   private static final Logger LOG = LoggerFactory.getLogger(DirectorySpooler.class);
   private static final String PENDING_FILES = "pending.files";
+  private static final String DISCOVERY_LATENCY = "discovery.latency";
+  private static final String FILE_DISCOVERY = "File Discovery";
+  private static final String DISCOVERY_MODE = "Mode";
+  private static final String QUEUE_DEPTH = "Queue Depth";
+  private static final String WATCHED_DIRECTORIES = "Watched Directories";
+  private static final String INDEXED_FILES = "Indexed Files";
+  private static final String DIRECTORY_RESCANS = "Directory Rescans";
+  private static final long WATCH_POLL_MILLIS = 1000;
 
   private final PushSource.Context context;
   private final String spoolDir;
@@ -61,8 +82,10 @@ public class DirectorySpooler {
   private final Comparator<WrappedFile> pathComparator;
   private final boolean processSubdirectories;
   private final long spoolingPeriodSec;
+  private final FileDiscoveryMode discoveryMode;
   private final WrappedFileSystem fs;
   private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+  private final Object filesAdded = new Object();
 
   private final long intervalMillis;
 
@@ -86,6 +109,7 @@ public class DirectorySpooler {
     private boolean useLastModifiedTimestamp;
     private boolean processSubdirectories;
     private long spoolingPeriodSec = 5;
+    private FileDiscoveryMode discoveryMode = FileDiscoveryMode.SCAN;
     private WrappedFileSystem fs;
 
     private Builder() {
@@ -172,6 +196,11 @@ public class DirectorySpooler {
       return this;
     }
 
+    public Builder setFileDiscoveryMode(FileDiscoveryMode discoveryMode) {
+      this.discoveryMode = Preconditions.checkNotNull(discoveryMode, "discovery mode cannot be null");
+      return this;
+    }
+
     public Builder setWrappedFileSystem(WrappedFileSystem fs) {
       this.fs = fs;
       return this;
@@ -200,6 +229,7 @@ public class DirectorySpooler {
           useLastModifiedTimestamp,
           processSubdirectories,
           spoolingPeriodSec,
+          discoveryMode,
           fs
       );
     }
@@ -232,6 +262,7 @@ public class DirectorySpooler {
         false,
         processSubdirectories,
         5,
+        FileDiscoveryMode.SCAN,
         null
     );
   }
@@ -250,6 +281,7 @@ public class DirectorySpooler {
       final boolean useLastModified,
       boolean processSubdirectories,
       long spoolingPeriodSec,
+      FileDiscoveryMode discoveryMode,
       WrappedFileSystem fs
   ) {
     this.context = context;
@@ -265,6 +297,7 @@ public class DirectorySpooler {
     this.useLastModified = useLastModified;
     this.processSubdirectories = processSubdirectories;
     this.spoolingPeriodSec = spoolingPeriodSec;
+    this.discoveryMode = discoveryMode;
     this.fs = fs;
 
     pathComparator = fs.getComparator(useLastModified);
@@ -285,11 +318,14 @@ public class DirectorySpooler {
 
   private Meter spoolQueueMeter;
   private Counter pendingFilesCounter;
+  private Timer discoveryLatencyTimer;
+  private Map<String, Object> discoveryGauge;
 
   private volatile boolean running;
 
   volatile FilePurger purger;
   volatile FileFinder finder;
+  volatile FileWatcher watcher;
 
   private void checkBaseDir(WrappedFile path) {
     Preconditions.checkState(path.isAbsolute(), Utils.formatL("Path '{}' is not an absolute path", path));
@@ -351,6 +387,13 @@ public class DirectorySpooler {
 
       pendingFilesCounter = context.createCounter(PENDING_FILES);
 
+      // time from the last modification of a file to the moment it is queued, only measured for files added after
+      // the spooler started
+      discoveryLatencyTimer = context.createTimer(DISCOVERY_LATENCY);
+      discoveryGauge = context.createGauge(FILE_DISCOVERY).getValue();
+      discoveryGauge.put(DISCOVERY_MODE, FileDiscoveryMode.SCAN.getLabel());
+      discoveryGauge.put(QUEUE_DEPTH, 0);
+
       if (!waitForPathAppearance) {
         startSpooling(currentFile);
       }
@@ -368,12 +411,24 @@ public class DirectorySpooler {
       handleOlderFiles(currentFile);
     }
 
-    scheduledExecutor = new SafeScheduledExecutorService(1, "directory-dirspooler");
+    // the file watcher blocks waiting for events, it needs its own thread to not delay the file purger
+    scheduledExecutor = new SafeScheduledExecutorService(
+        discoveryMode == FileDiscoveryMode.WATCH ? 2 : 1,
+        "directory-dirspooler"
+    );
+
+    // the watcher must be registered before the initial scan so that no file falls in between
+    FileWatcher fileWatcher = (discoveryMode == FileDiscoveryMode.WATCH) ? createFileWatcher() : null;
 
     findAndQueueFiles(true, false);
 
-    finder = new FileFinder();
-    scheduledExecutor.scheduleAtFixedRate(finder, spoolingPeriodSec, spoolingPeriodSec, TimeUnit.SECONDS);
+    if (fileWatcher != null) {
+      watcher = fileWatcher;
+      scheduledExecutor.submit(watcher);
+    } else {
+      finder = new FileFinder();
+      scheduledExecutor.scheduleAtFixedRate(finder, spoolingPeriodSec, spoolingPeriodSec, TimeUnit.SECONDS);
+    }
 
     if (postProcessing == FilePostProcessing.ARCHIVE && archiveRetentionMillis > 0) {
       // create and schedule file purger only if the retention time is > 0
@@ -392,6 +447,47 @@ public class DirectorySpooler {
     } catch (RuntimeException ex) {
       LOG.warn("Error during scheduledExecutor.shutdownNow(), {}", ex.toString(), ex);
     }
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+    }
+  }
+
+  private FileWatcher createFileWatcher() {
+    if (SpoolDirUtil.isGlobPattern(spoolDirPath.getAbsolutePath())) {
+      LOG.warn("Directory events are not available for the glob pattern '{}', scanning the directory every '{}' " +
+          "seconds", spoolDirPath, spoolingPeriodSec);
+      return null;
+    }
+    WatchService watchService = null;
+    try {
+      watchService = fs.newWatchService();
+      if (watchService == null) {
+        LOG.warn("Directory events are not available for '{}', scanning the directory every '{}' seconds",
+            spoolDirPath, spoolingPeriodSec);
+        return null;
+      }
+      FileWatcher fileWatcher = new FileWatcher(watchService);
+      fileWatcher.watch(spoolDirPath, false);
+      discoveryGauge.put(DISCOVERY_MODE, FileDiscoveryMode.WATCH.getLabel());
+      fileWatcher.updateGauge();
+      return fileWatcher;
+    } catch (Exception ex) {
+      LOG.warn("Could not watch directory '{}', scanning the directory every '{}' seconds: {}", spoolDirPath,
+          spoolingPeriodSec, ex.toString(), ex);
+      closeWatchService(watchService);
+      return null;
+    }
+  }
+
+  private static void closeWatchService(WatchService watchService) {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException ex) {
+        LOG.warn("Error while closing the directory watch service: {}", ex.toString(), ex);
+      }
+    }
   }
 
   public boolean isRunning() {
@@ -515,11 +611,26 @@ public class DirectorySpooler {
       filesQueue.add(file);
       filesSet.add(file);
       spoolQueueMeter.mark(filesQueue.size());
+      if (checkCurrent) {
+        updateDiscoveryLatency(file);
+      }
+      synchronized (filesAdded) {
+        filesAdded.notifyAll();
+      }
     } else {
       LOG.debug("File '{}' already in queue, ignoring", file);
     }
   }
 
+  private void updateDiscoveryLatency(WrappedFile file) {
+    try {
+      long latency = System.currentTimeMillis() - fs.getLastModifiedTime(file);
+      discoveryLatencyTimer.update(Math.max(0, latency), TimeUnit.MILLISECONDS);
+    } catch (IOException ex) {
+      LOG.debug("Could not get the last modified time of file '{}': {}", file, ex.toString(), ex);
+    }
+  }
+
   private boolean canPoolFiles() {
     if (waitForPathAppearance) {
       try {
@@ -570,11 +681,17 @@ public class DirectorySpooler {
       }
 
       if (next == null) {
-        Thread.sleep(intervalMillis);
+        // woken up as soon as a file is queued
+        synchronized (filesAdded) {
+          if (filesQueue.isEmpty()) {
+            filesAdded.wait(intervalMillis);
+          }
+        }
       }
     }
 
     pendingFilesCounter.inc(filesQueue.size() - pendingFilesCounter.getCount());
+    discoveryGauge.put(QUEUE_DEPTH, filesQueue.size());
     return next;
   }
 
@@ -590,6 +707,15 @@ public class DirectorySpooler {
     }
   }
 
+  public void handleFileAsError(WrappedFile file) throws IOException {
+    if (errorArchiveDirPath != null && !context.isPreview()) {
+      LOG.error("Archiving file in error '{}' in error archive directory '{}'", file, errorArchiveDirPath);
+      moveIt(file, errorArchiveDirPath);
+    } else {
+      LOG.error("Leaving file in error '{}' in spool directory", file);
+    }
+  }
+
   private void moveIt(WrappedFile file, WrappedFile destinationRoot) throws IOException {
     // wipe out base of the path - leave subdirectory portion in place.
     String f = file.toString().replaceFirst(spoolDirPath.toString(), "");
@@ -644,30 +770,8 @@ public class DirectorySpooler {
 
         fs.addFiles(dir, this.currentFile, matchingFile, includeStartingFile, useLastModified);
 
-        if (matchingFile.size() > 0) {
-          try {
-            // if there are matching files, acquire write lock
-            closeLock.writeLock().lock();
-
-            for (WrappedFile file : matchingFile) {
-              if (!running) {
-                return null;
-              }
-
-              if (this.currentFile == null
-                  || (this.initialFile != null && fs.compare(this.currentFile, this.initialFile, useLastModified) == 0)
-                  || fs.compare(file, this.currentFile, useLastModified) > 0) {
-                if (!fs.isDirectory(file)) {
-                  LOG.trace("Found file '{}'", file);
-                  addFileToQueue(file, checkCurrent);
-                }
-              } else {
-                LOG.trace("Discarding file {} because it is already older than currentFile", file.getAbsolutePath());
-              }
-            }
-          } finally {
-            closeLock.writeLock().unlock();
-          }
+        if (!queueFiles(matchingFile, checkCurrent)) {
+          return null;
         }
       } catch (Exception ex) {
         LOG.error("findAndQueueFiles(): newDirectoryStream failed. " + ex.getMessage(), ex);
@@ -676,10 +780,46 @@ public class DirectorySpooler {
 
     spoolQueueMeter.mark(filesQueue.size());
     pendingFilesCounter.inc(filesQueue.size() - pendingFilesCounter.getCount());
+    discoveryGauge.put(QUEUE_DEPTH, filesQueue.size());
     LOG.debug("Found '{}' files", filesQueue.size());
     return directories;
   }
 
+  /**
+   * Adds to the queue the given files that come after the current file.
+   *
+   * @return {@code false} if the spooler was destroyed meanwhile.
+   */
+  private boolean queueFiles(List<WrappedFile> files, boolean checkCurrent) {
+    if (files.isEmpty()) {
+      return true;
+    }
+    try {
+      // if there are matching files, acquire write lock
+      closeLock.writeLock().lock();
+
+      for (WrappedFile file : files) {
+        if (!running) {
+          return false;
+        }
+
+        if (this.currentFile == null
+            || (this.initialFile != null && fs.compare(this.currentFile, this.initialFile, useLastModified) == 0)
+            || fs.compare(file, this.currentFile, useLastModified) > 0) {
+          if (!fs.isDirectory(file)) {
+            LOG.trace("Found file '{}'", file);
+            addFileToQueue(file, checkCurrent);
+          }
+        } else {
+          LOG.trace("Discarding file {} because it is already older than currentFile", file.getAbsolutePath());
+        }
+      }
+    } finally {
+      closeLock.writeLock().unlock();
+    }
+    return true;
+  }
+
   void handleOlderFiles(final WrappedFile startingFile) throws IOException {
     if (postProcessing != FilePostProcessing.NONE) {
       final ArrayList<WrappedFile> toProcess = new ArrayList<>();
@@ -748,6 +888,165 @@ public class DirectorySpooler {
     }
   }
 
+  /**
+   * Finds new files from the events of the spool directory, and of its subdirectories when they are processed,
+   * instead of scanning it.
+   * <p/>
+   * The paths reported by the events are kept in an in-memory index until they can be queued, the directory is only
+   * scanned again when the file system drops events. If the directory cannot be watched anymore the spooler falls back
+   * to periodic scans.
+   */
+  class FileWatcher implements Runnable {
+    private final WatchService watchService;
+    private final Path root;
+    private final boolean watchSubdirectories;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    // paths reported by the events and not queued yet, only accessed by the watcher thread once it runs
+    private final Set<Path> index = new LinkedHashSet<>();
+    private volatile boolean rescanRequired;
+    private volatile long rescans;
+
+    FileWatcher(WatchService watchService) {
+      this.watchService = watchService;
+      root = Paths.get(spoolDirPath.getAbsolutePath());
+      watchSubdirectories = processSubdirectories && useLastModified;
+    }
+
+    /**
+     * Registers the given directory, and its subdirectories when they are processed. If <code>indexFiles</code> is
+     * set, the files the directories already have are added to the index.
+     */
+    void watch(WrappedFile dir, boolean indexFiles) throws Exception {
+      List<WrappedFile> toWatch = new ArrayList<>();
+      if (watchSubdirectories) {
+        fs.addDirectory(dir, toWatch);
+      } else {
+        toWatch.add(dir);
+      }
+      for (WrappedFile d : toWatch) {
+        Path path = Paths.get(d.getAbsolutePath());
+        WatchKey key = path.register(
+            watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE
+        );
+        directories.put(key, path);
+        if (indexFiles) {
+          try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+            for (Path entry : entries) {
+              index.add(entry);
+            }
+          }
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      LOG.debug("Starting file watcher on '{}'", spoolDirPath);
+      try {
+        while (running) {
+          WatchKey key = watchService.poll(WATCH_POLL_MILLIS, TimeUnit.MILLISECONDS);
+          while (key != null) {
+            processEvents(key);
+            key = watchService.poll();
+          }
+          if (rescanRequired && findAndQueueFiles(false, true) != null) {
+            rescanRequired = false;
+            rescans++;
+          }
+          queueIndexedFiles();
+          updateGauge();
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } catch (ClosedWatchServiceException ex) {
+        LOG.debug("Stopped watching directory '{}'", spoolDirPath);
+      } catch (Exception ex) {
+        LOG.warn("Error while watching directory '{}', scanning the directory every '{}' seconds: {}", spoolDirPath,
+            spoolingPeriodSec, ex.toString(), ex);
+        fallBackToScans();
+      }
+    }
+
+    private void processEvents(WatchKey key) throws Exception {
+      Path dir = directories.get(key);
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+          LOG.warn("Events of directory '{}' were lost, scanning the directory", spoolDirPath);
+          rescanRequired = true;
+        } else if (dir != null) {
+          Path path = dir.resolve((Path) event.context());
+          if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            index.remove(path);
+          } else if (fs.isDirectory(fs.getFile(path.toString()))) {
+            if (watchSubdirectories && event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+              watch(fs.getFile(path.toString()), true);
+            }
+          } else {
+            index.add(path);
+          }
+        }
+      }
+      if (!key.reset()) {
+        directories.remove(key);
+        if (root.equals(dir)) {
+          throw new IOException(Utils.format("Directory '{}' cannot be watched anymore", dir));
+        }
+      }
+    }
+
+    private void queueIndexedFiles() {
+      if (index.isEmpty() || filesQueue.size() >= maxSpoolFiles) {
+        return;
+      }
+      // SDC-3551: pick up only files with mtime strictly less than the current time, like the directory scans
+      final long now = System.currentTimeMillis();
+      List<WrappedFile> files = new ArrayList<>();
+      Iterator<Path> iterator = index.iterator();
+      while (iterator.hasNext()) {
+        Path path = iterator.next();
+        WrappedFile file = fs.getFile(path.toString());
+        try {
+          if (!fs.patternMatches(path.getFileName().toString()) || fs.isDirectory(file)) {
+            iterator.remove();
+          } else if (Math.max(fs.getLastModifiedTime(file), fs.getChangedTime(file)) < now) {
+            files.add(file);
+            iterator.remove();
+          }
+        } catch (IOException ex) {
+          LOG.debug("Ignoring file '{}' that cannot be read anymore: {}", file, ex.toString());
+          iterator.remove();
+        }
+      }
+      files.sort(pathComparator);
+      queueFiles(files, true);
+    }
+
+    private void fallBackToScans() {
+      close();
+      discoveryGauge.put(DISCOVERY_MODE, FileDiscoveryMode.SCAN.getLabel());
+      ScheduledExecutorService executor = scheduledExecutor;
+      if (running && executor != null) {
+        finder = new FileFinder();
+        executor.scheduleAtFixedRate(finder, 0, spoolingPeriodSec, TimeUnit.SECONDS);
+      }
+    }
+
+    void updateGauge() {
+      discoveryGauge.put(QUEUE_DEPTH, filesQueue.size());
+      discoveryGauge.put(WATCHED_DIRECTORIES, directories.size());
+      discoveryGauge.put(INDEXED_FILES, index.size());
+      discoveryGauge.put(DIRECTORY_RESCANS, rescans);
+    }
+
+    void close() {
+      closeWatchService(watchService);
+      directories.clear();
+    }
+  }
+
   class FilePurger implements Runnable {
 
     @Override
@@ -53,6 +53,8 @@ public enum Errors implements ErrorCode {
   SPOOLDIR_33("Cannot Serialize Offset: {}"),
   SPOOLDIR_34("Cannot Deserialize Offset: {}"),
   SPOOLDIR_35("Spool Directory Runner Failed. Reason {}"),
+  SPOOLDIR_36("Files can only be split for uncompressed text or delimited data in an ASCII " +
+      "compatible charset: {}"),
   ;
 
   private final String msg;
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.dirspooler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Divides the large files of the spool directory in splits so that several runners read them at once, and hands out
+ * the splits waiting for a runner. One instance is shared by all the runners of the origin.
+ * <p/>
+ * Only files that have not been started yet are split. Files whose offset has the state of their splits resume them.
+ */
+public class FileSplitter {
+  private static final Logger LOG = LoggerFactory.getLogger(FileSplitter.class);
+  private static final String ZERO = "0";
+
+  private final int maxSplits;
+  private final long minSplitSize;
+  private final int prefixLines;
+  private final BlockingQueue<SplitFile.Split> pendingSplits = new LinkedBlockingQueue<>();
+
+  /**
+   * @param maxSplits maximum number of splits per file, usually the number of runners.
+   * @param minSplitSize minimum size of a split in bytes.
+   * @param prefixLines number of leading lines of the files every split starts with (i.e. the delimited header).
+   */
+  public FileSplitter(int maxSplits, long minSplitSize, int prefixLines) {
+    this.maxSplits = maxSplits;
+    this.minSplitSize = minSplitSize;
+    this.prefixLines = prefixLines;
+  }
+
+  /**
+   * Splits the given file, or resumes its splits.
+   *
+   * @param entity name of the file in the offsets.
+   * @param offset offset the file is going to be read from.
+   * @param splits state of the splits kept in the offset of the file, <code>null</code> if none.
+   * @return the split file, or <code>null</code> if the file must be read as a whole.
+   */
+  SplitFile split(WrappedFile file, String entity, String offset, String splits) throws IOException {
+    SplitFile splitFile = null;
+    if (splits != null) {
+      splitFile = SplitFile.resume(file, entity, splits, prefixLines);
+      LOG.debug("Resuming '{}' splits of file '{}'", splitFile.getPendingSplits().size(), file);
+    } else if (ZERO.equals(offset)) {
+      splitFile = SplitFile.create(file, entity, maxSplits, minSplitSize, prefixLines);
+      if (splitFile != null) {
+        LOG.debug("Reading file '{}' in '{}' splits", file, splitFile.getSplits().size());
+      }
+    }
+    return splitFile;
+  }
+
+  /**
+   * Makes the pending splits of the given file available to the runners, except for the one returned.
+   *
+   * @return the split for the caller, <code>null</code> if all the splits were already read.
+   */
+  SplitFile.Split assign(SplitFile splitFile) {
+    List<SplitFile.Split> splits = splitFile.getPendingSplits();
+    if (splits.isEmpty()) {
+      return null;
+    }
+    pendingSplits.addAll(splits.subList(1, splits.size()));
+    return splits.get(0);
+  }
+
+  /**
+   * Returns a split waiting for a runner, <code>null</code> if there are none.
+   */
+  SplitFile.Split poll() {
+    return pendingSplits.poll();
+  }
+}
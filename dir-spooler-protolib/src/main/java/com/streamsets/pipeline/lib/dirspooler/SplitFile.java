@@ -0,0 +1,328 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.dirspooler;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.streamsets.pipeline.api.PushSource;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.parser.DataParser;
+import com.streamsets.pipeline.lib.parser.DataParserException;
+import com.streamsets.pipeline.lib.parser.DataParserFactory;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A file read by several runners at once. The file is divided in byte ranges (splits) that start and end at line
+ * boundaries, each split is parsed on its own starting at its first byte.
+ * <p/>
+ * Splits other than the first one are prefixed with the leading lines of the file (i.e. the delimited header line) so
+ * that the parsers see them as they would at the beginning of the file. Offsets within a split are the parser
+ * offsets, relative to the start of the prefixed split.
+ * <p/>
+ * The state of all the splits is kept in the offset of the file, with the format
+ * <code>&lt;start&gt;:&lt;end&gt;:&lt;offset&gt;;...</code>, so that a restart resumes every split where it was. A split
+ * that could not be parsed has the {@link #FAILED} offset, the whole file is then handled as an error once the other
+ * splits stop.
+ */
+final class SplitFile {
+  private static final String SPLIT_SEPARATOR = ";";
+  private static final String FIELD_SEPARATOR = ":";
+  private static final String ZERO = "0";
+  static final String FAILED = "-2";
+
+  private final WrappedFile file;
+  private final String entity;
+  private final byte[] prefix;
+  private final List<Split> splits;
+  private int completedSplits;
+  private boolean failed;
+  private long recordCount;
+  private long errorCount;
+
+  private SplitFile(WrappedFile file, String entity, byte[] prefix, List<Split> splits) {
+    this.file = file;
+    this.entity = entity;
+    this.prefix = prefix;
+    this.splits = Collections.unmodifiableList(splits);
+  }
+
+  /**
+   * A byte range of the file and the offset up to which it was read.
+   */
+  static final class Split {
+    private final SplitFile splitFile;
+    private final long start;
+    private final long end;
+    private String committedOffset;
+
+    private Split(SplitFile splitFile, long start, long end, String committedOffset) {
+      this.splitFile = splitFile;
+      this.start = start;
+      this.end = end;
+      this.committedOffset = committedOffset;
+    }
+
+    SplitFile getSplitFile() {
+      return splitFile;
+    }
+
+    long getStart() {
+      return start;
+    }
+
+    long getEnd() {
+      return end;
+    }
+
+    String getCommittedOffset() {
+      synchronized (splitFile) {
+        return committedOffset;
+      }
+    }
+  }
+
+  /**
+   * Divides the given file in up to <code>maxSplits</code> splits of at least <code>minSplitSize</code> bytes.
+   *
+   * @param prefixLines number of leading lines of the file that every split must start with.
+   * @return the split file, or <code>null</code> if the file is too small to be split.
+   */
+  static SplitFile create(
+      WrappedFile file,
+      String entity,
+      int maxSplits,
+      long minSplitSize,
+      int prefixLines
+  ) throws IOException {
+    long size = file.getSize();
+    int numSplits = (int) Math.min(maxSplits, size / Math.max(1, minSplitSize));
+    if (numSplits < 2) {
+      return null;
+    }
+    byte[] prefix = readPrefix(file, prefixLines);
+    List<long[]> ranges = new ArrayList<>();
+    long start = 0;
+    for (int i = 1; i <= numSplits; i++) {
+      long end = (i == numSplits) ? size : Math.max(alignToLine(file, size * i / numSplits, size), prefix.length);
+      if (end > start) {
+        ranges.add(new long[] {start, end});
+        start = end;
+      }
+    }
+    if (ranges.size() < 2) {
+      return null;
+    }
+    List<Split> splits = new ArrayList<>();
+    SplitFile splitFile = new SplitFile(file, entity, prefix, splits);
+    for (long[] range : ranges) {
+      splits.add(new Split(splitFile, range[0], range[1], ZERO));
+    }
+    return splitFile;
+  }
+
+  /**
+   * Recreates a split file from the splits state kept in its offset.
+   */
+  static SplitFile resume(WrappedFile file, String entity, String state, int prefixLines) throws IOException {
+    List<Split> splits = new ArrayList<>();
+    SplitFile splitFile = new SplitFile(file, entity, readPrefix(file, prefixLines), splits);
+    for (String split : Splitter.on(SPLIT_SEPARATOR).omitEmptyStrings().split(state)) {
+      List<String> fields = Splitter.on(FIELD_SEPARATOR).splitToList(split);
+      if (fields.size() != 3) {
+        throw new IOException(Utils.format("Invalid split '{}' in the offset of file '{}'", split, entity));
+      }
+      splits.add(new Split(splitFile, Long.parseLong(fields.get(0)), Long.parseLong(fields.get(1)), fields.get(2)));
+      if (FAILED.equals(fields.get(2))) {
+        splitFile.failed = true;
+        splitFile.completedSplits++;
+      } else if (Offset.MINUS_ONE.equals(fields.get(2))) {
+        splitFile.completedSplits++;
+      }
+    }
+    return splitFile;
+  }
+
+  WrappedFile getFile() {
+    return file;
+  }
+
+  String getEntity() {
+    return entity;
+  }
+
+  List<Split> getSplits() {
+    return splits;
+  }
+
+  synchronized List<Split> getPendingSplits() {
+    List<Split> pending = new ArrayList<>();
+    for (Split split : splits) {
+      if (!isCompleted(split.committedOffset)) {
+        pending.add(split);
+      }
+    }
+    return pending;
+  }
+
+  synchronized long getRecordCount() {
+    return recordCount;
+  }
+
+  synchronized long getErrorCount() {
+    return errorCount;
+  }
+
+  /**
+   * Returns <code>true</code> if a split of the file could not be parsed, the rest of the file must not be read.
+   */
+  synchronized boolean isFailed() {
+    return failed;
+  }
+
+  /**
+   * Returns the offset of the file with the splits read up to their committed offsets.
+   */
+  synchronized Offset getOffset() throws StageException {
+    List<String> states = new ArrayList<>(splits.size());
+    for (Split s : splits) {
+      states.add(s.start + FIELD_SEPARATOR + s.end + FIELD_SEPARATOR + s.committedOffset);
+    }
+    return new Offset(Offset.VERSION_ONE, entity, ZERO, Joiner.on(SPLIT_SEPARATOR).join(states));
+  }
+
+  /**
+   * Records that the given split was read up to the given offset, and the records and errors it produced, and commits
+   * the resulting offset of the file. The offset is built and committed while holding the lock of the split file so
+   * that concurrent commits of other splits of the file can't overwrite it with an older state of this split.
+   *
+   * @return <code>true</code> if this call completed the last split of the file.
+   */
+  synchronized boolean commit(Split split, String offset, long records, long errors, PushSource.Context context)
+      throws StageException {
+    recordCount += records;
+    errorCount += errors;
+    boolean completed = isCompleted(offset) && !isCompleted(split.committedOffset);
+    split.committedOffset = offset;
+    if (FAILED.equals(offset)) {
+      failed = true;
+    }
+    if (!context.isPreview()) {
+      context.commitOffset(entity, getOffset().getOffsetString());
+    }
+    if (completed) {
+      completedSplits++;
+      return completedSplits == splits.size();
+    }
+    return false;
+  }
+
+  private static boolean isCompleted(String offset) {
+    return Offset.MINUS_ONE.equals(offset) || FAILED.equals(offset);
+  }
+
+  /**
+   * Returns a parser for the given split starting at the given offset within the split.
+   */
+  DataParser createParser(Split split, DataParserFactory parserFactory, String offset)
+      throws IOException, DataParserException {
+    InputStream is = openStream(split);
+    try {
+      return parserFactory.getParser(file.getFileName() + "::" + split.start, is, offset);
+    } catch (DataParserException ex) {
+      is.close();
+      throw ex;
+    }
+  }
+
+  InputStream openStream(Split split) throws IOException {
+    InputStream is = file.getInputStream();
+    try {
+      skipFully(is, split.start);
+    } catch (IOException ex) {
+      is.close();
+      throw ex;
+    }
+    InputStream range = new BoundedInputStream(is, split.end - split.start);
+    if (split.start == 0 || prefix.length == 0) {
+      return range;
+    }
+    return new SequenceInputStream(new ByteArrayInputStream(prefix), range);
+  }
+
+  /**
+   * Returns the position right after the first line feed found at or after <code>position - 1</code>, so that the
+   * position itself is returned if it already is the beginning of a line.
+   */
+  static long alignToLine(WrappedFile file, long position, long size) throws IOException {
+    if (position <= 0) {
+      return 0;
+    }
+    try (InputStream is = new BufferedInputStream(file.getInputStream())) {
+      skipFully(is, position - 1);
+      long index = position - 1;
+      int b;
+      while ((b = is.read()) != -1) {
+        if (b == '\n') {
+          return index + 1;
+        }
+        index++;
+      }
+    }
+    return size;
+  }
+
+  private static byte[] readPrefix(WrappedFile file, int lines) throws IOException {
+    ByteArrayOutputStream prefix = new ByteArrayOutputStream();
+    if (lines > 0) {
+      try (InputStream is = new BufferedInputStream(file.getInputStream())) {
+        int b;
+        while (lines > 0 && (b = is.read()) != -1) {
+          prefix.write(b);
+          if (b == '\n') {
+            lines--;
+          }
+        }
+      }
+    }
+    return prefix.toByteArray();
+  }
+
+  // InputStream.skip() seeks on files, unlike IOUtils.skipFully() that reads the skipped bytes
+  private static void skipFully(InputStream is, long bytes) throws IOException {
+    while (bytes > 0) {
+      long skipped = is.skip(bytes);
+      if (skipped <= 0) {
+        if (is.read() == -1) {
+          throw new EOFException(Utils.format("Unexpected end of file, '{}' bytes could not be skipped", bytes));
+        }
+        skipped = 1;
+      }
+      bytes -= skipped;
+    }
+  }
+}
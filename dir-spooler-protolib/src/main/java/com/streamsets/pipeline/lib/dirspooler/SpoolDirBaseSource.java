@@ -19,12 +19,18 @@ import com.google.common.base.Throwables;
 import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BasePushSource;
+import com.streamsets.pipeline.config.Compression;
+import com.streamsets.pipeline.config.CsvHeader;
+import com.streamsets.pipeline.config.CsvMode;
+import com.streamsets.pipeline.config.DataFormat;
 import com.streamsets.pipeline.config.PostProcessingOptions;
 import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -53,6 +59,7 @@ public abstract class SpoolDirBaseSource extends BasePushSource {
   private int numberOfThreads;
   private ExecutorService executorService;
   private WrappedFileSystem fs;
+  private FileSplitter splitter;
 
   abstract public WrappedFileSystem getFs();
 
@@ -122,6 +129,10 @@ public abstract class SpoolDirBaseSource extends BasePushSource {
 
     validateInitialFileToProcess(issues);
 
+    if (conf.splitLargeFiles) {
+      validateSplitLargeFiles(issues);
+    }
+
     if (conf.errorArchiveDir != null && !conf.errorArchiveDir.isEmpty()) {
       validateDir(conf.errorArchiveDir,
           GROUPS_POST_PROCESSING_CONFIG_NAME,
@@ -177,7 +188,8 @@ public abstract class SpoolDirBaseSource extends BasePushSource {
           .setPostProcessing(DirectorySpooler.FilePostProcessing.valueOf(conf.postProcessing.name()))
           .waitForPathAppearance(waitForPathToBePresent)
           .processSubdirectories(conf.processSubdirectories)
-          .setSpoolingPeriodSec(conf.spoolingPeriod);
+          .setSpoolingPeriodSec(conf.spoolingPeriod)
+          .setFileDiscoveryMode(conf.discoveryMode);
 
       if (conf.postProcessing == PostProcessingOptions.ARCHIVE) {
         builder.setArchiveDir(conf.archiveDir);
@@ -192,6 +204,10 @@ public abstract class SpoolDirBaseSource extends BasePushSource {
       builder.setUseLastModifiedTimestamp(useLastModified);
       spooler = builder.build();
       spooler.init(conf.initialFileToProcess);
+
+      if (conf.splitLargeFiles && numberOfThreads > 1) {
+        splitter = new FileSplitter(numberOfThreads, conf.minSplitSize * 1024L * 1024L, getSplitPrefixLines());
+      }
     }
 
     return issues;
@@ -283,6 +299,59 @@ public abstract class SpoolDirBaseSource extends BasePushSource {
     }
   }
 
+  private void validateSplitLargeFiles(List<ConfigIssue> issues) {
+    String reason = null;
+    // splits must start at the beginning of a record, which is only known for line delimited formats (JSON objects
+    // may span several lines)
+    switch (conf.dataFormat) {
+      case TEXT:
+        if (conf.dataFormatConfig.useCustomDelimiter) {
+          reason = "text with a custom delimiter";
+        }
+        break;
+      case DELIMITED:
+        if (conf.dataFormatConfig.csvFileFormat == CsvMode.MULTI_CHARACTER) {
+          reason = "delimited data with multi character delimiters";
+        }
+        break;
+      default:
+        reason = conf.dataFormat.getLabel();
+    }
+    if (reason == null && conf.dataFormatConfig.compression != Compression.NONE) {
+      reason = conf.dataFormatConfig.compression.getLabel();
+    }
+    if (reason == null) {
+      try {
+        // splits are aligned to line feed bytes, they must not be part of other characters
+        if (!Arrays.equals(new byte[] {'\n'}, "\n".getBytes(Charset.forName(conf.dataFormatConfig.charset)))) {
+          reason = conf.dataFormatConfig.charset;
+        }
+      } catch (IllegalArgumentException ex) {
+        // unsupported charsets are reported by the data format configuration
+      }
+    }
+    if (reason != null) {
+      issues.add(
+          getContext().createConfigIssue(
+              GROUP_FILE_CONFIG_NAME,
+              SPOOLDIR_CONFIG_BEAN_PREFIX + "splitLargeFiles",
+              Errors.SPOOLDIR_36,
+              reason
+          )
+      );
+    }
+  }
+
+  /**
+   * Returns the number of leading lines of the files that are not records, every split has to start with them.
+   */
+  private int getSplitPrefixLines() {
+    if (conf.dataFormat == DataFormat.DELIMITED) {
+      return conf.dataFormatConfig.csvSkipStartLines + (conf.dataFormatConfig.csvHeader == CsvHeader.NO_HEADER ? 0 : 1);
+    }
+    return 0;
+  }
+
   @Override
   public void destroy() {
     shutdownExecutorIfNeeded();
@@ -367,6 +436,7 @@ public abstract class SpoolDirBaseSource extends BasePushSource {
         .spooler(getSpooler())
         .conf(conf)
         .wrappedFileSystem(getFs())
+        .splitter(splitter)
         .build();
   }
 }
@@ -61,6 +61,35 @@ public class SpoolDirConfigBean {
   )
   public int numberOfThreads = 1;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Split Large Files",
+      description = "Read large files with several threads at once, in splits that start and end at line " +
+          "boundaries. Available for uncompressed text and delimited data without line breaks inside records or " +
+          "quoted values. A file with a record that can't be parsed is sent to error as a whole.",
+      displayPosition = 12,
+      group = "FILES"
+  )
+  public boolean splitLargeFiles = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "128",
+      label = "Minimum Split Size (MB)",
+      description = "Minimum size of the splits. Files are split in as many splits as threads, provided that the " +
+          "splits are not smaller than this size.",
+      displayPosition = 13,
+      group = "FILES",
+      dependsOn = "splitLargeFiles",
+      triggeredByValue = "true",
+      min = 1,
+      max = Integer.MAX_VALUE
+  )
+  public int minSplitSize = 128;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.MODEL,
@@ -186,6 +215,19 @@ public class SpoolDirConfigBean {
   )
   public long spoolingPeriod = 5;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "SCAN",
+      label = "File Discovery",
+      description = "Find new files scanning the directory every spooling period or from the directory events " +
+          "reported by the operating system. Directory events are only available for local directories.",
+      displayPosition = 62,
+      group = "FILES"
+  )
+  @ValueChooserModel(FileDiscoveryModeChooserValues.class)
+  public FileDiscoveryMode discoveryMode = FileDiscoveryMode.SCAN;
+
   @ConfigDef(
       required = false,
       type = ConfigDef.Type.STRING,
@@ -82,6 +82,7 @@ public class SpoolDirRunnable implements Runnable {
   private final Map<String, Object> gaugeMap;
   private final boolean useLastModified;
   private final WrappedFileSystem fs;
+  private final FileSplitter splitter;
 
   private DataParser parser;
   private SpoolDirConfigBean conf;
@@ -103,6 +104,12 @@ public class SpoolDirRunnable implements Runnable {
 
   private WrappedFile currentFile;
 
+  // split being read and split file whose splits were all read, waiting for its finished file event
+  private SplitFile.Split currentSplit;
+  private SplitFile finishedSplitFile;
+  // other runners may still be reading splits of the last file, its offset must not be removed
+  private boolean keepLastSourceOffset;
+
   public SpoolDirRunnable(
       PushSource.Context context,
       int threadNumber,
@@ -111,7 +118,8 @@ public class SpoolDirRunnable implements Runnable {
       String lastSourcFileName,
       DirectorySpooler spooler,
       SpoolDirConfigBean conf,
-      WrappedFileSystem fs
+      WrappedFileSystem fs,
+      FileSplitter splitter
   ) {
     this.context = context;
     this.threadNumber = threadNumber;
@@ -126,6 +134,7 @@ public class SpoolDirRunnable implements Runnable {
     this.rateLimitElVars = context.createELVars();
     this.useLastModified = conf.useLastModified == FileOrdering.TIMESTAMP;
     this.fs = fs;
+    this.splitter = splitter;
 
     // Metrics
     this.gaugeMap = context.createGauge(SPOOL_DIR_METRICS + threadNumber).getValue();
@@ -152,6 +161,14 @@ public class SpoolDirRunnable implements Runnable {
   }
 
   private Offset produce(Offset lastSourceOffset, BatchContext batchContext) throws StageException {
+    if (splitter != null && currentSplit == null && finishedSplitFile == null &&
+        (currentFile == null || MINUS_ONE.equals(lastSourceOffset.getOffset()))) {
+      // splits of files being read by other runners go before new files
+      currentSplit = splitter.poll();
+    }
+    if (currentSplit != null || finishedSplitFile != null) {
+      return produceSplit(batchContext);
+    }
 
     // if lastSourceOffset is NULL (beginning of source) it returns NULL
     String file = lastSourceOffset.getRawFile();
@@ -234,6 +251,22 @@ public class SpoolDirRunnable implements Runnable {
                 .createAndSend();
             noMoreDataFileCount++;
             totalFiles++;
+
+            if (splitter != null) {
+              Offset fileOffset = offsets.get(file);
+              SplitFile splitFile = splitter.split(
+                  currentFile,
+                  file,
+                  offset,
+                  fileOffset == null ? null : fileOffset.getSplits()
+              );
+              if (splitFile != null) {
+                currentSplit = splitter.assign(splitFile);
+                if (currentSplit == null) {
+                  finishedSplitFile = splitFile;
+                }
+              }
+            }
           }
 
         } catch (InterruptedException ex) {
@@ -247,6 +280,10 @@ public class SpoolDirRunnable implements Runnable {
       LOG.error(ex.toString(), ex);
     }
 
+    if (currentSplit != null || finishedSplitFile != null) {
+      return produceSplit(batchContext);
+    }
+
     if (currentFile != null && !offset.equals(MINUS_ONE)) {
       // we have a file to process (from before or new from dirspooler)
       try {
@@ -256,20 +293,7 @@ public class SpoolDirRunnable implements Runnable {
         offset = generateBatch(currentFile, offset, batchSize, batchContext.getBatchMaker());
 
         if (MINUS_ONE.equals(offset)) {
-          FinishedFileEvent.EVENT_CREATOR.create(context, batchContext)
-              .with(FinishedFileEvent.FILE_PATH, currentFile.getAbsolutePath())
-              .with(FinishedFileEvent.ERROR_COUNT, perFileErrorCount)
-              .with(FinishedFileEvent.RECORD_COUNT, perFileRecordCount)
-              .createAndSend();
-
-          LineageEvent event = context.createLineageEvent(LineageEventType.ENTITY_READ);
-          event.setSpecificAttribute(LineageSpecificAttribute.ENTITY_NAME, currentFile.getAbsolutePath());
-          event.setSpecificAttribute(LineageSpecificAttribute.ENDPOINT_TYPE, EndPointType.LOCAL_FS.name());
-          event.setSpecificAttribute(LineageSpecificAttribute.DESCRIPTION, conf.filePattern);
-          Map<String, String> props = new HashMap<>();
-          props.put("Record Count", Long.toString(perFileRecordCount));
-          event.setProperties(props);
-          context.publishLineageEvent(event);
+          sendFinishedFileEvents(batchContext, perFileRecordCount, perFileErrorCount);
         }
       } catch (BadSpoolFileException ex) {
         LOG.error(Errors.SPOOLDIR_01.getMessage(), ex.getFile(), ex.getPos(), ex.toString(), ex);
@@ -309,9 +333,10 @@ public class SpoolDirRunnable implements Runnable {
 
     // Commit offset and perform post-processing only if the batch was properly processed
     if(batchProcessed && !context.isPreview()) {
-      if (lastSourceFile != null && !lastSourceFile.equals(newOffset.getFile())) {
+      if (lastSourceFile != null && !lastSourceFile.equals(newOffset.getFile()) && !keepLastSourceOffset) {
         context.commitOffset(lastSourceFile, null);
       }
+      keepLastSourceOffset = false;
 
       // if this is the end of the file, do post processing
       if (currentFile != null && newOffset.getOffset().equals(MINUS_ONE)) {
@@ -323,6 +348,102 @@ public class SpoolDirRunnable implements Runnable {
     return newOffset;
   }
 
+  /**
+   * Reads a batch from the current split or, once all the splits of a file were read, sends the finished file events
+   * and post processes the file. A file with a split that could not be parsed is handled as an error instead.
+   */
+  private Offset produceSplit(BatchContext batchContext) throws StageException {
+    if (finishedSplitFile != null) {
+      SplitFile splitFile = finishedSplitFile;
+      finishedSplitFile = null;
+      currentFile = splitFile.getFile();
+      if (!splitFile.isFailed()) {
+        sendFinishedFileEvents(batchContext, splitFile.getRecordCount(), splitFile.getErrorCount());
+      }
+
+      Offset newOffset = new Offset(Offset.VERSION_ONE, splitFile.getEntity(), MINUS_ONE);
+      boolean batchProcessed = context.processBatch(batchContext, newOffset.getFile(), newOffset.getOffsetString());
+      if (batchProcessed && !context.isPreview()) {
+        if (splitFile.isFailed()) {
+          try {
+            spooler.handleFileAsError(currentFile);
+          } catch (IOException ex) {
+            throw new StageException(Errors.SPOOLDIR_00, currentFile, ex.toString(), ex);
+          }
+        } else {
+          spooler.doPostProcessing(currentFile);
+        }
+      }
+      updateGauge(Status.BATCH_GENERATED, MINUS_ONE);
+      currentFile = null;
+      keepLastSourceOffset = false;
+      return newOffset;
+    }
+
+    SplitFile.Split split = currentSplit;
+    SplitFile splitFile = split.getSplitFile();
+    currentFile = splitFile.getFile();
+    perFileRecordCount = 0;
+    perFileErrorCount = 0;
+
+    String offset = split.getCommittedOffset();
+    if (splitFile.isFailed()) {
+      // another split of the file could not be parsed, the whole file goes to error so the rest of this one is skipped
+      IOUtils.closeQuietly(parser);
+      parser = null;
+      offset = MINUS_ONE;
+    } else {
+      try {
+        updateGauge(Status.READING, offset);
+        offset = generateBatch(currentFile, offset, batchSize, batchContext.getBatchMaker());
+      } catch (BadSpoolFileException ex) {
+        LOG.error(Errors.SPOOLDIR_01.getMessage(), ex.getFile(), ex.getPos(), ex.toString(), ex);
+        context.reportError(Errors.SPOOLDIR_01, ex.getFile(), ex.getPos(), ex.toString(), ex);
+        offset = SplitFile.FAILED;
+      }
+    }
+
+    // the offset of the file holds the state of all its splits, it is committed by the split file so that concurrent
+    // commits of other splits can't overwrite it with an older state of this split
+    boolean lastSplit = false;
+    boolean batchProcessed = context.processBatch(batchContext);
+    if (batchProcessed) {
+      lastSplit = splitFile.commit(split, offset, perFileRecordCount, perFileErrorCount, context);
+    }
+    updateGauge(Status.BATCH_GENERATED, offset);
+
+    if (MINUS_ONE.equals(offset) || SplitFile.FAILED.equals(offset)) {
+      // a split whose last batch was not processed is left pending and is read again after a restart
+      currentSplit = null;
+      currentFile = null;
+      if (lastSplit) {
+        finishedSplitFile = splitFile;
+      } else {
+        keepLastSourceOffset = true;
+      }
+      return new Offset(Offset.VERSION_ONE, splitFile.getEntity(), MINUS_ONE);
+    }
+    return splitFile.getOffset();
+  }
+
+
+  private void sendFinishedFileEvents(BatchContext batchContext, long recordCount, long errorCount) {
+    FinishedFileEvent.EVENT_CREATOR.create(context, batchContext)
+        .with(FinishedFileEvent.FILE_PATH, currentFile.getAbsolutePath())
+        .with(FinishedFileEvent.ERROR_COUNT, errorCount)
+        .with(FinishedFileEvent.RECORD_COUNT, recordCount)
+        .createAndSend();
+
+    LineageEvent event = context.createLineageEvent(LineageEventType.ENTITY_READ);
+    event.setSpecificAttribute(LineageSpecificAttribute.ENTITY_NAME, currentFile.getAbsolutePath());
+    event.setSpecificAttribute(LineageSpecificAttribute.ENDPOINT_TYPE, EndPointType.LOCAL_FS.name());
+    event.setSpecificAttribute(LineageSpecificAttribute.DESCRIPTION, conf.filePattern);
+    Map<String, String> props = new HashMap<>();
+    props.put("Record Count", Long.toString(recordCount));
+    event.setProperties(props);
+    context.publishLineageEvent(event);
+  }
+
   private String processFullPath(String file) {
     if (file != null) {
       Path filePath = Paths.get(file);
@@ -347,7 +468,9 @@ public class SpoolDirRunnable implements Runnable {
     }
     String sourceFile = file.getFileName();
     try {
-      if (parser == null) {
+      if (parser == null && currentSplit != null) {
+        parser = currentSplit.getSplitFile().createParser(currentSplit, parserFactory, offset);
+      } else if (parser == null) {
         parser = SpoolDirUtil.getParser(
             fs,
             file,
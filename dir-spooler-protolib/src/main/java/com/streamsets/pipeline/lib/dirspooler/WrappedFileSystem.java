@@ -19,6 +19,7 @@ import com.streamsets.pipeline.api.FileRef;
 import com.streamsets.pipeline.lib.io.fileref.AbstractSpoolerFileRef;
 
 import java.io.IOException;
+import java.nio.file.WatchService;
 import java.util.Comparator;
 import java.util.List;
 
@@ -168,4 +169,13 @@ public interface WrappedFileSystem {
    * @return  AbstractSpoolerFileRef.Builder
    */
   AbstractSpoolerFileRef.Builder getFileRefBuilder();
+
+  /**
+   * Returns a watch service to receive the events of the directories of the file system.
+   *
+   * @return  {@link WatchService}, or {@code null} if the file system does not report directory events
+   */
+  default WatchService newWatchService() throws IOException {
+    return null;
+  }
 }
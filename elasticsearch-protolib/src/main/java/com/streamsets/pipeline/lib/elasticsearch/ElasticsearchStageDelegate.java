@@ -34,6 +34,7 @@ import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.ssl.SSLContexts;
 import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.sniff.ElasticsearchHostsSniffer;
@@ -197,6 +198,17 @@ public class ElasticsearchStageDelegate {
     return restClient.performRequest(method, endpoint, params, entity, headers);
   }
 
+  public void performRequestAsync(
+      String method,
+      String endpoint,
+      Map<String, String> params,
+      HttpEntity entity,
+      ResponseListener responseListener,
+      Header... headers
+  ) {
+    restClient.performRequestAsync(method, endpoint, params, entity, responseListener, headers);
+  }
+
   private void addSniffer(HttpHost[] hosts) {
     if (conf.clientSniff) {
       switch (hosts[0].getSchemeName()) {
@@ -164,4 +164,46 @@ public class ElasticsearchTargetConfig extends ElasticsearchConfig {
       group = "ELASTIC_SEARCH"
   )
   public String rawAdditionalProperties;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "10",
+      label = "Max Bulk Request Size (MB)",
+      description = "Batches are sent in several bulk requests of at most this size. Use 0 to send each batch in a " +
+          "single bulk request.",
+      displayPosition = 130,
+      group = "ELASTIC_SEARCH",
+      min = 0,
+      max = 2047
+  )
+  public int maxBulkRequestSize = 10;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "0",
+      label = "Max Documents per Bulk Request",
+      description = "Batches are sent in several bulk requests of at most this number of operations. Use 0 for no " +
+          "limit.",
+      displayPosition = 140,
+      group = "ELASTIC_SEARCH",
+      min = 0,
+      max = Integer.MAX_VALUE
+  )
+  public int maxBulkRequestDocs = 0;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Max Concurrent Bulk Requests",
+      description = "Number of bulk requests of a batch that can be in flight at the same time. With more than one, " +
+          "operations on the same document in the same batch can be applied out of order.",
+      displayPosition = 150,
+      group = "ELASTIC_SEARCH",
+      min = 1,
+      max = 64
+  )
+  public int maxConcurrentBulkRequests = 1;
 }
@@ -56,6 +56,7 @@ public enum Errors implements ErrorCode {
   ELASTICSEARCH_32("Can't resolve user: {}"),
   ELASTICSEARCH_33("Endpoint cannot be empty"),
   ELASTICSEARCH_34("Invalid Json format"),
+  ELASTICSEARCH_35("Interrupted while waiting for the bulk requests to complete"),
   ;
   private final String msg;
 
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.elasticsearch;
+
+import com.streamsets.pipeline.api.Record;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.elasticsearch.client.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Body of a bulk request, in NDJSON, and the records of its operations in the same order, so that the items of the
+ * response can be mapped back to the records. Buffers are reused across requests and batches, the array grows up to
+ * the largest request and the request entity is built on top of it without copying.
+ */
+final class BulkRequestBuffer extends ByteArrayOutputStream {
+  private final List<Record> records = new ArrayList<>();
+  private CompletableFuture<Response> response;
+
+  BulkRequestBuffer(int size) {
+    super(size);
+  }
+
+  void addRecord(Record record) {
+    records.add(record);
+  }
+
+  List<Record> getRecords() {
+    return records;
+  }
+
+  /**
+   * Discards the bytes written after the given size, used to drop a partially written operation.
+   */
+  void truncate(int size) {
+    count = size;
+  }
+
+  HttpEntity toEntity() {
+    return new ByteArrayEntity(buf, 0, count, ContentType.APPLICATION_JSON);
+  }
+
+  CompletableFuture<Response> getResponse() {
+    return response;
+  }
+
+  void setResponse(CompletableFuture<Response> response) {
+    this.response = response;
+  }
+
+  void clear() {
+    reset();
+    records.clear();
+    response = null;
+  }
+}
@@ -90,6 +90,12 @@ public class ElasticsearchDTargetUpgrader implements StageUpgrader {
       // fall through
       case 9:
         upgradeV9toV10(configs);
+        if (toVersion == 10) {
+          break;
+        }
+        // fall through
+      case 10:
+        upgradeV10toV11(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -293,4 +299,11 @@ public class ElasticsearchDTargetUpgrader implements StageUpgrader {
     configs.add(new Config(CURRENT_CONFIG_PREFIX + "rawAdditionalProperties", "{\n}"));
   }
 
+  private void upgradeV10toV11(List<Config> configs) {
+    // existing pipelines keep sending each batch in a single bulk request
+    configs.add(new Config(CURRENT_CONFIG_PREFIX + "maxBulkRequestSize", 0));
+    configs.add(new Config(CURRENT_CONFIG_PREFIX + "maxBulkRequestDocs", 0));
+    configs.add(new Config(CURRENT_CONFIG_PREFIX + "maxConcurrentBulkRequests", 1));
+  }
+
 }
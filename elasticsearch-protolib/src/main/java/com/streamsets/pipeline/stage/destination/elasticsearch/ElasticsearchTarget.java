@@ -46,29 +46,39 @@ import com.streamsets.pipeline.stage.config.elasticsearch.ElasticsearchTargetCon
 import com.streamsets.pipeline.stage.config.elasticsearch.Errors;
 import com.streamsets.pipeline.stage.config.elasticsearch.Groups;
 import org.apache.commons.lang.StringUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.Header;
 import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class ElasticsearchTarget extends BaseTarget {
   private static final Logger LOG = LoggerFactory.getLogger(ElasticsearchTarget.class);
+  private static final int INITIAL_REQUEST_SIZE = 64 * 1024;
+  private static final long MB = 1024 * 1024;
+  private static final int EOL = '\n';
+  private static final byte[] UPDATE_PREFIX = "{\"doc\":".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] MERGE_PREFIX = "{\"doc_as_upsert\": \"true\", \"doc\":".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] UPDATE_SUFFIX = "}\n".getBytes(StandardCharsets.UTF_8);
   private final ElasticsearchTargetConfig conf;
   private ELEval timeDriverEval;
   private TimeZone timeZone;
@@ -81,6 +91,11 @@ public class ElasticsearchTarget extends BaseTarget {
   private DataGeneratorFactory generatorFactory;
   private ErrorRecordHandler errorRecordHandler;
   private ElasticsearchStageDelegate delegate;
+  private DataGenerator generator;
+  private String additionalProperties;
+  private final StringBuilder operationMetadata = new StringBuilder();
+  private final Deque<BulkRequestBuffer> pendingRequests = new ArrayDeque<>();
+  private final Deque<BulkRequestBuffer> freeRequests = new ArrayDeque<>();
 
   public ElasticsearchTarget(ElasticsearchTargetConfig conf) {
     this.conf = conf;
@@ -194,6 +209,7 @@ public class ElasticsearchTarget extends BaseTarget {
       // try to create JSONObject from input, validation issue if it fails.
       JsonParser parser = new JsonParser();
       parser.parse(conf.rawAdditionalProperties).getAsJsonObject();
+      additionalProperties = addAdditionalProperties();
     }catch (Exception e){
       issues.add(getContext().createConfigIssue(
           Groups.ELASTIC_SEARCH.name(),
@@ -248,18 +264,15 @@ public class ElasticsearchTarget extends BaseTarget {
     ELVars elVars = getContext().createELVars();
     TimeNowEL.setTimeNowInContext(elVars, getBatchTime());
     Iterator<Record> it = batch.getRecords();
+    Header[] headers = delegate.getAuthenticationHeader(conf.securityConfig.securityUser.get());
 
-    StringBuilder bulkRequest = new StringBuilder();
-
-    //we need to keep the records in order of appearance in case we have indexing errors
+    //each bulk request keeps its records in order of appearance in case we have indexing errors
     //and error handling is TO_ERROR
-    List<Record> records = new ArrayList<>();
-
-    while (it.hasNext()) {
-      Record record = it.next();
-      records.add(record);
+    BulkRequestBuffer request = null;
+    try {
+      while (it.hasNext()) {
+        Record record = it.next();
 
-      try {
         RecordEL.setRecordInContext(elVars, record);
         String index = getRecordIndex(elVars, record);
         String type = typeEval.eval(elVars, conf.typeTemplate, String.class);
@@ -275,14 +288,9 @@ public class ElasticsearchTarget extends BaseTarget {
         if (!StringUtils.isEmpty(conf.routingTemplate)) {
           routing = routingEval.eval(elVars, conf.routingTemplate, String.class);
         }
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataGenerator generator = generatorFactory.getGenerator(baos);
-        generator.write(record);
-        generator.close();
 
         int opCode = -1;
         String opType = record.getHeader().getAttribute(OperationType.SDC_OPERATION_TYPE);
-        String recordJson = new String(baos.toByteArray(), StandardCharsets.UTF_8).replace("\n", "");
         // Check if the operation code from header attribute is valid
         if (!StringUtils.isEmpty(opType)) {
           try {
@@ -307,61 +315,143 @@ public class ElasticsearchTarget extends BaseTarget {
           // No header attribute set. Use default.
           opCode = conf.defaultOperation.code;
         }
-        bulkRequest.append(getOperation(index, type, id, parent, routing, recordJson, opCode));
-      } catch (IOException ex) {
-        errorRecordHandler.onError(
-            new OnRecordErrorException(
-                record,
-                Errors.ELASTICSEARCH_15,
-                record.getHeader().getSourceId(),
-                ex.toString(),
-                ex
-            )
-        );
+        if (opCode == -1) {
+          // the record has been discarded or sent to error
+          continue;
+        }
+
+        if (request == null) {
+          request = freeRequests.isEmpty() ? new BulkRequestBuffer(INITIAL_REQUEST_SIZE) : freeRequests.pop();
+        }
+        int size = request.size();
+        try {
+          writeOperation(request, index, type, id, parent, routing, record, opCode);
+          request.addRecord(record);
+        } catch (IOException ex) {
+          // drop the partial operation, and the generator as its state is unknown
+          request.truncate(size);
+          generator = null;
+          errorRecordHandler.onError(
+              new OnRecordErrorException(
+                  record,
+                  Errors.ELASTICSEARCH_15,
+                  record.getHeader().getSourceId(),
+                  ex.toString(),
+                  ex
+              )
+          );
+        }
+
+        if (isFull(request)) {
+          sendBulkRequest(request, headers);
+          request = null;
+        }
+      }
+
+      if (request != null && !request.getRecords().isEmpty()) {
+        sendBulkRequest(request, headers);
+        request = null;
+      }
+      while (!pendingRequests.isEmpty()) {
+        completeBulkRequest();
+      }
+    } finally {
+      // on failures the requests still in flight are abandoned, their buffers are not reused
+      pendingRequests.clear();
+      if (request != null) {
+        request.clear();
+        freeRequests.push(request);
       }
     }
+  }
 
-    if (!records.isEmpty()) {
-      try {
-        HttpEntity entity = new StringEntity(bulkRequest.toString(), ContentType.APPLICATION_JSON);
-        Response response;
-        response = delegate.performRequest(
-            "POST",
-            "/_bulk",
-            conf.params,
-            entity,
-            delegate.getAuthenticationHeader(conf.securityConfig.securityUser.get())
-        );
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        response.getEntity().writeTo(baos);
-        JsonObject json = new JsonParser().parse(baos.toString()).getAsJsonObject();
-        baos.close();
-
-        // Handle errors in bulk requests individually.
-        boolean errors = json.get("errors").getAsBoolean();
-        if (errors) {
-          List<ErrorItem> errorItems;
-          switch (getContext().getOnErrorRecord()) {
-            case DISCARD:
-              break;
-            case TO_ERROR:
-              errorItems = extractErrorItems(json);
-              for (ErrorItem item : errorItems) {
-                Record record = records.get(item.index);
-                getContext().toError(record, Errors.ELASTICSEARCH_16, record.getHeader().getSourceId(), item.reason);
-              }
-              break;
-            case STOP_PIPELINE:
-              errorItems = extractErrorItems(json);
-              throw new StageException(Errors.ELASTICSEARCH_17, errorItems.size(), "One or more operations failed");
-            default:
-              throw new IllegalStateException(
-                  Utils.format("Unknown OnError value '{}'", getContext().getOnErrorRecord())
-              );
+  private boolean isFull(BulkRequestBuffer request) {
+    return (conf.maxBulkRequestSize > 0 && request.size() >= conf.maxBulkRequestSize * MB) ||
+        (conf.maxBulkRequestDocs > 0 && request.getRecords().size() >= conf.maxBulkRequestDocs);
+  }
+
+  /**
+   * Sends the bulk request asynchronously. If the maximum number of requests are already in flight, waits for the
+   * oldest one to complete first.
+   */
+  private void sendBulkRequest(BulkRequestBuffer request, Header[] headers) throws StageException {
+    while (pendingRequests.size() >= conf.maxConcurrentBulkRequests) {
+      completeBulkRequest();
+    }
+    CompletableFuture<Response> response = new CompletableFuture<>();
+    request.setResponse(response);
+    pendingRequests.add(request);
+    delegate.performRequestAsync(
+        "POST",
+        "/_bulk",
+        conf.params,
+        request.toEntity(),
+        new ResponseListener() {
+          @Override
+          public void onSuccess(Response r) {
+            response.complete(r);
           }
-        }
-      } catch (IOException ex) {
-        errorRecordHandler.onError(records, new StageException(Errors.ELASTICSEARCH_17, records.size(), ex.toString(), ex));
+
+          @Override
+          public void onFailure(Exception e) {
+            response.completeExceptionally(e);
+          }
+        },
+        headers
+    );
+  }
+
+  /**
+   * Waits for the oldest bulk request in flight and handles the errors of its operations.
+   */
+  private void completeBulkRequest() throws StageException {
+    BulkRequestBuffer request = pendingRequests.poll();
+    List<Record> records = request.getRecords();
+    try {
+      handleResponse(request.getResponse().get(), records);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.ELASTICSEARCH_35, ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      errorRecordHandler.onError(
+          records,
+          new StageException(Errors.ELASTICSEARCH_17, records.size(), cause.toString(), cause)
+      );
+    } catch (IOException ex) {
+      errorRecordHandler.onError(records, new StageException(Errors.ELASTICSEARCH_17, records.size(), ex.toString(), ex));
+    }
+    request.clear();
+    freeRequests.push(request);
+  }
+
+  private void handleResponse(Response response, List<Record> records) throws IOException, StageException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    response.getEntity().writeTo(baos);
+    JsonObject json = new JsonParser().parse(baos.toString()).getAsJsonObject();
+    baos.close();
+
+    // Handle errors in bulk requests individually.
+    boolean errors = json.get("errors").getAsBoolean();
+    if (errors) {
+      List<ErrorItem> errorItems;
+      switch (getContext().getOnErrorRecord()) {
+        case DISCARD:
+          break;
+        case TO_ERROR:
+          errorItems = extractErrorItems(json);
+          for (ErrorItem item : errorItems) {
+            Record record = records.get(item.index);
+            getContext().toError(record, Errors.ELASTICSEARCH_16, record.getHeader().getSourceId(), item.reason);
+          }
+          break;
+        case STOP_PIPELINE:
+          errorItems = extractErrorItems(json);
+          throw new StageException(Errors.ELASTICSEARCH_17, errorItems.size(), "One or more operations failed");
+        default:
+          throw new IllegalStateException(
+              Utils.format("Unknown OnError value '{}'", getContext().getOnErrorRecord())
+          );
       }
     }
   }
@@ -375,52 +465,87 @@ public class ElasticsearchTarget extends BaseTarget {
     return batchTime;
   }
 
-  private String getOperation(String index, String type, String id, String parent, String routing, String record, int opCode) {
-    StringBuilder op = new StringBuilder();
+  private void writeOperation(
+      OutputStream out,
+      String index,
+      String type,
+      String id,
+      String parent,
+      String routing,
+      Record record,
+      int opCode
+  ) throws IOException, StageException {
     switch (opCode) {
       case OperationType.UPSERT_CODE:
-        getOperationMetadata("index", index, type, id, parent, routing, op);
-        op.append(String.format("%s%n", record));
+        writeOperationMetadata(out, "index", index, type, id, parent, routing);
+        writeRecord(out, record);
+        out.write(EOL);
         break;
       case OperationType.INSERT_CODE:
-        getOperationMetadata("create", index, type, id, parent, routing, op);
-        op.append(String.format("%s%n", record));
+        writeOperationMetadata(out, "create", index, type, id, parent, routing);
+        writeRecord(out, record);
+        out.write(EOL);
         break;
       case OperationType.UPDATE_CODE:
-        getOperationMetadata("update", index, type, id, parent, routing, op);
-        op.append(String.format("{\"doc\":%s}%n", record));
+        writeOperationMetadata(out, "update", index, type, id, parent, routing);
+        out.write(UPDATE_PREFIX);
+        writeRecord(out, record);
+        out.write(UPDATE_SUFFIX);
         break;
       case OperationType.MERGE_CODE:
-        getOperationMetadata("update", index, type, id, parent, routing, op);
-        op.append(String.format("{\"doc_as_upsert\": \"true\", \"doc\":%s}%n", record));
+        writeOperationMetadata(out, "update", index, type, id, parent, routing);
+        out.write(MERGE_PREFIX);
+        writeRecord(out, record);
+        out.write(UPDATE_SUFFIX);
         break;
       case OperationType.DELETE_CODE:
-        getOperationMetadata("delete", index, type, id, parent, routing, op);
+        writeOperationMetadata(out, "delete", index, type, id, parent, routing);
         break;
       default:
         LOG.error("Operation {} not supported", opCode);
         throw new UnsupportedOperationException(String.format("Unsupported Operation: %s", opCode));
     }
-    return op.toString();
   }
 
-  private void getOperationMetadata(String operation, String index, String type, String id, String parent, String routing, StringBuilder sb) {
-    sb.append(String.format("{\"%s\":{\"_index\":\"%s\",\"_type\":\"%s\"", operation, index, type));
+  private void writeOperationMetadata(
+      OutputStream out,
+      String operation,
+      String index,
+      String type,
+      String id,
+      String parent,
+      String routing
+  ) throws IOException {
+    StringBuilder sb = operationMetadata;
+    sb.setLength(0);
+    sb.append("{\"").append(operation).append("\":{\"_index\":\"").append(index)
+        .append("\",\"_type\":\"").append(type).append('"');
     if (!StringUtils.isEmpty(id)) {
-      sb.append(String.format(",\"_id\":\"%s\"", id));
+      sb.append(",\"_id\":\"").append(id).append('"');
     }
     if (!StringUtils.isEmpty(parent)) {
-      sb.append(String.format(",\"parent\":\"%s\"", parent));
+      sb.append(",\"parent\":\"").append(parent).append('"');
     }
     if (!StringUtils.isEmpty(routing)) {
-      sb.append(String.format(",\"routing\":\"%s\"", routing));
+      sb.append(",\"routing\":\"").append(routing).append('"');
     }
     // Add additional properties from JSON editor.
-    String additionalProperties = addAdditionalProperties();
-    if (!StringUtils.isEmpty(additionalProperties)){
-      sb.append(additionalProperties);
+    sb.append(additionalProperties);
+    sb.append("}}\n");
+    out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Writes the record as a single line of JSON. The generator, and its buffers, are reused for all the records.
+   */
+  private void writeRecord(OutputStream out, Record record) throws IOException, StageException {
+    if (generator == null) {
+      generator = generatorFactory.getGenerator(out);
+    } else {
+      generator.reset(out);
     }
-    sb.append(String.format("}}%n"));
+    generator.write(record);
+    generator.flush();
   }
 
   @VisibleForTesting
@@ -16,6 +16,7 @@
 package com.streamsets.pipeline.stage.destination.elasticsearch;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Record;
@@ -195,6 +196,11 @@ public class ElasticSearchTargetIT extends ElasticsearchBaseIT {
   }
   private ElasticsearchTarget createTarget(String timeDriver, String indexEL, String docIdEL, ElasticsearchOperationType op,
                                            String parent, String routing) {
+    return new ElasticsearchTarget(createTargetConfig(timeDriver, indexEL, docIdEL, op, parent, routing));
+  }
+
+  private ElasticsearchTargetConfig createTargetConfig(String timeDriver, String indexEL, String docIdEL,
+                                                       ElasticsearchOperationType op, String parent, String routing) {
     ElasticsearchTargetConfig conf = new ElasticsearchTargetConfig();
     conf.httpUris = Collections.singletonList("127.0.0.1:" + esHttpPort);
     conf.timeDriver = timeDriver;
@@ -210,9 +216,43 @@ public class ElasticSearchTargetIT extends ElasticsearchBaseIT {
     conf.securityConfig = new SecurityConfig();
     conf.rawAdditionalProperties =  "{\n\"_retry_on_conflict\":1\n}";
 
+    return conf;
+  }
+
+  private Target createBulkTarget(int maxBulkRequestSize, int maxBulkRequestDocs, Map<String, String> params) {
+    ElasticsearchTargetConfig conf = createTargetConfig(
+        "${time:now()}",
+        "${record:value('/index')}",
+        "",
+        ElasticsearchOperationType.INDEX,
+        "",
+        ""
+    );
+    conf.maxBulkRequestSize = maxBulkRequestSize;
+    conf.maxBulkRequestDocs = maxBulkRequestDocs;
+    conf.maxConcurrentBulkRequests = 2;
+    conf.params = params;
     return new ElasticsearchTarget(conf);
   }
 
+  private static Record createRecord(String value, String index) {
+    Record record = RecordCreator.create();
+    record.set(Field.create(ImmutableMap.of("a", Field.create(value),
+                                            "index", Field.create(index), "type", Field.create("t"))));
+    return record;
+  }
+
+  private static Set<String> searchValues(String index) {
+    prepareElasticSearchServerForQueries();
+    SearchResponse response = esServer.client().prepareSearch(index).setTypes("t").setSize(100)
+                                      .setSearchType(SearchType.DEFAULT).execute().actionGet();
+    Set<String> values = new HashSet<>();
+    for (SearchHit hit : response.getHits().getHits()) {
+      values.add((String) hit.getSource().get("a"));
+    }
+    return values;
+  }
+
   @Test
   public void testWriteRecords() throws Exception {
     Target target = createTarget();
@@ -385,6 +425,111 @@ public class ElasticSearchTargetIT extends ElasticsearchBaseIT {
     }
   }
 
+  @Test
+  public void testWriteRecordsSplitByDocs() throws Exception {
+    Target target = createBulkTarget(0, 2, new HashMap<>());
+    TargetRunner runner = new TargetRunner.Builder(ElasticSearchDTarget.class, target).build();
+    try {
+      runner.runInit();
+      List<Record> records = new ArrayList<>();
+      Set<String> expected = new HashSet<>();
+      for (int i = 0; i < 7; i++) {
+        records.add(createRecord("doc-" + i, "bulk_docs"));
+        expected.add("doc-" + i);
+      }
+      runner.runWrite(records);
+      Assert.assertTrue(runner.getErrorRecords().isEmpty());
+      Assert.assertTrue(runner.getErrors().isEmpty());
+
+      Assert.assertEquals(expected, searchValues("bulk_docs"));
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testWriteRecordsSplitBySize() throws Exception {
+    Target target = createBulkTarget(1, 0, new HashMap<>());
+    TargetRunner runner = new TargetRunner.Builder(ElasticSearchDTarget.class, target).build();
+    try {
+      runner.runInit();
+      // every record is 300 KB, the 1 MB bulk requests hold 4 of them
+      char[] padding = new char[300 * 1024];
+      Arrays.fill(padding, 'x');
+      List<Record> records = new ArrayList<>();
+      Set<String> expected = new HashSet<>();
+      for (int i = 0; i < 10; i++) {
+        String value = i + new String(padding);
+        records.add(createRecord(value, "bulk_size"));
+        expected.add(value);
+      }
+      runner.runWrite(records);
+      Assert.assertTrue(runner.getErrorRecords().isEmpty());
+      Assert.assertTrue(runner.getErrors().isEmpty());
+
+      Assert.assertEquals(expected, searchValues("bulk_size"));
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testWriteRecordsSplitOnErrorToError() throws Exception {
+    Target target = createBulkTarget(0, 2, new HashMap<>());
+    TargetRunner runner = new TargetRunner.Builder(ElasticSearchDTarget.class, target)
+        .setOnRecordError(OnRecordError.TO_ERROR)
+        .build();
+    try {
+      runner.runInit();
+      // the invalid index is the second operation of the second bulk request
+      List<Record> records = Arrays.asList(
+          createRecord("doc-0", "bulk_error"),
+          createRecord("doc-1", "bulk_error"),
+          createRecord("doc-2", "bulk_error"),
+          createRecord("doc-3", "BULK_ERROR"),
+          createRecord("doc-4", "bulk_error")
+      );
+      runner.runWrite(records);
+      Assert.assertEquals(1, runner.getErrorRecords().size());
+      Assert.assertEquals("doc-3", runner.getErrorRecords().get(0).get("/a").getValueAsString());
+      Assert.assertEquals(
+          Errors.ELASTICSEARCH_16.getCode(),
+          runner.getErrorRecords().get(0).getHeader().getErrorCode()
+      );
+      Assert.assertTrue(runner.getErrors().isEmpty());
+
+      Assert.assertEquals(ImmutableSet.of("doc-0", "doc-1", "doc-2", "doc-4"), searchValues("bulk_error"));
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testWriteRecordsFailedBulkRequest() throws Exception {
+    // the invalid refresh policy fails the whole bulk requests
+    Target target = createBulkTarget(0, 2, new HashMap<>(ImmutableMap.of("refresh", "invalid")));
+    TargetRunner runner = new TargetRunner.Builder(ElasticSearchDTarget.class, target)
+        .setOnRecordError(OnRecordError.TO_ERROR)
+        .build();
+    try {
+      runner.runInit();
+      List<Record> records = Arrays.asList(
+          createRecord("doc-0", "bulk_failed"),
+          createRecord("doc-1", "bulk_failed"),
+          createRecord("doc-2", "bulk_failed")
+      );
+      runner.runWrite(records);
+      Assert.assertEquals(3, runner.getErrorRecords().size());
+      for (int i = 0; i < 3; i++) {
+        Record record = runner.getErrorRecords().get(i);
+        Assert.assertEquals("doc-" + i, record.get("/a").getValueAsString());
+        Assert.assertEquals(Errors.ELASTICSEARCH_17.getCode(), record.getHeader().getErrorCode());
+      }
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   @Test
   public void testTimeDriverNow() throws Exception {
     ElasticsearchTargetConfig conf = new ElasticsearchTargetConfig();
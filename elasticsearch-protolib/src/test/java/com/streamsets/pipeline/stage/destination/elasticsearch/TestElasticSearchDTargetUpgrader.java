@@ -92,4 +92,16 @@ public class TestElasticSearchDTargetUpgrader {
         "elasticSearchConfig.rawAdditionalProperties"
     );
   }
+
+  @Test
+  public void testV10ToV11() throws StageException {
+    StageUpgrader upgrader = new ElasticsearchDTargetUpgrader();
+    List<Config> configs = createConfigs();
+    List<Config> newConfigs = upgrader.upgrade("library", "stageName", "stageInstance", 2, 11, configs);
+    UpgraderTestUtils.assertAllExist(newConfigs,
+        "elasticSearchConfig.maxBulkRequestSize",
+        "elasticSearchConfig.maxBulkRequestDocs",
+        "elasticSearchConfig.maxConcurrentBulkRequests"
+    );
+  }
 }
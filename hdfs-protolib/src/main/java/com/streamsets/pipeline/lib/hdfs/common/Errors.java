@@ -94,6 +94,8 @@ public enum Errors implements ErrorCode {
   HADOOPFS_60("Invalid Data Format {}, should be {} for File Type {}."),
   HADOOPFS_61("You must specify at least one of Hadoop FS URI, Hadoop FS Configuration Directory or fs.defaultFS"),
   HADOOPFS_62("Can't resolve credential: {}"),
+  HADOOPFS_63("Compression Codec '{}' is not supported for File Type {}"),
+  HADOOPFS_64("Max File Size '{}' MB must be 0 or at least the Row Group Size '{}' MB for File Type {}"),
 
   ;
 
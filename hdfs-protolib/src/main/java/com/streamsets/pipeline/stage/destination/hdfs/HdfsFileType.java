@@ -20,7 +20,12 @@ import com.streamsets.pipeline.api.Label;
 
 @GenerateResourceBundle
 public enum HdfsFileType implements Label {
-  TEXT("Text files"), SEQUENCE_FILE("Sequence files"), WHOLE_FILE("Whole File");
+  TEXT("Text files"),
+  SEQUENCE_FILE("Sequence files"),
+  WHOLE_FILE("Whole File"),
+  PARQUET("Parquet files"),
+  ORC("ORC files"),
+  ;
 
   private String label;
   HdfsFileType(String label) {
@@ -31,4 +36,11 @@ public enum HdfsFileType implements Label {
     return label;
   }
 
+  /**
+   * Returns true for the file types written in columns from Avro records.
+   */
+  public boolean isColumnar() {
+    return this == PARQUET || this == ORC;
+  }
+
 }
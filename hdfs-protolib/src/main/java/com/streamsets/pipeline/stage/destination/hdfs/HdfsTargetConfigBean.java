@@ -89,7 +89,7 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
       displayPosition = 106,
       group = "OUTPUT_FILES",
       dependsOn = "fileType",
-      triggeredByValue = {"TEXT", "SEQUENCE_FILE"}
+      triggeredByValue = {"TEXT", "SEQUENCE_FILE", "PARQUET", "ORC"}
   )
   public String fileNameSuffix;
 
@@ -157,7 +157,7 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
     group = "OUTPUT_FILES",
     min = 0,
     dependsOn = "fileType",
-    triggeredByValue = {"TEXT", "SEQUENCE_FILE"}
+    triggeredByValue = {"TEXT", "SEQUENCE_FILE", "PARQUET", "ORC"}
   )
   public long maxRecordsPerFile;
 
@@ -171,7 +171,7 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
     group = "OUTPUT_FILES",
     min = 0,
     dependsOn = "fileType",
-    triggeredByValue = {"TEXT", "SEQUENCE_FILE"}
+    triggeredByValue = {"TEXT", "SEQUENCE_FILE", "PARQUET", "ORC"}
   )
   public long maxFileSize;
 
@@ -188,7 +188,7 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
     elDefs = {TimeEL.class},
     evaluation = ConfigDef.Evaluation.EXPLICIT,
     dependsOn = "fileType",
-    triggeredByValue = {"TEXT", "SEQUENCE_FILE"}
+    triggeredByValue = {"TEXT", "SEQUENCE_FILE", "PARQUET", "ORC"}
   )
   public String idleTimeout;
 
@@ -201,11 +201,28 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
     displayPosition = 160,
     group = "OUTPUT_FILES",
     dependsOn = "fileType",
-    triggeredByValue = {"TEXT", "SEQUENCE_FILE"}
+    triggeredByValue = {"TEXT", "SEQUENCE_FILE", "PARQUET", "ORC"}
   )
   @ValueChooserModel(CompressionChooserValues.class)
   public CompressionMode compression;
 
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.NUMBER,
+    defaultValue = "128",
+    label = "Row Group Size (MB)",
+    description = "Size of the row groups (stripes in ORC files) buffered in memory for every open file before " +
+      "writing them to the file. Files are only readable once closed, so they are rolled at the end of every " +
+      "batch and larger batches produce fewer, larger files.",
+    displayPosition = 165,
+    group = "OUTPUT_FILES",
+    min = 1,
+    max = 2047,
+    dependsOn = "fileType",
+    triggeredByValue = {"PARQUET", "ORC"}
+  )
+  public int rowGroupSize = 128;
+
   @ConfigDef(
     required = true,
     type = ConfigDef.Type.STRING,
@@ -460,10 +477,15 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
       fileNameEL = dataGeneratorFormatConfig.fileNameEL;
     }
 
+    if (fileType.isColumnar()) {
+      validateStageForColumnarFiles(context, issues);
+    }
+
     SequenceFile.CompressionType compressionType = (seqFileCompressionType != null)
       ? seqFileCompressionType.getType() : null;
     try {
-      switch (compression) {
+      // columnar files compress their pages internally, the compression is passed to the writers
+      switch (fileType.isColumnar() ? CompressionMode.NONE : compression) {
         case OTHER:
           try {
             Class klass = Thread.currentThread().getContextClassLoader().loadClass(otherCompression);
@@ -528,6 +550,7 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
         if (idleTimeSecs > 0) {
           mgr.setIdleTimeoutSeconds(idleTimeSecs);
         }
+        mgr.setColumnarFileConfigs(compression, (long) rowGroupSize * MEGA_BYTE);
 
         // We're skipping all hdfs-target-directory related validations if we're getting the configuration from header
         if(dirPathTemplateInHeader) {
@@ -586,6 +609,7 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
           if (idleTimeSecs > 0) {
             mgr.setIdleTimeoutSeconds(idleTimeSecs);
           }
+          mgr.setColumnarFileConfigs(compression, (long) rowGroupSize * MEGA_BYTE);
 
           // validate if the lateRecordsDirPathTemplate can be resolved by Els constants
           if (mgr.validateDirTemplate(
@@ -847,6 +871,46 @@ public class HdfsTargetConfigBean extends HdfsBaseConfigBean {
     }
   }
 
+  private void validateStageForColumnarFiles(Stage.Context context, List<Stage.ConfigIssue> issues) {
+    if (dataFormat != DataFormat.AVRO) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.DATA_FORMAT.name(),
+              getConfigBeanPrefix() + "dataFormat",
+              Errors.HADOOPFS_60,
+              dataFormat.name(),
+              DataFormat.AVRO.getLabel(),
+              fileType.getLabel()
+          )
+      );
+    }
+    if (compression != CompressionMode.NONE && compression != CompressionMode.GZIP &&
+        compression != CompressionMode.SNAPPY) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.OUTPUT_FILES.name(),
+              getConfigBeanPrefix() + "compression",
+              Errors.HADOOPFS_63,
+              compression.getLabel(),
+              fileType.getLabel()
+          )
+      );
+    }
+    // the length of ORC files only grows when a stripe is written, smaller files would never roll over by size
+    if (fileType == HdfsFileType.ORC && maxFileSize > 0 && maxFileSize < rowGroupSize) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.OUTPUT_FILES.name(),
+              getConfigBeanPrefix() + "maxFileSize",
+              Errors.HADOOPFS_64,
+              maxFileSize,
+              rowGroupSize,
+              fileType.getLabel()
+          )
+      );
+    }
+  }
+
   protected boolean validateHadoopDir(final Stage.Context context, final String configName, final String configGroup,
       String dirPathTemplate, final List<Stage.ConfigIssue> issues) {
     if (!dirPathTemplate.startsWith("/")) {
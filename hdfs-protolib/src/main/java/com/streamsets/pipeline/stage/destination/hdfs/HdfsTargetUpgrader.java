@@ -50,6 +50,12 @@ public class HdfsTargetUpgrader implements StageUpgrader {
         // fall through
       case 3:
         upgradeV3ToV4(configs);
+        if (toVersion == 4) {
+          break;
+        }
+        // fall through
+      case 4:
+        upgradeV4ToV5(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -61,6 +67,10 @@ public class HdfsTargetUpgrader implements StageUpgrader {
     DataFormatUpgradeHelper.upgradeAvroGeneratorWithSchemaRegistrySupport(configs);
   }
 
+  private static void upgradeV4ToV5(List<Config> configs) {
+    configs.add(new Config("hdfsTargetConfigBean.rowGroupSize", 128));
+  }
+
   private static void upgradeV1ToV2(List<Config> configs) {
 
     List<Config> configsToRemove = new ArrayList<>();
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
@@ -173,10 +174,26 @@ public class ActiveRecordWriters {
     if (IS_TRACE_ENABLED) {
       LOG.trace("Flush all '{}'", toString());
     }
-    for (RecordWriter writer : writers.values()) {
+    Iterator<RecordWriter> iterator = writers.values().iterator();
+    while (iterator.hasNext()) {
+      RecordWriter writer = iterator.next();
       if (!writer.isClosed()) {
         try {
-          writer.flush();
+          if (writer.isColumnarFile()) {
+            // columnar files are only readable once closed, they are rolled at the end of every batch with records
+            // so the records of the batch are in the final file before the batch offset is committed
+            if (writer.getRecords() > 0) {
+              writer.closeLock();
+              try {
+                manager.commitWriter(writer);
+              } finally {
+                writer.closeUnlock();
+              }
+              iterator.remove();
+            }
+          } else {
+            writer.flush();
+          }
         } catch (IOException ex) {
           String msg = Utils.format("Flush failed on file : '{}'", writer.getPath().toString());
           LOG.error(msg);
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.hdfs.writer;
+
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.generator.avro.AvroDataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.avro.BaseAvroDataGenerator;
+import com.streamsets.pipeline.lib.generator.avro.Errors;
+import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.stage.destination.hdfs.CompressionMode;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Writes records to a columnar file converting them to Avro records first.
+ * <p/>
+ * Columnar formats buffer a whole row group (a stripe in ORC) in memory before writing it to the file, so records are
+ * written when their row group is full or when the file is closed. The file is created with the first record, as the
+ * Avro schema may come in the record header.
+ * <p/>
+ * A file is only readable once it is closed, as the footer with the schema and the row group locations is written
+ * last. Files are rolled at the end of every batch, before its offset is committed, the temporary files of a batch
+ * interrupted by an unexpected stop are renamed as invalid when the pipeline restarts and the batch is written again.
+ */
+public abstract class ColumnarFileWriter {
+  protected final FileSystem fs;
+  protected final Configuration conf;
+  protected final CompressionMode compression;
+  protected final long rowGroupSize;
+  private final Path path;
+  private final boolean schemaInHeader;
+  private Schema schema;
+  private Map<String, Object> defaultValues;
+  private String headerSchema;
+  private boolean created;
+  private boolean closed;
+
+  protected ColumnarFileWriter(
+      FileSystem fs,
+      Configuration conf,
+      Path path,
+      AvroDataGeneratorFactory generatorFactory,
+      CompressionMode compression,
+      long rowGroupSize
+  ) {
+    this.fs = fs;
+    this.conf = conf;
+    this.path = path;
+    this.compression = compression;
+    this.rowGroupSize = rowGroupSize;
+    schemaInHeader = generatorFactory.isSchemaInHeader();
+    schema = generatorFactory.getSchema();
+    defaultValues = generatorFactory.getDefaultValuesFromSchema();
+  }
+
+  /**
+   * Creates the file for the given schema.
+   */
+  protected abstract void create(Path path, Schema schema) throws IOException;
+
+  protected abstract void append(GenericRecord record) throws IOException;
+
+  /**
+   * Returns the size of the data written to the file, including the row group being buffered when the format
+   * reports it.
+   */
+  public abstract long getLength() throws IOException;
+
+  protected abstract void closeFile() throws IOException;
+
+  public void write(Record record) throws IOException, StageException {
+    if (schemaInHeader) {
+      String jsonSchema = AvroTypeUtil.getAvroSchemaFromHeader(record, BaseAvroDataGenerator.AVRO_SCHEMA_HEADER);
+      if (headerSchema == null) {
+        schema = AvroTypeUtil.parseSchema(jsonSchema);
+        defaultValues = AvroTypeUtil.getDefaultValuesFromSchema(schema, new HashSet<String>());
+        headerSchema = jsonSchema;
+      } else if (!headerSchema.equals(jsonSchema)) {
+        throw new DataGeneratorException(
+            Errors.AVRO_GENERATOR_04,
+            record.getHeader().getSourceId(),
+            headerSchema,
+            jsonSchema
+        );
+      }
+    }
+    // convert before creating the file so that a first invalid record does not leave an empty file behind
+    GenericRecord avroRecord = (GenericRecord) AvroTypeUtil.sdcRecordToAvro(record, schema, defaultValues);
+    if (!created) {
+      create(fs.makeQualified(path), schema);
+      created = true;
+    }
+    append(avroRecord);
+  }
+
+  /**
+   * Returns true if the file was created, that is, if at least one record was written.
+   */
+  public boolean isCreated() {
+    return created;
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      if (created) {
+        closeFile();
+      }
+    }
+  }
+
+}
@@ -94,7 +94,7 @@ final class DefaultFsHelper implements FsHelper {
         if (globStatus != null) {
           for (FileStatus status : globStatus) {
             LOG.debug("Found uncommitted file '{}'", status.getPath());
-            recordWriterManager.renameToFinalName(fs, status.getPath());
+            recoverFile(fs, status.getPath());
           }
         }
       }
@@ -103,10 +103,30 @@ final class DefaultFsHelper implements FsHelper {
 
   @Override
   public void handleAlreadyExistingFile(FileSystem fs, Path tempPath) throws StageException, IOException {
-    Path path = recordWriterManager.renameToFinalName(fs, tempPath);
+    Path path = recoverFile(fs, tempPath);
     LOG.warn("Path[{}] - Found previous file '{}', committing it", tempPath, path);
   }
 
+  /**
+   * Commits a temporary file left by a previous run. Files that can't be read, columnar files that were not closed,
+   * are renamed with the invalid file prefix instead so that they are not read as data files.
+   */
+  private Path recoverFile(FileSystem fs, Path tempPath) throws StageException, IOException {
+    if (recordWriterManager.isReadable(fs, tempPath)) {
+      return recordWriterManager.renameToFinalName(fs, tempPath);
+    }
+    Path invalidPath = new Path(
+        tempPath.getParent(),
+        RecordWriterManager.INVALID_FILE_PREFIX + UUID.randomUUID().toString() + tempPath.getName()
+    );
+    LOG.error("Path[{}] - File can't be read, it was not closed before the pipeline stopped, renaming it to '{}'",
+        tempPath, invalidPath);
+    if (!fs.rename(tempPath, invalidPath)) {
+      throw new IOException(Utils.format("Could not rename '{}' to '{}'", tempPath, invalidPath));
+    }
+    return invalidPath;
+  }
+
   @Override
   public Path renameAndGetPath(FileSystem fs, Path tempPath) throws IOException, StageException {
     Path finalPath =  new Path(tempPath.getParent(), (StringUtils.isEmpty(uniquePrefix) ? "" : (uniquePrefix + "_") ) + UUID.randomUUID().toString() + recordWriterManager.getExtension());
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.hdfs.writer;
+
+import com.streamsets.pipeline.lib.generator.avro.AvroDataGeneratorFactory;
+import com.streamsets.pipeline.lib.util.avroorc.AvroToOrcRecordConverter;
+import com.streamsets.pipeline.lib.util.avroorc.AvroToOrcSchemaConverter;
+import com.streamsets.pipeline.stage.destination.hdfs.CompressionMode;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.util.Progressable;
+import org.apache.orc.CompressionKind;
+import org.apache.orc.OrcFile;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.Writer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Writes ORC files, the stripes are buffered in memory by the ORC writer. The length of the file only grows when a
+ * stripe is written, which is why the max file size can't be lower than the stripe size.
+ */
+public class OrcColumnarFileWriter extends ColumnarFileWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(OrcColumnarFileWriter.class);
+
+  private TypeDescription orcSchema;
+  private VectorizedRowBatch batch;
+  private Writer writer;
+  private OutputCapturingFileSystem outputFs;
+
+  public OrcColumnarFileWriter(
+      FileSystem fs,
+      Configuration conf,
+      Path path,
+      AvroDataGeneratorFactory generatorFactory,
+      CompressionMode compression,
+      long rowGroupSize
+  ) {
+    super(fs, conf, path, generatorFactory, compression, rowGroupSize);
+  }
+
+  @Override
+  protected void create(Path path, Schema schema) throws IOException {
+    orcSchema = AvroToOrcSchemaConverter.getOrcSchema(schema);
+    batch = orcSchema.createRowBatch();
+    outputFs = new OutputCapturingFileSystem(fs);
+    writer = OrcFile.createWriter(
+        path,
+        OrcFile.writerOptions(conf)
+            .setSchema(orcSchema)
+            .fileSystem(outputFs)
+            .compress(getCompressionKind(compression))
+            .stripeSize(rowGroupSize)
+    );
+  }
+
+  @Override
+  protected void append(GenericRecord record) throws IOException {
+    AvroToOrcRecordConverter.addAvroRecord(batch, record, orcSchema, batch.getMaxSize(), writer);
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    return (outputFs == null || outputFs.output == null) ? 0 : outputFs.output.getPos();
+  }
+
+  @Override
+  protected void closeFile() throws IOException {
+    if (batch.size != 0) {
+      writer.addRowBatch(batch);
+      batch.reset();
+    }
+    writer.close();
+  }
+
+  /**
+   * Returns true if the given file has a valid footer, files that were not closed don't have one.
+   */
+  static boolean isReadable(FileSystem fs, Configuration conf, Path path) {
+    try {
+      FileStatus status = fs.getFileStatus(path);
+      // the ORC reader sees empty files as files without rows
+      if (status.getLen() == 0) {
+        return false;
+      }
+      // the reader reads the footer when it is created
+      return OrcFile.createReader(path, OrcFile.readerOptions(conf).filesystem(fs)) != null;
+    } catch (IOException | RuntimeException ex) {
+      LOG.debug("Can't read the footer of ORC file '{}': {}", path, ex.toString(), ex);
+      return false;
+    }
+  }
+
+  static CompressionKind getCompressionKind(CompressionMode compression) {
+    switch (compression) {
+      case NONE:
+        return CompressionKind.NONE;
+      case GZIP:
+        return CompressionKind.ZLIB;
+      case SNAPPY:
+        return CompressionKind.SNAPPY;
+      default:
+        throw new IllegalArgumentException("Unsupported ORC compression: " + compression);
+    }
+  }
+
+  /**
+   * Keeps the stream the ORC writer creates the file with, to report how much of the file has been written.
+   */
+  private static class OutputCapturingFileSystem extends FilterFileSystem {
+    private FSDataOutputStream output;
+
+    OutputCapturingFileSystem(FileSystem fs) {
+      super(fs);
+    }
+
+    @Override
+    public FSDataOutputStream create(
+        Path f,
+        FsPermission permission,
+        boolean overwrite,
+        int bufferSize,
+        short replication,
+        long blockSize,
+        Progressable progress
+    ) throws IOException {
+      output = super.create(f, permission, overwrite, bufferSize, replication, blockSize, progress);
+      return output;
+    }
+  }
+
+}
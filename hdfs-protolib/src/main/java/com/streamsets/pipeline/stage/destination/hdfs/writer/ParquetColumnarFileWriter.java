@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.hdfs.writer;
+
+import com.streamsets.pipeline.lib.generator.avro.AvroDataGeneratorFactory;
+import com.streamsets.pipeline.lib.util.AvroToParquetConverterUtil;
+import com.streamsets.pipeline.stage.destination.hdfs.CompressionMode;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Writes Parquet files, the row groups are buffered in memory by the Parquet writer.
+ */
+public class ParquetColumnarFileWriter extends ColumnarFileWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(ParquetColumnarFileWriter.class);
+
+  private ParquetWriter<GenericRecord> writer;
+
+  public ParquetColumnarFileWriter(
+      FileSystem fs,
+      Configuration conf,
+      Path path,
+      AvroDataGeneratorFactory generatorFactory,
+      CompressionMode compression,
+      long rowGroupSize
+  ) {
+    super(fs, conf, path, generatorFactory, compression, rowGroupSize);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected void create(Path path, Schema schema) throws IOException {
+    writer = AvroToParquetConverterUtil.initializeWriter(path, schema, conf)
+        .withConf(conf)
+        .withCompressionCodec(getCodecName(compression))
+        .withRowGroupSize((int) rowGroupSize)
+        .withWriteMode(ParquetFileWriter.Mode.CREATE)
+        .build();
+  }
+
+  @Override
+  protected void append(GenericRecord record) throws IOException {
+    writer.write(record);
+  }
+
+  @Override
+  public long getLength() {
+    return (writer == null) ? 0 : writer.getDataSize();
+  }
+
+  @Override
+  protected void closeFile() throws IOException {
+    writer.close();
+  }
+
+  /**
+   * Returns true if the given file has a valid footer, files that were not closed don't have one.
+   */
+  static boolean isReadable(FileSystem fs, Configuration conf, Path path) {
+    try {
+      FileStatus status = fs.getFileStatus(path);
+      return status.getLen() > 0 &&
+          ParquetFileReader.readFooter(conf, status, ParquetMetadataConverter.NO_FILTER) != null;
+    } catch (IOException | RuntimeException ex) {
+      LOG.debug("Can't read the footer of Parquet file '{}': {}", path, ex.toString(), ex);
+      return false;
+    }
+  }
+
+  static CompressionCodecName getCodecName(CompressionMode compression) {
+    switch (compression) {
+      case NONE:
+        return CompressionCodecName.UNCOMPRESSED;
+      case GZIP:
+        return CompressionCodecName.GZIP;
+      case SNAPPY:
+        return CompressionCodecName.SNAPPY;
+      default:
+        throw new IllegalArgumentException("Unsupported Parquet compression: " + compression);
+    }
+  }
+
+}
@@ -65,6 +65,9 @@ public class RecordWriter {
   private Text key;
   private Text value;
   private boolean seqFile;
+
+  private ColumnarFileWriter columnarWriter;
+  private boolean columnarFile;
   private boolean idleClosed;
   private Future<Void> currentIdleCloseFuture = null;
   private ActiveRecordWriters writers = null;
@@ -119,6 +122,13 @@ public class RecordWriter {
     this.idleTimeout = idleTimeout;
   }
 
+  public RecordWriter(Path path, long timeToLiveMillis, ColumnarFileWriter columnarWriter,
+      DataGeneratorFactory generatorFactory) {
+    this(path, timeToLiveMillis, generatorFactory);
+    this.columnarWriter = columnarWriter;
+    columnarFile = true;
+  }
+
   public Path getPath() {
     return path;
   }
@@ -158,6 +168,8 @@ public class RecordWriter {
         dg.close();
         value.set(new String(baos.toByteArray(), StandardCharsets.UTF_8));
         seqWriter.append(key, value);
+      } else if (columnarWriter != null && !columnarWriter.isClosed()) {
+        columnarWriter.write(record);
       } else {
         throw new IOException(Utils.format("RecordWriter '{}' is closed", path));
       }
@@ -185,6 +197,7 @@ public class RecordWriter {
       } else if (seqWriter != null) {
         seqWriter.hflush();
       }
+      // columnar files are not flushed, they are rolled at the end of the batch instead
     } finally {
       // reset this flag so we flush only when there is data.
       batchContainsData = false;
@@ -200,6 +213,8 @@ public class RecordWriter {
       length = textOutputStream.getByteCount();
     } else if (seqWriter != null) {
       length = seqWriter.getLength();
+    } else if (columnarWriter != null) {
+      length = columnarWriter.getLength();
     }
     return length;
   }
@@ -226,6 +241,8 @@ public class RecordWriter {
         generator.close();
       } else if (seqWriter != null) {
         seqWriter.close();
+      } else if (columnarWriter != null) {
+        columnarWriter.close();
       }
       this.idleClosed = idleClosed;
       // writers can never be null, except in tests
@@ -260,9 +277,21 @@ public class RecordWriter {
     return seqFile;
   }
 
+  public boolean isColumnarFile() {
+    return columnarFile;
+  }
+
+  /**
+   * Returns true if the file exists. Columnar files are created with their first record, so they may not.
+   */
+  public boolean isFileCreated() {
+    return !columnarFile || columnarWriter.isCreated();
+  }
+
   public boolean isClosed() {
     closeLock.readLock().lock();
-    boolean isClosed = (generator == null && seqWriter == null);
+    boolean isClosed = (generator == null && seqWriter == null &&
+        (columnarWriter == null || columnarWriter.isClosed()));
     closeLock.readLock().unlock();
     return isClosed;
   }
@@ -31,9 +31,11 @@ import com.streamsets.pipeline.config.WholeFileExistsAction;
 import com.streamsets.pipeline.lib.el.FakeRecordEL;
 import com.streamsets.pipeline.lib.el.TimeEL;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.avro.AvroDataGeneratorFactory;
 import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Matcher;
 import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Pattern;
 import com.streamsets.pipeline.lib.hdfs.common.Errors;
+import com.streamsets.pipeline.stage.destination.hdfs.CompressionMode;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsFileType;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsTarget;
 import com.streamsets.pipeline.stage.destination.hdfs.IdleClosedException;
@@ -59,6 +61,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class RecordWriterManager {
   private final static Logger LOG = LoggerFactory.getLogger(RecordWriterManager.class);
   public final static String TMP_FILE_PREFIX = "_tmp_";
+  public final static String INVALID_FILE_PREFIX = "_invalid_";
 
   private final static String DOT = ".";
   private FileSystem fs;
@@ -79,6 +82,8 @@ public class RecordWriterManager {
   private DataGeneratorFactory generatorFactory;
   private Target.Context context;
   private long idleTimeoutSeconds = -1L;
+  private CompressionMode columnarCompression = CompressionMode.NONE;
+  private long rowGroupSize;
   private final boolean rollIfHeader;
   private final String rollHeaderName;
   private final FsHelper fsHelper;
@@ -144,6 +149,14 @@ public class RecordWriterManager {
     this.idleTimeoutSeconds = idleTimeoutSeconds;
   }
 
+  /**
+   * Sets the compression and the size of the row groups buffered in memory for Parquet and ORC files.
+   */
+  public void setColumnarFileConfigs(CompressionMode compression, long rowGroupSizeBytes) {
+    this.columnarCompression = compression;
+    this.rowGroupSize = rowGroupSizeBytes;
+  }
+
   public long getCutOffMillis() {
     return cutOffMillis;
   }
@@ -200,6 +213,21 @@ public class RecordWriterManager {
     return fsHelper.renameAndGetPath(fs, tempPath);
   }
 
+  /**
+   * Returns true if the given temporary file can be read. Columnar files are only readable once they are closed, the
+   * temporary files left by an unexpected stop have no footer.
+   */
+  boolean isReadable(FileSystem fs, Path tempPath) {
+    switch (fileType) {
+      case PARQUET:
+        return ParquetColumnarFileWriter.isReadable(fs, hdfsConf, tempPath);
+      case ORC:
+        return OrcColumnarFileWriter.isReadable(fs, hdfsConf, tempPath);
+      default:
+        return true;
+    }
+  }
+
   private void produceCloseFileEvent(FileSystem fs, Path finalPath) throws IOException {
     FileStatus status = fs.getFileStatus(finalPath);
     HdfsEvents.CLOSED_FILE.create(context)
@@ -280,6 +308,18 @@ public class RecordWriterManager {
           throw new StageException(Errors.HADOOPFS_46, compressionType.name(), unsatisfiedLinkError,
             unsatisfiedLinkError);
         }
+      case PARQUET:
+      case ORC:
+        Utils.checkState(generatorFactory instanceof AvroDataGeneratorFactory, "Columnar files require Avro records");
+        AvroDataGeneratorFactory avroFactory = (AvroDataGeneratorFactory) generatorFactory;
+        ColumnarFileWriter columnarWriter = (fileType == HdfsFileType.PARQUET)
+            ? new ParquetColumnarFileWriter(fs, hdfsConf, path, avroFactory, columnarCompression, rowGroupSize)
+            : new OrcColumnarFileWriter(fs, hdfsConf, path, avroFactory, columnarCompression, rowGroupSize);
+        RecordWriter columnarRecordWriter = new RecordWriter(path, timeToLiveMillis, columnarWriter, generatorFactory);
+        if (idleTimeoutSeconds != -1) {
+          columnarRecordWriter.setIdleTimeout(idleTimeoutSeconds);
+        }
+        return columnarRecordWriter;
       default:
         throw new UnsupportedOperationException(Utils.format("Unsupported file Type '{}'", fileType));
     }
@@ -358,10 +398,14 @@ public class RecordWriterManager {
         LOG.info("Writer for {} was idle closed, renaming.." , writer.getPath());
       }
 
-      LOG.debug("Path[{}] - Committing Writer", writer.getPath());
-      path = renameToFinalName(fs, writer.getPath());
+      if (writer.isFileCreated()) {
+        LOG.debug("Path[{}] - Committing Writer", writer.getPath());
+        path = renameToFinalName(fs, writer.getPath());
+        LOG.debug("Path[{}] - Committed Writer to '{}'", writer.getPath(), path);
+      } else {
+        LOG.debug("Path[{}] - Nothing was written, there is no file to commit", writer.getPath());
+      }
       writer.setRenamed(true);
-      LOG.debug("Path[{}] - Committed Writer to '{}'", writer.getPath(), path);
       // Reset the interrupt flag back.
       if (interrupted) {
         Thread.currentThread().interrupt();
@@ -50,7 +50,10 @@ import static com.streamsets.pipeline.config.OriginAvroSchemaSource.SOURCE;
 @HideConfigs(value = {
     "conf.allowLateDirectory",
     "conf.dataFormatConfig.verifyChecksum",
-    "conf.dataFormatConfig.avroSchemaSource"
+    "conf.dataFormatConfig.avroSchemaSource",
+    "conf.discoveryMode",
+    "conf.splitLargeFiles",
+    "conf.minSplitSize"
 })
 @GenerateResourceBundle
 public class HdfsDSource extends DPushSource {
@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.stage.destination.hdfs.writer;
 
+import com.google.common.collect.ImmutableMap;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Record;
@@ -22,10 +23,13 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFormat;
 import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.lib.hdfs.common.Errors;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsDTarget;
+import com.streamsets.pipeline.stage.destination.hdfs.HdfsFileType;
 import org.apache.hadoop.fs.Path;
 import org.junit.Assert;
 import org.junit.Before;
@@ -40,6 +44,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+import static com.streamsets.pipeline.lib.util.AvroSchemaHelper.SCHEMA_KEY;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.spy;
 
@@ -253,4 +258,54 @@ public class TestActiveRecordWriters {
       Assert.assertTrue(ex.getCause() instanceof IOException);
     }
   }
+
+  @Test
+  public void testColumnarFilesRolledOnFlushAll() throws Exception {
+    String schema = "{\"type\": \"record\", \"name\": \"test\", \"fields\": [" +
+        "{\"name\": \"name\", \"type\": \"string\"}]}";
+    DataGeneratorFactory avroFactory = new DataGeneratorFactoryBuilder(
+        ContextInfoCreator.createTargetContext(HdfsDTarget.class, "testColumnarFiles", false, OnRecordError.TO_ERROR,
+            null),
+        DataGeneratorFormat.AVRO
+    ).setConfig(SCHEMA_KEY, schema).build();
+    RecordWriterManager mgr = new RecordWriterManagerTestBuilder()
+        .context(ContextInfoCreator.createTargetContext(HdfsDTarget.class, "testColumnarFiles", false, OnRecordError.TO_ERROR, null))
+        .dirPathTemplate(getTestDir().toString())
+        .fileType(HdfsFileType.PARQUET)
+        .generatorFactory(avroFactory)
+        .cutOffSecs(60)
+        .cutOffRecords(100)
+        .build();
+
+    ActiveRecordWriters writers = new ActiveRecordWriters(mgr);
+
+    Date now = new Date();
+    Record record = RecordCreator.create();
+    record.set(Field.create(ImmutableMap.of("name", Field.create("a"))));
+
+    // a writer without records in the batch stays open
+    RecordWriter writer = writers.get(now, now, record);
+    Assert.assertNotNull(writer);
+    writers.flushAll();
+    Assert.assertFalse(writer.isClosed());
+
+    // a writer with records is committed at the end of the batch, before the offset is
+    writer.write(record);
+    writers.flushAll();
+    Assert.assertTrue(writer.isClosed());
+    File[] files = new File(getTestDir().toString()).listFiles((dir, name) -> name.startsWith("_tmp_"));
+    Assert.assertEquals(0, files.length);
+    files = new File(getTestDir().toString()).listFiles((dir, name) -> name.startsWith("prefix"));
+    Assert.assertEquals(1, files.length);
+
+    // the next batch writes a new file
+    RecordWriter nextWriter = writers.get(now, now, record);
+    Assert.assertNotSame(writer, nextWriter);
+    nextWriter.write(record);
+    writers.flushAll();
+    Assert.assertTrue(nextWriter.isClosed());
+    files = new File(getTestDir().toString()).listFiles((dir, name) -> name.startsWith("prefix"));
+    Assert.assertEquals(2, files.length);
+    writers.closeAll();
+  }
 }
@@ -18,12 +18,17 @@ package com.streamsets.pipeline.stage.destination.hdfs.writer;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFormat;
+import com.streamsets.pipeline.lib.generator.avro.AvroDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
 import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.stage.destination.hdfs.CompressionMode;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsDTarget;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
@@ -33,6 +38,10 @@ import org.apache.hadoop.hdfs.HdfsConfiguration;
 import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -48,10 +57,16 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.streamsets.pipeline.lib.util.AvroSchemaHelper.SCHEMA_KEY;
+
 public class TestRecordWriter {
+  private static final String AVRO_SCHEMA = "{\"type\": \"record\", \"name\": \"test\", \"fields\": [" +
+      "{\"name\": \"name\", \"type\": \"string\"}, {\"name\": \"value\", \"type\": \"long\"}]}";
+
   private static Path testDir;
 
   public static class DummyDataGeneratorFactory extends DataGeneratorFactory {
@@ -250,4 +265,96 @@ public class TestRecordWriter {
     }
   }
 
+  private AvroDataGeneratorFactory createAvroDataGeneratorFactory() {
+    return (AvroDataGeneratorFactory) new DataGeneratorFactoryBuilder(
+        ContextInfoCreator.createTargetContext(HdfsDTarget.class, "testColumnarFile", false, OnRecordError.TO_ERROR,
+            null),
+        DataGeneratorFormat.AVRO
+    ).setConfig(SCHEMA_KEY, AVRO_SCHEMA).build();
+  }
+
+  private Record createAvroRecord(String name, long value) {
+    LinkedHashMap<String, Field> map = new LinkedHashMap<>();
+    map.put("name", Field.create(name));
+    map.put("value", Field.create(value));
+    Record record = RecordCreator.create();
+    record.set(Field.createListMap(map));
+    return record;
+  }
+
+  private RecordWriter writeColumnarFile(FileSystem fs, ColumnarFileWriter columnarWriter, Path file)
+      throws Exception {
+    RecordWriter writer = new RecordWriter(file, 10000, columnarWriter, createAvroDataGeneratorFactory());
+    Assert.assertTrue(writer.isColumnarFile());
+    Assert.assertFalse(writer.isFileCreated());
+    writer.write(createAvroRecord("a", 1));
+    writer.write(createAvroRecord("z", 2));
+    Assert.assertTrue(writer.isFileCreated());
+    writer.flush();
+    Assert.assertEquals(2, writer.getRecords());
+    writer.close();
+    Assert.assertTrue(writer.isClosed());
+    Assert.assertTrue(fs.exists(file));
+    return writer;
+  }
+
+  @Test
+  public void testParquetFile() throws Exception {
+    FileSystem fs = getRawLocalFileSystem();
+    try {
+      Path file = new Path(getTestDir(), "file.parquet");
+      ColumnarFileWriter columnarWriter = new ParquetColumnarFileWriter(fs, fs.getConf(), file,
+          createAvroDataGeneratorFactory(), CompressionMode.SNAPPY, 1024 * 1024);
+      writeColumnarFile(fs, columnarWriter, file);
+
+      try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(file)
+          .withConf(fs.getConf()).build()) {
+        GenericRecord record = reader.read();
+        Assert.assertEquals("a", record.get("name").toString());
+        Assert.assertEquals(1L, record.get("value"));
+        record = reader.read();
+        Assert.assertEquals("z", record.get("name").toString());
+        Assert.assertEquals(2L, record.get("value"));
+        Assert.assertNull(reader.read());
+      }
+    } finally {
+      fs.close();
+    }
+  }
+
+  @Test
+  public void testOrcFile() throws Exception {
+    FileSystem fs = getRawLocalFileSystem();
+    try {
+      Path file = new Path(getTestDir(), "file.orc");
+      ColumnarFileWriter columnarWriter = new OrcColumnarFileWriter(fs, fs.getConf(), file,
+          createAvroDataGeneratorFactory(), CompressionMode.GZIP, 1024 * 1024);
+      RecordWriter writer = writeColumnarFile(fs, columnarWriter, file);
+      Assert.assertTrue(writer.getLength() > 0);
+
+      Reader reader = OrcFile.createReader(file, OrcFile.readerOptions(fs.getConf()).filesystem(fs));
+      Assert.assertEquals(2, reader.getNumberOfRows());
+      Assert.assertEquals("struct<name:string,value:bigint>", reader.getSchema().toString());
+    } finally {
+      fs.close();
+    }
+  }
+
+  @Test
+  public void testEmptyColumnarFile() throws Exception {
+    FileSystem fs = getRawLocalFileSystem();
+    try {
+      Path file = new Path(getTestDir(), "empty.parquet");
+      ColumnarFileWriter columnarWriter = new ParquetColumnarFileWriter(fs, fs.getConf(), file,
+          createAvroDataGeneratorFactory(), CompressionMode.NONE, 1024 * 1024);
+      RecordWriter writer = new RecordWriter(file, 10000, columnarWriter, createAvroDataGeneratorFactory());
+      writer.close();
+      Assert.assertTrue(writer.isClosed());
+      Assert.assertFalse(writer.isFileCreated());
+      Assert.assertFalse(fs.exists(file));
+    } finally {
+      fs.close();
+    }
+  }
+
 }
@@ -589,6 +589,28 @@ public class TestRecordWriterManager {
     Assert.assertTrue(new File(f5).exists());
   }
 
+  @Test
+  public void testUnreadableColumnarFileRecovery() throws Exception {
+    File testDir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
+    Assert.assertTrue(testDir.mkdirs());
+
+    RecordWriterManager mgr = managerBuilder()
+      .dirPathTemplate(testDir.getAbsolutePath())
+      .fileType(HdfsFileType.PARQUET)
+      .build();
+
+    // a file left open by an unexpected stop, without footer
+    File tempFile = new File(testDir, mgr.getTempFileName());
+    Files.write(tempFile.toPath(), "PAR1 row group".getBytes());
+
+    Assert.assertEquals(1, mgr.handleAlreadyExistingFiles());
+    Assert.assertFalse(tempFile.exists());
+    File[] files = testDir.listFiles();
+    Assert.assertEquals(1, files.length);
+    Assert.assertTrue(files[0].getName().startsWith(RecordWriterManager.INVALID_FILE_PREFIX));
+    Assert.assertTrue(files[0].getName().endsWith(tempFile.getName()));
+  }
+
   @Test
   public void testShouldRoll() throws Exception {
     File testDir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
@@ -119,6 +119,7 @@ public enum JdbcErrors implements ErrorCode {
   JDBC_102("Invalid max number of partitions ({}) for table {}; this must be negative (for default behavior) or" +
       " greater than 1 to ensure progress"),
   JDBC_103("Invalid schema name template expression '{}': {}"),
+  JDBC_104("COPY is only supported for PostgreSQL connection strings"),
 
   JDBC_200("Tables are not change tracking enabled: {}"),
   JDBC_201("Invalid Change Tracking Current Version: {}"),
@@ -148,6 +149,7 @@ public enum JdbcErrors implements ErrorCode {
   JDBC_409("Offset column can't contain NULL: {}"),
   JDBC_410("Failed to parse column '{}' to field with value {}."),
   JDBC_411("Filter schema values cannot be empty."),
+  JDBC_412("The SQL query cannot contain expressions when batch lookups are enabled"),
   ;
 
   private final String msg;
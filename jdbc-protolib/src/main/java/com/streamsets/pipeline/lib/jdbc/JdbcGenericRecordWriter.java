@@ -21,6 +21,7 @@ import com.google.common.hash.Funnel;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
@@ -34,21 +35,27 @@ import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.SortedMap;
 
 import static com.streamsets.pipeline.lib.jdbc.JdbcErrors.JDBC_14;
 import static com.streamsets.pipeline.lib.operation.OperationType.DELETE_CODE;
 import static com.streamsets.pipeline.lib.operation.OperationType.INSERT_CODE;
+import static com.streamsets.pipeline.lib.operation.OperationType.UPDATE_CODE;
 
 public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
   private static final Logger LOG = LoggerFactory.getLogger(JdbcGenericRecordWriter.class);
   private final boolean caseSensitive;
+  private final boolean groupOperations;
+  private final Map<OperationKey, String> groupQueries = new HashMap<>();
 
   private static final HashFunction columnHashFunction = Hashing.goodFastHash(64);
   private static final Funnel<Map<String, String>> stringMapFunnel = (map, into) -> {
@@ -83,6 +90,53 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
       JdbcRecordReader recordReader,
       boolean caseSensitive,
       List<String> customDataSqlStateCodes
+  ) throws StageException {
+    this(
+        connectionString,
+        dataSource,
+        schema,
+        tableName,
+        rollbackOnError,
+        customMappings,
+        defaultOpCode,
+        unsupportedAction,
+        generatedColumnMappings,
+        recordReader,
+        caseSensitive,
+        customDataSqlStateCodes,
+        false
+    );
+  }
+
+  /**
+   * Class constructor
+   * @param connectionString database connection string
+   * @param dataSource a JDBC {@link javax.sql.DataSource} to get a connection from
+   * @param tableName the name of the table to write to
+   * @param rollbackOnError whether to attempt rollback of failed queries
+   * @param customMappings any custom mappings the user provided
+   * @param defaultOpCode default operation code
+   * @param unsupportedAction What action to take if operation is invalid
+   * @param generatedColumnMappings mappings from field names to generated column names
+   * @param recordReader JDBCRecordReader to obtain data from incoming record
+   * @param groupOperations whether to group the records of a batch by operation and columns, see
+   * {@link #groupRecords(Iterator, List)}
+   * @throws StageException
+   */
+  public JdbcGenericRecordWriter(
+      String connectionString,
+      DataSource dataSource,
+      String schema,
+      String tableName,
+      boolean rollbackOnError,
+      List<JdbcFieldColumnParamMapping> customMappings,
+      int defaultOpCode,
+      UnsupportedOperationAction unsupportedAction,
+      List<JdbcFieldColumnMapping> generatedColumnMappings,
+      JdbcRecordReader recordReader,
+      boolean caseSensitive,
+      List<String> customDataSqlStateCodes,
+      boolean groupOperations
   ) throws StageException {
     super(
         connectionString,
@@ -99,6 +153,7 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
         customDataSqlStateCodes
     );
     this.caseSensitive = caseSensitive;
+    this.groupOperations = groupOperations;
   }
 
   @Override
@@ -108,6 +163,9 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
 
   @Override
   public List<OnRecordErrorException> writeBatch(Iterator<Record> recordIterator) throws StageException {
+    if (groupOperations) {
+      return writeGrouped(recordIterator);
+    }
     return write(recordIterator, false);
   }
 
@@ -257,6 +315,183 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
     queue.clear();
   }
 
+  private List<OnRecordErrorException> writeGrouped(Iterator<Record> recordIterator) throws StageException {
+    List<OnRecordErrorException> errorRecords = new LinkedList<>();
+    List<OperationGroup> groups = groupRecords(recordIterator, errorRecords);
+    if (groups.isEmpty()) {
+      return errorRecords;
+    }
+
+    try (Connection connection = getDataSource().getConnection()) {
+      // Groups with the same operation and columns share the statement
+      Map<OperationKey, PreparedStatement> statements = new HashMap<>();
+      try {
+        for (OperationGroup group : groups) {
+          processGroup(group, statements, errorRecords, connection);
+        }
+      } finally {
+        statements.values().forEach(jdbcUtil::closeQuietly);
+      }
+    } catch (SQLException e) {
+      handleSqlException(e);
+    }
+
+    return errorRecords;
+  }
+
+  /**
+   * <p>
+   *   Splits the records in groups of records with the same operation and columns, so that each group can be executed
+   *   as a single JDBC batch.
+   * </p>
+   * <p>
+   *   Groups are executed in the returned order. A record is added to the last group of its operation and columns
+   *   unless an earlier record with the same primary key is in a later group, in that case a new group is started. This
+   *   keeps the order of the operations on each primary key, for updates both the old and the new primary key are
+   *   taken into account.
+   * </p>
+   * @param recordIterator records to group
+   * @param errorRecords List of error records for this batch
+   * @return groups in execution order
+   */
+  @VisibleForTesting
+  List<OperationGroup> groupRecords(Iterator<Record> recordIterator, List<OnRecordErrorException> errorRecords) {
+    List<OperationGroup> groups = new ArrayList<>();
+    Map<OperationKey, Integer> lastGroupByOperation = new HashMap<>();
+    Map<List<String>, Integer> lastGroupByPrimaryKey = new HashMap<>();
+
+    while (recordIterator.hasNext()) {
+      Record record = recordIterator.next();
+      int opCode = getOperationCode(record, errorRecords);
+      if (opCode <= 0) {
+        continue;
+      }
+
+      SortedMap<String, String> columnsToParameters = recordReader.getColumnsToParameters(
+          record,
+          opCode,
+          getColumnsToParameters(),
+          opCode == UPDATE_CODE ? getColumnsToFieldNoPK() : getColumnsToFields()
+      );
+      if (columnsToParameters.isEmpty()) {
+        // no parameters found for configured columns
+        if (LOG.isWarnEnabled()) {
+          LOG.warn("No parameters found for record with ID {}; skipping", record.getHeader().getSourceId());
+        }
+        continue;
+      }
+
+      List<List<String>> primaryKeys = new ArrayList<>(2);
+      primaryKeys.add(getPrimaryKeyValues(record, opCode));
+      if (opCode == UPDATE_CODE) {
+        primaryKeys.add(getPrimaryKeyValues(record, INSERT_CODE));
+      }
+
+      int minGroup = -1;
+      for (List<String> primaryKey : primaryKeys) {
+        if (primaryKey != null) {
+          minGroup = Math.max(minGroup, lastGroupByPrimaryKey.getOrDefault(primaryKey, -1));
+        }
+      }
+
+      OperationKey operation = new OperationKey(opCode, columnsToParameters);
+      Integer group = lastGroupByOperation.get(operation);
+      if (group == null || group < minGroup) {
+        group = groups.size();
+        groups.add(new OperationGroup(operation));
+        lastGroupByOperation.put(operation, group);
+      }
+      groups.get(group).records.add(record);
+
+      for (List<String> primaryKey : primaryKeys) {
+        if (primaryKey != null) {
+          lastGroupByPrimaryKey.put(primaryKey, group);
+        }
+      }
+    }
+    return groups;
+  }
+
+  /**
+   * Returns the string representation of the primary key values of the record for the given operation, or
+   * <code>null</code> if the table has no primary key or the record has none of its fields.
+   */
+  private List<String> getPrimaryKeyValues(Record record, int opCode) {
+    List<String> values = new ArrayList<>(getPrimaryKeyColumns().size());
+    boolean found = false;
+    for (String key : getPrimaryKeyColumns()) {
+      String fieldPath = recordReader.getFieldPath(key, getColumnsToFields(), opCode);
+      Field field = (fieldPath == null) ? null : record.get(fieldPath);
+      found |= field != null;
+      values.add((field == null) ? null : String.valueOf(field.getValue()));
+    }
+    return found ? values : null;
+  }
+
+  private void processGroup(
+      OperationGroup group,
+      Map<OperationKey, PreparedStatement> statements,
+      List<OnRecordErrorException> errorRecords,
+      Connection connection
+  ) throws StageException, SQLException {
+    OperationKey operation = group.operation;
+    PreparedStatement statement = statements.get(operation);
+    if (statement == null) {
+      String query = groupQueries.get(operation);
+      if (query == null) {
+        try {
+          query = generateQuery(operation.opCode, operation.columnsToParameters);
+        } catch (OnRecordErrorException ex) {
+          for (Record record : group.records) {
+            errorRecords.add(new OnRecordErrorException(record, ex.getErrorCode(), ex.getParams()));
+          }
+          return;
+        }
+        groupQueries.put(operation, query);
+      }
+      statement = jdbcUtil.getPreparedStatement(getGeneratedColumnMappings(), query, connection);
+      statements.put(operation, statement);
+    }
+
+    List<Record> batchedRecords = new ArrayList<>(group.records.size());
+    for (Record record : group.records) {
+      try {
+        setParameters(operation.opCode, operation.columnsToParameters, record, connection, statement);
+        statement.addBatch();
+        batchedRecords.add(record);
+      } catch (SQLException ex) { // These don't trigger a rollback
+        errorRecords.add(new OnRecordErrorException(
+            record,
+            JDBC_14,
+            ex.getSQLState(),
+            ex.getErrorCode(),
+            ex.getMessage(),
+            jdbcUtil.formatSqlException(ex),
+            ex
+        ));
+      } catch (OnRecordErrorException ex) {
+        errorRecords.add(ex);
+      }
+    }
+
+    if (!batchedRecords.isEmpty()) {
+      try {
+        statement.executeBatch();
+        if (getGeneratedColumnMappings() != null) {
+          writeGeneratedColumns(statement, batchedRecords.iterator(), errorRecords);
+        }
+      } catch (SQLException e) {
+        if (getRollbackOnError()) {
+          connection.rollback();
+        }
+        statement.clearBatch();
+        handleBatchUpdateException(batchedRecords, e, errorRecords);
+      }
+    }
+
+    connection.commit();
+  }
+
   /**
    * Set parameters and primary keys in query.
    * @param opCode
@@ -365,4 +600,45 @@ public class JdbcGenericRecordWriter extends JdbcBaseRecordWriter {
     LOG.debug("Generated query:" + query);
     return query;
   }
+
+  /**
+   * Operation and columns of a record, records with the same key are executed with the same statement.
+   */
+  @VisibleForTesting
+  static final class OperationKey {
+    final int opCode;
+    final SortedMap<String, String> columnsToParameters;
+
+    OperationKey(int opCode, SortedMap<String, String> columnsToParameters) {
+      this.opCode = opCode;
+      this.columnsToParameters = columnsToParameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      OperationKey that = (OperationKey) o;
+      return opCode == that.opCode && columnsToParameters.equals(that.columnsToParameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(opCode, columnsToParameters);
+    }
+  }
+
+  @VisibleForTesting
+  static final class OperationGroup {
+    final OperationKey operation;
+    final List<Record> records = new ArrayList<>();
+
+    OperationGroup(OperationKey operation) {
+      this.operation = operation;
+    }
+  }
 }
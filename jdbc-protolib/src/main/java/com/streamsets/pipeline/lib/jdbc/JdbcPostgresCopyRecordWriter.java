@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.google.common.base.Joiner;
+import com.google.common.io.BaseEncoding;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.lib.operation.OperationType;
+import com.streamsets.pipeline.lib.operation.UnsupportedOperationAction;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+
+/**
+ * JDBC RecordWriter that loads INSERT records into PostgreSQL with <code>COPY ... FROM STDIN</code> in CSV format.
+ * Records are converted and streamed to the server as the COPY runs, the batch is never materialized as a file.
+ * <p/>
+ * Consecutive INSERT records with the same columns are copied together. Any other record (other operations, custom
+ * column parameters, list or map values) is written with statements by {@link JdbcGenericRecordWriter}, so the order
+ * of the operations is kept. COPY is all or nothing: if it fails, the records are written again with statements so
+ * that only the offending records are sent to error.
+ */
+public class JdbcPostgresCopyRecordWriter extends JdbcGenericRecordWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(JdbcPostgresCopyRecordWriter.class);
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+  private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSXXX");
+
+  private final boolean caseSensitive;
+  private final List<OnRecordErrorException> ignoredErrors = new ArrayList<>();
+
+  /**
+   * Class constructor
+   * @param connectionString database connection string
+   * @param dataSource a JDBC {@link javax.sql.DataSource} to get a connection from
+   * @param tableName the name of the table to write to
+   * @param rollbackOnError whether to attempt rollback of failed queries
+   * @param customMappings any custom mappings the user provided
+   * @param defaultOpCode default operation code
+   * @param unsupportedAction What action to take if operation is invalid
+   * @param recordReader JDBCRecordReader to obtain data from incoming record
+   * @param groupOperations whether to group the records written with statements by operation and columns
+   * @throws StageException
+   */
+  public JdbcPostgresCopyRecordWriter(
+      String connectionString,
+      DataSource dataSource,
+      String schema,
+      String tableName,
+      boolean rollbackOnError,
+      List<JdbcFieldColumnParamMapping> customMappings,
+      int defaultOpCode,
+      UnsupportedOperationAction unsupportedAction,
+      JdbcRecordReader recordReader,
+      boolean caseSensitive,
+      List<String> customDataSqlStateCodes,
+      boolean groupOperations
+  ) throws StageException {
+    super(
+        connectionString,
+        dataSource,
+        schema,
+        tableName,
+        rollbackOnError,
+        customMappings,
+        defaultOpCode,
+        unsupportedAction,
+        null,
+        recordReader,
+        caseSensitive,
+        customDataSqlStateCodes,
+        groupOperations
+    );
+    this.caseSensitive = caseSensitive;
+  }
+
+  @Override
+  public List<OnRecordErrorException> writeBatch(Iterator<Record> recordIterator) throws StageException {
+    List<OnRecordErrorException> errorRecords = new LinkedList<>();
+    List<Record> records = new ArrayList<>();
+    // columns of the records in the list, null if they must be written with statements
+    SortedMap<String, String> columns = null;
+
+    while (recordIterator.hasNext()) {
+      Record record = recordIterator.next();
+      SortedMap<String, String> copyColumns = getCopyColumns(record);
+      if (!records.isEmpty() && !Objects.equals(copyColumns, columns)) {
+        writeRecords(records, columns, errorRecords);
+        records = new ArrayList<>();
+      }
+      records.add(record);
+      columns = copyColumns;
+    }
+    if (!records.isEmpty()) {
+      writeRecords(records, columns, errorRecords);
+    }
+    return errorRecords;
+  }
+
+  private void writeRecords(
+      List<Record> records,
+      SortedMap<String, String> columns,
+      List<OnRecordErrorException> errorRecords
+  ) throws StageException {
+    if (columns != null) {
+      try (Connection connection = getDataSource().getConnection()) {
+        try {
+          long rows = copy(connection, records, columns);
+          connection.commit();
+          LOG.debug("Copied {} rows into {}", rows, getTableName());
+          return;
+        } catch (SQLException | IOException e) {
+          LOG.warn(
+              "COPY into {} failed, writing its {} records with statements: {}",
+              getTableName(),
+              records.size(),
+              e.toString()
+          );
+          connection.rollback();
+        }
+      } catch (SQLException e) {
+        handleSqlException(e);
+      }
+    }
+    errorRecords.addAll(super.writeBatch(records.iterator()));
+  }
+
+  private long copy(
+      Connection connection,
+      Collection<Record> records,
+      SortedMap<String, String> columns
+  ) throws SQLException, IOException {
+    String sql = getCopyQuery(columns);
+    LOG.debug("Executing query: {}", sql);
+    CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    try {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(
+          new PGCopyOutputStream(copyIn, COPY_BUFFER_SIZE),
+          StandardCharsets.UTF_8
+      ));
+      CSVPrinter printer = new CSVPrinter(writer, CSVFormat.POSTGRESQL_CSV);
+      for (Record record : records) {
+        for (String column : columns.keySet()) {
+          printer.print(toCopyValue(record.get(getColumnsToFields().get(column))));
+        }
+        printer.println();
+      }
+      printer.flush();
+      return copyIn.endCopy();
+    } finally {
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+    }
+  }
+
+  private String getCopyQuery(SortedMap<String, String> columns) {
+    String columnList = caseSensitive
+        ? "\"" + Joiner.on("\", \"").join(columns.keySet()) + "\""
+        : Joiner.on(", ").join(columns.keySet());
+    return "COPY " + getTableName() + " (" + columnList + ") FROM STDIN WITH (FORMAT csv)";
+  }
+
+  /**
+   * Returns the columns of the record if it can be copied, <code>null</code> if it must be written with statements.
+   */
+  private SortedMap<String, String> getCopyColumns(Record record) {
+    // the operation errors are reported when the record is written with statements
+    ignoredErrors.clear();
+    if (getOperationCode(record, ignoredErrors) != OperationType.INSERT_CODE) {
+      return null;
+    }
+    SortedMap<String, String> columns = recordReader.getColumnsToParameters(
+        record,
+        OperationType.INSERT_CODE,
+        getColumnsToParameters(),
+        getColumnsToFields()
+    );
+    if (columns.isEmpty()) {
+      return null;
+    }
+    for (String column : columns.keySet()) {
+      // custom parameters (i.e. functions applied to the value) can't be copied
+      if (!"?".equals(columns.get(column)) || !isCopyable(record.get(getColumnsToFields().get(column)))) {
+        return null;
+      }
+    }
+    return columns;
+  }
+
+  private static boolean isCopyable(Field field) {
+    switch (field.getType()) {
+      case LIST:
+      case MAP:
+      case LIST_MAP:
+      case FILE_REF:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Converts a field value to the PostgreSQL text representation used by COPY. Dates and times are formatted in the
+   * JVM time zone, as the JDBC driver does for statement parameters.
+   */
+  static Object toCopyValue(Field field) {
+    if (field == null || field.getValue() == null) {
+      return null;
+    }
+    switch (field.getType()) {
+      case DATE:
+        return toZonedDateTime(field.getValueAsDate()).format(DATE_FORMATTER);
+      case TIME:
+        return toZonedDateTime(field.getValueAsTime()).format(TIME_FORMATTER);
+      case DATETIME:
+        return toZonedDateTime(field.getValueAsDatetime()).format(DATETIME_FORMATTER);
+      case ZONED_DATETIME:
+        return field.getValueAsZonedDateTime().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+      case DECIMAL:
+        return ((BigDecimal) field.getValue()).toPlainString();
+      case BYTE_ARRAY:
+        return "\\x" + BaseEncoding.base16().lowerCase().encode(field.getValueAsByteArray());
+      default:
+        return field.getValue();
+    }
+  }
+
+  private static ZonedDateTime toZonedDateTime(java.util.Date date) {
+    return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault());
+  }
+}
@@ -42,7 +42,9 @@ public final class JdbcRecordReaderWriterFactory {
       DuplicateKeyAction duplicateKeyAction,
       JdbcRecordReader recordReader,
       boolean caseSensitive,
-      List<String> customDataSqlStateCodes
+      List<String> customDataSqlStateCodes,
+      boolean groupOperations,
+      boolean usePostgresCopy
   ) throws StageException {
     if (defaultOpCode == OperationType.LOAD_CODE) {
       return new JdbcLoadRecordWriter(
@@ -56,6 +58,21 @@ public final class JdbcRecordReaderWriterFactory {
           caseSensitive,
           customDataSqlStateCodes
       );
+    } else if (usePostgresCopy && !useMultiRowOp) {
+      return new JdbcPostgresCopyRecordWriter(
+          connectionString,
+          dataSource,
+          schema,
+          tableName,
+          rollbackOnError,
+          customMappings,
+          defaultOpCode,
+          unsupportedAction,
+          recordReader,
+          caseSensitive,
+          customDataSqlStateCodes,
+          groupOperations
+      );
     } else {
       return createJdbcRecordWriter(
           connectionString,
@@ -71,7 +88,8 @@ public final class JdbcRecordReaderWriterFactory {
           unsupportedAction,
           recordReader,
           caseSensitive,
-          customDataSqlStateCodes
+          customDataSqlStateCodes,
+          groupOperations
       );
     }
   }
@@ -93,6 +111,42 @@ public final class JdbcRecordReaderWriterFactory {
        boolean caseSensitive,
        List<String> customDataSqlStateCodes
   ) throws StageException {
+    return createJdbcRecordWriter(
+        connectionString,
+        dataSource,
+        schema,
+        tableName,
+        customMappings,
+        generatedColumnMappings,
+        rollbackOnError,
+        useMultiRowOp,
+        maxPrepStmtParameters,
+        defaultOpCode,
+        unsupportedAction,
+        recordReader,
+        caseSensitive,
+        customDataSqlStateCodes,
+        false
+    );
+  }
+
+  private static JdbcRecordWriter createJdbcRecordWriter(
+       String connectionString,
+       HikariDataSource dataSource,
+       String schema,
+       String tableName,
+       List<JdbcFieldColumnParamMapping> customMappings,
+       List<JdbcFieldColumnMapping> generatedColumnMappings,
+       boolean rollbackOnError,
+       boolean useMultiRowOp,
+       int maxPrepStmtParameters,
+       int defaultOpCode,
+       UnsupportedOperationAction unsupportedAction,
+       JdbcRecordReader recordReader,
+       boolean caseSensitive,
+       List<String> customDataSqlStateCodes,
+       boolean groupOperations
+  ) throws StageException {
 
     JdbcRecordWriter recordWriter;
 
@@ -125,7 +179,8 @@ public final class JdbcRecordReaderWriterFactory {
           generatedColumnMappings,
           recordReader,
           caseSensitive,
-          customDataSqlStateCodes
+          customDataSqlStateCodes,
+          groupOperations
       );
     }
     return recordWriter;
@@ -519,6 +519,18 @@ public class JdbcUtil {
     header.setAttribute(jdbcNameSpacePrefix + "tables", Joiner.on(",").join(tableNames));
   }
 
+  public void setColumnSpecificHeaders(
+      Record record,
+      Set<String> knownTableNames,
+      ResultSetColumnPlan columnPlan,
+      String jdbcNameSpacePrefix
+  ) throws SQLException {
+    Record.Header header = record.getHeader();
+    for (String[] attribute : columnPlan.getHeaderAttributes(jdbcNameSpacePrefix, knownTableNames)) {
+      header.setAttribute(attribute[0], attribute[1]);
+    }
+  }
+
   private String getClobString(Clob data, int maxClobSize) throws IOException, SQLException {
     if (data == null) {
       return null;
@@ -602,6 +614,40 @@ public class JdbcUtil {
       UnknownTypeAction unknownTypeAction,
       boolean timestampToString,
       DatabaseVendor vendor
+  ) throws SQLException, IOException, StageException {
+    return resultToField(
+        md,
+        rs,
+        columnIndex,
+        (userSpecifiedType != DataType.USE_COLUMN_TYPE) ? Types.NULL : md.getColumnType(columnIndex),
+        null,
+        null,
+        maxClobSize,
+        maxBlobSize,
+        userSpecifiedType,
+        unknownTypeAction,
+        timestampToString,
+        vendor
+    );
+  }
+
+  /**
+   * Converts a column, the column type and the decimal scale and precision are given by the caller. Scale and
+   * precision are read from the metadata if <code>null</code>.
+   */
+  private Field resultToField(
+      ResultSetMetaData md,
+      ResultSet rs,
+      int columnIndex,
+      int columnType,
+      String scale,
+      String precision,
+      int maxClobSize,
+      int maxBlobSize,
+      DataType userSpecifiedType,
+      UnknownTypeAction unknownTypeAction,
+      boolean timestampToString,
+      DatabaseVendor vendor
   ) throws SQLException, IOException, StageException {
       Field field;
       if (userSpecifiedType != DataType.USE_COLUMN_TYPE) {
@@ -610,7 +656,7 @@ public class JdbcUtil {
       } else {
         // Firstly resolve some vendor specific types - we are careful in case that someone will be clashing
         if(vendor == DatabaseVendor.ORACLE) {
-          switch (md.getColumnType(columnIndex)) {
+          switch (columnType) {
             case 100: // BINARY_FLOAT
               float floatValue = rs.getFloat(columnIndex);
               return Field.create(Field.Type.FLOAT, rs.wasNull() ? null : floatValue);
@@ -640,7 +686,7 @@ public class JdbcUtil {
         // https://docs.oracle.com/javase/8/docs/api/constant-values.html#java.sql.Types.ARRAY
         // Good source of recommended mappings is here:
         // http://www.cs.mun.ca/java-api-1.5/guide/jdbc/getstart/mapping.html
-        switch (md.getColumnType(columnIndex)) {
+        switch (columnType) {
           case Types.BIGINT:
             field = Field.create(Field.Type.LONG, rs.getObject(columnIndex));
             break;
@@ -674,8 +720,14 @@ public class JdbcUtil {
           case Types.DECIMAL:
           case Types.NUMERIC:
             field = Field.create(Field.Type.DECIMAL, rs.getBigDecimal(columnIndex));
-            field.setAttribute(HeaderAttributeConstants.ATTR_SCALE, String.valueOf(rs.getMetaData().getScale(columnIndex)));
-            field.setAttribute(HeaderAttributeConstants.ATTR_PRECISION, String.valueOf(rs.getMetaData().getPrecision(columnIndex)));
+            field.setAttribute(
+                HeaderAttributeConstants.ATTR_SCALE,
+                (scale != null) ? scale : String.valueOf(md.getScale(columnIndex))
+            );
+            field.setAttribute(
+                HeaderAttributeConstants.ATTR_PRECISION,
+                (precision != null) ? precision : String.valueOf(md.getPrecision(columnIndex))
+            );
             break;
           case Types.DOUBLE:
             field = Field.create(Field.Type.DOUBLE, rs.getObject(columnIndex));
@@ -733,7 +785,7 @@ public class JdbcUtil {
             }
             switch (unknownTypeAction) {
               case STOP_PIPELINE:
-                throw new StageException(JdbcErrors.JDBC_37, md.getColumnType(columnIndex), md.getColumnLabel(columnIndex));
+                throw new StageException(JdbcErrors.JDBC_37, columnType, md.getColumnLabel(columnIndex));
               case CONVERT_TO_STRING:
                 Object value = rs.getObject(columnIndex);
                 if(value != null) {
@@ -831,28 +883,77 @@ public class JdbcUtil {
       boolean timestampToString,
       DatabaseVendor vendor
   ) throws SQLException, StageException {
-    ResultSetMetaData md = rs.getMetaData();
-    LinkedHashMap<String, Field> fields = new LinkedHashMap<>(md.getColumnCount());
+    return resultSetToFields(
+        rs,
+        ResultSetColumnPlan.create(rs.getMetaData(), columnsToTypes, recordHeader),
+        maxClobSize,
+        maxBlobSize,
+        errorRecordHandler,
+        unknownTypeAction,
+        timestampToString,
+        vendor
+    );
+  }
+
+  public LinkedHashMap<String, Field> resultSetToFields(
+      ResultSet rs,
+      ResultSetColumnPlan columnPlan,
+      CommonSourceConfigBean commonSourceBean,
+      ErrorRecordHandler errorRecordHandler,
+      UnknownTypeAction unknownTypeAction,
+      DatabaseVendor vendor
+  ) throws SQLException, StageException {
+    return resultSetToFields(
+        rs,
+        columnPlan,
+        commonSourceBean.maxClobSize,
+        commonSourceBean.maxBlobSize,
+        errorRecordHandler,
+        unknownTypeAction,
+        commonSourceBean.convertTimestampToString,
+        vendor
+    );
+  }
+
+  /**
+   * Converts the current row of a <code>ResultSet</code> using a column plan created for it, the column metadata is
+   * not read again for every row.
+   */
+  public LinkedHashMap<String, Field> resultSetToFields(
+      ResultSet rs,
+      ResultSetColumnPlan columnPlan,
+      int maxClobSize,
+      int maxBlobSize,
+      ErrorRecordHandler errorRecordHandler,
+      UnknownTypeAction unknownTypeAction,
+      boolean timestampToString,
+      DatabaseVendor vendor
+  ) throws SQLException, StageException {
+    int columnCount = columnPlan.getColumnCount();
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>(columnCount);
 
-    for (int i = 1; i <= md.getColumnCount(); i++) {
+    for (int i = 1; i <= columnCount; i++) {
       try {
-        if (recordHeader == null || !recordHeader.contains(md.getColumnName(i))) {
-          DataType dataType = columnsToTypes.get(md.getColumnName(i));
+        if (!columnPlan.isExcluded(i)) {
+          DataType dataType = columnPlan.getDataType(i);
           Field field = resultToField(
-              md,
+              columnPlan.getMetaData(),
               rs,
               i,
+              columnPlan.getType(i),
+              columnPlan.getScale(i),
+              columnPlan.getPrecision(i),
               maxClobSize,
               maxBlobSize,
-              dataType == null ? DataType.USE_COLUMN_TYPE : dataType,
+              dataType,
               unknownTypeAction,
               timestampToString,
               vendor
           );
-          fields.put(md.getColumnLabel(i), field);
+          fields.put(columnPlan.getLabel(i), field);
         }
       } catch (IOException|SQLException e) {
-        errorRecordHandler.onError(JdbcErrors.JDBC_03, md.getColumnName(i), md.getColumnType(i), rs.getObject(i), e);
+        errorRecordHandler.onError(JdbcErrors.JDBC_03, columnPlan.getName(i), columnPlan.getType(i), rs.getObject(i), e);
       }
     }
 
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.google.common.base.Joiner;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column metadata of a <code>ResultSet</code>, read once and reused to convert every row of it.
+ * <p/>
+ * Converting a row with {@link JdbcUtil#resultSetToFields(java.sql.ResultSet, ResultSetColumnPlan, int, int,
+ * com.streamsets.pipeline.stage.common.ErrorRecordHandler, UnknownTypeAction, boolean,
+ * com.streamsets.pipeline.lib.jdbc.multithread.DatabaseVendor)} does not call the <code>ResultSetMetaData</code>,
+ * the column names, labels, types, user specified types and decimal scale and precision are taken from the plan.
+ * <p/>
+ * A plan is only valid for the <code>ResultSet</code> whose metadata it was created from. Not thread safe.
+ */
+public final class ResultSetColumnPlan {
+  private final ResultSetMetaData metaData;
+  private final int columnCount;
+  private final String[] names;
+  private final String[] labels;
+  private final int[] types;
+  private final DataType[] dataTypes;
+  private final boolean[] excluded;
+  private final String[] scales;
+  private final String[] precisions;
+
+  private String headerPrefix;
+  private Set<String> headerKnownTableNames;
+  private List<String[]> headerAttributes;
+
+  private ResultSetColumnPlan(
+      ResultSetMetaData metaData,
+      Map<String, DataType> columnsToTypes,
+      Set<String> excludedColumns
+  ) throws SQLException {
+    this.metaData = metaData;
+    columnCount = metaData.getColumnCount();
+    names = new String[columnCount + 1];
+    labels = new String[columnCount + 1];
+    types = new int[columnCount + 1];
+    dataTypes = new DataType[columnCount + 1];
+    excluded = new boolean[columnCount + 1];
+    scales = new String[columnCount + 1];
+    precisions = new String[columnCount + 1];
+    for (int i = 1; i <= columnCount; i++) {
+      names[i] = metaData.getColumnName(i);
+      labels[i] = metaData.getColumnLabel(i);
+      types[i] = metaData.getColumnType(i);
+      DataType dataType = columnsToTypes.get(names[i]);
+      dataTypes[i] = (dataType == null) ? DataType.USE_COLUMN_TYPE : dataType;
+      excluded[i] = excludedColumns != null && excludedColumns.contains(names[i]);
+      if (types[i] == Types.DECIMAL || types[i] == Types.NUMERIC) {
+        scales[i] = String.valueOf(metaData.getScale(i));
+        precisions[i] = String.valueOf(metaData.getPrecision(i));
+      }
+    }
+  }
+
+  /**
+   * Creates the column plan of a <code>ResultSet</code>.
+   *
+   * @param metaData metadata of the <code>ResultSet</code>.
+   * @param columnsToTypes user specified types by column name, they override the column types.
+   * @param excludedColumns names of the columns that are not converted to fields, it may be <code>null</code>.
+   */
+  public static ResultSetColumnPlan create(
+      ResultSetMetaData metaData,
+      Map<String, DataType> columnsToTypes,
+      Set<String> excludedColumns
+  ) throws SQLException {
+    return new ResultSetColumnPlan(metaData, columnsToTypes, excludedColumns);
+  }
+
+  public static ResultSetColumnPlan create(ResultSetMetaData metaData) throws SQLException {
+    return create(metaData, Collections.emptyMap(), null);
+  }
+
+  public ResultSetMetaData getMetaData() {
+    return metaData;
+  }
+
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  String getName(int column) {
+    return names[column];
+  }
+
+  String getLabel(int column) {
+    return labels[column];
+  }
+
+  int getType(int column) {
+    return types[column];
+  }
+
+  DataType getDataType(int column) {
+    return dataTypes[column];
+  }
+
+  boolean isExcluded(int column) {
+    return excluded[column];
+  }
+
+  String getScale(int column) {
+    return scales[column];
+  }
+
+  String getPrecision(int column) {
+    return precisions[column];
+  }
+
+  /**
+   * Returns the column specific header attributes, as name and value pairs, for the given attribute name prefix and
+   * known table names. They are computed once and reused as long as the prefix and the known table names do not
+   * change.
+   */
+  List<String[]> getHeaderAttributes(String prefix, Set<String> knownTableNames) throws SQLException {
+    if (headerAttributes == null || !prefix.equals(headerPrefix) || !knownTableNames.equals(headerKnownTableNames)) {
+      List<String[]> attributes = new ArrayList<>();
+      Set<String> tableNames = new HashSet<>();
+      for (int i = 1; i <= columnCount; i++) {
+        attributes.add(new String[]{prefix + labels[i] + ".jdbcType", String.valueOf(types[i])});
+        if (scales[i] != null) {
+          attributes.add(new String[]{prefix + labels[i] + ".scale", scales[i]});
+          attributes.add(new String[]{prefix + labels[i] + ".precision", precisions[i]});
+        }
+        String tableName = metaData.getTableName(i);
+        if (StringUtils.isNotEmpty(tableName)) {
+          tableNames.add(tableName);
+        }
+      }
+      if (tableNames.isEmpty()) {
+        tableNames.addAll(knownTableNames);
+      }
+      attributes.add(new String[]{prefix + "tables", Joiner.on(",").join(tableNames)});
+      headerAttributes = attributes;
+      headerPrefix = prefix;
+      headerKnownTableNames = knownTableNames;
+    }
+    return headerAttributes;
+  }
+
+}
@@ -28,6 +28,7 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
 import com.streamsets.pipeline.lib.jdbc.MSOperationCode;
+import com.streamsets.pipeline.lib.jdbc.ResultSetColumnPlan;
 import com.streamsets.pipeline.lib.jdbc.multithread.util.MSQueryUtil;
 import com.streamsets.pipeline.lib.jdbc.multithread.util.OffsetQueryUtil;
 import com.streamsets.pipeline.lib.operation.OperationType;
@@ -101,14 +102,14 @@ public class CDCJdbcRunnable extends JdbcBaseRunnable {
       TableRuntimeContext tableRuntimeContext,
       BatchContext batchContext
   ) throws SQLException, StageException {
-    ResultSetMetaData md = rs.getMetaData();
+    ResultSetColumnPlan columnPlan = getColumnPlan(rs, recordHeader);
 
     LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(
         rs,
+        columnPlan,
         commonSourceConfigBean,
         errorRecordHandler,
         tableJdbcConfigBean.unknownTypeAction,
-        recordHeader,
         DatabaseVendor.SQL_SERVER
     );
 
@@ -137,7 +138,7 @@ public class CDCJdbcRunnable extends JdbcBaseRunnable {
     jdbcUtil.setColumnSpecificHeaders(
         record,
         Collections.singleton(tableRuntimeContext.getSourceTableContext().getTableName()),
-        md,
+        columnPlan,
         JDBC_NAMESPACE_HEADER
     );
 
@@ -28,6 +28,7 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
 import com.streamsets.pipeline.lib.jdbc.MSOperationCode;
+import com.streamsets.pipeline.lib.jdbc.ResultSetColumnPlan;
 import com.streamsets.pipeline.lib.jdbc.multithread.util.OffsetQueryUtil;
 import com.streamsets.pipeline.lib.operation.OperationType;
 import com.streamsets.pipeline.stage.origin.jdbc.CommonSourceConfigBean;
@@ -37,7 +38,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashMap;
@@ -99,14 +99,14 @@ public final class CTJdbcRunnable extends JdbcBaseRunnable {
       TableRuntimeContext tableRuntimeContext,
       BatchContext batchContext
   ) throws SQLException, StageException {
-    ResultSetMetaData md = rs.getMetaData();
+    ResultSetColumnPlan columnPlan = getColumnPlan(rs, recordHeader);
 
     LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(
         rs,
+        columnPlan,
         commonSourceConfigBean,
         errorRecordHandler,
         tableJdbcConfigBean.unknownTypeAction,
-        recordHeader,
         DatabaseVendor.SQL_SERVER
     );
 
@@ -134,7 +134,7 @@ public final class CTJdbcRunnable extends JdbcBaseRunnable {
     jdbcUtil.setColumnSpecificHeaders(
         record,
         Collections.singleton(tableRuntimeContext.getSourceTableContext().getTableName()),
-        md,
+        columnPlan,
         JDBC_NAMESPACE_HEADER
     );
 
@@ -28,6 +28,7 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.ToErrorContext;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
+import com.streamsets.pipeline.lib.jdbc.ResultSetColumnPlan;
 import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
 import com.streamsets.pipeline.lib.jdbc.multithread.cache.JdbcTableReadContextInvalidationListener;
 import com.streamsets.pipeline.lib.jdbc.multithread.cache.JdbcTableReadContextLoader;
@@ -45,11 +46,13 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.ZoneId;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -95,6 +98,10 @@ public abstract class JdbcBaseRunnable implements Runnable, JdbcRunnable {
 
   protected final JdbcUtil jdbcUtil;
 
+  // column plan of the last result set records were created from, result sets are read batch by batch
+  private ResultSet columnPlanResultSet;
+  private ResultSetColumnPlan columnPlan;
+
   private enum Status {
     WAITING_FOR_RATE_LIMIT_PERMIT,
     ACQUIRED_RATE_LIMIT_PERMIT,
@@ -534,4 +541,17 @@ public abstract class JdbcBaseRunnable implements Runnable, JdbcRunnable {
     return connectionManager.getVendor();
   }
 
+  /**
+   * Returns the column plan of the given result set, it is created only when the result set changes.
+   *
+   * @param rs result set to convert rows from.
+   * @param excludedColumns columns that are not converted to fields, it may be <code>null</code>.
+   */
+  protected ResultSetColumnPlan getColumnPlan(ResultSet rs, Set<String> excludedColumns) throws SQLException {
+    if (rs != columnPlanResultSet) {
+      columnPlan = ResultSetColumnPlan.create(rs.getMetaData(), Collections.emptyMap(), excludedColumns);
+      columnPlanResultSet = rs;
+    }
+    return columnPlan;
+  }
 }
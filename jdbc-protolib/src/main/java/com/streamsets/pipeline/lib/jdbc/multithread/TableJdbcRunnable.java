@@ -23,6 +23,7 @@ import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
+import com.streamsets.pipeline.lib.jdbc.ResultSetColumnPlan;
 import com.streamsets.pipeline.stage.origin.jdbc.CommonSourceConfigBean;
 import com.streamsets.pipeline.lib.jdbc.multithread.util.OffsetQueryUtil;
 import com.streamsets.pipeline.stage.origin.jdbc.table.TableJdbcConfigBean;
@@ -30,7 +31,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -71,10 +71,11 @@ public final class TableJdbcRunnable extends JdbcBaseRunnable {
       TableRuntimeContext tableRuntimeContext,
       BatchContext batchContext
   ) throws SQLException, StageException {
-    ResultSetMetaData md = rs.getMetaData();
+    ResultSetColumnPlan columnPlan = getColumnPlan(rs, null);
 
     LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(
         rs,
+        columnPlan,
         commonSourceConfigBean,
         errorRecordHandler,
         tableJdbcConfigBean.unknownTypeAction,
@@ -99,14 +100,14 @@ public final class TableJdbcRunnable extends JdbcBaseRunnable {
     jdbcUtil.setColumnSpecificHeaders(
         record,
         Collections.singleton(tableRuntimeContext.getSourceTableContext().getTableName()),
-        md,
+        columnPlan,
         JDBC_NAMESPACE_HEADER
     );
 
     record.getHeader().setAttribute(PARTITION_ATTRIBUTE, tableRuntimeContext.getDescription());
     record.getHeader().setAttribute(THREAD_NUMBER_ATTRIBUTE, String.valueOf(threadNumber));
 
-    int columns = rs.getMetaData().getColumnCount();
+    int columns = columnPlan.getColumnCount();
     if (fields.size() != columns) {
       errorRecordHandler.onError(JdbcErrors.JDBC_35, fields.size(), columns);
       return; // Don't output this record.
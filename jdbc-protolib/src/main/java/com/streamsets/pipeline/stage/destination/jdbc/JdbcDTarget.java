@@ -42,7 +42,7 @@ import java.util.List;
 
 @GenerateResourceBundle
 @StageDef(
-    version = 7,
+    version = 9,
     label = "JDBC Producer",
     description = "Insert, update, and delete data to a JDBC destination.",
     upgrader = JdbcTargetUpgrader.class,
@@ -167,6 +167,35 @@ public class JdbcDTarget extends DTarget {
   )
   public int maxPrepStmtParameters;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Group Operations",
+      description = "Select to group the records of each batch by operation and columns and run each group as a " +
+          "single JDBC batch, keeping the order of the operations on each primary key. Improves performance for " +
+          "change data capture records that mix inserts, updates and deletes.",
+      dependsOn = "useMultiRowInsert",
+      triggeredByValue = "false",
+      displayPosition = 65,
+      group = "JDBC"
+  )
+  public boolean groupOperations;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Use COPY for PostgreSQL",
+      description = "Select to load INSERT records into PostgreSQL with COPY. Other records, and the records of a " +
+          "COPY that fails, are written with statements.",
+      dependsOn = "useMultiRowInsert",
+      triggeredByValue = "false",
+      displayPosition = 66,
+      group = "JDBC"
+  )
+  public boolean usePostgresCopy;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.BOOLEAN,
@@ -205,7 +234,9 @@ public class JdbcDTarget extends DTarget {
         defaultOperation,
         unsupportedAction,
         hikariConfigBean,
-        customDataSqlStateCodes
+        customDataSqlStateCodes,
+        groupOperations,
+        usePostgresCopy
     );
   }
 }
@@ -36,6 +36,7 @@ import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
 import com.streamsets.pipeline.lib.jdbc.SchemaAndTable;
 import com.streamsets.pipeline.lib.jdbc.SchemaTableClassifier;
 import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
+import com.streamsets.pipeline.lib.jdbc.schemawriter.PostgresSchemaWriter;
 import com.streamsets.pipeline.lib.operation.ChangeLogFormat;
 import com.streamsets.pipeline.lib.operation.UnsupportedOperationAction;
 import com.streamsets.pipeline.stage.common.DefaultErrorRecordHandler;
@@ -60,6 +61,8 @@ public class JdbcTarget extends BaseTarget {
   private final boolean rollbackOnError;
   private final boolean useMultiRowOp;
   private final int maxPrepStmtParameters;
+  private final boolean groupOperations;
+  private final boolean usePostgresCopy;
 
   private final String schemaNameTemplate;
   private final String tableNameTemplate;
@@ -100,7 +103,9 @@ public class JdbcTarget extends BaseTarget {
           duplicateKeyAction,
           JdbcRecordReaderWriterFactory.createRecordReader(changeLogFormat),
           caseSensitive,
-          customDataSqlStateCodes
+          customDataSqlStateCodes,
+          groupOperations,
+          usePostgresCopy
       );
     }
   }
@@ -138,6 +143,41 @@ public class JdbcTarget extends BaseTarget {
     );
   }
 
+  public JdbcTarget(
+      final String schemaNameTemplate,
+      final String tableNameTemplate,
+      final List<JdbcFieldColumnParamMapping> customMappings,
+      final boolean caseSensitive,
+      final boolean rollbackOnError,
+      final boolean useMultiRowOp,
+      int maxPrepStmtParameters,
+      final ChangeLogFormat changeLogFormat,
+      final JDBCOperationType defaultOperation,
+      final UnsupportedOperationAction unsupportedAction,
+      final HikariPoolConfigBean hikariConfigBean,
+      final List<String> customDataSqlStateCodes,
+      final boolean groupOperations,
+      final boolean usePostgresCopy
+  ) {
+    this(
+        schemaNameTemplate,
+        tableNameTemplate,
+        customMappings,
+        caseSensitive,
+        rollbackOnError,
+        useMultiRowOp,
+        maxPrepStmtParameters,
+        changeLogFormat,
+        defaultOperation.getCode(),
+        unsupportedAction,
+        null, // no support for duplicate-key errors
+        hikariConfigBean,
+        customDataSqlStateCodes,
+        groupOperations,
+        usePostgresCopy
+    );
+  }
+
   public JdbcTarget(
       final String schemaNameTemplate,
       final String tableNameTemplate,
@@ -152,6 +192,42 @@ public class JdbcTarget extends BaseTarget {
       DuplicateKeyAction duplicateKeyAction,
       HikariPoolConfigBean hikariConfigBean,
       final List<String> customDataSqlStateCodes
+  ) {
+    this(
+        schemaNameTemplate,
+        tableNameTemplate,
+        customMappings,
+        caseSensitive,
+        rollbackOnError,
+        useMultiRowOp,
+        maxPrepStmtParameters,
+        changeLogFormat,
+        defaultOpCode,
+        unsupportedAction,
+        duplicateKeyAction,
+        hikariConfigBean,
+        customDataSqlStateCodes,
+        false,
+        false
+    );
+  }
+
+  public JdbcTarget(
+      final String schemaNameTemplate,
+      final String tableNameTemplate,
+      final List<JdbcFieldColumnParamMapping> customMappings,
+      final boolean caseSensitive,
+      final boolean rollbackOnError,
+      final boolean useMultiRowOp,
+      int maxPrepStmtParameters,
+      final ChangeLogFormat changeLogFormat,
+      final int defaultOpCode,
+      UnsupportedOperationAction unsupportedAction,
+      DuplicateKeyAction duplicateKeyAction,
+      HikariPoolConfigBean hikariConfigBean,
+      final List<String> customDataSqlStateCodes,
+      final boolean groupOperations,
+      final boolean usePostgresCopy
   ) {
     this.jdbcUtil = UtilsProvider.getJdbcUtil();
     this.schemaNameTemplate = schemaNameTemplate;
@@ -161,6 +237,8 @@ public class JdbcTarget extends BaseTarget {
     this.rollbackOnError = rollbackOnError;
     this.useMultiRowOp = useMultiRowOp;
     this.maxPrepStmtParameters = maxPrepStmtParameters;
+    this.groupOperations = groupOperations;
+    this.usePostgresCopy = usePostgresCopy;
     this.changeLogFormat = changeLogFormat;
     this.defaultOpCode = defaultOpCode;
     this.unsupportedAction = unsupportedAction;
@@ -215,6 +293,11 @@ public class JdbcTarget extends BaseTarget {
         issues
     );
 
+    if (usePostgresCopy && !useMultiRowOp &&
+        !hikariConfigBean.getConnectionString().startsWith(PostgresSchemaWriter.getConnectionPrefix())) {
+      issues.add(context.createConfigIssue(Groups.JDBC.name(), "usePostgresCopy", JdbcErrors.JDBC_104));
+    }
+
     if (issues.isEmpty() && null == dataSource) {
       try {
         dataSource = jdbcUtil.createDataSourceForWrite(
@@ -61,6 +61,18 @@ public class JdbcTargetUpgrader extends JdbcBaseUpgrader{
         // fall through
       case 6:
         upgradeV6toV7(configs);
+        if (toVersion == 7) {
+          break;
+        }
+        // fall through
+      case 7:
+        upgradeV7toV8(configs);
+        if (toVersion == 8) {
+          break;
+        }
+        // fall through
+      case 8:
+        upgradeV8toV9(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -150,4 +162,12 @@ public class JdbcTargetUpgrader extends JdbcBaseUpgrader{
       configs.remove(maxPrepStmtCache);
     }
   }
+
+  private void upgradeV7toV8(List<Config> configs) {
+    configs.add(new Config("groupOperations", false));
+  }
+
+  private void upgradeV8toV9(List<Config> configs) {
+    configs.add(new Config("usePostgresCopy", false));
+  }
 }
@@ -36,6 +36,7 @@ import com.streamsets.pipeline.lib.jdbc.HikariPoolConfigBean;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
 import com.streamsets.pipeline.lib.jdbc.MSOperationCode;
+import com.streamsets.pipeline.lib.jdbc.ResultSetColumnPlan;
 import com.streamsets.pipeline.lib.jdbc.UnknownTypeAction;
 import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
 import com.streamsets.pipeline.lib.util.ThreadUtil;
@@ -113,6 +114,8 @@ public class JdbcSource extends BaseSource {
   private HikariDataSource dataSource = null;
   private Connection connection = null;
   private ResultSet resultSet = null;
+  private ResultSet columnPlanResultSet = null;
+  private ResultSetColumnPlan columnPlan = null;
   private long lastQueryCompletedTime = 0L;
   private String preparedQuery;
   private String hashedQuery;
@@ -543,15 +546,19 @@ public class JdbcSource extends BaseSource {
 
   private Record processRow(ResultSet resultSet, long rowCount) throws SQLException, StageException {
     Source.Context context = getContext();
-    ResultSetMetaData md = resultSet.getMetaData();
-    int numColumns = md.getColumnCount();
+    if (resultSet != columnPlanResultSet) {
+      // the column metadata is read once per result set
+      columnPlan = ResultSetColumnPlan.create(resultSet.getMetaData());
+      columnPlanResultSet = resultSet;
+    }
+    int numColumns = columnPlan.getColumnCount();
 
     LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(
         resultSet,
+        columnPlan,
         commonSourceConfigBean,
         errorRecordHandler,
         unknownTypeAction,
-        null,
         hikariConfigBean.getVendor()
     );
 
@@ -578,7 +585,7 @@ public class JdbcSource extends BaseSource {
       record.set(Field.create(row));
     }
     if (createJDBCNsHeaders) {
-      jdbcUtil.setColumnSpecificHeaders(record, Collections.<String>emptySet(), md, jdbcNsHeaderPrefix);
+      jdbcUtil.setColumnSpecificHeaders(record, Collections.<String>emptySet(), columnPlan, jdbcNsHeaderPrefix);
     }
     // We will add cdc operation type to record header even if createJDBCNsHeaders is false
     // we currently support CDC on only MS SQL.
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.jdbclookup;
+
+import com.streamsets.pipeline.api.ConfigDef;
+import com.streamsets.pipeline.lib.el.RecordEL;
+
+public class BatchLookupConfig {
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Batch Lookups",
+      description = "Looks up the keys of all the records of a batch with parameterized IN queries instead of running " +
+          "one query per record. The SQL query must not contain expressions, its results are filtered on the key " +
+          "column.",
+      displayPosition = 60,
+      group = "#0"
+  )
+  public boolean enabled = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.STRING,
+      label = "Key Column",
+      description = "Column matched against the lookup keys. It must be returned by the SQL query.",
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 70,
+      group = "#0"
+  )
+  public String keyColumn;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.STRING,
+      label = "Key Expression",
+      description = "Expression that evaluates to the lookup key of a record",
+      defaultValue = "${record:value('/')}",
+      elDefs = {RecordEL.class},
+      evaluation = ConfigDef.Evaluation.EXPLICIT,
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 80,
+      group = "#0"
+  )
+  public String keyExpression = "${record:value('/')}";
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Keys per Query",
+      description = "Maximum number of keys in the IN list of a single query",
+      defaultValue = "1000",
+      min = 1,
+      max = 10000,
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 90,
+      group = "#0"
+  )
+  public int maxKeysPerQuery = 1000;
+}
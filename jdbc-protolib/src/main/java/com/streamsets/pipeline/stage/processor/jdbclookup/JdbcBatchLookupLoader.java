@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.jdbclookup;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.lib.jdbc.DataType;
+import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
+import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
+import com.streamsets.pipeline.lib.jdbc.ResultSetColumnPlan;
+import com.streamsets.pipeline.lib.jdbc.UnknownTypeAction;
+import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
+import com.streamsets.pipeline.lib.jdbc.multithread.DatabaseVendor;
+import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Loads the lookup values of many keys at once with
+ * <code>SELECT * FROM (&lt;query&gt;) lookup_query WHERE lookup_query.&lt;key column&gt; IN (?, ?, ...)</code>
+ * queries. The query is always used as a derived table so that its clauses (ORDER BY, GROUP BY, UNION...) keep their
+ * meaning.
+ * <p/>
+ * Keys are split in chunks of at most <code>maxKeysPerQuery</code> keys. The last chunk is padded, repeating its last
+ * key, to a power of two so that only a handful of distinct statements are ever sent to the database and drivers can
+ * reuse their prepared statements. Rows are assigned to keys after converting both the key column value and the key
+ * to a value of the JDBC type of the key column, so an <code>INTEGER</code> key matches a <code>BIGINT</code> or
+ * <code>NUMERIC</code> column and a decimal key matches regardless of its scale.
+ */
+public class JdbcBatchLookupLoader extends CacheLoader<Object, Optional<List<Map<String, Field>>>> {
+  private static final Logger LOG = LoggerFactory.getLogger(JdbcBatchLookupLoader.class);
+
+  private final String query;
+  private final String keyColumn;
+  private final int maxKeysPerQuery;
+  private final int maxClobSize;
+  private final int maxBlobSize;
+  private final ErrorRecordHandler errorRecordHandler;
+  private final Map<String, DataType> columnsToTypes;
+  private final DataSource dataSource;
+  private final Meter selectMeter;
+  private final Timer selectTimer;
+  private final JdbcUtil jdbcUtil;
+
+  public JdbcBatchLookupLoader(
+    Stage.Context context,
+    DataSource dataSource,
+    String query,
+    String keyColumn,
+    int maxKeysPerQuery,
+    Map<String, DataType> columnsToTypes,
+    int maxClobSize,
+    int maxBlobSize,
+    ErrorRecordHandler errorRecordHandler
+  ) {
+    this.dataSource = dataSource;
+    this.query = StringUtils.removeEnd(query.trim(), ";");
+    this.keyColumn = keyColumn;
+    this.maxKeysPerQuery = maxKeysPerQuery;
+    this.columnsToTypes = columnsToTypes;
+    this.maxClobSize = maxClobSize;
+    this.maxBlobSize = maxBlobSize;
+    this.errorRecordHandler = errorRecordHandler;
+    this.selectMeter = context.createMeter("Select Queries");
+    this.selectTimer = context.createTimer("Select Queries");
+    this.jdbcUtil = UtilsProvider.getJdbcUtil();
+  }
+
+  @Override
+  public Optional<List<Map<String, Field>>> load(Object key) throws Exception {
+    return loadAll(Collections.singleton(key)).get(key);
+  }
+
+  @Override
+  public Map<Object, Optional<List<Map<String, Field>>>> loadAll(Iterable<?> keys) throws Exception {
+    List<Object> keyList = ImmutableSet.copyOf(keys).asList();
+    Map<Object, List<Map<String, Field>>> rowsByKey = new HashMap<>();
+    int keyType = Types.OTHER;
+
+    try (Connection connection = dataSource.getConnection()) {
+      String sql = null;
+      PreparedStatement statement = null;
+      try {
+        for (List<Object> chunk : Lists.partition(keyList, maxKeysPerQuery)) {
+          int size = getStatementSize(chunk.size());
+          String chunkSql = getSql(size);
+          if (!chunkSql.equals(sql)) {
+            if (statement != null) {
+              statement.close();
+            }
+            sql = chunkSql;
+            LOG.debug("Preparing SQL:  {}", sql);
+            statement = connection.prepareStatement(sql);
+          }
+          for (int i = 0; i < size; i++) {
+            statement.setObject(i + 1, toJdbcValue(chunk.get(Math.min(i, chunk.size() - 1))));
+          }
+          keyType = executeQuery(statement, rowsByKey);
+        }
+      } finally {
+        if (statement != null) {
+          statement.close();
+        }
+      }
+    } catch (SQLException e) {
+      LOG.error(JdbcErrors.JDBC_02.getMessage(), query, e);
+      throw new OnRecordErrorException(JdbcErrors.JDBC_02, query, e.getMessage());
+    }
+
+    Map<Object, Optional<List<Map<String, Field>>>> values = new HashMap<>();
+    for (Object key : keyList) {
+      values.put(key, Optional.ofNullable(rowsByKey.get(toMatchValue(key, keyType))));
+    }
+    return values;
+  }
+
+  /**
+   * Runs the statement, adding the rows to the given map by key column value, and returns the JDBC type of the key
+   * column.
+   */
+  private int executeQuery(
+      PreparedStatement statement,
+      Map<Object, List<Map<String, Field>>> rowsByKey
+  ) throws SQLException, StageException {
+    Timer.Context t = selectTimer.time();
+    try (ResultSet resultSet = statement.executeQuery()) {
+      // Stop timer immediately so that we're calculating only query execution time and not the processing time
+      t.stop();
+      t = null;
+
+      ResultSetColumnPlan columnPlan = ResultSetColumnPlan.create(resultSet.getMetaData(), columnsToTypes, null);
+      int numColumns = columnPlan.getColumnCount();
+      int keyIndex = resultSet.findColumn(keyColumn);
+      int keyType = resultSet.getMetaData().getColumnType(keyIndex);
+      while (resultSet.next()) {
+        Object key = toMatchValue(resultSet.getObject(keyIndex), keyType);
+        LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(resultSet,
+          columnPlan,
+          maxClobSize,
+          maxBlobSize,
+          errorRecordHandler,
+          UnknownTypeAction.STOP_PIPELINE,
+          false,
+          DatabaseVendor.UNKNOWN
+        );
+        if (fields.size() != numColumns) {
+          throw new OnRecordErrorException(JdbcErrors.JDBC_35, fields.size(), numColumns);
+        }
+        rowsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(fields);
+      }
+      return keyType;
+    } finally {
+      // If the timer wasn't stopped due to exception yet, stop it now
+      if (t != null) {
+        t.stop();
+      }
+      selectMeter.mark();
+    }
+  }
+
+  /**
+   * Returns the number of parameters of the statement used to look up the given number of keys.
+   */
+  int getStatementSize(int keys) {
+    return Math.min(maxKeysPerQuery, (keys <= 1) ? 1 : Integer.highestOneBit(keys - 1) << 1);
+  }
+
+  String getSql(int parameters) {
+    StringBuilder sb = new StringBuilder(query.length() + keyColumn.length() + 64 + parameters * 3);
+    sb.append("SELECT * FROM (").append(query).append(") lookup_query WHERE lookup_query.").append(keyColumn);
+    sb.append(" IN (");
+    for (int i = 0; i < parameters; i++) {
+      sb.append(i == 0 ? "?" : ", ?");
+    }
+    return sb.append(")").toString();
+  }
+
+  private static Object toJdbcValue(Object value) {
+    if (value instanceof java.util.Date && !(value instanceof java.sql.Date || value instanceof Timestamp ||
+        value instanceof java.sql.Time)) {
+      return new Timestamp(((java.util.Date) value).getTime());
+    }
+    return value;
+  }
+
+  /**
+   * Converts a key, or a key column value, to a value of the given JDBC type that can be compared with equals: numbers
+   * are compared regardless of their Java type and scale, dates by their time and binary values by their content.
+   * Values that can't be converted are returned as they are and won't match any row.
+   */
+  static Object toMatchValue(Object value, int sqlType) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      switch (sqlType) {
+        case Types.BIT:
+        case Types.BOOLEAN:
+          return (value instanceof Boolean) ? value : Boolean.valueOf(value.toString().trim());
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+          BigDecimal decimal = (value instanceof BigDecimal)
+              ? (BigDecimal) value
+              : new BigDecimal(value.toString().trim());
+          return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+        case Types.DATE:
+        case Types.TIME:
+        case Types.TIMESTAMP:
+          if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).getTime();
+          }
+          return (value instanceof Number) ? ((Number) value).longValue() : value;
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+          return (value instanceof byte[]) ? ByteBuffer.wrap((byte[]) value) : value;
+        case Types.CHAR:
+        case Types.NCHAR:
+          // fixed length columns are padded with spaces
+          return StringUtils.stripEnd(value.toString(), " ");
+        default:
+          return (value instanceof byte[]) ? ByteBuffer.wrap((byte[]) value) : value.toString();
+      }
+    } catch (NumberFormatException ex) {
+      LOG.debug("Key '{}' can't be converted to JDBC type {}", value, sqlType, ex);
+      return value;
+    }
+  }
+}
@@ -37,7 +37,7 @@ import com.streamsets.pipeline.stage.processor.kv.CacheConfig;
 import java.util.List;
 
 @StageDef(
-    version = 3,
+    version = 4,
     label = "JDBC Lookup",
     description = "Lookup values via JDBC to enrich records.",
     icon = "rdbms.png",
@@ -120,6 +120,9 @@ public class JdbcLookupDProcessor extends DProcessor {
   @ConfigDefBean()
   public HikariPoolConfigBean hikariConfigBean;
 
+  @ConfigDefBean(groups = "JDBC")
+  public BatchLookupConfig batchLookupConfig = new BatchLookupConfig();
+
   @ConfigDefBean(groups = "JDBC")
   public CacheConfig cacheConfig = new CacheConfig();
 
@@ -133,7 +136,8 @@ public class JdbcLookupDProcessor extends DProcessor {
       maxClobSize,
       maxBlobSize,
       hikariConfigBean,
-      cacheConfig
+      cacheConfig,
+      batchLookupConfig
     );
   }
 }
@@ -47,7 +47,10 @@ import com.streamsets.pipeline.stage.processor.kv.CacheConfig;
 import com.streamsets.pipeline.stage.processor.kv.LookupUtils;
 import com.zaxxer.hikari.HikariDataSource;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -76,8 +79,10 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
   private static final String CONNECTION_STRING = HIKARI_CONFIG_PREFIX + "connectionString";
   private static final String COLUMN_MAPPINGS = "columnMappings";
   private final CacheConfig cacheConfig;
+  private final BatchLookupConfig batchLookupConfig;
 
   private ELEval queryEval;
+  private ELEval keyEval;
 
   private final String query;
   private final List<JdbcFieldColumnMapping> columnMappings;
@@ -93,6 +98,8 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
   private Map<String, DataType> columnsToTypes = new HashMap<>();
 
   private LoadingCache<String, Optional<List<Map<String, Field>>>> cache;
+  private LoadingCache<Object, Optional<List<Map<String, Field>>>> batchCache;
+  private Map<Object, Optional<List<Map<String, Field>>>> batchValues = Collections.emptyMap();
   private Optional<List<Map<String, Field>>> defaultValue;
   private CacheCleaner cacheCleaner;
   private final MissingValuesBehavior missingValuesBehavior;
@@ -109,7 +116,8 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
       int maxClobSize,
       int maxBlobSize,
       HikariPoolConfigBean hikariConfigBean,
-      CacheConfig cacheConfig
+      CacheConfig cacheConfig,
+      BatchLookupConfig batchLookupConfig
   ) {
     this.query = query;
     this.columnMappings = columnMappings;
@@ -119,6 +127,7 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
     this.maxBlobSize = maxBlobSize;
     this.hikariConfigBean = hikariConfigBean;
     this.cacheConfig = cacheConfig;
+    this.batchLookupConfig = batchLookupConfig;
   }
 
   /** {@inheritDoc} */
@@ -135,6 +144,12 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
     Processor.Context context = getContext();
 
     queryEval = getContext().createELEval("query");
+    if (batchLookupConfig.enabled) {
+      keyEval = getContext().createELEval("keyExpression");
+      if (query.contains("${")) {
+        issues.add(context.createConfigIssue(Groups.JDBC.name(), "query", JdbcErrors.JDBC_412));
+      }
+    }
 
     issues = hikariConfigBean.validateConfigs(context, issues);
 
@@ -156,7 +171,10 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
       this.defaultValue = calculateDefault(context, issues);
     }
 
-    if (issues.isEmpty()) {
+    if (issues.isEmpty() && batchLookupConfig.enabled) {
+      batchCache = buildBatchCache();
+      cacheCleaner = new CacheCleaner(batchCache, "JdbcLookupProcessor", 10 * 60 * 1000);
+    } else if (issues.isEmpty()) {
       cache = buildCache();
       cacheCleaner = new CacheCleaner(cache, "JdbcLookupProcessor", 10 * 60 * 1000);
       if (cacheConfig.enabled) {
@@ -320,22 +338,80 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
       // No records - take the opportunity to clean up the cache so that we don't hold on to memory indefinitely
       cacheCleaner.periodicCleanUp();
     }
-    //Cache warming
-    if (preprocessThreads > 0) {
+    if (batchLookupConfig.enabled) {
+      //Look up the keys of the whole batch at once
+      batchValues = lookupBatch(batch);
+    } else if (preprocessThreads > 0) {
+      //Cache warming
       preprocess(batch);
     }
     //Normal processing per record
-    super.process(batch, batchMaker);
+    try {
+      super.process(batch, batchMaker);
+    } finally {
+      batchValues = Collections.emptyMap();
+    }
+  }
+
+  private Map<Object, Optional<List<Map<String, Field>>>> lookupBatch(Batch batch) throws StageException {
+    Set<Object> keys = new LinkedHashSet<>();
+    Iterator<Record> it = batch.getRecords();
+    while (it.hasNext()) {
+      Record record = it.next();
+      try {
+        Object key = evaluateKey(record);
+        if (key != null) {
+          keys.add(key);
+        }
+      } catch (ELEvalException e) {
+        // the record is sent to error when it is processed
+        LOG.debug(JdbcErrors.JDBC_01.getMessage(), batchLookupConfig.keyExpression, e);
+      }
+    }
+    if (keys.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    try {
+      return batchCache.getAll(keys);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof OnRecordErrorException) {
+        // the keys are looked up again, and their records sent to error, when the records are processed
+        LOG.warn("Batch lookup failed, looking up records one by one: {}", e.getCause().toString());
+        return Collections.emptyMap();
+      }
+      Throwables.propagateIfPossible(e.getCause(), StageException.class);
+      throw new IllegalStateException(e); // The cache loader shouldn't throw anything that isn't a StageException.
+    }
+  }
+
+  private Object evaluateKey(Record record) throws ELEvalException {
+    ELVars elVars = getContext().createELVars();
+    RecordEL.setRecordInContext(elVars, record);
+    return keyEval.eval(elVars, batchLookupConfig.keyExpression, Object.class);
   }
 
   /** {@inheritDoc} */
   @Override
   protected void process(Record record, SingleLaneBatchMaker batchMaker) throws StageException {
     try {
-      ELVars elVars = getContext().createELVars();
-      RecordEL.setRecordInContext(elVars, record);
-      String preparedQuery = queryEval.eval(elVars, query, String.class);
-      Optional<List<Map<String, Field>>> entry = cache.get(preparedQuery);
+      String preparedQuery;
+      Optional<List<Map<String, Field>>> entry;
+      if (batchLookupConfig.enabled) {
+        Object key = evaluateKey(record);
+        preparedQuery = query + " [" + batchLookupConfig.keyColumn + " = " + key + "]";
+        if (key == null) {
+          entry = defaultValue;
+        } else if (batchValues.containsKey(key)) {
+          entry = batchValues.get(key);
+        } else {
+          entry = batchCache.get(key);
+        }
+      } else {
+        ELVars elVars = getContext().createELVars();
+        RecordEL.setRecordInContext(elVars, record);
+        preparedQuery = queryEval.eval(elVars, query, String.class);
+        entry = cache.get(preparedQuery);
+      }
 
       if (!entry.isPresent()) {
         // No results
@@ -387,8 +463,9 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
       }
 
     } catch (ELEvalException e) {
-      LOG.error(JdbcErrors.JDBC_01.getMessage(), query, e);
-      throw new OnRecordErrorException(record, JdbcErrors.JDBC_01, query);
+      String expression = batchLookupConfig.enabled ? batchLookupConfig.keyExpression : query;
+      LOG.error(JdbcErrors.JDBC_01.getMessage(), expression, e);
+      throw new OnRecordErrorException(record, JdbcErrors.JDBC_01, expression);
     } catch (ExecutionException e) {
       Throwables.propagateIfPossible(e.getCause(), StageException.class);
       throw new IllegalStateException(e); // The cache loader shouldn't throw anything that isn't a StageException.
@@ -439,4 +516,20 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
     );
     return LookupUtils.buildCache(loader, cacheConfig, defaultValue);
   }
+
+  @SuppressWarnings("unchecked")
+  private LoadingCache<Object, Optional<List<Map<String, Field>>>> buildBatchCache() {
+    JdbcBatchLookupLoader loader = new JdbcBatchLookupLoader(
+      getContext(),
+      dataSource,
+      query,
+      batchLookupConfig.keyColumn,
+      batchLookupConfig.maxKeysPerQuery,
+      columnsToTypes,
+      maxClobSize,
+      maxBlobSize,
+      errorRecordHandler
+    );
+    return LookupUtils.buildCache(loader, cacheConfig, defaultValue);
+  }
 }
@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 
 public class JdbcLookupProcessorUpgrader implements StageUpgrader {
   private static final String CACHE_CONFIG = "cacheConfig";
+  private static final String BATCH_LOOKUP_CONFIG = "batchLookupConfig";
 
   @Override
   public List<Config> upgrade(
@@ -43,6 +44,12 @@ public class JdbcLookupProcessorUpgrader implements StageUpgrader {
         break;
       case 2:
         upgradeV2ToV3(configs);
+        if (toVersion == 3) {
+          break;
+        }
+        // fall through
+      case 3:
+        upgradeV3ToV4(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -62,4 +69,12 @@ public class JdbcLookupProcessorUpgrader implements StageUpgrader {
   private static void upgradeV2ToV3(List<Config> configs) {
     configs.add(new Config("missingValuesBehavior", MissingValuesBehavior.SEND_TO_ERROR));
   }
+
+  private static void upgradeV3ToV4(List<Config> configs) {
+    Joiner p = Joiner.on(".");
+    configs.add(new Config(p.join(BATCH_LOOKUP_CONFIG, "enabled"), false));
+    configs.add(new Config(p.join(BATCH_LOOKUP_CONFIG, "keyColumn"), ""));
+    configs.add(new Config(p.join(BATCH_LOOKUP_CONFIG, "keyExpression"), "${record:value('/')}"));
+    configs.add(new Config(p.join(BATCH_LOOKUP_CONFIG, "maxKeysPerQuery"), 1000));
+  }
 }
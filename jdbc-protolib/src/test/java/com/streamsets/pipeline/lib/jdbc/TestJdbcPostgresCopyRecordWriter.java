@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.lib.operation.OperationType;
+import com.streamsets.pipeline.lib.operation.UnsupportedOperationAction;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestJdbcPostgresCopyRecordWriter {
+  private static final String connectionString = "jdbc:h2:mem:copytest";
+
+  private HikariDataSource dataSource;
+  private Connection connection;
+
+  @Before
+  public void setUp() throws SQLException {
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(connectionString);
+    config.setUsername("sa");
+    config.setPassword("sa");
+    config.setMaximumPoolSize(2);
+    config.setAutoCommit(false);
+    dataSource = new HikariDataSource(config);
+
+    connection = dataSource.getConnection();
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE SCHEMA IF NOT EXISTS TEST");
+      statement.execute("CREATE TABLE IF NOT EXISTS TEST.TEST_TABLE (P_ID INT NOT NULL, MSG VARCHAR(255), " +
+          "PRIMARY KEY(P_ID))");
+    }
+    connection.commit();
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS TEST.TEST_TABLE");
+    }
+    connection.commit();
+    connection.close();
+    dataSource.close();
+  }
+
+  private static Record createRecord(int opCode, int id, String msg) {
+    Record record = RecordCreator.create();
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+    fields.put("P_ID", Field.create(id));
+    if (msg != null) {
+      fields.put("MSG", Field.create(msg));
+    }
+    record.set(Field.createListMap(fields));
+    record.getHeader().setAttribute(OperationType.SDC_OPERATION_TYPE, String.valueOf(opCode));
+    return record;
+  }
+
+  @Test
+  public void testFallbackToStatements() throws Exception {
+    JdbcPostgresCopyRecordWriter writer = new JdbcPostgresCopyRecordWriter(
+        connectionString,
+        dataSource,
+        "TEST",
+        "TEST_TABLE",
+        false,
+        Collections.emptyList(),
+        OperationType.INSERT_CODE,
+        UnsupportedOperationAction.SEND_TO_ERROR,
+        new JdbcRecordReader(),
+        false,
+        Collections.emptyList(),
+        false
+    );
+
+    // H2 does not support COPY, the inserts are written with statements in the original order
+    List<Record> records = ImmutableList.of(
+        createRecord(OperationType.INSERT_CODE, 1, "a"),
+        createRecord(OperationType.INSERT_CODE, 2, "b"),
+        createRecord(OperationType.DELETE_CODE, 1, null),
+        createRecord(OperationType.INSERT_CODE, 1, "c"),
+        createRecord(OperationType.INSERT_CODE, 2, "duplicate")
+    );
+    List<OnRecordErrorException> errors = writer.writeBatch(records.iterator());
+    assertEquals(1, errors.size());
+    assertEquals(records.get(4), errors.get(0).getRecord());
+
+    try (Statement statement = connection.createStatement()) {
+      ResultSet rs = statement.executeQuery("SELECT P_ID, MSG FROM TEST.TEST_TABLE ORDER BY P_ID");
+      assertTrue(rs.next());
+      assertEquals(1, rs.getInt(1));
+      assertEquals("c", rs.getString(2));
+      assertTrue(rs.next());
+      assertEquals(2, rs.getInt(1));
+      assertEquals("b", rs.getString(2));
+      assertFalse(rs.next());
+    }
+  }
+
+  @Test
+  public void testToCopyValue() {
+    assertNull(JdbcPostgresCopyRecordWriter.toCopyValue(null));
+    assertNull(JdbcPostgresCopyRecordWriter.toCopyValue(Field.create(Field.Type.STRING, null)));
+    assertEquals("abc", JdbcPostgresCopyRecordWriter.toCopyValue(Field.create("abc")));
+    assertEquals(10, JdbcPostgresCopyRecordWriter.toCopyValue(Field.create(10)));
+    assertEquals("1000", JdbcPostgresCopyRecordWriter.toCopyValue(Field.create(new BigDecimal("1E+3"))));
+    assertEquals("\\x00ff", JdbcPostgresCopyRecordWriter.toCopyValue(Field.create(new byte[]{0, (byte) 0xff})));
+    assertEquals(
+        "2019-05-01T10:20:30+02:00",
+        JdbcPostgresCopyRecordWriter.toCopyValue(
+            Field.createZonedDateTime(ZonedDateTime.of(2019, 5, 1, 10, 20, 30, 0, ZoneOffset.ofHours(2)))
+        )
+    );
+  }
+}
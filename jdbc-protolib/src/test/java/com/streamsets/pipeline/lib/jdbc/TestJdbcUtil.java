@@ -15,8 +15,11 @@
  */
 package com.streamsets.pipeline.lib.jdbc;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.lib.jdbc.multithread.DatabaseVendor;
+import com.streamsets.pipeline.stage.common.HeaderAttributeConstants;
 import com.streamsets.pipeline.stage.origin.jdbc.table.QuoteChar;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
@@ -34,8 +37,11 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.Assert.assertEquals;
@@ -201,6 +207,50 @@ public class TestJdbcUtil {
     }
   }
 
+  @Test
+  public void testResultSetToFieldsWithColumnPlan() throws Exception {
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute("INSERT INTO " + schema + "." + tableName + " VALUES (1, 'a'), (2, 'b')");
+      ResultSet resultSet = stmt.executeQuery(
+          "SELECT P_ID, MSG, CAST(P_ID AS DECIMAL(5, 2)) AS AMOUNT FROM " + schema + "." + tableName + " ORDER BY P_ID"
+      );
+      ResultSetColumnPlan columnPlan = ResultSetColumnPlan.create(
+          resultSet.getMetaData(),
+          ImmutableMap.of("P_ID", DataType.LONG),
+          ImmutableSet.of("MSG")
+      );
+      assertEquals(3, columnPlan.getColumnCount());
+
+      for (int i = 1; i <= 2; i++) {
+        assertTrue(resultSet.next());
+        Map<String, Field> fields = jdbcUtil.resultSetToFields(
+            resultSet,
+            columnPlan,
+            0,
+            0,
+            null,
+            UnknownTypeAction.STOP_PIPELINE,
+            false,
+            DatabaseVendor.UNKNOWN
+        );
+        assertEquals(Arrays.asList("P_ID", "AMOUNT"), new ArrayList<>(fields.keySet()));
+        assertEquals(Field.Type.LONG, fields.get("P_ID").getType());
+        assertEquals(i, fields.get("P_ID").getValueAsLong());
+        assertEquals(Field.Type.DECIMAL, fields.get("AMOUNT").getType());
+        assertEquals("2", fields.get("AMOUNT").getAttribute(HeaderAttributeConstants.ATTR_SCALE));
+        assertEquals("5", fields.get("AMOUNT").getAttribute(HeaderAttributeConstants.ATTR_PRECISION));
+      }
+      assertEquals(
+          Arrays.asList("jdbc.P_ID.jdbcType", "jdbc.MSG.jdbcType", "jdbc.AMOUNT.jdbcType", "jdbc.AMOUNT.scale",
+              "jdbc.AMOUNT.precision", "jdbc.tables"),
+          columnPlan.getHeaderAttributes("jdbc.", Collections.emptySet())
+              .stream()
+              .map(attribute -> attribute[0])
+              .collect(Collectors.toList())
+      );
+    }
+  }
+
   @Test
   public void testGetMinValues() throws Exception {
     HikariPoolConfigBean config = createConfigBean();
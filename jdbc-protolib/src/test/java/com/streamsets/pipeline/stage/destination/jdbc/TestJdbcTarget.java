@@ -26,6 +26,7 @@ import com.streamsets.pipeline.api.Target;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.lib.jdbc.*;
 import com.streamsets.pipeline.lib.operation.ChangeLogFormat;
+import com.streamsets.pipeline.lib.operation.OperationType;
 import com.streamsets.pipeline.lib.operation.UnsupportedOperationAction;
 import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.sdk.TargetRunner;
@@ -49,6 +50,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -358,6 +360,73 @@ public class TestJdbcTarget {
     assertEquals(1, targetRunner.getErrorRecords().size());
   }
 
+  private Record createOperationRecord(int opCode, int id, String firstName, String lastName) {
+    Record record = RecordCreator.create();
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+    fields.put("P_ID", Field.create(id));
+    if (firstName != null) {
+      fields.put("FIRST_NAME", Field.create(firstName));
+    }
+    if (lastName != null) {
+      fields.put("LAST_NAME", Field.create(lastName));
+    }
+    record.set(Field.createListMap(fields));
+    record.getHeader().setAttribute(OperationType.SDC_OPERATION_TYPE, String.valueOf(opCode));
+    return record;
+  }
+
+  @Test
+  public void testGroupOperations() throws Exception {
+    Target target = new JdbcTarget(
+        schema,
+        tableName,
+        Collections.emptyList(),
+        caseSensitive,
+        false,
+        false,
+        JdbcMultiRowRecordWriter.UNLIMITED_PARAMETERS,
+        ChangeLogFormat.NONE,
+        JDBCOperationType.INSERT,
+        UnsupportedOperationAction.DISCARD,
+        createConfigBean(h2ConnectionString, username, password),
+        Collections.emptyList(),
+        true,
+        false
+    );
+    TargetRunner targetRunner = new TargetRunner.Builder(JdbcDTarget.class, target)
+        .setOnRecordError(OnRecordError.TO_ERROR)
+        .build();
+
+    List<Record> records = ImmutableList.of(
+        createOperationRecord(OperationType.INSERT_CODE, 1, "Adam", "Kunicki"),
+        createOperationRecord(OperationType.INSERT_CODE, 2, "Jon", "Natkins"),
+        createOperationRecord(OperationType.UPDATE_CODE, 1, null, "Smith"),
+        createOperationRecord(OperationType.DELETE_CODE, 2, null, null),
+        createOperationRecord(OperationType.INSERT_CODE, 2, "Jon", "Daulton"),
+        createOperationRecord(OperationType.INSERT_CODE, 3, "Jarcec", "Cecho"),
+        createOperationRecord(OperationType.UPDATE_CODE, 1, "Eve", null),
+        createOperationRecord(OperationType.UPDATE_CODE, 3, null, "Cecho2"),
+        createOperationRecord(OperationType.DELETE_CODE, 3, null, null)
+    );
+    targetRunner.runInit();
+    targetRunner.runWrite(records);
+    assertEquals(0, targetRunner.getErrorRecords().size());
+    targetRunner.runDestroy();
+
+    try (Statement statement = connection.createStatement()) {
+      ResultSet rs = statement.executeQuery("SELECT P_ID, FIRST_NAME, LAST_NAME FROM TEST.TEST_TABLE ORDER BY P_ID");
+      assertTrue(rs.next());
+      assertEquals(1, rs.getInt(1));
+      assertEquals("Eve", rs.getString(2));
+      assertEquals("Smith", rs.getString(3));
+      assertTrue(rs.next());
+      assertEquals(2, rs.getInt(1));
+      assertEquals("Jon", rs.getString(2));
+      assertEquals("Daulton", rs.getString(3));
+      assertFalse(rs.next());
+    }
+  }
+
   @Test
   public void testRollback() throws Exception {
     List<JdbcFieldColumnParamMapping> fieldMappings = ImmutableList.of(
@@ -24,6 +24,7 @@ import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.lib.jdbc.DataType;
 import com.streamsets.pipeline.lib.jdbc.HikariPoolConfigBean;
+import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcFieldColumnMapping;
 import com.streamsets.pipeline.sdk.ProcessorRunner;
 import com.streamsets.pipeline.sdk.RecordCreator;
@@ -764,4 +765,173 @@ public class TestJdbcLookup {
       processorRunner.runDestroy();
     }
   }
+
+  private Record createRecordWithId(int id) {
+    Record record = RecordCreator.create();
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+    fields.put("p_id", Field.create(id));
+    record.set(Field.create(fields));
+    return record;
+  }
+
+  private ProcessorRunner createBatchLookupRunner(String query, int maxKeysPerQuery) {
+    List<JdbcFieldColumnMapping> columnMappings = ImmutableList.of(
+        new JdbcFieldColumnMapping("P_ID", "/p_id"),
+        new JdbcFieldColumnMapping("FIRST_NAME", "/first_name")
+    );
+
+    JdbcLookupDProcessor processor = createProcessor();
+    processor.batchLookupConfig.enabled = true;
+    processor.batchLookupConfig.keyColumn = "P_ID";
+    processor.batchLookupConfig.keyExpression = "${record:value('/p_id')}";
+    processor.batchLookupConfig.maxKeysPerQuery = maxKeysPerQuery;
+
+    return new ProcessorRunner.Builder(JdbcLookupDProcessor.class, processor)
+        .addConfiguration("query", query)
+        .addConfiguration("columnMappings", columnMappings)
+        .addConfiguration("multipleValuesBehavior", MultipleValuesBehavior.FIRST_ONLY)
+        .addConfiguration("missingValuesBehavior", MissingValuesBehavior.PASS_RECORD_ON)
+        .addConfiguration("maxClobSize", 1000)
+        .addConfiguration("maxBlobSize", 1000)
+        .addOutputLane("lane")
+        .build();
+  }
+
+  @Test
+  public void testBatchLookup() throws Exception {
+    ProcessorRunner processorRunner = createBatchLookupRunner("SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE", 2);
+
+    List<Record> records = ImmutableList.of(
+        createRecordWithId(1),
+        createRecordWithId(2),
+        createRecordWithId(3),
+        createRecordWithId(99),
+        createRecordWithId(2),
+        createRecordWithId(4),
+        createRecordWithId(5)
+    );
+    processorRunner.runInit();
+    try {
+      List<Record> outputRecords = processorRunner.runProcess(records).getRecords().get("lane");
+      Assert.assertEquals(7, outputRecords.size());
+      Assert.assertEquals("Adam", outputRecords.get(0).get("/first_name").getValueAsString());
+      Assert.assertEquals("Jon", outputRecords.get(1).get("/first_name").getValueAsString());
+      Assert.assertEquals("Jon", outputRecords.get(2).get("/first_name").getValueAsString());
+      Assert.assertNull(outputRecords.get(3).get("/first_name"));
+      Assert.assertEquals("Jon", outputRecords.get(4).get("/first_name").getValueAsString());
+      Assert.assertEquals("Girish", outputRecords.get(5).get("/first_name").getValueAsString());
+      Assert.assertEquals("Girish", outputRecords.get(6).get("/first_name").getValueAsString());
+    } finally {
+      processorRunner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testBatchLookupQueryWithCondition() throws Exception {
+    ProcessorRunner processorRunner = createBatchLookupRunner(
+        "SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE WHERE LAST_NAME = 'Pancha' OR FIRST_NAME = 'Adam';",
+        1000
+    );
+
+    List<Record> records = ImmutableList.of(createRecordWithId(1), createRecordWithId(2), createRecordWithId(4));
+    processorRunner.runInit();
+    try {
+      List<Record> outputRecords = processorRunner.runProcess(records).getRecords().get("lane");
+      Assert.assertEquals(3, outputRecords.size());
+      Assert.assertEquals("Adam", outputRecords.get(0).get("/first_name").getValueAsString());
+      Assert.assertNull(outputRecords.get(1).get("/first_name"));
+      Assert.assertEquals("Girish", outputRecords.get(2).get("/first_name").getValueAsString());
+    } finally {
+      processorRunner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testBatchLookupQueryWithExpression() throws Exception {
+    ProcessorRunner processorRunner = createBatchLookupRunner(mapQuery, 1000);
+
+    List<Stage.ConfigIssue> issues = processorRunner.runValidateConfigs();
+    assertEquals(1, issues.size());
+    Assert.assertTrue(issues.get(0).toString().contains(JdbcErrors.JDBC_412.name()));
+  }
+
+  @Test
+  public void testBatchLookupQueryWithOrderBy() throws Exception {
+    ProcessorRunner processorRunner = createBatchLookupRunner(
+        "SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE ORDER BY FIRST_NAME",
+        1000
+    );
+
+    List<Record> records = ImmutableList.of(createRecordWithId(3), createRecordWithId(1));
+    processorRunner.runInit();
+    try {
+      List<Record> outputRecords = processorRunner.runProcess(records).getRecords().get("lane");
+      Assert.assertEquals(2, outputRecords.size());
+      Assert.assertEquals("Jon", outputRecords.get(0).get("/first_name").getValueAsString());
+      Assert.assertEquals("Adam", outputRecords.get(1).get("/first_name").getValueAsString());
+    } finally {
+      processorRunner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testBatchLookupKeyTypeConversion() throws Exception {
+    ProcessorRunner processorRunner = createBatchLookupRunner("SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE", 1000);
+
+    List<Field> keys = ImmutableList.of(
+        Field.create("1"),
+        Field.create(2L),
+        Field.create(new java.math.BigDecimal("4.00"))
+    );
+    List<Record> records = new ArrayList<>();
+    for (Field key : keys) {
+      Record record = RecordCreator.create();
+      LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+      fields.put("p_id", key);
+      record.set(Field.create(fields));
+      records.add(record);
+    }
+    processorRunner.runInit();
+    try {
+      List<Record> outputRecords = processorRunner.runProcess(records).getRecords().get("lane");
+      Assert.assertEquals(3, outputRecords.size());
+      Assert.assertEquals("Adam", outputRecords.get(0).get("/first_name").getValueAsString());
+      Assert.assertEquals("Jon", outputRecords.get(1).get("/first_name").getValueAsString());
+      Assert.assertEquals("Girish", outputRecords.get(2).get("/first_name").getValueAsString());
+    } finally {
+      processorRunner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testBatchLookupMatchValues() {
+    Assert.assertEquals(
+        JdbcBatchLookupLoader.toMatchValue(1, java.sql.Types.BIGINT),
+        JdbcBatchLookupLoader.toMatchValue("1", java.sql.Types.BIGINT)
+    );
+    Assert.assertEquals(
+        JdbcBatchLookupLoader.toMatchValue(new java.math.BigDecimal("1.50"), java.sql.Types.DECIMAL),
+        JdbcBatchLookupLoader.toMatchValue(1.5d, java.sql.Types.DECIMAL)
+    );
+    Assert.assertEquals(
+        JdbcBatchLookupLoader.toMatchValue(new java.math.BigDecimal("0.00"), java.sql.Types.NUMERIC),
+        JdbcBatchLookupLoader.toMatchValue(0, java.sql.Types.NUMERIC)
+    );
+    Assert.assertEquals(
+        JdbcBatchLookupLoader.toMatchValue(new Date(1000), java.sql.Types.TIMESTAMP),
+        JdbcBatchLookupLoader.toMatchValue(new java.sql.Timestamp(1000), java.sql.Types.TIMESTAMP)
+    );
+    Assert.assertEquals(
+        JdbcBatchLookupLoader.toMatchValue(new byte[] {1, 2}, java.sql.Types.VARBINARY),
+        JdbcBatchLookupLoader.toMatchValue(new byte[] {1, 2}, java.sql.Types.VARBINARY)
+    );
+    Assert.assertEquals(
+        JdbcBatchLookupLoader.toMatchValue("abc", java.sql.Types.CHAR),
+        JdbcBatchLookupLoader.toMatchValue("abc  ", java.sql.Types.CHAR)
+    );
+    Assert.assertNotEquals(
+        JdbcBatchLookupLoader.toMatchValue("x", java.sql.Types.INTEGER),
+        JdbcBatchLookupLoader.toMatchValue(0, java.sql.Types.INTEGER)
+    );
+  }
 }
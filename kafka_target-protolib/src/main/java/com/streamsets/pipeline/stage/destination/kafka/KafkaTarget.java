@@ -24,8 +24,10 @@ import com.streamsets.pipeline.api.lineage.EndPointType;
 import com.streamsets.pipeline.api.lineage.LineageEvent;
 import com.streamsets.pipeline.api.lineage.LineageEventType;
 import com.streamsets.pipeline.api.lineage.LineageSpecificAttribute;
+import com.streamsets.pipeline.kafka.api.PendingWrite;
 import com.streamsets.pipeline.kafka.api.SdcKafkaProducer;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.DataGeneratorBuffer;
 import com.streamsets.pipeline.lib.kafka.KafkaErrors;
 import com.streamsets.pipeline.lib.kafka.exception.KafkaConnectionException;
 import com.streamsets.pipeline.stage.common.DefaultErrorRecordHandler;
@@ -35,9 +37,10 @@ import com.streamsets.pipeline.stage.destination.lib.ToOriginResponseConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -56,6 +59,7 @@ public class KafkaTarget extends BaseTarget {
   private SdcKafkaProducer kafkaProducer;
   private ErrorRecordHandler errorRecordHandler;
   private Set<String> accessedTopic;
+  private DataGeneratorBuffer generatorBuffer;
 
   public KafkaTarget(KafkaTargetConfig conf, ToOriginResponseConfig responseConf) {
     this.conf = conf;
@@ -99,6 +103,7 @@ public class KafkaTarget extends BaseTarget {
 
   private void writeOneMessagePerBatch(Batch batch, List<Record> responseRecords) throws StageException {
     int count = 0;
+    Deque<InFlightMessage> inFlight = new ArrayDeque<>();
     //Map of topic->(partition->Records)
     Map<String, Map<Object, List<Record>>> perTopic = new HashMap<>();
     Iterator<Record> records = batch.getRecords();
@@ -150,19 +155,19 @@ public class KafkaTarget extends BaseTarget {
           for (Map.Entry<Object, List<Record>> entry : perPartition.entrySet()) {
             Object partition = entry.getKey();
             List<Record> list = entry.getValue();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream(1024 * list.size());
+            while (inFlight.size() >= conf.maxInFlightMessages) {
+              awaitInFlightMessage(inFlight.poll(), batch, responseRecords);
+            }
             Record currentRecord = null;
             try {
-              DataGenerator generator = conf.dataGeneratorFormatConfig.getDataGeneratorFactory()
-                .getGenerator(baos);
+              DataGenerator generator = getGeneratorBuffer().getGenerator();
               for (Record record : list) {
                 currentRecord = record;
                 generator.write(record);
                 count++;
               }
               currentRecord = null;
-              generator.close();
-              byte[] bytes = baos.toByteArray();
+              byte[] bytes = getGeneratorBuffer().toByteArray();
               kafkaProducer.enqueueMessage(entryTopic, bytes, partition);
             } catch (StageException ex) {
               errorRecordHandler.onError(
@@ -190,26 +195,14 @@ public class KafkaTarget extends BaseTarget {
               );
             }
             try {
-              responseRecords.addAll(kafkaProducer.write(getContext()));
-            } catch (StageException ex) {
-              if (ex.getErrorCode().getCode().equals(KafkaErrors.KAFKA_69.name())) {
-                List<Exception> failedRecordException = (List<Exception>) ex.getParams()[1];
-                Exception error = failedRecordException.get(0);
-                errorRecordHandler.onError(
-                    list,
-                    new StageException(
-                        KafkaErrors.KAFKA_60,
-                        "<NONE>",
-                        batch.getSourceEntity(),
-                        batch.getSourceOffset(),
-                        partition,
-                        error.toString(),
-                        error
-                    )
-                );
+              if (conf.pipelinedWrites) {
+                // wait for the acknowledgements of this message later, while the next ones are generated and sent
+                inFlight.add(new InFlightMessage(kafkaProducer.writeAsync(getContext()), list, partition));
               } else {
-                throw ex;
+                responseRecords.addAll(kafkaProducer.write(getContext()));
               }
+            } catch (StageException ex) {
+              handleMessageWriteError(ex, batch, list, partition);
             }
             recordCounter += count;
             LOG.debug("Wrote {} records in this batch.", count);
@@ -217,6 +210,48 @@ public class KafkaTarget extends BaseTarget {
         }
       }
     }
+    while (!inFlight.isEmpty()) {
+      awaitInFlightMessage(inFlight.poll(), batch, responseRecords);
+    }
+  }
+
+  private void awaitInFlightMessage(
+      InFlightMessage message,
+      Batch batch,
+      List<Record> responseRecords
+  ) throws StageException {
+    try {
+      responseRecords.addAll(message.pendingWrite.await());
+    } catch (StageException ex) {
+      handleMessageWriteError(ex, batch, message.records, message.partition);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void handleMessageWriteError(
+      StageException ex,
+      Batch batch,
+      List<Record> records,
+      Object partition
+  ) throws StageException {
+    if (ex.getErrorCode().getCode().equals(KafkaErrors.KAFKA_69.name())) {
+      List<Exception> failedRecordException = (List<Exception>) ex.getParams()[1];
+      Exception error = failedRecordException.get(0);
+      errorRecordHandler.onError(
+          records,
+          new StageException(
+              KafkaErrors.KAFKA_60,
+              "<NONE>",
+              batch.getSourceEntity(),
+              batch.getSourceOffset(),
+              partition,
+              error.toString(),
+              error
+          )
+      );
+    } else {
+      throw ex;
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -286,16 +321,23 @@ public class KafkaTarget extends BaseTarget {
   }
 
   private Object serializeRecord(Record record) throws StageException, IOException {
-    ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
-    DataGenerator generator = conf.dataGeneratorFormatConfig.getDataGeneratorFactory().getGenerator(baos);
-    generator.write(record);
-    generator.close();
-    return baos.toByteArray();
+    return getGeneratorBuffer().serialize(record);
+  }
+
+  private DataGeneratorBuffer getGeneratorBuffer() {
+    if (generatorBuffer == null) {
+      // the buffer and, for formats that support it, the generator are reused for all the messages
+      generatorBuffer = new DataGeneratorBuffer(conf.dataGeneratorFormatConfig.getDataGeneratorFactory(), 1024);
+    }
+    return generatorBuffer;
   }
 
   @Override
   public void destroy() {
     LOG.info("Wrote {} number of records to Kafka Broker", recordCounter);
+    if (generatorBuffer != null) {
+      generatorBuffer.close();
+    }
     conf.destroy();
   }
 
@@ -313,4 +355,19 @@ public class KafkaTarget extends BaseTarget {
       accessedTopic.add(topic);
     }
   }
+
+  /**
+   * Message of a partition sent to Kafka whose acknowledgements have not been checked yet.
+   */
+  private static class InFlightMessage {
+    private final PendingWrite pendingWrite;
+    private final List<Record> records;
+    private final Object partition;
+
+    InFlightMessage(PendingWrite pendingWrite, List<Record> records, Object partition) {
+      this.pendingWrite = pendingWrite;
+      this.records = records;
+      this.partition = partition;
+    }
+  }
 }
@@ -188,6 +188,34 @@ public class KafkaTargetConfig {
   )
   public boolean singleMessagePerBatch;
 
+  @ConfigDef(
+    required = false,
+    type = ConfigDef.Type.BOOLEAN,
+    defaultValue = "false",
+    label = "Pipelined Writes",
+    description = "Sends the messages of all the partitions in the batch before waiting for their acknowledgements. " +
+        "All the acknowledgements are still received before the next batch is processed.",
+    displayPosition = 53,
+    group = "#0",
+    dependsOn = "singleMessagePerBatch",
+    triggeredByValue = "true"
+  )
+  public boolean pipelinedWrites;
+
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.NUMBER,
+    defaultValue = "100",
+    label = "Max In-Flight Messages",
+    description = "Maximum number of messages waiting for their acknowledgements",
+    displayPosition = 56,
+    group = "#0",
+    dependsOn = "pipelinedWrites",
+    triggeredByValue = "true",
+    min = 1
+  )
+  public int maxInFlightMessages = 100;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.MODEL,
@@ -53,6 +53,12 @@ public class KafkaTargetUpgrader implements StageUpgrader {
         // fall-through to next version
       case 3:
         upgradeV3ToV4(configs);
+        if (toVersion == 4) {
+          break;
+        }
+        // fall-through to next version
+      case 4:
+        upgradeV4ToV5(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -140,4 +146,9 @@ public class KafkaTargetUpgrader implements StageUpgrader {
     configs.add(new Config("responseConf.sendResponseToOrigin", false));
     configs.add(new Config("responseConf.responseType", ResponseType.SUCCESS_RECORDS));
   }
+
+  private void upgradeV4ToV5(List<Config> configs) {
+    configs.add(new Config(joiner.join("conf", "pipelinedWrites"), false));
+    configs.add(new Config(joiner.join("conf", "maxInFlightMessages"), 100));
+  }
 }
@@ -26,7 +26,7 @@ import com.streamsets.pipeline.config.DataFormat;
 import com.streamsets.pipeline.stage.destination.lib.ToOriginResponseConfig;
 
 @StageDef(
-    version = 4,
+    version = 5,
     label = "Write to Kafka",
     description = "Writes records to Kafka as SDC Records",
     onlineHelpRefUrl ="index.html?contextID=concept_kgc_l4y_5r",
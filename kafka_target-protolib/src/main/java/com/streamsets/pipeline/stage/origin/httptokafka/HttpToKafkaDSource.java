@@ -74,6 +74,8 @@ import com.streamsets.pipeline.stage.destination.kafka.KafkaTargetConfig;
         "conf.partitionStrategy",
         "conf.partition",
         "conf.singleMessagePerBatch",
+        "conf.pipelinedWrites",
+        "conf.maxInFlightMessages",
         "conf.topicExpression",
         "conf.topicWhiteList",
         "configs.tlsConfigBean.trustStoreFilePath",
@@ -73,6 +73,8 @@ import com.streamsets.pipeline.stage.destination.kafka.KafkaTargetConfig;
       "kafkaTargetConfig.partitionStrategy",
       "kafkaTargetConfig.partition",
       "kafkaTargetConfig.singleMessagePerBatch",
+      "kafkaTargetConfig.pipelinedWrites",
+      "kafkaTargetConfig.maxInFlightMessages",
       "kafkaTargetConfig.topicExpression",
       "kafkaTargetConfig.topicWhiteList"
   }
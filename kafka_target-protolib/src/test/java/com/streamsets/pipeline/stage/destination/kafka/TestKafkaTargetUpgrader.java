@@ -183,4 +183,18 @@ public class TestKafkaTargetUpgrader {
     assertEquals("responseConf.sendResponseToOrigin", configs.get(0).getName());
     assertEquals("responseConf.responseType", configs.get(1).getName());
   }
+
+  @Test
+  public void testUpgradeV4toV5() throws Exception {
+    List<Config> configs = new ArrayList<>();
+
+    KafkaTargetUpgrader kafkaTargetUpgrader = new KafkaTargetUpgrader();
+    kafkaTargetUpgrader.upgrade("a", "b", "c", 4, 5, configs);
+
+    assertEquals(2, configs.size());
+    assertEquals("conf.pipelinedWrites", configs.get(0).getName());
+    assertEquals(false, configs.get(0).getValue());
+    assertEquals("conf.maxInFlightMessages", configs.get(1).getName());
+    assertEquals(100, configs.get(1).getValue());
+  }
 }
@@ -155,6 +155,33 @@ public class KuduLookupConfig {
   )
   public int adminOperationTimeout = 30000;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1000",
+      label = "Maximum Keys per Scan",
+      description = "Maximum number of keys looked up by a single scan. Keys of a single column are looked up in " +
+          "batches with an IN list predicate, keys of several columns are looked up one by one.",
+      displayPosition = 40,
+      group = "ADVANCED",
+      min = 1,
+      max = Integer.MAX_VALUE
+  )
+  public int maxKeysPerScan = 1000;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "8",
+      label = "Maximum Concurrent Scans",
+      description = "Maximum number of scans in progress at the same time while looking up the keys of a batch.",
+      displayPosition = 45,
+      group = "ADVANCED",
+      min = 1,
+      max = 1024
+  )
+  public int maxConcurrentScans = 8;
+
 
   @ConfigDef(
       required = true,
@@ -17,9 +17,11 @@ package com.streamsets.pipeline.stage.processor.kudulookup;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
@@ -28,6 +30,7 @@ import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.stage.common.MissingValuesBehavior;
 import com.streamsets.pipeline.stage.lib.kudu.Errors;
 import com.streamsets.pipeline.stage.lib.kudu.KuduUtils;
+import com.stumbleupon.async.Deferred;
 import org.apache.kudu.ColumnSchema;
 import org.apache.kudu.Schema;
 import org.apache.kudu.Type;
@@ -41,15 +44,24 @@ import org.apache.kudu.client.RowResultIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 public class KuduLookupLoader extends CacheLoader<KuduLookupKey, List<Map<String, Field>>> {
   private static final Logger LOG = LoggerFactory.getLogger(KuduLookupLoader.class);
+  @VisibleForTesting
+  static final boolean IN_LIST_PREDICATE_SUPPORTED = isInListPredicateSupported();
 
   private final AsyncKuduClient kuduClient;
   private final Meter selectMeter;
@@ -59,6 +71,8 @@ public class KuduLookupLoader extends CacheLoader<KuduLookupKey, List<Map<String
   private final Map<String, String> columnToField;
   // For output columns
   private final List<String> projectColumns = new ArrayList<>();
+  // Output columns and key columns, to match the rows with the keys
+  private final List<String> scanColumns;
   private final Map<String, String> outputColumnToField = new HashMap<>();
   private final Map<String, String> outputDefault = new HashMap<>();
 
@@ -86,6 +100,9 @@ public class KuduLookupLoader extends CacheLoader<KuduLookupKey, List<Map<String
       outputColumnToField.put(columnName, columnConfig.field);
       outputDefault.put(columnName, columnConfig.defaultValue);
     }
+    Set<String> columns = new LinkedHashSet<>(projectColumns);
+    columns.addAll(keyColumns);
+    scanColumns = new ArrayList<>(columns);
     // Build table cache.
     CacheBuilder cacheBuilder;
     if (conf.enableTableCache) {
@@ -104,160 +121,350 @@ public class KuduLookupLoader extends CacheLoader<KuduLookupKey, List<Map<String
 
   @Override
   public List<Map<String, Field>> load(KuduLookupKey key) throws Exception {
-    List<Map<String, Field>> lookupItems = new ArrayList<>();
-    AsyncKuduScanner scanner = null;
+    return loadAll(Collections.singleton(key)).get(key);
+  }
+
+  /**
+   * Looks up all the keys at once. Keys of a single column are looked up in chunks with IN list predicates, keys of
+   * several columns are looked up with a scan per key. Scans are run concurrently, up to the configured limit.
+   */
+  @Override
+  public Map<KuduLookupKey, List<Map<String, Field>>> loadAll(Iterable<? extends KuduLookupKey> keys) throws Exception {
+    Map<String, List<KuduLookupKey>> keysByTable = new LinkedHashMap<>();
+    for (KuduLookupKey key : keys) {
+      keysByTable.computeIfAbsent(key.tableName, tableName -> new ArrayList<>()).add(key);
+    }
+
+    Map<KuduLookupKey, List<Map<String, Field>>> values = new HashMap<>();
     Timer.Context t = selectTimer.time();
+    try {
+      for (Map.Entry<String, List<KuduLookupKey>> entry : keysByTable.entrySet()) {
+        loadTable(entry.getKey(), entry.getValue(), values);
+      }
+    } catch (KuduException e) {
+      // Exception executing query
+      LOG.error(Errors.KUDU_03.getMessage(), e.toString(), e);
+      throw new StageException(Errors.KUDU_03, e.toString(), e);
+    } finally {
+      t.stop();
+    }
+    return values;
+  }
 
-    KuduTable kuduTable = null;
+  private void loadTable(
+      String tableName,
+      List<KuduLookupKey> keys,
+      Map<KuduLookupKey, List<Map<String, Field>>> values
+  ) throws Exception {
+    KuduTable kuduTable;
     try {
-      kuduTable = tableCache.get(key.tableName);
+      kuduTable = tableCache.get(tableName);
     } catch (ExecutionException ex) {
       throw new OnRecordErrorException(Errors.KUDU_03, ex.getMessage(), ex);
     }
+    Schema schema = kuduTable.getSchema();
 
-    // Scanner is not reusable. Need to build per record.
-    AsyncKuduScanner.AsyncKuduScannerBuilder scannerBuilder = kuduClient.newScannerBuilder(kuduTable)
-        .setProjectedColumnNames(projectColumns);
-    try {
-      Schema schema = kuduTable.getSchema();
-      // Set key columns to scanner if specified in Key Column Mapping.
-      // We removed the restriction that requires primary keys here.
-      for (String keyColumn : keyColumns) {
-        addPredicate(key.columns.get(keyColumn), scannerBuilder, kuduTable, keyColumn);
-      }
+    // Set key columns to scanner if specified in Key Column Mapping.
+    // We removed the restriction that requires primary keys here.
+    List<ColumnSchema> keySchemas = new ArrayList<>(keyColumns.size());
+    for (String keyColumn : keyColumns) {
       try {
-        scanner = scannerBuilder.build();
+        keySchemas.add(schema.getColumn(keyColumn));
       } catch (IllegalArgumentException ex) {
-        // Thrown here if mapping config has columns that don't exist in the table. Worth stopping pipeline
-        throw new StageException(Errors.KUDU_02, ex);
+        // Thrown if keyColumn doesn't exist in Kudu. Worth stopping pipeline
+        throw new StageException(Errors.KUDU_03, Utils.format("Key column '{}' doesn't exist in Kudu table ", keyColumn), ex);
+      }
+    }
+
+    // Keys with the same values in the Kudu column types, e.g. the string "1" and the integer 1, share the rows
+    Map<List<Object>, List<KuduLookupKey>> keysByValues = new LinkedHashMap<>();
+    for (KuduLookupKey key : keys) {
+      List<Object> keyValues = new ArrayList<>(keySchemas.size());
+      for (int i = 0; i < keySchemas.size(); i++) {
+        keyValues.add(toKuduValue(key.columns.get(keyColumns.get(i)), keyColumns.get(i), keySchemas.get(i)));
+      }
+      keysByValues.computeIfAbsent(keyValues, v -> new ArrayList<>()).add(key);
+    }
+
+    List<List<KuduPredicate>> scans = new ArrayList<>();
+    List<List<Object>> keyValuesList = new ArrayList<>(keysByValues.keySet());
+    if (keySchemas.size() == 1 && IN_LIST_PREDICATE_SUPPORTED) {
+      for (List<List<Object>> chunk : Lists.partition(keyValuesList, conf.maxKeysPerScan)) {
+        List<Object> inList = new ArrayList<>(chunk.size());
+        for (List<Object> keyValues : chunk) {
+          inList.add(keyValues.get(0));
+        }
+        scans.add(Collections.singletonList(KuduPredicate.newInListPredicate(keySchemas.get(0), inList)));
+      }
+    } else {
+      for (List<Object> keyValues : keyValuesList) {
+        List<KuduPredicate> predicates = new ArrayList<>(keySchemas.size());
+        for (int i = 0; i < keySchemas.size(); i++) {
+          predicates.add(newEqualPredicate(keySchemas.get(i), keyValues.get(i)));
+        }
+        scans.add(predicates);
+      }
+    }
+
+    Map<List<Object>, List<Map<String, Field>>> rowsByKeyValues = scan(kuduTable, keySchemas, scans);
+
+    for (Map.Entry<List<Object>, List<KuduLookupKey>> entry : keysByValues.entrySet()) {
+      List<Map<String, Field>> lookupItems = rowsByKeyValues.get(toMatchValues(entry.getKey()));
+      if (lookupItems == null) {
+        lookupItems = new ArrayList<>();
+        // No data found. Apply default if 'pass to next stage' is set and default value is configured
+        if (conf.missingLookupBehavior == MissingValuesBehavior.PASS_RECORD_ON) {
+          Map<String, Field> addDefaults = new HashMap<>();
+          for (Map.Entry<String, String> output: outputColumnToField.entrySet()) {
+            ColumnSchema columnSchema = schema.getColumn(output.getKey());
+            if (!outputDefault.get(output.getKey()).isEmpty()) {
+              addDefaults.put(output.getValue(), Field.create(
+                  KuduUtils.convertFromKuduType(columnSchema.getType()),
+                  outputDefault.get(output.getKey())
+                  )
+              );
+            }
+          }
+          lookupItems.add(addDefaults);
+        }
       }
+      for (KuduLookupKey key : entry.getValue()) {
+        values.put(key, lookupItems);
+      }
+    }
+  }
 
-      while (scanner.hasMoreRows()) {
-        RowResultIterator results = scanner.nextRows().join();
-        while (results.hasNext()) {
-          RowResult result = results.next();
-          if (LOG.isDebugEnabled()) {
-            LOG.debug("Found row: {}", result.toStringLongFormat());
+  /**
+   * Runs the scans, keeping at most <code>maxConcurrentScans</code> of them fetching rows at the same time, and
+   * returns the rows by the values of their key columns.
+   */
+  private Map<List<Object>, List<Map<String, Field>>> scan(
+      KuduTable kuduTable,
+      List<ColumnSchema> keySchemas,
+      List<List<KuduPredicate>> scans
+  ) throws Exception {
+    Map<List<Object>, List<Map<String, Field>>> rowsByKeyValues = new HashMap<>();
+    Schema schema = kuduTable.getSchema();
+    Deque<List<KuduPredicate>> pending = new ArrayDeque<>(scans);
+    Deque<Scan> inProgress = new ArrayDeque<>();
+    try {
+      while (!pending.isEmpty() || !inProgress.isEmpty()) {
+        while (inProgress.size() < conf.maxConcurrentScans && !pending.isEmpty()) {
+          // Scanner is not reusable. Need to build per scan.
+          AsyncKuduScanner.AsyncKuduScannerBuilder scannerBuilder = kuduClient.newScannerBuilder(kuduTable)
+              .setProjectedColumnNames(scanColumns);
+          for (KuduPredicate predicate : pending.poll()) {
+            scannerBuilder.addPredicate(predicate);
+          }
+          AsyncKuduScanner scanner;
+          try {
+            scanner = scannerBuilder.build();
+          } catch (IllegalArgumentException ex) {
+            // Thrown here if mapping config has columns that don't exist in the table. Worth stopping pipeline
+            throw new StageException(Errors.KUDU_02, ex);
           }
-          LinkedHashMap<String, Field> fields = new LinkedHashMap<>(outputColumnToField.size());
-          for (Map.Entry<String, String> column : outputColumnToField.entrySet()) {
-            Field field = null;
-            Type type = null;
-            String columnName = column.getKey();
-            if (result.isNull(columnName)){
-              // No record in necessary column. Apply default value or send to error
-              if (conf.ignoreMissing) {
-                // Apply default value only when default value is configured
-                if (!outputDefault.get(columnName).isEmpty()) {
-                  ColumnSchema columnSchema = schema.getColumn(columnName);
-                  field = Field.create(
-                      KuduUtils.convertFromKuduType(columnSchema.getType()),
-                      outputDefault.get(columnName)
-                  );
-                }
-              } else {
-                // Can't ignore missing value thus send to error
-                throw new OnRecordErrorException(Errors.KUDU_35, columnName);
-              }
-            } else {
-              type = result.getColumnType(column.getKey());
-              field = KuduUtils.createField(result, columnName, type);
+          inProgress.add(new Scan(scanner));
+          selectMeter.mark();
+        }
+
+        Scan scan = inProgress.poll();
+        try {
+          RowResultIterator results = scan.rows.join();
+          while (results != null && results.hasNext()) {
+            RowResult result = results.next();
+            if (LOG.isDebugEnabled()) {
+              LOG.debug("Found row: {}", result.toStringLongFormat());
             }
-            if (field != null) {
-              fields.put(column.getValue(), field);
+            List<Object> keyValues = new ArrayList<>(keySchemas.size());
+            for (ColumnSchema keySchema : keySchemas) {
+              keyValues.add(getKuduValue(result, keySchema));
             }
+            rowsByKeyValues.computeIfAbsent(toMatchValues(keyValues), v -> new ArrayList<>())
+                .add(toFields(result, schema));
           }
-          lookupItems.add(fields);
+        } catch (Exception ex) {
+          // the scan is no longer in progress, it would not be closed with the others
+          scan.scanner.close();
+          throw ex;
         }
+        if (scan.scanner.hasMoreRows()) {
+          scan.rows = scan.scanner.nextRows();
+          inProgress.add(scan);
+        } else {
+          scan.scanner.close();
+        }
+      }
+    } finally {
+      for (Scan scan : inProgress) {
+        scan.scanner.close();
       }
-      // No data found. Apply default if 'pass to next stage' is set and default value is configured
-      if (lookupItems.isEmpty() && conf.missingLookupBehavior == MissingValuesBehavior.PASS_RECORD_ON) {
-        Map<String, Field> addDefaults = new HashMap<>();
-        for (Map.Entry<String, String> output: outputColumnToField.entrySet()) {
-          ColumnSchema columnSchema = schema.getColumn(output.getKey());
-          if (!outputDefault.get(output.getKey()).isEmpty()) {
-            addDefaults.put(output.getValue(), Field.create(
+    }
+    return rowsByKeyValues;
+  }
+
+  private LinkedHashMap<String, Field> toFields(RowResult result, Schema schema) throws StageException {
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>(outputColumnToField.size());
+    for (Map.Entry<String, String> column : outputColumnToField.entrySet()) {
+      Field field = null;
+      Type type = null;
+      String columnName = column.getKey();
+      if (result.isNull(columnName)){
+        // No record in necessary column. Apply default value or send to error
+        if (conf.ignoreMissing) {
+          // Apply default value only when default value is configured
+          if (!outputDefault.get(columnName).isEmpty()) {
+            ColumnSchema columnSchema = schema.getColumn(columnName);
+            field = Field.create(
                 KuduUtils.convertFromKuduType(columnSchema.getType()),
-                outputDefault.get(output.getKey())
-                )
+                outputDefault.get(columnName)
             );
           }
+        } else {
+          // Can't ignore missing value thus send to error
+          throw new OnRecordErrorException(Errors.KUDU_35, columnName);
         }
-        lookupItems.add(addDefaults);
-      }
-    } catch (KuduException e) {
-      // Exception executing query
-      LOG.error(Errors.KUDU_03.getMessage(), e.toString(), e);
-      throw new StageException(Errors.KUDU_03, e.toString(), e);
-    } finally {
-      if (scanner != null) {
-        scanner.close();
+      } else {
+        type = result.getColumnType(column.getKey());
+        field = KuduUtils.createField(result, columnName, type);
       }
-      // If the timer wasn't stopped due to exception yet, stop it now
-      if(t != null) {
-        t.stop();
+      if (field != null) {
+        fields.put(column.getValue(), field);
       }
-      selectMeter.mark();
     }
-    return lookupItems;
+    return fields;
   }
 
-  private void addPredicate(Field field, AsyncKuduScanner.AsyncKuduScannerBuilder scannerBuilder, KuduTable kuduTable, String keyColumn)
-      throws StageException
-  {
-    ColumnSchema schema;
-    if (field == null) {
+  /**
+   * Converts the key field to the Java type of the key column, as required by the Kudu predicates.
+   */
+  private Object toKuduValue(Field field, String keyColumn, ColumnSchema schema) throws StageException {
+    if (field == null || field.getValue() == null) {
       throw new OnRecordErrorException(Errors.KUDU_32, keyColumn);
     }
-
-    try {
-      schema = kuduTable.getSchema().getColumn(keyColumn);
-    } catch (IllegalArgumentException ex) {
-      // Thrown if keyColumn doesn't exist in Kudu. Worth stopping pipeline
-      throw new StageException(Errors.KUDU_03, Utils.format("Key column '{}' doesn't exist in Kudu table ", keyColumn), ex);
-    }
-    Type type = schema.getType();
-    KuduPredicate predicate;
     String fieldName = columnToField.get(keyColumn);
-
+    Type type = schema.getType();
     try {
       switch (type) {
         case STRING:
           if (field.getValueAsString().isEmpty()) {
             throw new OnRecordErrorException(Errors.KUDU_32, fieldName);
           }
-          predicate = KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, field.getValueAsString());
-          break;
+          return field.getValueAsString();
         case INT8:
+          return (byte) checkRange(field.getValueAsLong(), Byte.MIN_VALUE, Byte.MAX_VALUE);
         case INT16:
+          return (short) checkRange(field.getValueAsLong(), Short.MIN_VALUE, Short.MAX_VALUE);
         case INT32:
+          return (int) checkRange(field.getValueAsLong(), Integer.MIN_VALUE, Integer.MAX_VALUE);
         case INT64:
-          // API takes long type for all int
-          predicate = KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, field.getValueAsLong());
-          break;
+          return field.getValueAsLong();
         case BOOL:
-          predicate = KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, field.getValueAsBoolean());
-          break;
+          return field.getValueAsBoolean();
         case BINARY:
-          predicate = KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, field.getValueAsByteArray());
-          break;
+          return field.getValueAsByteArray();
         case UNIXTIME_MICROS:
-          predicate = KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, field.getValueAsDatetime().getTime() * 1000L);
-          break;
+          return field.getValueAsDatetime().getTime() * 1000L;
         default:
           if ("DECIMAL".equals(type.name())) {
-            predicate = KuduPredicate.newComparisonPredicate(
-                schema,
-                KuduPredicate.ComparisonOp.EQUAL,
-                field.getValueAsDecimal()
-            );
-            break;
+            return field.getValueAsDecimal();
           }
           throw new StageException(Errors.KUDU_33, type.getName());
       }
     } catch (IllegalArgumentException ex){
       throw new OnRecordErrorException(Errors.KUDU_09, fieldName, field.toString(), ex);
     }
-    scannerBuilder.addPredicate(predicate);
+  }
+
+  private static long checkRange(long value, long min, long max) {
+    if (value < min || value > max) {
+      throw new IllegalArgumentException(Utils.format("Value '{}' out of range", value));
+    }
+    return value;
+  }
+
+  private static Object getKuduValue(RowResult result, ColumnSchema schema) {
+    String columnName = schema.getName();
+    switch (schema.getType()) {
+      case STRING:
+        return result.getString(columnName);
+      case INT8:
+        return result.getByte(columnName);
+      case INT16:
+        return result.getShort(columnName);
+      case INT32:
+        return result.getInt(columnName);
+      case INT64:
+      case UNIXTIME_MICROS:
+        return result.getLong(columnName);
+      case BOOL:
+        return result.getBoolean(columnName);
+      case BINARY:
+        return result.getBinaryCopy(columnName);
+      default:
+        // DECIMAL, other types can't be key columns
+        return result.getDecimal(columnName);
+    }
+  }
+
+  private static KuduPredicate newEqualPredicate(ColumnSchema schema, Object value) {
+    switch (schema.getType()) {
+      case STRING:
+        return KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, (String) value);
+      case INT8:
+      case INT16:
+      case INT32:
+      case INT64:
+      case UNIXTIME_MICROS:
+        // API takes long type for all int
+        return KuduPredicate.newComparisonPredicate(
+            schema,
+            KuduPredicate.ComparisonOp.EQUAL,
+            ((Number) value).longValue()
+        );
+      case BOOL:
+        return KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, (boolean) value);
+      case BINARY:
+        return KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, (byte[]) value);
+      default:
+        return KuduPredicate.newComparisonPredicate(schema, KuduPredicate.ComparisonOp.EQUAL, (BigDecimal) value);
+    }
+  }
+
+  /**
+   * Returns the key values in a form that can be compared with equals: arrays are wrapped and decimals are compared
+   * regardless of their scale.
+   */
+  @VisibleForTesting
+  static List<Object> toMatchValues(List<Object> keyValues) {
+    List<Object> matchValues = new ArrayList<>(keyValues.size());
+    for (Object value : keyValues) {
+      if (value instanceof byte[]) {
+        value = ByteBuffer.wrap((byte[]) value);
+      } else if (value instanceof BigDecimal) {
+        value = ((BigDecimal) value).stripTrailingZeros();
+      }
+      matchValues.add(value);
+    }
+    return matchValues;
+  }
+
+  private static boolean isInListPredicateSupported() {
+    try {
+      KuduPredicate.class.getMethod("newInListPredicate", ColumnSchema.class, List.class);
+      return true;
+    } catch (NoSuchMethodException ex) {
+      // Kudu client older than 1.3
+      return false;
+    }
+  }
+
+  private static class Scan {
+    final AsyncKuduScanner scanner;
+    Deferred<RowResultIterator> rows;
+
+    Scan(AsyncKuduScanner scanner) {
+      this.scanner = scanner;
+      this.rows = scanner.nextRows();
+    }
   }
 }
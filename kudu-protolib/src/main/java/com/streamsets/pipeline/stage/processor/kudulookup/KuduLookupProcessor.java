@@ -25,6 +25,7 @@ import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.api.base.SingleLaneProcessor;
 import com.streamsets.pipeline.api.base.SingleLaneRecordProcessor;
 import com.streamsets.pipeline.api.el.ELEval;
+import com.streamsets.pipeline.api.el.ELEvalException;
 import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.lib.cache.CacheCleaner;
 import com.streamsets.pipeline.lib.el.ELUtils;
@@ -45,8 +46,12 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.HashMap;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 public class KuduLookupProcessor extends SingleLaneRecordProcessor {
@@ -73,6 +78,7 @@ public class KuduLookupProcessor extends SingleLaneRecordProcessor {
 
   private LoadingCache<KuduLookupKey, List<Map<String, Field>>> cache;
   private CacheCleaner cacheCleaner;
+  private Map<KuduLookupKey, List<Map<String, Field>>> batchValues = Collections.emptyMap();
 
   public KuduLookupProcessor(KuduLookupConfig conf) {
     this.conf = conf;
@@ -224,23 +230,65 @@ public class KuduLookupProcessor extends SingleLaneRecordProcessor {
       // No records - take the opportunity to clean up the cache so that we don't hold on to memory indefinitely
       cacheCleaner.periodicCleanUp();
     }
-    super.process(batch, batchMaker);
+    //Look up the keys of the whole batch at once
+    batchValues = lookupBatch(batch);
+    try {
+      super.process(batch, batchMaker);
+    } finally {
+      batchValues = Collections.emptyMap();
+    }
   }
 
-  /** {@inheritDoc} */
-  @Override
-  protected void process(Record record, SingleLaneProcessor.SingleLaneBatchMaker batchMaker) throws StageException {
+  private Map<KuduLookupKey, List<Map<String, Field>>> lookupBatch(Batch batch) throws StageException {
+    Set<KuduLookupKey> keys = new LinkedHashSet<>();
+    Iterator<Record> it = batch.getRecords();
+    while (it.hasNext()) {
+      Record record = it.next();
+      try {
+        keys.add(generateLookupKey(record, getTableName(record)));
+      } catch (ELEvalException | OnRecordErrorException e) {
+        // the record is sent to error when it is processed
+        LOG.debug("Can't look up record '{}' in batch: {}", record.getHeader().getSourceId(), e.toString());
+      }
+    }
+    if (keys.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    try {
+      return cache.getAll(keys);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof OnRecordErrorException) {
+        // the keys are looked up again, and their records sent to error, when the records are processed
+        LOG.warn("Batch lookup failed, looking up records one by one: {}", e.getCause().toString());
+        return Collections.emptyMap();
+      }
+      Throwables.propagateIfPossible(e.getCause(), StageException.class);
+      throw new IllegalStateException(e); // The cache loader shouldn't throw anything that isn't a StageException.
+    }
+  }
+
+  private String getTableName(Record record) throws ELEvalException {
     RecordEL.setRecordInContext(tableNameVars, record);
     String tableName = tableNameEval.eval(tableNameVars, conf.kuduTableTemplate, String.class);
     if (!conf.caseSensitive) {
       tableName = tableName.toLowerCase();
     }
+    return tableName;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void process(Record record, SingleLaneProcessor.SingleLaneBatchMaker batchMaker) throws StageException {
+    String tableName = getTableName(record);
     LOG.trace("Processing record:{}  TableName={}", record.toString(), tableName);
 
     try {
       try {
         KuduLookupKey key = generateLookupKey(record, tableName);
-        List<Map<String, Field>> values = cache.get(key);
+        List<Map<String, Field>> values = batchValues.get(key);
+        if (values == null) {
+          values = cache.get(key);
+        }
         if (values.isEmpty()) {
           // No record found
           if (conf.missingLookupBehavior == MissingValuesBehavior.SEND_TO_ERROR) {
@@ -37,6 +37,12 @@ public class KuduProcessorUpgrader implements StageUpgrader {
         // fall through
       case 2:
         upgradeV2ToV3(configs);
+        if (toVersion == 3) {
+          break;
+        }
+        // fall through
+      case 3:
+        upgradeV3ToV4(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -52,4 +58,9 @@ public class KuduProcessorUpgrader implements StageUpgrader {
     configs.add(new Config("conf.adminOperationTimeout", 30000));
     configs.add(new Config("conf.numWorkers", 0)); // use default
   }
+
+  private static void upgradeV3ToV4(List<Config> configs) {
+    configs.add(new Config("conf.maxKeysPerScan", 1000));
+    configs.add(new Config("conf.maxConcurrentScans", 8));
+  }
 }
@@ -15,43 +15,66 @@
  */
 package com.streamsets.pipeline.stage.processor.kudulookup;
 
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import com.streamsets.pipeline.sdk.ProcessorRunner;
 import com.streamsets.pipeline.stage.lib.kudu.KuduFieldMappingConfig;
 import com.streamsets.testing.Matchers;
 import org.apache.kudu.ColumnSchema;
 import org.apache.kudu.Schema;
 import org.apache.kudu.Type;
+import com.stumbleupon.async.Deferred;
 import org.apache.kudu.client.AsyncKuduClient;
+import org.apache.kudu.client.AsyncKuduScanner;
 import org.apache.kudu.client.AsyncKuduSession;
+import org.apache.kudu.client.KuduPredicate;
 import org.apache.kudu.client.KuduTable;
 import org.apache.kudu.client.Operation;
 import org.apache.kudu.client.KuduException;
+import org.apache.kudu.client.RowResult;
+import org.apache.kudu.client.RowResultIterator;
 
 import org.jetbrains.annotations.NotNull;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.Assert;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertThat;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({
-    KuduLookupProcessor.class,
-    AsyncKuduClient.class,
-    KuduTable.class,
-    AsyncKuduSession.class,
-    })
+@PrepareForTest(
+    value = {
+        KuduLookupProcessor.class,
+        AsyncKuduClient.class,
+        KuduTable.class,
+        AsyncKuduSession.class,
+        AsyncKuduScanner.class,
+        AsyncKuduScanner.AsyncKuduScannerBuilder.class,
+        RowResult.class,
+        RowResultIterator.class,
+    },
+    fullyQualifiedNames = "org.apache.kudu.client.AbstractKuduScannerBuilder"
+)
 @PowerMockIgnore({ "javax.net.ssl.*" })
 public class TestKuduLookup {
 
@@ -105,6 +128,210 @@ public class TestKuduLookup {
     }
   }
 
+  @Test
+  public void testLookupInListChunks() throws Exception {
+    Assume.assumeTrue(KuduLookupLoader.IN_LIST_PREDICATE_SUPPORTED);
+    MockScans scans = new MockScans(Collections.<RowResult>emptyList());
+    KuduLookupLoader loader = createLoader(mockClient(Type.INT32, scans), 3, 2);
+
+    List<KuduLookupKey> keys = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      keys.add(createKey(Field.create(i)));
+    }
+    Map<KuduLookupKey, List<Map<String, Field>>> values = loader.loadAll(keys);
+
+    // one IN list predicate per chunk of 3 keys
+    Assert.assertEquals(Arrays.asList(1, 1, 1), scans.predicates);
+    Assert.assertEquals(7, values.size());
+    for (KuduLookupKey key : keys) {
+      Assert.assertTrue(values.get(key).isEmpty());
+    }
+    Assert.assertEquals(0, scans.open);
+  }
+
+  @Test
+  public void testLookupConcurrentScansLimit() throws Exception {
+    MockScans scans = new MockScans(Collections.<RowResult>emptyList());
+    KuduLookupLoader loader = createLoader(mockClient(Type.INT32, scans), 1, 2);
+
+    List<KuduLookupKey> keys = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      keys.add(createKey(Field.create(i)));
+    }
+    Assert.assertEquals(5, loader.loadAll(keys).size());
+
+    Assert.assertEquals(5, scans.predicates.size());
+    Assert.assertEquals(2, scans.maxOpen);
+    Assert.assertEquals(0, scans.open);
+  }
+
+  @Test
+  public void testLookupStringKeyIntColumn() throws Exception {
+    RowResult row = mockRow("v1");
+    PowerMockito.when(row.getInt("key")).thenReturn(42);
+    MockScans scans = new MockScans(Collections.singletonList(row));
+    KuduLookupLoader loader = createLoader(mockClient(Type.INT32, scans), 1000, 8);
+
+    KuduLookupKey stringKey = createKey(Field.create("42"));
+    KuduLookupKey intKey = createKey(Field.create(42));
+    Map<KuduLookupKey, List<Map<String, Field>>> values = loader.loadAll(Arrays.asList(stringKey, intKey));
+
+    // both keys have the same value in the column type, a single scan looks them up
+    Assert.assertEquals(1, scans.predicates.size());
+    Assert.assertEquals(1, values.get(stringKey).size());
+    Assert.assertEquals("v1", values.get(stringKey).get(0).get("/field").getValueAsString());
+    Assert.assertEquals(values.get(stringKey), values.get(intKey));
+  }
+
+  @Test
+  public void testLookupBinaryKey() throws Exception {
+    RowResult row = mockRow("v1");
+    PowerMockito.when(row.getBinaryCopy("key")).thenReturn(new byte[] {1, 2, 3});
+    MockScans scans = new MockScans(Collections.singletonList(row));
+    KuduLookupLoader loader = createLoader(mockClient(Type.BINARY, scans), 1000, 8);
+
+    KuduLookupKey key = createKey(Field.create(new byte[] {1, 2, 3}));
+    List<Map<String, Field>> value = loader.load(key);
+
+    Assert.assertEquals(1, value.size());
+    Assert.assertEquals("v1", value.get(0).get("/field").getValueAsString());
+  }
+
+  @Test
+  public void testMatchValues() throws Exception {
+    Assert.assertEquals(
+        KuduLookupLoader.toMatchValues(Collections.<Object>singletonList(new BigDecimal("1.50"))),
+        KuduLookupLoader.toMatchValues(Collections.<Object>singletonList(new BigDecimal("1.5")))
+    );
+    Assert.assertEquals(
+        KuduLookupLoader.toMatchValues(Arrays.<Object>asList(new byte[] {1, 2}, "a")),
+        KuduLookupLoader.toMatchValues(Arrays.<Object>asList(new byte[] {1, 2}, "a"))
+    );
+    Assert.assertNotEquals(
+        KuduLookupLoader.toMatchValues(Collections.<Object>singletonList(new BigDecimal("1.5"))),
+        KuduLookupLoader.toMatchValues(Collections.<Object>singletonList(new BigDecimal("1.51")))
+    );
+  }
+
+  @Test
+  public void testScansClosedOnFailure() throws Exception {
+    MockScans scans = new MockScans(null);
+    KuduLookupLoader loader = createLoader(mockClient(Type.INT32, scans), 1, 2);
+
+    List<KuduLookupKey> keys = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      keys.add(createKey(Field.create(i)));
+    }
+    try {
+      loader.loadAll(keys);
+      Assert.fail("The failed scan should fail the lookup");
+    } catch (Exception ex) {
+      Assert.assertEquals("scan failed", ex.getMessage());
+    }
+    Assert.assertEquals(2, scans.predicates.size());
+    Assert.assertEquals(0, scans.open);
+  }
+
+  /**
+   * Scanners returning the given rows, or failing if there are no rows, that keep track of the predicates of every
+   * scan and of the scanners open at once.
+   */
+  private static class MockScans {
+    final List<RowResult> rows;
+    final List<Integer> predicates = new ArrayList<>();
+    int currentPredicates;
+    int open;
+    int maxOpen;
+
+    MockScans(List<RowResult> rows) {
+      this.rows = rows;
+    }
+
+    AsyncKuduScanner newScanner() throws Exception {
+      predicates.add(currentPredicates);
+      currentPredicates = 0;
+      open++;
+      maxOpen = Math.max(maxOpen, open);
+      AsyncKuduScanner scanner = PowerMockito.mock(AsyncKuduScanner.class);
+      if (rows == null) {
+        PowerMockito.when(scanner.nextRows()).thenReturn(Deferred.<RowResultIterator>fromError(
+            new Exception("scan failed")
+        ));
+      } else {
+        PowerMockito.when(scanner.nextRows()).thenReturn(Deferred.fromResult(mockIterator(rows)));
+      }
+      PowerMockito.when(scanner.hasMoreRows()).thenReturn(false);
+      PowerMockito.when(scanner.close()).thenAnswer(invocation -> {
+        open--;
+        return Deferred.fromResult(null);
+      });
+      return scanner;
+    }
+  }
+
+  private AsyncKuduClient mockClient(Type keyType, MockScans scans) throws Exception {
+    List<ColumnSchema> columns = new ArrayList<>();
+    columns.add(new ColumnSchema.ColumnSchemaBuilder("key", keyType).key(true).build());
+    columns.add(new ColumnSchema.ColumnSchemaBuilder("value", Type.STRING).build());
+    Schema schema = new Schema(columns);
+    KuduTable table = PowerMockito.mock(KuduTable.class);
+    PowerMockito.doReturn(schema).when(table).getSchema();
+
+    AsyncKuduScanner.AsyncKuduScannerBuilder builder =
+        PowerMockito.mock(AsyncKuduScanner.AsyncKuduScannerBuilder.class);
+    PowerMockito.when(builder.setProjectedColumnNames(Mockito.anyListOf(String.class))).thenReturn(builder);
+    PowerMockito.when(builder.addPredicate(Mockito.any(KuduPredicate.class))).thenAnswer(invocation -> {
+      scans.currentPredicates++;
+      return builder;
+    });
+    PowerMockito.when(builder.build()).thenAnswer(invocation -> scans.newScanner());
+
+    AsyncKuduClient client = PowerMockito.mock(AsyncKuduClient.class);
+    PowerMockito.when(client.openTable(tableName)).thenReturn(Deferred.fromResult(table));
+    PowerMockito.when(client.newScannerBuilder(table)).thenReturn(builder);
+    return client;
+  }
+
+  private static RowResult mockRow(String value) {
+    RowResult row = PowerMockito.mock(RowResult.class);
+    PowerMockito.when(row.isNull(Mockito.anyString())).thenReturn(false);
+    PowerMockito.when(row.getColumnType("value")).thenReturn(Type.STRING);
+    PowerMockito.when(row.getString("value")).thenReturn(value);
+    return row;
+  }
+
+  private static RowResultIterator mockIterator(List<RowResult> rows) {
+    Iterator<RowResult> iterator = rows.iterator();
+    RowResultIterator results = PowerMockito.mock(RowResultIterator.class);
+    PowerMockito.when(results.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+    PowerMockito.when(results.next()).thenAnswer(invocation -> iterator.next());
+    return results;
+  }
+
+  private KuduLookupLoader createLoader(AsyncKuduClient client, int maxKeysPerScan, int maxConcurrentScans) {
+    KuduLookupConfig conf = new KuduLookupConfig();
+    conf.kuduTableTemplate = tableName;
+    conf.caseSensitive = true;
+    conf.cacheSize = 10;
+    conf.maxKeysPerScan = maxKeysPerScan;
+    conf.maxConcurrentScans = maxConcurrentScans;
+    conf.outputColumnMapping = new ArrayList<>();
+    conf.outputColumnMapping.add(new KuduOutputColumnMapping("value", "/field", ""));
+    return new KuduLookupLoader(
+        ContextInfoCreator.createProcessorContext("n", false, OnRecordError.TO_ERROR),
+        client,
+        Collections.singletonList("key"),
+        ImmutableMap.of("key", "/key"),
+        conf
+    );
+  }
+
+  private KuduLookupKey createKey(Field value) {
+    Map<String, Field> columns = new HashMap<>();
+    columns.put("key", value);
+    return new KuduLookupKey(tableName, columns);
+  }
+
   private ProcessorRunner getProcessorRunner(String tableName) {
     KuduLookupProcessor processor = getKuduLookupConfig(tableName);
     return getProcessorRunner(processor);
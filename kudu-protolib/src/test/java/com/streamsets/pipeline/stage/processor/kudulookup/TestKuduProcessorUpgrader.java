@@ -50,4 +50,18 @@ public class TestKuduProcessorUpgrader {
     Assert.assertEquals("conf.numWorkers", addedConf2.getName());
     Assert.assertEquals(0, addedConf2.getValue());
   }
+
+  @Test
+  public void testUpgradeV3toV4() throws StageException {
+    List<Config> configs = new ArrayList<>();
+    KuduProcessorUpgrader upgrader = new KuduProcessorUpgrader();
+    List<Config> upgradedConfigs = upgrader.upgrade("lib", "stage", "stageInst", 3, 4, configs);
+    Assert.assertEquals(2, upgradedConfigs.size());
+    Config addedConf1 = upgradedConfigs.get(0);
+    Assert.assertEquals("conf.maxKeysPerScan", addedConf1.getName());
+    Assert.assertEquals(1000, addedConf1.getValue());
+    Config addedConf2 = upgradedConfigs.get(1);
+    Assert.assertEquals("conf.maxConcurrentScans", addedConf2.getName());
+    Assert.assertEquals(8, addedConf2.getValue());
+  }
 }
@@ -58,6 +58,8 @@ public class MapRStreamsDTarget extends DTarget {
     kafkaConfigBean.partitionStrategy = maprStreamsTargetConfigBean.mapRStreamsTargetConfig.partitionStrategy;
     kafkaConfigBean.runtimeTopicResolution = maprStreamsTargetConfigBean.mapRStreamsTargetConfig.runtimeTopicResolution;
     kafkaConfigBean.singleMessagePerBatch = maprStreamsTargetConfigBean.mapRStreamsTargetConfig.singleMessagePerBatch;
+    // MapR Streams does not expose pipelined writes, each message is acknowledged before the next one is sent
+    kafkaConfigBean.pipelinedWrites = false;
     kafkaConfigBean.topic = maprStreamsTargetConfigBean.mapRStreamsTargetConfig.topic;
     kafkaConfigBean.topicExpression = maprStreamsTargetConfigBean.mapRStreamsTargetConfig.topicExpression;
     kafkaConfigBean.topicWhiteList = maprStreamsTargetConfigBean.mapRStreamsTargetConfig.topicWhiteList;
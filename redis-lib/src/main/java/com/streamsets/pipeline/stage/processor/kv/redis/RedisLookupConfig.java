@@ -60,6 +60,37 @@ public class RedisLookupConfig {
   @ValueChooserModel(LookupModeChooserValues.class)
   public LookupMode mode;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Keys per Pipeline",
+      description = "Maximum number of keys fetched in a single round trip. String values are fetched with MGET, " +
+          "other data types with pipelined commands.",
+      defaultValue = "1000",
+      min = 1,
+      max = Integer.MAX_VALUE,
+      displayPosition = 12,
+      group = "#0",
+      dependsOn = "mode",
+      triggeredByValue = "BATCH"
+  )
+  public int keysPerPipeline = 1000;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Lookup Connections",
+      description = "Number of connections used to fetch the pipelines of a batch in parallel.",
+      defaultValue = "1",
+      min = 1,
+      max = 64,
+      displayPosition = 14,
+      group = "#0",
+      dependsOn = "mode",
+      triggeredByValue = "BATCH"
+  )
+  public int numConnections = 1;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.MODEL,
@@ -24,10 +24,11 @@ import com.streamsets.pipeline.api.StageDef;
 import com.streamsets.pipeline.api.base.configurablestage.DProcessor;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "Redis Lookup Processor",
     description = "Performs key-value lookups in Redis.",
     icon = "redis.png",
+    upgrader = RedisLookupProcessorUpgrader.class,
     onlineHelpRefUrl ="index.html?contextID=task_gpv_npr_pv"
 )
 @ConfigGroups(Groups.class)
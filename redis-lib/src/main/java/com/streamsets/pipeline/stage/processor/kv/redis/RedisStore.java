@@ -15,33 +15,51 @@
  */
 package com.streamsets.pipeline.stage.processor.kv.redis;
 
+import com.google.common.base.Throwables;
 import com.google.common.cache.CacheLoader;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.lib.redis.DataType;
 import org.apache.commons.lang3.tuple.Pair;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class RedisStore extends CacheLoader<Pair<String, DataType>, LookupValue> {
   private final RedisLookupConfig conf;
   private final JedisPool pool;
+  private final ExecutorService executor;
 
   public RedisStore(RedisLookupConfig conf) {
     this.conf = conf;
 
     final JedisPoolConfig poolConfig = new JedisPoolConfig();
     poolConfig.setBlockWhenExhausted(true);
+    poolConfig.setMaxTotal(Math.max(poolConfig.getMaxTotal(), conf.numConnections));
 
     pool = new JedisPool(poolConfig, URI.create(conf.uri), conf.connectionTimeout * 1000); // connectionTimeout value is in seconds
+
+    if (conf.numConnections > 1) {
+      executor = Executors.newFixedThreadPool(
+          conf.numConnections,
+          new ThreadFactoryBuilder().setNameFormat("redis-lookup-%d").setDaemon(true).build()
+      );
+    } else {
+      executor = null;
+    }
   }
 
   @Override
@@ -49,17 +67,36 @@ public class RedisStore extends CacheLoader<Pair<String, DataType>, LookupValue>
     return get(key);
   }
 
+  /**
+   * Fetches the keys in pipelines of at most <code>keysPerPipeline</code> keys, in parallel if there are several
+   * lookup connections.
+   */
   @Override
   public Map<Pair<String, DataType>, LookupValue> loadAll(Iterable<? extends Pair<String, DataType>> keys) throws Exception {
-    ArrayList<Pair<String, DataType>> keyList = Lists.newArrayList(keys);
-    List<LookupValue> values = get(keyList);
-
-    Iterator<? extends Pair<String, DataType>> keyIterator = keyList.iterator();
-    Iterator<LookupValue> valueIterator = values.iterator();
-
-    Map<Pair<String, DataType>, LookupValue> result = new HashMap<>(keyList.size());
-    while (keyIterator.hasNext() && valueIterator.hasNext()) {
-      result.put(keyIterator.next(), valueIterator.next());
+    List<List<Pair<String, DataType>>> chunks = Lists.partition(Lists.newArrayList(keys), conf.keysPerPipeline);
+
+    Map<Pair<String, DataType>, LookupValue> result = new HashMap<>();
+    if (executor == null || chunks.size() == 1) {
+      for (List<Pair<String, DataType>> chunk : chunks) {
+        result.putAll(fetch(chunk));
+      }
+    } else {
+      List<Future<Map<Pair<String, DataType>, LookupValue>>> futures = new ArrayList<>(chunks.size());
+      for (List<Pair<String, DataType>> chunk : chunks) {
+        futures.add(executor.submit(() -> fetch(chunk)));
+      }
+      try {
+        for (Future<Map<Pair<String, DataType>, LookupValue>> future : futures) {
+          result.putAll(future.get());
+        }
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), Exception.class);
+        throw e;
+      } finally {
+        for (Future<Map<Pair<String, DataType>, LookupValue>> future : futures) {
+          future.cancel(true);
+        }
+      }
     }
     return result;
   }
@@ -76,7 +113,7 @@ public class RedisStore extends CacheLoader<Pair<String, DataType>, LookupValue>
         values = new LookupValue(jedis.get(key), type);
         break;
       case LIST:
-        values = new LookupValue(jedis.lrange(key, 0, jedis.llen(key)), type);
+        values = new LookupValue(jedis.lrange(key, 0, -1), type);
         break;
       case HASH:
         values = new LookupValue(jedis.hgetAll(key), type);
@@ -93,13 +130,67 @@ public class RedisStore extends CacheLoader<Pair<String, DataType>, LookupValue>
   }
 
   public List<LookupValue> get(List<Pair<String, DataType>> keys) {
-    List<LookupValue> result = new ArrayList<>();
+    Map<Pair<String, DataType>, LookupValue> values = fetch(keys);
+    List<LookupValue> result = new ArrayList<>(keys.size());
     for(Pair<String, DataType> key : keys) {
-      result.add(get(key));
+      result.add(values.get(key));
     }
     return result;
   }
 
+  /**
+   * Fetches the keys in a single round trip: string values with a MGET, values of other types with pipelined
+   * commands.
+   */
+  private Map<Pair<String, DataType>, LookupValue> fetch(List<Pair<String, DataType>> keys) {
+    List<Pair<String, DataType>> stringKeys = new ArrayList<>();
+    Map<Pair<String, DataType>, Response<?>> responses = new HashMap<>();
+
+    try (Jedis jedis = pool.getResource()) {
+      Pipeline pipeline = jedis.pipelined();
+      for (Pair<String, DataType> pair : keys) {
+        String key = pair.getLeft();
+        switch (pair.getRight()) {
+          case STRING:
+            stringKeys.add(pair);
+            break;
+          case LIST:
+            responses.put(pair, pipeline.lrange(key, 0, -1));
+            break;
+          case HASH:
+            responses.put(pair, pipeline.hgetAll(key));
+            break;
+          case SET:
+            responses.put(pair, pipeline.smembers(key));
+            break;
+          default:
+            throw new IllegalStateException(Errors.REDIS_LOOKUP_04.getMessage());
+        }
+      }
+      Response<List<String>> strings = null;
+      if (!stringKeys.isEmpty()) {
+        String[] mgetKeys = new String[stringKeys.size()];
+        for (int i = 0; i < mgetKeys.length; i++) {
+          mgetKeys[i] = stringKeys.get(i).getLeft();
+        }
+        strings = pipeline.mget(mgetKeys);
+      }
+      pipeline.sync();
+
+      Map<Pair<String, DataType>, LookupValue> result = new HashMap<>(keys.size());
+      if (strings != null) {
+        List<String> values = strings.get();
+        for (int i = 0; i < stringKeys.size(); i++) {
+          result.put(stringKeys.get(i), new LookupValue(values.get(i), DataType.STRING));
+        }
+      }
+      for (Map.Entry<Pair<String, DataType>, Response<?>> entry : responses.entrySet()) {
+        result.put(entry.getKey(), new LookupValue(entry.getValue().get(), entry.getKey().getRight()));
+      }
+      return result;
+    }
+  }
+
   public void put(String key, String value) {
     // Persist any new keys to Redis.
     Jedis jedis = pool.getResource();
@@ -139,6 +230,9 @@ public class RedisStore extends CacheLoader<Pair<String, DataType>, LookupValue>
   }
 
   public void close() throws Exception {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
     pool.close();
   }
 
@@ -257,6 +257,56 @@ public class RedisLookupIT {
     assertArrayEquals(expected.toArray(), values.toArray());
   }
 
+  @Test
+  public void testGetMultipleKeysInPipelines() throws Exception {
+    // several pipelines of 2 keys, with keys of every data type, fetched on several connections
+    List<Pair<String, DataType>> keys = ImmutableList.of(
+        Pair.of("key1", DataType.STRING),
+        Pair.of("lkey1", DataType.LIST),
+        Pair.of("hkey1", DataType.HASH),
+        Pair.of("skey1", DataType.SET),
+        Pair.of("key2", DataType.STRING),
+        Pair.of("lkey2", DataType.LIST),
+        Pair.of("skey2", DataType.SET),
+        Pair.of("key4", DataType.STRING),
+        Pair.of("lkey3", DataType.LIST),
+        Pair.of("key3", DataType.STRING),
+        Pair.of("skey3", DataType.SET)
+    );
+
+    List<LookupValue> expected = ImmutableList.of(
+        new LookupValue("value1", DataType.STRING),
+        new LookupValue(ImmutableList.of("lvalue1_3", "lvalue1_2", "lvalue1_1"), DataType.LIST),
+        new LookupValue(ImmutableMap.of("hfield1", "hvalue1", "hfield3", "hvalue3", "hfield2", "hvalue2"), DataType.HASH),
+        new LookupValue(ImmutableSet.of("svalue1_3", "svalue1_2", "svalue1_1"), DataType.SET),
+        new LookupValue("value2", DataType.STRING),
+        new LookupValue(ImmutableList.of("lvalue2_3", "lvalue2_2", "lvalue2_1"), DataType.LIST),
+        new LookupValue(ImmutableSet.of("svalue2_3", "svalue2_2", "svalue2_1"), DataType.SET),
+        new LookupValue(null, DataType.STRING),
+        new LookupValue(ImmutableList.of("lvalue3_3", "lvalue3_2", "lvalue3_1"), DataType.LIST),
+        new LookupValue("value3", DataType.STRING),
+        new LookupValue(ImmutableSet.of("svalue3_3", "svalue3_2", "svalue3_1"), DataType.SET)
+    );
+    RedisLookupConfig conf = new RedisLookupConfig();
+    conf.cache.enabled = false;
+    conf.uri = "redis://" + redis.getContainerIpAddress() + ":" + redis.getMappedPort(REDIS_PORT);
+    conf.mode = LookupMode.BATCH;
+    conf.keysPerPipeline = 2;
+    conf.numConnections = 3;
+
+    RedisStore redisStore = new RedisStore(conf);
+    try {
+      // twice, to reuse the connections of the pool
+      for (int i = 0; i < 2; i++) {
+        List<LookupValue> values = redisStore.get(keys);
+        assertEquals(keys.size(), values.size());
+        assertArrayEquals(expected.toArray(), values.toArray());
+      }
+    } finally {
+      redisStore.close();
+    }
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void testPutSingleKey() throws Exception{
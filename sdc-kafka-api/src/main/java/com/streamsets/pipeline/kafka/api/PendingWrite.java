@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.kafka.api;
+
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+
+import java.util.List;
+
+/**
+ * Messages handed to the Kafka producer with {@link SdcKafkaProducer#writeAsync(com.streamsets.pipeline.api.Stage.Context)}
+ * whose acknowledgements have not been checked yet.
+ */
+public interface PendingWrite {
+
+  /**
+   * Waits for the acknowledgements of the messages, it reports errors the same way
+   * {@link SdcKafkaProducer#write(com.streamsets.pipeline.api.Stage.Context)} does.
+   *
+   * @return the response records, if the producer was created to send write responses.
+   */
+  public List<Record> await() throws StageException;
+
+}
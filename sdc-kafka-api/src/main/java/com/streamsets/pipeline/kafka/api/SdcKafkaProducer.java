@@ -31,6 +31,15 @@ public interface SdcKafkaProducer {
 
   public List<Record> write(Stage.Context context) throws StageException;
 
+  /**
+   * Sends the enqueued messages without waiting for their acknowledgements, so that more messages can be enqueued
+   * and sent while these are in flight. Producers that cannot send asynchronously write the messages right away.
+   */
+  public default PendingWrite writeAsync(Stage.Context context) throws StageException {
+    List<Record> responseRecords = write(context);
+    return () -> responseRecords;
+  }
+
   public void clearMessages();
 
   public String getVersion();
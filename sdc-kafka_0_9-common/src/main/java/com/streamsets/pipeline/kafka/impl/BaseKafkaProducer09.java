@@ -20,6 +20,7 @@ import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.kafka.api.PendingWrite;
 import com.streamsets.pipeline.kafka.api.SdcKafkaProducer;
 import com.streamsets.pipeline.lib.kafka.KafkaErrors;
 import org.apache.kafka.clients.producer.KafkaProducer;
@@ -66,14 +67,30 @@ public abstract class BaseKafkaProducer09 implements SdcKafkaProducer {
 
   @Override
   public List<Record> write(Stage.Context context) throws StageException {
-    // force all records in the buffer to be written out
+    // force all records in the buffer to be written out, they are all waited for right away
     producer.flush();
+    return writeAsync(context).await();
+  }
+
+  @Override
+  public PendingWrite writeAsync(Stage.Context context) {
+    // messages are sent as they are enqueued, only their futures are handed over
+    List<Future<RecordMetadata>> futures = new ArrayList<>(futureList);
+    futureList.clear();
+    return () -> awaitFutures(context, futures);
+  }
+
+  private List<Record> awaitFutures(
+      Stage.Context context,
+      List<Future<RecordMetadata>> futures
+  ) throws StageException {
+    // flushing would also block on the messages enqueued after these ones, only wait for these futures
     // make sure each record was written and handle exception if any
     List<Integer> failedRecordIndices = new ArrayList<Integer>();
     List<Exception> failedRecordExceptions = new ArrayList<Exception>();
     List<Record> responseRecords = new ArrayList<>();
-    for (int i = 0; i < futureList.size(); i++) {
-      Future<RecordMetadata> f = futureList.get(i);
+    for (int i = 0; i < futures.size(); i++) {
+      Future<RecordMetadata> f = futures.get(i);
       try {
         RecordMetadata recordMetadata = f.get();
         if (sendWriteResponse ) {
@@ -95,7 +112,6 @@ public abstract class BaseKafkaProducer09 implements SdcKafkaProducer {
         }
       }
     }
-    futureList.clear();
     if (!failedRecordIndices.isEmpty()) {
       throw new StageException(KafkaErrors.KAFKA_69, failedRecordIndices, failedRecordExceptions);
     }
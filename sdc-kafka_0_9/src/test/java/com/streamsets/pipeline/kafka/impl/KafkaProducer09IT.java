@@ -18,6 +18,7 @@ package com.streamsets.pipeline.kafka.impl;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.config.DataFormat;
 import com.streamsets.pipeline.kafka.api.PartitionStrategy;
+import com.streamsets.pipeline.kafka.api.PendingWrite;
 import com.streamsets.pipeline.kafka.api.ProducerFactorySettings;
 import com.streamsets.pipeline.kafka.api.SdcKafkaProducer;
 import com.streamsets.pipeline.kafka.api.SdcKafkaProducerFactory;
@@ -62,7 +63,7 @@ public class KafkaProducer09IT {
   private static EmbeddedZookeeper zookeeper = null;
   private static String zkConnect = null;
   private static KafkaServer kafkaServer = null;
-  private static String[] topics = new String[4];
+  private static String[] topics = new String[5];
   private int topicIndex = 0;
 
   @BeforeClass
@@ -126,6 +127,32 @@ public class KafkaProducer09IT {
     verify(topic, 1, "localhost:" + port, message);
   }
 
+  @Test
+  public void testKafkaProducer09WriteAsync() throws IOException, StageException {
+
+    final String message = "Hello StreamSets";
+
+    HashMap<String, Object> kafkaProducerConfigs = new HashMap<>();
+    kafkaProducerConfigs.put("retries", 0);
+    kafkaProducerConfigs.put("batch.size", 100);
+    kafkaProducerConfigs.put("linger.ms", 0);
+
+    String firstTopic = getNextTopic();
+    String secondTopic = getNextTopic();
+    SdcKafkaProducer sdcKafkaProducer = createSdcKafkaProducer(port, kafkaProducerConfigs);
+    sdcKafkaProducer.init();
+    sdcKafkaProducer.enqueueMessage(firstTopic, message.getBytes(), "0");
+    PendingWrite first = sdcKafkaProducer.writeAsync(null);
+    // the second message is sent while the first one is in flight
+    sdcKafkaProducer.enqueueMessage(secondTopic, message.getBytes(), "0");
+    PendingWrite second = sdcKafkaProducer.writeAsync(null);
+    first.await();
+    second.await();
+
+    verify(firstTopic, 1, "localhost:" + port, message);
+    verify(secondTopic, 1, "localhost:" + port, message);
+  }
+
   @Test
   public void testKafkaProducer09WriteFailsRecordTooLarge() throws IOException, StageException {
 
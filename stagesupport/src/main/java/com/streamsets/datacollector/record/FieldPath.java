@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.lib.util.LruCache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pre-parsed field path.
+ * <p/>
+ * Parsing a field path into {@link PathElement}s is comparatively expensive and the same handful of paths are resolved
+ * for every record going through a pipeline. <code>FieldPath</code> instances are interned in a bounded cache keyed by
+ * the path string so that a given path is parsed only once. The cache keeps the most recently used paths, so paths
+ * derived from the data (list indexes, map keys) seen once do not keep the paths of the configuration out of it.
+ * <p/>
+ * Stages hold the handles of their configured paths and access records through {@link #get(Record)},
+ * {@link #has(Record)}, {@link #set(Record, Field)} and {@link #delete(Record)}. Records implementing
+ * {@link FieldPathRecord} use the parsed elements directly, other records (i.e. records of a different class loader)
+ * are accessed by the path string.
+ */
+public final class FieldPath {
+  static final int MAX_CACHE_SIZE = 10000;
+
+  private static final LruCache<String, FieldPath> PATHS = new LruCache<>(MAX_CACHE_SIZE);
+  private static final LruCache<String, FieldPath> EXPRESSIONS = new LruCache<>(MAX_CACHE_SIZE);
+
+  private final String path;
+  private final List<PathElement> elements;
+
+  private FieldPath(String path, List<PathElement> elements) {
+    this.path = path;
+    this.elements = Collections.unmodifiableList(elements);
+  }
+
+  /**
+   * Returns the parsed form of a (single quote escaped) field path as used by <code>Record</code> methods.
+   *
+   * @throws IllegalArgumentException if the field path is not valid.
+   */
+  public static FieldPath of(String fieldPath) {
+    if (fieldPath == null) {
+      throw new NullPointerException("fieldPath cannot be null");
+    }
+    return PATHS.get(fieldPath, path -> new FieldPath(path, PathElement.parse(path, true)));
+  }
+
+  /**
+   * Returns the parsed form of a field path expression, it may contain field path EL expressions between brackets.
+   *
+   * @throws IllegalArgumentException if the field path expression is not valid.
+   */
+  public static FieldPath ofExpression(String fieldExpression) {
+    if (fieldExpression == null) {
+      throw new NullPointerException("fieldPath cannot be null");
+    }
+    return EXPRESSIONS.get(fieldExpression, path -> new FieldPath(path, PathElement.parse(path, false, true)));
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Returns the path elements, the first one is always {@link PathElement#ROOT}. The returned list is immutable.
+   */
+  public List<PathElement> getElements() {
+    return elements;
+  }
+
+  public Field get(Record record) {
+    if (record instanceof FieldPathRecord) {
+      return ((FieldPathRecord) record).get(this);
+    }
+    return record.get(path);
+  }
+
+  public boolean has(Record record) {
+    if (record instanceof FieldPathRecord) {
+      return ((FieldPathRecord) record).has(this);
+    }
+    return record.has(path);
+  }
+
+  public Field set(Record record, Field newField) {
+    if (record instanceof FieldPathRecord) {
+      return ((FieldPathRecord) record).set(this, newField);
+    }
+    return record.set(path, newField);
+  }
+
+  public Field delete(Record record) {
+    if (record instanceof FieldPathRecord) {
+      return ((FieldPathRecord) record).delete(this);
+    }
+    return record.delete(path);
+  }
+
+  @Override
+  public String toString() {
+    return "FieldPath[" + path + "]";
+  }
+
+}
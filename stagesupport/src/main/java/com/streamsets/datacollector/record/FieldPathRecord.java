@@ -0,0 +1,35 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.streamsets.pipeline.api.Field;
+
+/**
+ * Record that resolves pre-parsed {@link FieldPath}s directly, without looking them up by their path string.
+ * <p/>
+ * The methods behave as their <code>Record</code> counterparts taking the path string.
+ */
+public interface FieldPathRecord {
+
+  Field get(FieldPath fieldPath);
+
+  boolean has(FieldPath fieldPath);
+
+  Field set(FieldPath fieldPath, Field newField);
+
+  Field delete(FieldPath fieldPath);
+
+}
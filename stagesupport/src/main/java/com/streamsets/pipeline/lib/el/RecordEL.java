@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.lib.el;
 
+import com.streamsets.datacollector.record.FieldPath;
 import com.streamsets.pipeline.api.ElConstant;
 import com.streamsets.pipeline.api.ElFunction;
 import com.streamsets.pipeline.api.ElParam;
@@ -51,7 +52,7 @@ public class RecordEL {
     Field.Type type = null;
     Record record = getRecordInContext();
     if (record != null) {
-      Field field = record.get(fieldPath);
+      Field field = FieldPath.of(fieldPath).get(record);
       if (field != null) {
         type = field.getType();
       }
@@ -69,7 +70,7 @@ public class RecordEL {
     Object value = null;
     Record record = getRecordInContext();
     if (record != null) {
-      Field field = record.get(fieldPath);
+      Field field = FieldPath.of(fieldPath).get(record);
       if (field != null) {
         value = field.getValue();
       }
@@ -87,7 +88,7 @@ public class RecordEL {
     Object value = null;
     Record record = getRecordInContext();
     if (record != null) {
-      Field field = record.get(fieldPath);
+      Field field = FieldPath.of(fieldPath).get(record);
       if (field != null && field.getValue() != null) {
         value = field.getValue();
       } else {
@@ -122,7 +123,7 @@ public class RecordEL {
       @ElParam("fieldPath") String fieldPath) {
     Record record = getRecordInContext();
     if (record != null) {
-      return record.has(fieldPath);
+      return FieldPath.of(fieldPath).has(record);
     }
     return false;
   }
@@ -136,7 +137,7 @@ public class RecordEL {
       @ElParam("fieldPath") String fieldPath, @ElParam("attributeName") String attributeName) {
     Record record = getRecordInContext();
     if (record != null) {
-      Field field = record.get(fieldPath);
+      Field field = FieldPath.of(fieldPath).get(record);
       if (field != null) {
         return field.getAttribute(attributeName);
       }
@@ -16,6 +16,7 @@
 
 package com.streamsets.pipeline.lib.util;
 
+import com.streamsets.datacollector.record.FieldPath;
 import com.streamsets.datacollector.record.PathElement;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
@@ -124,8 +125,9 @@ public class FieldPathExpressionUtil {
       ELEval elEval,
       ELVars elVars
   ) throws ELEvalException {
+    // record paths come from the data, only the configured expression is worth caching
     List<PathElement> actualPathElements = PathElement.parse(fieldPath, true);
-    List<PathElement> matcherPathElements = PathElement.parse(fieldExpression, false, true);
+    List<PathElement> matcherPathElements = FieldPath.ofExpression(fieldExpression).getElements();
 
     Iterator<PathElement> currentPathIter = actualPathElements.iterator();
     Iterator<PathElement> matcherPathIter = matcherPathElements.iterator();
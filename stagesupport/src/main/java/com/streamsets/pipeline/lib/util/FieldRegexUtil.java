@@ -44,6 +44,11 @@ public class FieldRegexUtil {
   private static final String MAP_WILD_CARD_REPLACEMENT = "$1[^\\\\/\\\\[]+$2";
 
   private static final String BRACKETED_WILDCARD_ANY_LENGTH = "[" + PathElement.WILDCARD_ANY_LENGTH + "]";
+
+  // compiled patterns are cached as the same field path wildcards are matched for every record
+  private static final int MAX_PATTERN_CACHE_SIZE = 1000;
+  private static final LruCache<String, Pattern> PATTERNS = new LruCache<>(MAX_PATTERN_CACHE_SIZE);
+
   private FieldRegexUtil() {}
 
   public static boolean hasWildCards(String fieldPath) {
@@ -66,9 +71,7 @@ public class FieldRegexUtil {
     //Reference to * in array index must be replaced by \d+
 
 
-    fieldPath = transformFieldPathRegex(fieldPath);
-
-    Pattern pattern = Pattern.compile(fieldPath);
+    Pattern pattern = getPattern(fieldPath);
     List<String> matchingFieldPaths = new ArrayList<>();
     for(String existingFieldPath : fieldPaths) {
       Matcher matcher = pattern.matcher(existingFieldPath);
@@ -79,6 +82,10 @@ public class FieldRegexUtil {
     return matchingFieldPaths;
   }
 
+  private static Pattern getPattern(String fieldPath) {
+    return PATTERNS.get(fieldPath, path -> Pattern.compile(transformFieldPathRegex(path)));
+  }
+
   public static String transformFieldPathRegex(String fieldPath) {
     return fieldPath
         .replace(BRACKETED_WILDCARD_ANY_LENGTH, "[\\d+]")
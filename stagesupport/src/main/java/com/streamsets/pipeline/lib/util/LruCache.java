@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Thread safe cache keeping about the most recently used <code>maxSize</code> entries, without locking on lookups.
+ * <p/>
+ * Entries are kept in two generations of <code>maxSize / 2</code> entries each. Lookups hit the current generation
+ * first, entries found in the previous generation are promoted to the current one. When the current generation is
+ * full it becomes the previous one, dropping the entries that were not used during a whole generation.
+ * <p/>
+ * Values are computed without locking, two threads missing the same key may both compute it.
+ */
+public final class LruCache<K, V> {
+  private final int generationSize;
+  private volatile ConcurrentMap<K, V> current;
+  private volatile ConcurrentMap<K, V> previous;
+
+  public LruCache(final int maxSize) {
+    this.generationSize = Math.max(1, maxSize / 2);
+    this.current = new ConcurrentHashMap<>();
+    this.previous = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the value of the key, computing and caching it if it is not in the cache.
+   */
+  public V get(K key, Function<K, V> loader) {
+    V value = current.get(key);
+    if (value == null) {
+      value = previous.get(key);
+      if (value == null) {
+        value = loader.apply(key);
+      }
+      put(key, value);
+    }
+    return value;
+  }
+
+  private void put(K key, V value) {
+    ConcurrentMap<K, V> generation = current;
+    generation.put(key, value);
+    if (generation.size() > generationSize) {
+      synchronized (this) {
+        if (current == generation) {
+          previous = generation;
+          current = new ConcurrentHashMap<>();
+        }
+      }
+    }
+  }
+}